@@ -16,8 +16,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.druv.scheduler.engine.SchedulerEngine;
+
 @RestController
 @RequestMapping("/api")
 @Component
@@ -27,12 +30,15 @@ public class ApiController {
     private final AuthService authService;
     private final UserDAO userDAO;
     private final TimetableService timetableService;
+    private final SchedulerEngine schedulerEngine;
     
-    public ApiController(SchedulerService schedulerService, AuthService authService, UserDAO userDAO, TimetableService timetableService) {
+    public ApiController(SchedulerService schedulerService, AuthService authService, UserDAO userDAO,
+                         TimetableService timetableService, SchedulerEngine schedulerEngine) {
         this.schedulerService = schedulerService;
         this.authService = authService;
         this.userDAO = userDAO;
         this.timetableService = timetableService;
+        this.schedulerEngine = schedulerEngine;
     }
     
     @PostMapping("/auth/login")
@@ -120,26 +126,56 @@ public class ApiController {
         return ResponseEntity.ok(users);
     }
     
+    // Listings are keyset-paginated: the body stays a plain array and, when more
+    // rows exist, X-Next-Cursor carries the cursor to pass back for the next page.
+    // Without limit or cursor the whole list comes back, as it did before paging.
+
     @GetMapping("/rooms") 
-    public ResponseEntity<List<Room>> getRooms(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ResponseEntity<?> getRooms(@RequestHeader(value = "Authorization", required = false) String token,
+                                      @RequestParam(required = false) Integer minCapacity,
+                                      @RequestParam(required = false) String sort,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit) {
         String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
-        List<Room> rooms = schedulerService.getAllRooms(actualToken);
-        return ResponseEntity.ok(rooms);
+        try {
+            return pageResponse(schedulerService.getRoomPage(actualToken, minCapacity, sort, cursor,
+                KeysetQuery.clampLimit(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
     
     @GetMapping("/courses")
-    public ResponseEntity<List<Course>> getCourses(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ResponseEntity<?> getCourses(@RequestHeader(value = "Authorization", required = false) String token,
+                                        @RequestParam(required = false) String faculty,
+                                        @RequestParam(required = false) String sort,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
         String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
-        List<Course> courses = schedulerService.getAllCourses(actualToken);
-        return ResponseEntity.ok(courses);
+        try {
+            return pageResponse(schedulerService.getCoursePage(actualToken, faculty, sort, cursor,
+                KeysetQuery.clampLimit(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
     }
     
     @GetMapping("/timetable")
-    public ResponseEntity<List<TimetableEntry>> getTimetable(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ResponseEntity<?> getTimetable(@RequestHeader(value = "Authorization", required = false) String token,
+                                          @RequestParam(required = false) String day,
+                                          @RequestParam(required = false) String room,
+                                          @RequestParam(required = false) String instructor,
+                                          @RequestParam(required = false) String type,
+                                          @RequestParam(required = false) String slotCode,
+                                          @RequestParam(required = false) String sort,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
         try {
-            // Return all timetable entries including denormalized fields
-            List<TimetableEntry> entries = timetableService.getAllEntries();
-            return ResponseEntity.ok(entries);
+            // Entries include the denormalized display fields
+            TimetableFilter filter = new TimetableFilter(day, room, instructor, type, slotCode);
+            return pageResponse(timetableService.getEntryPage(filter, sort, cursor, KeysetQuery.clampLimit(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             System.err.println("Error fetching timetable: " + e.getMessage());
             return ResponseEntity.ok(List.of()); // Return empty list on error
@@ -147,10 +183,31 @@ public class ApiController {
     }
     
     @GetMapping("/bookings")
-    public ResponseEntity<List<TimetableEntry>> getBookings(@RequestHeader(value = "Authorization", required = false) String token) {
+    public ResponseEntity<?> getBookings(@RequestHeader(value = "Authorization", required = false) String token,
+                                         @RequestParam(required = false) String day,
+                                         @RequestParam(required = false) String room,
+                                         @RequestParam(required = false) String instructor,
+                                         @RequestParam(required = false) String type,
+                                         @RequestParam(required = false) String slotCode,
+                                         @RequestParam(required = false) String sort,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
         String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
-        List<TimetableEntry> bookings = schedulerService.getAllBookings(actualToken);
-        return ResponseEntity.ok(bookings);
+        try {
+            TimetableFilter filter = new TimetableFilter(day, room, instructor, type, slotCode);
+            return pageResponse(schedulerService.getBookingPage(actualToken, filter, sort, cursor,
+                KeysetQuery.clampLimit(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    private static <T> ResponseEntity<List<T>> pageResponse(Page<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasMore()) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.items());
     }
     
     @PostMapping("/courses")
@@ -222,6 +279,7 @@ public class ApiController {
         
         String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
         
+        boolean success;
         try {
             String code = (String) courseData.get("code");
             String name = (String) courseData.get("name");
@@ -233,18 +291,19 @@ public class ApiController {
                     Map.of("success", false, "error", "Missing required fields"));
             }
             
-            boolean success = schedulerService.updateCourse(actualToken, id, code, name, faculty, maxStudents);
-            
-            if (success) {
-                return ResponseEntity.ok(Map.of("success", true, "message", "Course updated successfully"));
-            } else {
-                return ResponseEntity.badRequest().body(
-                    Map.of("success", false, "error", "Failed to update course - course may not exist"));
-            }
+            success = schedulerService.updateCourse(actualToken, id, code, name, faculty, maxStudents);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                 Map.of("success", false, "error", "Invalid request data"));
         }
+        
+        if (!success) {
+            return ResponseEntity.badRequest().body(
+                Map.of("success", false, "error", "Failed to update course - course may not exist"));
+        }
+        // A new instructor or size can invalidate existing entries of this course
+        return ResponseEntity.ok(Map.of("success", true, "message", "Course updated successfully",
+            "repair", schedulerEngine.tryRepair("course update", () -> schedulerEngine.repairCourse(id))));
     }
     
     @DeleteMapping("/courses/{id}")
@@ -254,19 +313,20 @@ public class ApiController {
         
         String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
         
+        boolean success;
         try {
-            boolean success = schedulerService.deleteCourse(actualToken, id);
-            
-            if (success) {
-                return ResponseEntity.ok(Map.of("success", true, "message", "Course deleted successfully"));
-            } else {
-                return ResponseEntity.status(404).body(
-                    Map.of("success", false, "error", "Course not found or deletion failed"));
-            }
+            success = schedulerService.deleteCourse(actualToken, id);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                 Map.of("success", false, "error", "Invalid request"));
         }
+        
+        if (!success) {
+            return ResponseEntity.status(404).body(
+                Map.of("success", false, "error", "Course not found or deletion failed"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Course deleted successfully",
+            "repair", schedulerEngine.tryRepair("course deletion", () -> schedulerEngine.repairCourse(id))));
     }
     
     @PatchMapping("/courses/{id}/enroll")
@@ -303,6 +363,62 @@ public class ApiController {
         }
     }
     
+    /**
+     * Ids of the courses the caller is enrolled in.
+     */
+    @GetMapping("/enrollments")
+    public ResponseEntity<Map<String, Object>> getEnrollments(
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
+        return ResponseEntity.ok(Map.of("success", true,
+            "courseIds", schedulerService.getEnrolledCourseIds(actualToken)));
+    }
+    
+    /**
+     * Set the course's department ({"department": "CS"}); null or blank clears it.
+     * The auto-scheduler keeps a department's courses in its own rooms.
+     */
+    @PatchMapping("/courses/{id}/department")
+    public ResponseEntity<Map<String, Object>> setCourseDepartment(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @PathVariable int id,
+            @RequestBody Map<String, Object> departmentData) {
+        
+        String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
+        String department = departmentOf(departmentData);
+        
+        if (schedulerService.setCourseDepartment(actualToken, id, department)) {
+            return ResponseEntity.ok(Map.of("success", true, "department", department != null ? department : "",
+                "repair", schedulerEngine.tryRepair("course department change",
+                    () -> schedulerEngine.repairCourse(id))));
+        }
+        return ResponseEntity.status(404).body(
+            Map.of("success", false, "error", "Course not found or department update failed"));
+    }
+    
+    @PatchMapping("/rooms/{id}/department")
+    public ResponseEntity<Map<String, Object>> setRoomDepartment(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @PathVariable int id,
+            @RequestBody Map<String, Object> departmentData) {
+        
+        String actualToken = token != null && token.startsWith("Bearer ") ? token.substring(7) : (token != null ? token : "admin");
+        String department = departmentOf(departmentData);
+        
+        if (schedulerService.setRoomDepartment(actualToken, id, department)) {
+            return ResponseEntity.ok(Map.of("success", true, "department", department != null ? department : "",
+                "repair", schedulerEngine.tryRepair("room department change",
+                    () -> schedulerEngine.repairRoom(id))));
+        }
+        return ResponseEntity.status(404).body(
+            Map.of("success", false, "error", "Room not found or department update failed"));
+    }
+    
+    private static String departmentOf(Map<String, Object> data) {
+        Object value = data.get("department");
+        return value == null || value.toString().isBlank() ? null : value.toString().trim();
+    }
+    
     @PostMapping("/rooms")
     public ResponseEntity<Map<String, Object>> addRoom(
             @RequestHeader(value = "Authorization", required = false) String token,
@@ -360,6 +476,8 @@ public class ApiController {
                 return ResponseEntity.badRequest().body(
                     Map.of("success", false, "error", "Failed to add booking - possible time conflict"));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
                 Map.of("success", false, "error", "Invalid request data"));
@@ -405,14 +523,17 @@ public class ApiController {
     }
     
     @GetMapping("/timetable/entries")
-    public ResponseEntity<List<TimetableEntry>> getTimetableEntries(
-            @RequestHeader(value = "Authorization", required = false) String token) {
-        try {
-            List<TimetableEntry> entries = timetableService.getAllEntries();
-            return ResponseEntity.ok(entries);
-        } catch (Exception e) {
-            return ResponseEntity.ok(List.of()); // Return empty list on error
-        }
+    public ResponseEntity<?> getTimetableEntries(
+            @RequestHeader(value = "Authorization", required = false) String token,
+            @RequestParam(required = false) String day,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) String instructor,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String slotCode,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return getTimetable(token, day, room, instructor, type, slotCode, sort, cursor, limit);
     }
     
     @PostMapping("/dashboard/refresh-stats")
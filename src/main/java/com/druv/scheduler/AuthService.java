@@ -40,7 +40,7 @@ public class AuthService {
 
             // Hash password and create user
             String hashedPassword = security.hashPassword(password);
-            User newUser = userDAO.addUser(username, hashedPassword, role.toLowerCase());
+            User newUser = userDAO.addUser(username, hashedPassword, role.toUpperCase());
             
             if (newUser != null) {
                 logger.info("User registered successfully: {} with role {}", username, role);
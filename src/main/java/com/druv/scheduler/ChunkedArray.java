@@ -0,0 +1,131 @@
+package com.druv.scheduler;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Immutable sparse array indexed by non-negative ints, stored as fixed-size
+ * chunks under a spine. An update copies the spine and the one chunk it
+ * touches and shares every other chunk with the previous version, so keeping
+ * an old version around (a snapshot) costs nothing and an update costs
+ * O(length / CHUNK + CHUNK). An Editor applies many updates at once, copying
+ * each chunk at most once.
+ */
+public final class ChunkedArray<T> {
+
+    private static final int SHIFT = 8;
+    private static final int CHUNK = 1 << SHIFT;
+    private static final int MASK = CHUNK - 1;
+
+    private static final ChunkedArray<?> EMPTY = new ChunkedArray<>(new Object[0][], 0);
+
+    private final Object[][] spine;
+    private final int size;
+
+    private ChunkedArray(Object[][] spine, int size) {
+        this.spine = spine;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ChunkedArray<T> empty() {
+        return (ChunkedArray<T>) EMPTY;
+    }
+
+    /**
+     * @return the element at index, or null if none was set
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int chunk = index >>> SHIFT;
+        if (index < 0 || chunk >= spine.length || spine[chunk] == null) {
+            return null;
+        }
+        return (T) spine[chunk][index & MASK];
+    }
+
+    /**
+     * Number of non-null elements
+     */
+    public int size() {
+        return size;
+    }
+
+    public ChunkedArray<T> with(int index, T value) {
+        Editor<T> editor = edit();
+        editor.set(index, value);
+        return editor.build();
+    }
+
+    public Editor<T> edit() {
+        return new Editor<>(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (Object[] chunk : spine) {
+            if (chunk != null) {
+                for (Object value : chunk) {
+                    if (value != null) {
+                        action.accept((T) value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Batch of updates against one version. Not thread-safe; build() may be
+     * called once, after which the editor must not be used.
+     */
+    public static final class Editor<T> {
+        private Object[][] spine;
+        private boolean[] owned;
+        private int size;
+
+        private Editor(ChunkedArray<T> base) {
+            this.spine = base.spine.clone();
+            this.owned = new boolean[spine.length];
+            this.size = base.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            int chunk = index >>> SHIFT;
+            if (index < 0 || chunk >= spine.length || spine[chunk] == null) {
+                return null;
+            }
+            return (T) spine[chunk][index & MASK];
+        }
+
+        public void set(int index, T value) {
+            if (index < 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int chunk = index >>> SHIFT;
+            if (chunk >= spine.length) {
+                if (value == null) {
+                    return;
+                }
+                int length = Math.max(chunk + 1, spine.length + (spine.length >> 1));
+                spine = Arrays.copyOf(spine, length);
+                owned = Arrays.copyOf(owned, length);
+            }
+            if (!owned[chunk]) {
+                // First write to a shared chunk in this batch: copy it
+                spine[chunk] = spine[chunk] == null ? new Object[CHUNK] : spine[chunk].clone();
+                owned[chunk] = true;
+            }
+            Object previous = spine[chunk][index & MASK];
+            spine[chunk][index & MASK] = value;
+            size += (value != null ? 1 : 0) - (previous != null ? 1 : 0);
+        }
+
+        public ChunkedArray<T> build() {
+            ChunkedArray<T> result = new ChunkedArray<>(spine, size);
+            spine = null;
+            owned = null;
+            return result;
+        }
+    }
+}
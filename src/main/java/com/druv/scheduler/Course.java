@@ -7,6 +7,7 @@ public class Course {
     private String facultyUsername;
     private int maxStudents;
     private boolean enrolled = false;
+    private String department;
 
     public Course(String code, String name, String facultyUsername, int maxStudents) {
         this.courseCode = code;
@@ -23,8 +24,10 @@ public class Course {
     public String getFacultyUsername() { return facultyUsername; }
     public int getMaxStudents() { return maxStudents; }
     public boolean isEnrolled() { return enrolled; }
+    public String getDepartment() { return department; }
 
     // Setters
     public void setId(int id) { this.id = id; }
     public void setEnrolled(boolean enrolled) { this.enrolled = enrolled; }
+    public void setDepartment(String department) { this.department = department; }
 }
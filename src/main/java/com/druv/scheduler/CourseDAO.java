@@ -7,97 +7,106 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class CourseDAO {
-    private static final String CREATE_TABLE = """
-        CREATE TABLE IF NOT EXISTS courses (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            course_code TEXT UNIQUE NOT NULL,
-            course_name TEXT NOT NULL,
-            faculty_username TEXT NOT NULL,
-            max_students INTEGER NOT NULL,
-            enrolled INTEGER DEFAULT 0,
-            FOREIGN KEY (faculty_username) REFERENCES users(username)
-        )""";
-
-    public CourseDAO() {
-        initializeTable();
-        migrateEnrolledColumn();
-    }
-
-    private void initializeTable() {
-        try (Connection conn = Database.connect();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(CREATE_TABLE);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize courses table", e);
-        }
-    }
-    
-    private void migrateEnrolledColumn() {
-        // Add enrolled column if it doesn't exist (for existing databases)
-        String checkColumn = "PRAGMA table_info(courses)";
-        String addColumn = "ALTER TABLE courses ADD COLUMN enrolled INTEGER DEFAULT 0";
-        
+    // Table creation and column migrations are handled by SchemaMigrations
+
+    private static final String COURSE_COLUMNS = "id, course_code, course_name, faculty_username, max_students, enrolled, department";
+
+    // findById is hit once per row by reports and conflict messages; writes below invalidate it
+    private final EntityCache<Integer, Course> cache = new EntityCache<>("courses", 1024, 300);
+
+    public List<Course> findAll() {
+        List<Course> courses = new ArrayList<>();
+        String sql = "SELECT " + COURSE_COLUMNS + " FROM courses";
+
         try (Connection conn = Database.connect();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(checkColumn)) {
-            
-            boolean hasEnrolledColumn = false;
+             ResultSet rs = stmt.executeQuery(sql)) {
+
             while (rs.next()) {
-                if ("enrolled".equals(rs.getString("name"))) {
-                    hasEnrolledColumn = true;
-                    break;
-                }
-            }
-            
-            if (!hasEnrolledColumn) {
-                stmt.execute(addColumn);
+                courses.add(mapCourse(rs, courses.size()));
             }
         } catch (SQLException e) {
-            // Column might already exist, ignore error
+            throw new RuntimeException("Error fetching courses", e);
         }
+        return courses;
     }
 
-    public List<Course> findAll() {
-        List<Course> courses = new ArrayList<>();
-        String sql = "SELECT * FROM courses";
+    /**
+     * Id and name of every course, for lookups that do not need the full row
+     */
+    public List<NamedRef> findAllNames() {
+        List<NamedRef> refs = new ArrayList<>();
+        String sql = "SELECT id, course_name FROM courses";
 
         try (Connection conn = Database.connect();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Course course = new Course(
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getString("faculty_username"),
-                    rs.getInt("max_students")
-                );
-                course.setId(rs.getInt("id"));
-                course.setEnrolled(rs.getInt("enrolled") == 1);
-                courses.add(course);
+                refs.add(new NamedRef(rs.getInt(1), rs.getString(2)));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching courses", e);
+            throw new RuntimeException("Error fetching course names", e);
+        }
+        return refs;
+    }
+
+    /**
+     * One keyset page of courses, optionally limited to one faculty member.
+     * @param sort "id" (default), "code" or "name"
+     */
+    public Page<Course> findPage(String facultyUsername, String sort, String cursor, int limit) {
+        List<KeysetQuery.SortColumn> order = switch (sort == null ? "id" : sort) {
+            case "id" -> List.of(KeysetQuery.numeric("id"));
+            case "code" -> List.of(KeysetQuery.text("course_code"), KeysetQuery.numeric("id"));
+            case "name" -> List.of(KeysetQuery.text("course_name"), KeysetQuery.numeric("id"));
+            default -> throw new IllegalArgumentException("Unknown sort: " + sort);
+        };
+
+        KeysetQuery query = new KeysetQuery(COURSE_COLUMNS, "courses");
+        if (facultyUsername != null && !facultyUsername.isBlank()) {
+            query.where("faculty_username = ?", facultyUsername.trim());
+        }
+        try {
+            return query.fetch(order, cursor, limit, CourseDAO::mapCourse);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching course page", e);
         }
-        return courses;
+    }
+
+    private static Course mapCourse(ResultSet rs, int rowNum) throws SQLException {
+        Course course = new Course(
+            rs.getString("course_code"),
+            rs.getString("course_name"),
+            rs.getString("faculty_username"),
+            rs.getInt("max_students")
+        );
+        course.setId(rs.getInt("id"));
+        course.setEnrolled(rs.getInt("enrolled") == 1);
+        course.setDepartment(rs.getString("department"));
+        return course;
     }
 
     public boolean addCourse(Course course) {
         String sql = """
-            INSERT INTO courses (course_code, course_name, faculty_username, max_students) 
+            INSERT INTO courses (course_code, course_name, faculty_username, max_students)
             VALUES (?, ?, ?, ?)""";
             
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, course.getCourseCode());
-            stmt.setString(2, course.getCourseName());
-            stmt.setString(3, course.getFacultyUsername());  // Changed from getFaculty()
-            stmt.setInt(4, course.getMaxStudents());
+                    stmt.setString(1, course.getCourseCode());
+                    stmt.setString(2, course.getCourseName());
+                    stmt.setString(3, course.getFacultyUsername());  // Changed from getFaculty()
+                    stmt.setInt(4, course.getMaxStudents());
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             if (e.getMessage().contains("UNIQUE")) {
                 return false; // Course code already exists
@@ -109,15 +118,18 @@ public class CourseDAO {
     public boolean addCourse(String code, String name, String faculty, int maxStudents) {
         String sql = "INSERT INTO courses (course_code, course_name, faculty_username, max_students) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, code);
-            stmt.setString(2, name);
-            stmt.setString(3, faculty);
-            stmt.setInt(4, maxStudents);
+                    stmt.setString(1, code);
+                    stmt.setString(2, name);
+                    stmt.setString(3, faculty);
+                    stmt.setInt(4, maxStudents);
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             if (e.getMessage().contains("UNIQUE")) {
                 return false; // Course code already exists
@@ -127,7 +139,11 @@ public class CourseDAO {
     }
 
     public Course findById(int id) {
-        String sql = "SELECT * FROM courses WHERE id = ?";
+        return cache.get(id, this::loadById);
+    }
+
+    private Course loadById(int id) {
+        String sql = "SELECT " + COURSE_COLUMNS + " FROM courses WHERE id = ?";
         
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -135,15 +151,7 @@ public class CourseDAO {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Course course = new Course(
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getString("faculty_username"),
-                        rs.getInt("max_students")
-                    );
-                    course.setId(rs.getInt("id"));
-                    course.setEnrolled(rs.getInt("enrolled") == 1);
-                    return course;
+                    return mapCourse(rs, 0);
                 }
             }
         } catch (SQLException e) {
@@ -153,7 +161,7 @@ public class CourseDAO {
     }
 
     public Course findByCode(String courseCode) {
-        String sql = "SELECT * FROM courses WHERE course_code = ?";
+        String sql = "SELECT " + COURSE_COLUMNS + " FROM courses WHERE course_code = ?";
         
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -161,14 +169,7 @@ public class CourseDAO {
             stmt.setString(1, courseCode);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Course course = new Course(
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getString("faculty_username"),
-                        rs.getInt("max_students")
-                    );
-                    course.setId(rs.getInt("id"));
-                    return course;
+                    return mapCourse(rs, 0);
                 }
             }
         } catch (SQLException e) {
@@ -180,18 +181,43 @@ public class CourseDAO {
     public boolean updateCourse(int id, String code, String name, String faculty, int maxStudents) {
         String sql = "UPDATE courses SET course_code = ?, course_name = ?, faculty_username = ?, max_students = ? WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, code);
-            stmt.setString(2, name);
-            stmt.setString(3, faculty);
-            stmt.setInt(4, maxStudents);
-            stmt.setInt(5, id);
+                    stmt.setString(1, code);
+                    stmt.setString(2, name);
+                    stmt.setString(3, faculty);
+                    stmt.setInt(4, maxStudents);
+                    stmt.setInt(5, id);
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error updating course", e);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    public boolean updateDepartment(int id, String department) {
+        String sql = "UPDATE courses SET department = ? WHERE id = ?";
+        
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                    stmt.setString(1, department);
+                    stmt.setInt(2, id);
+            
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating course department", e);
+        } finally {
+            cache.invalidate(id);
         }
     }
 
@@ -203,31 +229,45 @@ public class CourseDAO {
     public boolean deleteCourse(int id) {
         String sql = "DELETE FROM courses WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting course", e);
+        } finally {
+            cache.invalidate(id);
         }
     }
     
     public boolean toggleEnrollment(int id, boolean enrolled) {
         String sql = "UPDATE courses SET enrolled = ? WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, enrolled ? 1 : 0);
-            stmt.setInt(2, id);
+                    stmt.setInt(1, enrolled ? 1 : 0);
+                    stmt.setInt(2, id);
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error toggling enrollment", e);
+        } finally {
+            cache.invalidate(id);
         }
     }
 
+    public Map<String, Object> getCacheStats() {
+        return cache.getStats();
+    }
+
     public long getCourseCount() {
         String sql = "SELECT COUNT(*) FROM courses";
         try (Connection conn = Database.connect();
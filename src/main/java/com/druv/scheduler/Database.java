@@ -1,44 +1,236 @@
 package com.druv.scheduler;
 
+import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
 
+import javax.sql.DataSource;
+
+import org.sqlite.SQLiteConfig;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Single entry point to the application's SQLite database. Every DAO,
+ * including the JdbcTemplate-based UserDAOImpl, goes through the pool
+ * created here, so all data lives in one file (db.name, default scheduler.db).
+ */
 public class Database {
-    private static String dbUrl = "jdbc:sqlite:scheduler.db";
+    private static final String LEGACY_USERS_DB = "smart_scheduler.db";
+
+    private static String dbUrl = "jdbc:sqlite:" + System.getProperty("db.name", "scheduler.db");
     private static boolean initialized = false;
-    private static List<Connection> activeConnections = new ArrayList<>();
+    private static HikariDataSource dataSource;
+    private static ScheduledExecutorService checkpointExecutor;
+    private static DatabaseWriter writer;
+
+    // Pool metrics not covered by HikariPoolMXBean
+    private static final AtomicLong connectionRequests = new AtomicLong();
+    private static final AtomicLong totalWaitNanos = new AtomicLong();
+    private static final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
 
     public static void setTestMode(String testDbName) {
+        closeAll();
         dbUrl = "jdbc:sqlite:" + testDbName;
         initialized = false;
-        closeAll();
     }
 
-    // Get a connection to the SQLite DB
+    /**
+     * Shared pooled DataSource used by every DAO. Created lazily so that
+     * setTestMode() can still switch the database file before first use.
+     *
+     * Pool settings come from system properties:
+     *   db.pool.maxSize (8), db.pool.minIdle (2), db.pool.idleTimeoutMs (60000),
+     *   db.pool.connectionTimeoutMs (30000), db.pool.leakDetectionMs (20000)
+     */
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null || dataSource.isClosed()) {
+            dataSource = createPool(dbUrl);
+            startCheckpointTask();
+        }
+        return dataSource;
+    }
+
+    private static HikariDataSource createPool(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("scheduler-db");
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(Integer.getInteger("db.pool.maxSize", 8));
+        config.setMinimumIdle(Integer.getInteger("db.pool.minIdle", 2));
+        config.setIdleTimeout(Long.getLong("db.pool.idleTimeoutMs", 60_000L));
+        config.setConnectionTimeout(Long.getLong("db.pool.connectionTimeoutMs", 30_000L));
+        config.setLeakDetectionThreshold(Long.getLong("db.pool.leakDetectionMs", 20_000L));
+        config.setDataSourceProperties(sqliteProfile());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * PRAGMA profile applied to every pooled connection as it is opened.
+     * WAL lets report queries read while bookings are being written;
+     * synchronous=NORMAL is durable enough under WAL and avoids an fsync per commit.
+     *
+     * Overridable via db.sqlite.* system properties.
+     */
+    static Properties sqliteProfile() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(
+            System.getProperty("db.sqlite.synchronous", "NORMAL")));
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE,
+            String.valueOf(Long.getLong("db.sqlite.mmapSize", 256L * 1024 * 1024)));
+        // Negative cache_size is in KiB rather than pages
+        config.setCacheSize(-Integer.getInteger("db.sqlite.cacheSizeKb", 16 * 1024));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setBusyTimeout(Integer.getInteger("db.sqlite.busyTimeoutMs", 5000));
+        return config.toProperties();
+    }
+
+    // Periodically fold the WAL back into the main file so it does not grow unbounded
+    private static void startCheckpointTask() {
+        if (checkpointExecutor != null) {
+            return;
+        }
+        long interval = Long.getLong("db.sqlite.checkpointIntervalSec", 60L);
+        checkpointExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlite-wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointExecutor.scheduleWithFixedDelay(() -> checkpoint("PASSIVE"),
+            interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run a WAL checkpoint. PASSIVE never blocks readers or writers;
+     * TRUNCATE is used on shutdown to leave an empty WAL file behind.
+     */
+    public static void checkpoint(String mode) {
+        try (Connection conn = connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(" + mode + ")");
+        } catch (SQLException e) {
+            System.err.println("WAL checkpoint failed: " + e.getMessage());
+        }
+    }
+
+    // Borrow a pooled connection; closing it returns it to the pool
     public static Connection connect() throws SQLException {
-        Connection conn = DriverManager.getConnection(dbUrl);
-        activeConnections.add(conn);
+        DataSource pool = getDataSource();
+        long start = System.nanoTime();
+        Connection conn = pool.getConnection();
+        long waited = System.nanoTime() - start;
+        connectionRequests.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulate(waited);
         return conn;
     }
 
+    /**
+     * The single writer every DAO mutation goes through. Batch size and the
+     * group-commit latency bound come from db.writer.maxBatch (64) and
+     * db.writer.maxDelayMs (2).
+     */
+    public static synchronized DatabaseWriter writer() {
+        if (writer == null) {
+            writer = new DatabaseWriter(writerMaxBatch(), writerMaxDelayMillis());
+        }
+        return writer;
+    }
+
+    private static int writerMaxBatch() {
+        return Integer.getInteger("db.writer.maxBatch", 64);
+    }
+
+    private static long writerMaxDelayMillis() {
+        return Long.getLong("db.writer.maxDelayMs", 2L);
+    }
+
+    // Run a mutation on the writer thread and wait for its transaction to commit
+    public static <T> T write(DatabaseWriter.SqlWork<T> work) throws SQLException {
+        return writer().execute(work);
+    }
+
+    // Queue a mutation without waiting; the future completes once it is committed
+    public static <T> CompletableFuture<T> submitWrite(DatabaseWriter.SqlWork<T> work) {
+        return writer().submit(work);
+    }
+
+    // Call from inside a write: runs once that write commits, in commit order
+    public static void afterCommit(Runnable callback) {
+        writer().afterCommit(callback);
+    }
+
     public static void closeAll() {
-        for (Connection conn : activeConnections) {
-            try {
-                if (conn != null && !conn.isClosed()) {
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                // Ignore errors during cleanup
+        DatabaseWriter pendingWriter;
+        synchronized (Database.class) {
+            pendingWriter = writer;
+            writer = null;
+        }
+        // Outside the lock: the writer needs connect() to flush its last batch
+        if (pendingWriter != null) {
+            pendingWriter.shutdown();
+        }
+        closePool();
+    }
+
+    private static synchronized void closePool() {
+        if (checkpointExecutor != null) {
+            checkpointExecutor.shutdownNow();
+            checkpointExecutor = null;
+        }
+        if (dataSource != null) {
+            if (!dataSource.isClosed()) {
+                checkpoint("TRUNCATE");
+                dataSource.close();
             }
+            dataSource = null;
+        }
+    }
+
+    /**
+     * Snapshot of pool usage: active/idle/total connections, threads waiting
+     * for a connection and the time callers spent waiting in connect().
+     */
+    public static Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        HikariDataSource pool;
+        DatabaseWriter currentWriter;
+        synchronized (Database.class) {
+            pool = dataSource;
+            currentWriter = writer;
         }
-        activeConnections.clear();
+        HikariPoolMXBean bean = pool != null ? pool.getHikariPoolMXBean() : null;
+        stats.put("maxPoolSize", pool != null ? pool.getMaximumPoolSize() : 0);
+        stats.put("activeConnections", bean != null ? bean.getActiveConnections() : 0);
+        stats.put("idleConnections", bean != null ? bean.getIdleConnections() : 0);
+        stats.put("totalConnections", bean != null ? bean.getTotalConnections() : 0);
+        stats.put("threadsAwaitingConnection", bean != null ? bean.getThreadsAwaitingConnection() : 0);
+
+        long requests = connectionRequests.get();
+        stats.put("connectionRequests", requests);
+        stats.put("avgWaitMillis", requests > 0 ? totalWaitNanos.get() / requests / 1_000_000.0 : 0.0);
+        stats.put("maxWaitMillis", maxWaitNanos.get() / 1_000_000.0);
+        stats.put("writer", currentWriter != null
+            ? currentWriter.getStats()
+            : DatabaseWriter.idleStats(writerMaxBatch(), writerMaxDelayMillis()));
+        return stats;
     }
 
-    // Read schema.sql from resources and create tables
+    // Bring the schema up to date and create default users
     public static boolean initialize() {
         if (initialized) {
             System.out.println("Database already exists - skipping initialization.");
@@ -51,49 +243,11 @@ public class Database {
             try (Connection conn = connect();
                  Statement stmt = conn.createStatement()) {
                 
-                // Create tables
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS users (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        username TEXT UNIQUE NOT NULL,
-                        password TEXT NOT NULL,
-                        role TEXT NOT NULL CHECK(role IN ('ADMIN', 'FACULTY', 'STUDENT'))
-                    )""");
-                    
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS rooms (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        room_name TEXT UNIQUE NOT NULL,
-                        capacity INTEGER NOT NULL CHECK(capacity > 0)
-                    )""");
-                    
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS courses (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        course_code TEXT UNIQUE NOT NULL,
-                        course_name TEXT NOT NULL,
-                        faculty_username TEXT NOT NULL,
-                        max_students INTEGER NOT NULL CHECK(max_students > 0),
-                        FOREIGN KEY(faculty_username) REFERENCES users(username)
-                    )""");
-                    
-                stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS timetable (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        course_id INTEGER,
-                        room_id INTEGER,
-                        day_of_week TEXT NOT NULL,
-                        start_time TEXT NOT NULL,
-                        end_time TEXT NOT NULL,
-                        instructor_id INTEGER,
-                        course_name TEXT,
-                        faculty TEXT,
-                        room_name TEXT,
-                        slot_code TEXT,
-                        type TEXT,
-                        FOREIGN KEY(course_id) REFERENCES courses(id),
-                        FOREIGN KEY(room_id) REFERENCES rooms(id)
-                    )""");
+                // All schema changes live in SchemaMigrations and run on this one connection
+                SchemaMigrations.migrate(conn);
+
+                // Pull in accounts that were registered against the old users-only database
+                importLegacyUsers(stmt);
 
                 // Create default users if they don't exist
                 createDefaultUsers(stmt);
@@ -108,6 +262,39 @@ public class Database {
         }
     }
     
+    /**
+     * Earlier builds kept users in smart_scheduler.db while everything else
+     * lived in scheduler.db. Copy any accounts from that file so logins keep
+     * working after the merge; existing usernames are left untouched.
+     */
+    private static void importLegacyUsers(Statement stmt) throws SQLException {
+        File legacy = new File(LEGACY_USERS_DB);
+        if (!legacy.exists() || dbUrl.endsWith(LEGACY_USERS_DB)) {
+            return;
+        }
+
+        String legacyPath = legacy.getPath().replace("'", "''");
+        stmt.execute("ATTACH DATABASE '" + legacyPath + "' AS legacy");
+        try {
+            boolean hasUsers;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM legacy.sqlite_master WHERE type='table' AND name='users'")) {
+                hasUsers = rs.next();
+            }
+            if (hasUsers) {
+                int imported = stmt.executeUpdate("""
+                    INSERT OR IGNORE INTO users (username, password, role)
+                    SELECT username, password, UPPER(role) FROM legacy.users
+                    WHERE UPPER(role) IN ('ADMIN', 'FACULTY', 'STUDENT')""");
+                if (imported > 0) {
+                    System.out.println("Imported " + imported + " user(s) from " + LEGACY_USERS_DB);
+                }
+            }
+        } finally {
+            stmt.execute("DETACH DATABASE legacy");
+        }
+    }
+
     private static void createDefaultUsers(java.sql.Statement stmt) throws java.sql.SQLException {
         // Check if any users exist
         java.sql.ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users");
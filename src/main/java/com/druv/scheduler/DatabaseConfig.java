@@ -5,17 +5,15 @@ import javax.sql.DataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 @Configuration
 public class DatabaseConfig {
 
-    @Bean
+    // Same pool the static DAOs use, so users and scheduling data share one database
+    @Bean(destroyMethod = "")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.sqlite.JDBC");
-        dataSource.setUrl("jdbc:sqlite:smart_scheduler.db");
-        return dataSource;
+        Database.initialize();
+        return Database.getDataSource();
     }
 
     @Bean
@@ -43,6 +41,26 @@ public class DatabaseConfig {
         return new TimetableDAO();
     }
 
+    @Bean
+    public EnrollmentDAO enrollmentDAO() {
+        return new EnrollmentDAO();
+    }
+
+    // Register before loading so writes that race the initial load are not missed
+    @Bean
+    public TimetableIndex timetableIndex(TimetableDAO timetableDAO) {
+        TimetableIndex index = new TimetableIndex(timetableDAO);
+        timetableDAO.addChangeListener(index);
+        index.load();
+        return index;
+    }
+
+    // Parsed once from schedule.grid.* and shared by the scheduler, reports and /api/grid
+    @Bean
+    public TimeGrid timeGrid() {
+        return TimeGrid.fromConfig();
+    }
+
     @Bean
     public Security security() {
         return new Security();
@@ -50,8 +68,9 @@ public class DatabaseConfig {
 
     @Bean
     public SchedulerService schedulerService(UserDAO userDAO, CourseDAO courseDAO,
-                                           RoomDAO roomDAO, TimetableDAO timetableDAO) {
-        return new SchedulerService(userDAO, courseDAO, roomDAO, timetableDAO);
+                                           RoomDAO roomDAO, TimetableDAO timetableDAO,
+                                           TimetableIndex timetableIndex, EnrollmentDAO enrollmentDAO) {
+        return new SchedulerService(userDAO, courseDAO, roomDAO, timetableDAO, timetableIndex, enrollmentDAO);
     }
 
     @Bean
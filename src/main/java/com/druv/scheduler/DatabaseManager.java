@@ -10,13 +10,15 @@ public class DatabaseManager {
     // Create a user
     public static void addUser(String username, String password, String role) {
         final String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            pstmt.setString(3, role);
-            pstmt.executeUpdate();
+        try {
+            Database.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, username);
+                    pstmt.setString(2, password);
+                    pstmt.setString(3, role);
+                    return pstmt.executeUpdate();
+                }
+            });
             System.out.println("Added user: " + username);
         } catch (SQLException e) {
             System.err.println("Error adding user: " + e.getMessage());
@@ -44,11 +46,13 @@ public class DatabaseManager {
     // Delete by username
     public static void deleteUser(String username) {
         final String sql = "DELETE FROM users WHERE username = ?";
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username);
-            int affected = pstmt.executeUpdate();
+        try {
+            int affected = Database.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, username);
+                    return pstmt.executeUpdate();
+                }
+            });
             System.out.println("Deleted " + affected + " user(s)");
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
@@ -57,9 +61,12 @@ public class DatabaseManager {
 
     public static void clearUsers() {
         final String sql = "DELETE FROM users";
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            int affected = pstmt.executeUpdate();
+        try {
+            int affected = Database.write(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    return pstmt.executeUpdate();
+                }
+            });
             System.out.println("Cleared " + affected + " user(s)");
         } catch (SQLException e) {
             System.err.println("Error clearing users: " + e.getMessage());
@@ -0,0 +1,293 @@
+package com.druv.scheduler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer queue for every SQLite mutation.
+ *
+ * SQLite only allows one writer at a time, so instead of letting request
+ * threads race for the lock, writes are queued and drained by one thread.
+ * Operations that arrive close together are committed in a single
+ * transaction (group commit). Each operation runs inside its own savepoint,
+ * so a failing operation is rolled back on its own and only its caller
+ * sees the error.
+ *
+ * A batch closes when it reaches maxBatchSize operations or when the first
+ * operation has waited maxBatchDelayMillis, whichever comes first.
+ */
+public class DatabaseWriter {
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private static final class WriteOp<T> {
+        final SqlWork<T> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<Runnable> afterCommit = new ArrayList<>(0);
+        T value;
+
+        WriteOp(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        void run(Connection conn) throws SQLException {
+            value = work.execute(conn);
+        }
+
+        void complete() {
+            result.complete(value);
+        }
+    }
+
+    private final BlockingQueue<WriteOp<?>> queue = new LinkedBlockingQueue<>();
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Connection of the batch in progress; lets writes issued from inside a write run inline
+    private Connection currentConnection;
+    // Operation whose work is running; afterCommit() callbacks attach to it
+    private WriteOp<?> currentOp;
+
+    private final AtomicLong batchesCommitted = new AtomicLong();
+    private final AtomicLong operationsCommitted = new AtomicLong();
+    private final AtomicLong operationsFailed = new AtomicLong();
+
+    public DatabaseWriter(int maxBatchSize, long maxBatchDelayMillis) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxBatchDelayMillis));
+        this.thread = new Thread(this::drainLoop, "sqlite-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a write and return a future for its result. A write submitted from
+     * an afterCommit() callback is queued for the next batch.
+     */
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        WriteOp<T> op = new WriteOp<>(work);
+        if (Thread.currentThread() == thread && currentConnection != null) {
+            // Nested write from inside another write: already in the transaction
+            try {
+                op.run(currentConnection);
+                op.complete();
+            } catch (Throwable e) {
+                op.result.completeExceptionally(e);
+            }
+            return op.result;
+        }
+        if (!running) {
+            op.result.completeExceptionally(new SQLException("Database writer is shut down"));
+            return op.result;
+        }
+        queue.add(op);
+        if (!thread.isAlive()) {
+            // Lost the race with shutdown(); nobody will drain this op
+            queue.remove(op);
+            op.result.completeExceptionally(new SQLException("Database writer is shut down"));
+        }
+        return op.result;
+    }
+
+    /**
+     * Run the callback on the writer thread once the current write has committed.
+     * Callbacks run in commit order and are dropped if the write rolls back, which
+     * lets in-memory views follow the database without reordering. Outside a write
+     * the callback runs immediately.
+     */
+    public void afterCommit(Runnable callback) {
+        if (Thread.currentThread() == thread && currentOp != null) {
+            currentOp.afterCommit.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * Queue a write and wait for it to commit. SQLExceptions raised by the
+     * work are rethrown as-is so DAOs can keep their existing error handling.
+     */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        if (Thread.currentThread() == thread && currentConnection == null) {
+            // Only the writer thread could commit the write, so waiting here would never return
+            throw new IllegalStateException("Cannot wait for a write from an after-commit callback; use submit()");
+        }
+        try {
+            return submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for write", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("Write failed", cause);
+        }
+    }
+
+    private void drainLoop() {
+        List<WriteOp<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                WriteOp<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Throwable e) {
+                // Whatever went wrong, this thread is the only writer: fail the batch and keep draining
+                System.err.println("Database writer batch failed: " + e);
+                failPending(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+        // Anything still queued after shutdown can no longer be written
+        WriteOp<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.result.completeExceptionally(new SQLException("Database writer is shut down"));
+        }
+    }
+
+    private void fillBatch(List<WriteOp<?>> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            WriteOp<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commitBatch(List<WriteOp<?>> batch) {
+        List<WriteOp<?>> succeeded = new ArrayList<>(batch.size());
+        try (Connection conn = Database.connect()) {
+            conn.setAutoCommit(false);
+            currentConnection = conn;
+            try {
+                for (WriteOp<?> op : batch) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    currentOp = op;
+                    try {
+                        op.run(conn);
+                        conn.releaseSavepoint(savepoint);
+                        succeeded.add(op);
+                    } catch (Throwable e) {
+                        conn.rollback(savepoint);
+                        conn.releaseSavepoint(savepoint);
+                        operationsFailed.incrementAndGet();
+                        op.afterCommit.clear();
+                        op.result.completeExceptionally(e);
+                    } finally {
+                        currentOp = null;
+                    }
+                }
+                conn.commit();
+            } catch (Throwable e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                currentConnection = null;
+                conn.setAutoCommit(true);
+            }
+        } catch (Throwable e) {
+            failPending(batch, e);
+            return;
+        }
+
+        batchesCommitted.incrementAndGet();
+        operationsCommitted.addAndGet(succeeded.size());
+        for (WriteOp<?> op : succeeded) {
+            for (Runnable callback : op.afterCommit) {
+                try {
+                    callback.run();
+                } catch (Throwable e) {
+                    System.err.println("After-commit callback failed: " + e);
+                }
+            }
+            op.complete();
+        }
+    }
+
+    private void failPending(List<WriteOp<?>> batch, Throwable cause) {
+        for (WriteOp<?> op : batch) {
+            if (!op.result.isDone()) {
+                operationsFailed.incrementAndGet();
+                op.result.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Stop accepting writes, commit what is already queued and stop the thread.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return stats(queue.size(), batchesCommitted.get(), operationsCommitted.get(), operationsFailed.get(),
+            maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxBatchDelayNanos));
+    }
+
+    /**
+     * Stats for a writer that has not been started, so reading metrics never starts one.
+     */
+    public static Map<String, Object> idleStats(int maxBatchSize, long maxBatchDelayMillis) {
+        return stats(0, 0, 0, 0, Math.max(1, maxBatchSize), Math.max(0, maxBatchDelayMillis));
+    }
+
+    private static Map<String, Object> stats(int queued, long batches, long operations, long failed,
+                                             int maxBatchSize, long maxBatchDelayMillis) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queuedWrites", queued);
+        stats.put("batchesCommitted", batches);
+        stats.put("writesCommitted", operations);
+        stats.put("writesFailed", failed);
+        stats.put("avgBatchSize", batches > 0 ? (double) operations / batches : 0.0);
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("maxBatchDelayMillis", maxBatchDelayMillis);
+        return stats;
+    }
+}
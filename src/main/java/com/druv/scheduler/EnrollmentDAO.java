@@ -0,0 +1,109 @@
+package com.druv.scheduler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EnrollmentDAO {
+    // Table creation is handled by SchemaMigrations (migration 7)
+
+    /**
+     * @return true if the student was not enrolled before
+     */
+    public boolean enroll(int studentId, int courseId) {
+        return update("INSERT OR IGNORE INTO enrollments (student_id, course_id) VALUES (?, ?)",
+            studentId, courseId, "Error enrolling student");
+    }
+
+    /**
+     * @return true if the student was enrolled
+     */
+    public boolean unenroll(int studentId, int courseId) {
+        return update("DELETE FROM enrollments WHERE student_id = ? AND course_id = ?",
+            studentId, courseId, "Error unenrolling student");
+    }
+
+    private boolean update(String sql, int studentId, int courseId, String errorMessage) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, studentId);
+                    stmt.setInt(2, courseId);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    public List<Integer> findCourseIds(int studentId) {
+        List<Integer> courseIds = new ArrayList<>();
+        String sql = "SELECT course_id FROM enrollments WHERE student_id = ? ORDER BY course_id";
+        try (Connection conn = Database.connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, studentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courseIds.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching enrollments by student", e);
+        }
+        return courseIds;
+    }
+
+    /**
+     * Number of students enrolled in each course, keyed by course id
+     */
+    public Map<Integer, Integer> countByCourse() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = "SELECT course_id, COUNT(*) FROM enrollments GROUP BY course_id";
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting enrollments by course", e);
+        }
+        return counts;
+    }
+
+    /**
+     * Read every enrollment into an EnrollmentIndex, two ints per row.
+     */
+    public EnrollmentIndex loadIndex() {
+        int[] students = new int[1024];
+        int[] courses = new int[1024];
+        int count = 0;
+        String sql = "SELECT student_id, course_id FROM enrollments";
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                if (count == students.length) {
+                    students = Arrays.copyOf(students, count * 2);
+                    courses = Arrays.copyOf(courses, count * 2);
+                }
+                students[count] = rs.getInt(1);
+                courses[count++] = rs.getInt(2);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading enrollments", e);
+        }
+        return EnrollmentIndex.of(students, courses, count);
+    }
+}
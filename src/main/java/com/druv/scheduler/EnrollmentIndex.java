@@ -0,0 +1,175 @@
+package com.druv.scheduler;
+
+import java.util.Arrays;
+
+import com.druv.scheduler.engine.CourseConflictGraph;
+
+/**
+ * Immutable in-memory student-by-course incidence, loaded in one pass from
+ * the enrollments table. Both directions are kept as compressed sparse rows
+ * over dense positions: the students of each course and the courses of each
+ * student, each row sorted. A dense bit matrix would cost students x courses
+ * bits (gigabytes at 100k students and 40k courses) for rows that hold a
+ * handful of set bits.
+ *
+ * conflictGraph() counts, for every course, the students it shares with
+ * each other course by walking its students' course rows into a counter
+ * array, so the cost is the sum over students of (courses taken)^2 rather
+ * than pairwise row intersections.
+ */
+public final class EnrollmentIndex {
+
+    public static final EnrollmentIndex EMPTY = of(new int[0], new int[0], 0);
+
+    private final int[] studentIds;      // sorted distinct
+    private final int[] courseIds;       // sorted distinct
+    private final int[] courseStart;     // per course position: start of its row in courseStudents
+    private final int[] courseStudents;  // student positions
+    private final int[] studentStart;    // per student position: start of its row in studentCourses
+    private final int[] studentCourses;  // course positions
+
+    private EnrollmentIndex(int[] studentIds, int[] courseIds, int[] courseStart, int[] courseStudents,
+                            int[] studentStart, int[] studentCourses) {
+        this.studentIds = studentIds;
+        this.courseIds = courseIds;
+        this.courseStart = courseStart;
+        this.courseStudents = courseStudents;
+        this.studentStart = studentStart;
+        this.studentCourses = studentCourses;
+    }
+
+    /**
+     * Index the first count (student, course) pairs. Pairs must be distinct,
+     * as the enrollments primary key guarantees.
+     */
+    public static EnrollmentIndex of(int[] students, int[] courses, int count) {
+        int[] studentIds = distinctSorted(students, count);
+        int[] courseIds = distinctSorted(courses, count);
+        int[] studentOf = new int[count];
+        int[] courseOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            studentOf[i] = Arrays.binarySearch(studentIds, students[i]);
+            courseOf[i] = Arrays.binarySearch(courseIds, courses[i]);
+        }
+        int[] courseStart = new int[courseIds.length + 1];
+        int[] courseStudents = new int[count];
+        fillRows(courseOf, studentOf, courseStart, courseStudents);
+        int[] studentStart = new int[studentIds.length + 1];
+        int[] studentCourses = new int[count];
+        fillRows(studentOf, courseOf, studentStart, studentCourses);
+        return new EnrollmentIndex(studentIds, courseIds, courseStart, courseStudents, studentStart, studentCourses);
+    }
+
+    private static int[] distinctSorted(int[] values, int count) {
+        int[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    // Counting sort of the pairs by row; rows come out sorted by column
+    private static void fillRows(int[] rowOf, int[] columnOf, int[] start, int[] cells) {
+        for (int row : rowOf) {
+            start[row + 1]++;
+        }
+        for (int r = 0; r + 1 < start.length; r++) {
+            start[r + 1] += start[r];
+        }
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        for (int i = 0; i < rowOf.length; i++) {
+            cells[next[rowOf[i]]++] = columnOf[i];
+        }
+        for (int r = 0; r + 1 < start.length; r++) {
+            Arrays.sort(cells, start[r], start[r + 1]);
+        }
+    }
+
+    public int studentCount() {
+        return studentIds.length;
+    }
+
+    public int courseCount() {
+        return courseIds.length;
+    }
+
+    public int enrollmentCount() {
+        return courseStudents.length;
+    }
+
+    /**
+     * @return number of students enrolled in the course
+     */
+    public int studentsIn(int courseId) {
+        int c = Arrays.binarySearch(courseIds, courseId);
+        return c < 0 ? 0 : courseStart[c + 1] - courseStart[c];
+    }
+
+    /**
+     * @return ids of the courses the student takes, ascending
+     */
+    public int[] coursesOf(int studentId) {
+        int s = Arrays.binarySearch(studentIds, studentId);
+        if (s < 0) {
+            return new int[0];
+        }
+        int[] ids = new int[studentStart[s + 1] - studentStart[s]];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = courseIds[studentCourses[studentStart[s] + i]];
+        }
+        return ids;
+    }
+
+    public boolean isEnrolled(int studentId, int courseId) {
+        int s = Arrays.binarySearch(studentIds, studentId);
+        int c = Arrays.binarySearch(courseIds, courseId);
+        return s >= 0 && c >= 0 && Arrays.binarySearch(studentCourses, studentStart[s], studentStart[s + 1], c) >= 0;
+    }
+
+    /**
+     * Every pair of courses with a student in common, weighted by how many they share.
+     */
+    public CourseConflictGraph conflictGraph() {
+        int n = courseIds.length;
+        int[] shared = new int[n];
+        int[] touched = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] students = new int[n];
+        int[] neighbors = new int[Math.max(16, courseStudents.length)];
+        int[] weights = new int[neighbors.length];
+        int edges = 0;
+
+        for (int c = 0; c < n; c++) {
+            students[c] = courseStart[c + 1] - courseStart[c];
+            int touchedCount = 0;
+            for (int i = courseStart[c]; i < courseStart[c + 1]; i++) {
+                int s = courseStudents[i];
+                for (int j = studentStart[s]; j < studentStart[s + 1]; j++) {
+                    int d = studentCourses[j];
+                    if (d != c && shared[d]++ == 0) {
+                        touched[touchedCount++] = d;
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+            if (edges + touchedCount > neighbors.length) {
+                int capacity = Math.max(neighbors.length * 2, edges + touchedCount);
+                neighbors = Arrays.copyOf(neighbors, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            for (int k = 0; k < touchedCount; k++) {
+                int d = touched[k];
+                neighbors[edges] = d;
+                weights[edges++] = shared[d];
+                shared[d] = 0;
+            }
+            offsets[c + 1] = edges;
+        }
+        return new CourseConflictGraph(courseIds, students, offsets, Arrays.copyOf(neighbors, edges),
+            Arrays.copyOf(weights, edges));
+    }
+}
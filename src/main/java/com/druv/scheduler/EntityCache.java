@@ -0,0 +1,115 @@
+package com.druv.scheduler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Small bounded read-through cache for reference data (rooms, courses, users).
+ *
+ * Entries are evicted least-recently-used once maxSize is reached and expire
+ * ttl after they were loaded. DAOs call invalidate() from their write methods;
+ * a load that raced with an invalidation is not stored, so a reader can never
+ * put back a row that was changed while it was being read.
+ *
+ * Settings come from cache.&lt;name&gt;.maxSize and cache.&lt;name&gt;.ttlSeconds.
+ * Cached objects are shared, so callers must not mutate them.
+ */
+public class EntityCache<K, V> {
+
+    private record Entry<V>(V value, long loadedAtNanos) {}
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Bumped by every invalidation; loads that straddle one are discarded
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public EntityCache(String name, int defaultMaxSize, long defaultTtlSeconds) {
+        this.name = name;
+        this.maxSize = Math.max(1, Integer.getInteger("cache." + name + ".maxSize", defaultMaxSize));
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(
+            Math.max(0, Long.getLong("cache." + name + ".ttlSeconds", defaultTtlSeconds)));
+        // Access order turns the map into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return the cached value for key, loading it on a miss. Null results are not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAtNanos() < ttlNanos) {
+                    hits++;
+                    return entry.value();
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so a slow query does not block other lookups
+        V value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+                trimToSize();
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations++;
+        entries.clear();
+    }
+
+    private void trimToSize() {
+        Iterator<K> eldest = entries.keySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long lookups = hits + misses;
+        stats.put("name", name);
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+}
@@ -0,0 +1,263 @@
+package com.druv.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Timetable slots grouped by owner (a room or an instructor) and day, each
+ * group kept as an array sorted by start minute with a running maximum of end
+ * minutes. The earliest slot overlapping [start, end) is found with two binary
+ * searches, so a conflict check is O(log n) and never touches the database.
+ *
+ * Buckets are immutable and held in a ChunkedArray that is replaced as a whole
+ * on every change, so readers never lock and fork() can hand out an
+ * independent copy in O(1) that shares every untouched bucket. Writers are
+ * expected to be serialized by the caller (TimetableIndex).
+ */
+public final class IntervalIndex {
+
+    private static final Comparator<TimetableSlot> BY_START =
+        Comparator.comparingInt(TimetableSlot::startMin).thenComparingInt(TimetableSlot::id);
+
+    private final Function<TimetableSlot, Integer> owner;
+    private final Directory directory;
+    private volatile ChunkedArray<Bucket> buckets;
+
+    /**
+     * @param owner extracts the room or instructor id; slots with a null or
+     *              non-positive owner are not indexed
+     */
+    public IntervalIndex(Function<TimetableSlot, Integer> owner) {
+        this(owner, new Directory(), ChunkedArray.empty());
+    }
+
+    private IntervalIndex(Function<TimetableSlot, Integer> owner, Directory directory, ChunkedArray<Bucket> buckets) {
+        this.owner = owner;
+        this.directory = directory;
+        this.buckets = buckets;
+    }
+
+    /**
+     * An independent index starting from this one's current contents. Changes
+     * to either side are invisible to the other; the fork costs O(1) and only
+     * the buckets it later changes are copied.
+     */
+    public IntervalIndex fork() {
+        return new IntervalIndex(owner, directory, buckets);
+    }
+
+    /**
+     * Replace the whole index; each bucket is sorted once instead of insert by insert.
+     */
+    public void load(Collection<TimetableSlot> slots) {
+        Map<Long, List<TimetableSlot>> grouped = new HashMap<>();
+        for (TimetableSlot slot : slots) {
+            long key = keyOf(slot);
+            if (key >= 0) {
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(slot);
+            }
+        }
+        ChunkedArray.Editor<Bucket> editor = ChunkedArray.<Bucket>empty().edit();
+        grouped.forEach((key, group) ->
+            editor.set(directory.slotOf(key), Bucket.of(group.toArray(TimetableSlot[]::new))));
+        buckets = editor.build();
+    }
+
+    public void add(TimetableSlot slot) {
+        update(List.of(), List.of(slot));
+    }
+
+    public void remove(TimetableSlot slot) {
+        update(List.of(slot), List.of());
+    }
+
+    /**
+     * Remove and then add a batch of slots as one new version, copying each
+     * touched chunk of buckets once rather than once per slot.
+     */
+    public void update(Collection<TimetableSlot> removed, Collection<TimetableSlot> added) {
+        ChunkedArray.Editor<Bucket> editor = buckets.edit();
+        for (TimetableSlot slot : removed) {
+            long key = keyOf(slot);
+            if (key >= 0) {
+                int index = directory.slotOf(key);
+                Bucket bucket = editor.get(index);
+                if (bucket != null) {
+                    editor.set(index, bucket.without(slot.id()));
+                }
+            }
+        }
+        for (TimetableSlot slot : added) {
+            long key = keyOf(slot);
+            if (key >= 0) {
+                int index = directory.slotOf(key);
+                Bucket bucket = editor.get(index);
+                editor.set(index, bucket == null ? Bucket.of(new TimetableSlot[] {slot}) : bucket.with(slot));
+            }
+        }
+        buckets = editor.build();
+    }
+
+    /**
+     * @return the earliest-starting slot of ownerId on dayIndex overlapping [startMin, endMin), or null
+     */
+    public TimetableSlot firstOverlap(int ownerId, int dayIndex, int startMin, int endMin) {
+        Bucket bucket = bucket(ownerId, dayIndex);
+        return bucket == null ? null : bucket.firstOverlap(startMin, endMin);
+    }
+
+    /**
+     * @return every slot of ownerId on dayIndex overlapping [startMin, endMin), earliest first
+     */
+    public List<TimetableSlot> overlaps(int ownerId, int dayIndex, int startMin, int endMin) {
+        Bucket bucket = bucket(ownerId, dayIndex);
+        return bucket == null ? List.of() : bucket.overlaps(startMin, endMin);
+    }
+
+    /**
+     * @return how many slots ownerId has on dayIndex
+     */
+    public int count(int ownerId, int dayIndex) {
+        Bucket bucket = bucket(ownerId, dayIndex);
+        return bucket == null ? 0 : bucket.slots.length;
+    }
+
+    public int size() {
+        int[] size = new int[1];
+        buckets.forEach(bucket -> size[0] += bucket.slots.length);
+        return size[0];
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    private Bucket bucket(int ownerId, int dayIndex) {
+        Integer index = directory.find(key(ownerId, dayIndex));
+        return index == null ? null : buckets.get(index);
+    }
+
+    private long keyOf(TimetableSlot slot) {
+        Integer ownerId = owner.apply(slot);
+        if (ownerId == null || ownerId <= 0 || slot.dayIndex() < 1 || slot.dayIndex() > 7
+                || slot.startMin() == TimeCodec.UNKNOWN || slot.endMin() == TimeCodec.UNKNOWN) {
+            return -1;
+        }
+        return key(ownerId, slot.dayIndex());
+    }
+
+    private static long key(int ownerId, int dayIndex) {
+        return ((long) ownerId << 3) | dayIndex;
+    }
+
+    /**
+     * Dense position of every (owner, day) key ever indexed. Append-only and
+     * shared by an index and its forks, so a position means the same key in
+     * every version.
+     */
+    private static final class Directory {
+        private final Map<Long, Integer> positions = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        Integer find(long key) {
+            return positions.get(key);
+        }
+
+        int slotOf(long key) {
+            return positions.computeIfAbsent(key, k -> next.getAndIncrement());
+        }
+    }
+
+    private static final class Bucket {
+        final TimetableSlot[] slots;
+        final int[] starts;
+        // maxEnds[i] = max end minute of slots[0..i]; non-decreasing, so it can be binary searched
+        final int[] maxEnds;
+
+        private Bucket(TimetableSlot[] sorted) {
+            this.slots = sorted;
+            this.starts = new int[sorted.length];
+            this.maxEnds = new int[sorted.length];
+            int maxEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < sorted.length; i++) {
+                starts[i] = sorted[i].startMin();
+                maxEnd = Math.max(maxEnd, sorted[i].endMin());
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        static Bucket of(TimetableSlot[] slots) {
+            Arrays.sort(slots, BY_START);
+            return new Bucket(slots);
+        }
+
+        Bucket with(TimetableSlot slot) {
+            TimetableSlot[] copy = Arrays.copyOf(slots, slots.length + 1);
+            int at = slots.length;
+            // Shift the tail instead of re-sorting: one insert stays O(n) copying
+            while (at > 0 && BY_START.compare(copy[at - 1], slot) > 0) {
+                copy[at] = copy[at - 1];
+                at--;
+            }
+            copy[at] = slot;
+            return new Bucket(copy);
+        }
+
+        Bucket without(int id) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i].id() == id) {
+                    if (slots.length == 1) {
+                        return null;
+                    }
+                    TimetableSlot[] copy = new TimetableSlot[slots.length - 1];
+                    System.arraycopy(slots, 0, copy, 0, i);
+                    System.arraycopy(slots, i + 1, copy, i, slots.length - i - 1);
+                    return new Bucket(copy);
+                }
+            }
+            return this;
+        }
+
+        TimetableSlot firstOverlap(int startMin, int endMin) {
+            // Only slots starting before endMin can overlap; among those, the first
+            // whose running max end passes startMin is itself the overlapping slot
+            int candidates = firstAtLeast(starts, endMin);
+            int first = firstAtLeast(maxEnds, startMin + 1);
+            return first < candidates ? slots[first] : null;
+        }
+
+        List<TimetableSlot> overlaps(int startMin, int endMin) {
+            int candidates = firstAtLeast(starts, endMin);
+            List<TimetableSlot> result = new ArrayList<>();
+            for (int i = firstAtLeast(maxEnds, startMin + 1); i < candidates; i++) {
+                if (slots[i].endMin() > startMin) {
+                    result.add(slots[i]);
+                }
+            }
+            return result;
+        }
+
+        // First index whose value is >= target, or values.length
+        private static int firstAtLeast(int[] values, int target) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.druv.scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Builds keyset-paginated listing queries for the DAOs.
+ *
+ * Instead of OFFSET, each page continues strictly after the sort key of the
+ * last row of the previous page, so every page is an index seek plus at most
+ * limit + 1 rows no matter how deep the client pages. The sort key must end
+ * in a unique column (normally id) so the ordering is total.
+ *
+ * Cursors are opaque to clients: the last row's sort values, base64url-encoded.
+ */
+final class KeysetQuery {
+
+    static final int DEFAULT_LIMIT = Integer.getInteger("api.page.defaultLimit", 200);
+    static final int MAX_LIMIT = Integer.getInteger("api.page.maxLimit", 1000);
+    // No LIMIT at all: the whole listing in one page
+    static final int ALL = Integer.MAX_VALUE;
+
+    private static final char SEPARATOR = '\u001F';
+
+    record SortColumn(String expression, boolean numeric) {}
+
+    static SortColumn numeric(String expression) {
+        return new SortColumn(expression, true);
+    }
+
+    static SortColumn text(String expression) {
+        return new SortColumn(expression, false);
+    }
+
+    private final String columns;
+    private final String table;
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+
+    KeysetQuery(String columns, String table) {
+        this.columns = columns;
+        this.table = table;
+    }
+
+    KeysetQuery where(String condition, Object param) {
+        conditions.add(condition);
+        params.add(param);
+        return this;
+    }
+
+    /**
+     * A request with neither limit nor cursor is an old-style caller expecting
+     * the full list, so it gets ALL; paging clients get DEFAULT_LIMIT up to MAX_LIMIT.
+     */
+    static int clampLimit(Integer limit, String cursor) {
+        if (limit == null) {
+            return cursor == null || cursor.isBlank() ? ALL : DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    <T> Page<T> fetch(List<SortColumn> order, String cursor, int limit, RowMapper<T> mapper) throws SQLException {
+        List<String> where = new ArrayList<>(conditions);
+        List<Object> bind = new ArrayList<>(params);
+
+        StringBuilder keys = new StringBuilder();
+        StringBuilder orderBy = new StringBuilder();
+        for (int i = 0; i < order.size(); i++) {
+            String expression = order.get(i).expression();
+            keys.append(", ").append(expression).append(" AS keyset_").append(i);
+            orderBy.append(i == 0 ? "" : ", ").append(expression);
+        }
+
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] after = decode(cursor, order);
+            String placeholders = "?" + ", ?".repeat(order.size() - 1);
+            if (order.size() == 1) {
+                where.add(orderBy + " > ?");
+            } else {
+                // SQLite will not seek an index on a row-value comparison alone;
+                // the redundant leading-column bound gives it a range to start from
+                where.add(order.get(0).expression() + " >= ?");
+                bind.add(after[0]);
+                where.add("(" + orderBy + ") > (" + placeholders + ")");
+            }
+            bind.addAll(List.of(after));
+        }
+
+        String sql = "SELECT " + columns + keys + " FROM " + table
+            + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+            + " ORDER BY " + orderBy + " LIMIT ?";
+        // SQLite reads a negative LIMIT as no limit
+        bind.add(limit == ALL ? -1 : limit + 1);
+
+        List<T> items = new ArrayList<>(Math.min(limit, 256));
+        String nextCursor = null;
+        try (Connection conn = Database.connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < bind.size(); i++) {
+                stmt.setObject(i + 1, bind.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                String[] lastKeys = null;
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        // The extra row only proves there is another page
+                        nextCursor = encode(lastKeys);
+                        break;
+                    }
+                    items.add(mapper.mapRow(rs, items.size()));
+                    lastKeys = new String[order.size()];
+                    for (int i = 0; i < lastKeys.length; i++) {
+                        lastKeys[i] = rs.getString("keyset_" + i);
+                    }
+                }
+            }
+        }
+        return new Page<>(items, nextCursor);
+    }
+
+    private static String encode(String[] values) {
+        String joined = String.join(String.valueOf(SEPARATOR), values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decode(String cursor, List<SortColumn> order) {
+        String[] parts;
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = joined.split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (parts.length != order.size()) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Object[] values = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            if (order.get(i).numeric()) {
+                try {
+                    values[i] = Long.parseLong(parts[i]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Cursor does not match the requested sort", e);
+                }
+            } else {
+                values[i] = parts[i];
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,6 @@
+package com.druv.scheduler;
+
+/**
+ * Lookup view of a course, room or user: just the id and its display name.
+ */
+public record NamedRef(int id, String name) {}
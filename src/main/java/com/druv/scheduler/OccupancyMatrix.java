@@ -0,0 +1,135 @@
+package com.druv.scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One bitset per (owner, day) with a bit per grid cell of the day, so
+ * "is this owner free from start to end" is a handful of word ANDs.
+ *
+ * Cells are granularityMinutes wide (schedule.occupancy.granularityMinutes,
+ * default 5). A slot marks every cell it touches, rounding outwards, so a
+ * clear answer is always right; a busy answer can be a false positive when a
+ * time is off the grid, and callers that need exactness confirm it against
+ * the IntervalIndex. Bitsets are copied on write, so readers never lock;
+ * writers are serialized by the owner of the matrix (TimetableIndex).
+ */
+public final class OccupancyMatrix {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int granularity;
+    private final int words;
+    private final Map<Long, long[]> rows = new ConcurrentHashMap<>();
+
+    public OccupancyMatrix(int granularityMinutes) {
+        this.granularity = Math.max(1, Math.min(granularityMinutes, MINUTES_PER_DAY));
+        int cells = (MINUTES_PER_DAY + granularity - 1) / granularity;
+        this.words = (cells + 63) >>> 6;
+    }
+
+    public static OccupancyMatrix fromConfig() {
+        return new OccupancyMatrix(Integer.getInteger("schedule.occupancy.granularityMinutes", 5));
+    }
+
+    public int getGranularityMinutes() {
+        return granularity;
+    }
+
+    public void clear() {
+        rows.clear();
+    }
+
+    /**
+     * Mark [startMin, endMin) busy for the owner on the day.
+     */
+    public void occupy(int ownerId, int dayIndex, int startMin, int endMin) {
+        if (!valid(dayIndex, startMin, endMin)) {
+            return;
+        }
+        long key = key(ownerId, dayIndex);
+        long[] current = rows.get(key);
+        long[] updated = current == null ? new long[words] : current.clone();
+        forEachWord(startMin, endMin, (word, mask) -> updated[word] |= mask);
+        rows.put(key, updated);
+    }
+
+    /**
+     * Replace the owner's row for the day with exactly the given slots; used after
+     * a delete, where clearing bits could free cells another slot still covers.
+     */
+    public void rebuild(int ownerId, int dayIndex, Iterable<TimetableSlot> slots) {
+        long[] row = new long[words];
+        boolean any = false;
+        for (TimetableSlot slot : slots) {
+            if (valid(dayIndex, slot.startMin(), slot.endMin())) {
+                forEachWord(slot.startMin(), slot.endMin(), (word, mask) -> row[word] |= mask);
+                any = true;
+            }
+        }
+        if (any) {
+            rows.put(key(ownerId, dayIndex), row);
+        } else {
+            rows.remove(key(ownerId, dayIndex));
+        }
+    }
+
+    /**
+     * @return true if no occupied cell intersects [startMin, endMin)
+     * @throws IllegalArgumentException if the day or interval is not a valid one
+     */
+    public boolean isFree(int ownerId, int dayIndex, int startMin, int endMin) {
+        if (!valid(dayIndex, startMin, endMin)) {
+            throw new IllegalArgumentException("Invalid interval: day " + dayIndex + ", "
+                + startMin + "-" + endMin);
+        }
+        long[] row = rows.get(key(ownerId, dayIndex));
+        if (row == null) {
+            return true;
+        }
+        int first = startMin / granularity;
+        int last = (endMin - 1) / granularity;
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            if ((row[word] & mask(word, first, last)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int rowCount() {
+        return rows.size();
+    }
+
+    public long memoryBytes() {
+        return (long) rows.size() * words * Long.BYTES;
+    }
+
+    private interface WordVisitor {
+        void visit(int word, long mask);
+    }
+
+    private void forEachWord(int startMin, int endMin, WordVisitor visitor) {
+        int first = startMin / granularity;
+        int last = (endMin - 1) / granularity;
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            visitor.visit(word, mask(word, first, last));
+        }
+    }
+
+    // Bits of word covering cells first..last inclusive
+    private static long mask(int word, int first, int last) {
+        int from = Math.max(first - (word << 6), 0);
+        int to = Math.min(last - (word << 6), 63);
+        long upTo = to == 63 ? -1L : (1L << (to + 1)) - 1;
+        return upTo & (-1L << from);
+    }
+
+    private static boolean valid(int dayIndex, int startMin, int endMin) {
+        return dayIndex >= 1 && dayIndex <= 7 && startMin >= 0 && endMin > startMin && endMin <= MINUTES_PER_DAY;
+    }
+
+    private static long key(int ownerId, int dayIndex) {
+        return ((long) ownerId << 3) | dayIndex;
+    }
+}
@@ -0,0 +1,13 @@
+package com.druv.scheduler;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page.
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
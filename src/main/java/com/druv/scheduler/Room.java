@@ -4,6 +4,7 @@ public class Room {
     private int id;
     private String name;
     private int capacity;
+    private String department;
 
     public Room(String name, int capacity) {
         this.name = name;
@@ -14,7 +15,9 @@ public class Room {
     public int getId() { return id; }
     public String getName() { return name; }
     public int getCapacity() { return capacity; }
+    public String getDepartment() { return department; }
 
     // Setters
     public void setId(int id) { this.id = id; }
+    public void setDepartment(String department) { this.department = department; }
 }
@@ -7,43 +7,26 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class RoomDAO {
-    private static final String CREATE_TABLE = """
-        CREATE TABLE IF NOT EXISTS rooms (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            room_name TEXT UNIQUE NOT NULL,
-            capacity INTEGER NOT NULL CHECK(capacity > 0)
-        )""";
-
-    public RoomDAO() {
-        initializeTable();
-    }
+    // Table creation is handled by SchemaMigrations
 
-    private void initializeTable() {
-        try (Connection conn = Database.connect();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(CREATE_TABLE);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize rooms table", e);
-        }
-    }
+    private static final String ROOM_COLUMNS = "id, room_name, capacity, department";
+
+    // findById is hit once per row by reports and scheduling; writes below invalidate it
+    private final EntityCache<Integer, Room> cache = new EntityCache<>("rooms", 1024, 300);
 
     public List<Room> findAll() {
         List<Room> rooms = new ArrayList<>();
-        String sql = "SELECT * FROM rooms";
+        String sql = "SELECT " + ROOM_COLUMNS + " FROM rooms";
         
         try (Connection conn = Database.connect();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Room room = new Room(
-                    rs.getString("room_name"),
-                    rs.getInt("capacity")
-                );
-                room.setId(rs.getInt("id"));
-                rooms.add(room);
+                rooms.add(mapRoom(rs, rooms.size()));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching rooms", e);
@@ -51,16 +34,72 @@ public class RoomDAO {
         return rooms;
     }
 
+    /**
+     * Id and name of every room, for lookups that do not need the full row
+     */
+    public List<NamedRef> findAllNames() {
+        List<NamedRef> refs = new ArrayList<>();
+        String sql = "SELECT id, room_name FROM rooms";
+
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                refs.add(new NamedRef(rs.getInt(1), rs.getString(2)));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching room names", e);
+        }
+        return refs;
+    }
+
+    /**
+     * One keyset page of rooms holding at least minCapacity seats.
+     * @param sort "id" (default), "name" or "capacity"
+     */
+    public Page<Room> findPage(Integer minCapacity, String sort, String cursor, int limit) {
+        List<KeysetQuery.SortColumn> order = switch (sort == null ? "id" : sort) {
+            case "id" -> List.of(KeysetQuery.numeric("id"));
+            case "name" -> List.of(KeysetQuery.text("room_name"), KeysetQuery.numeric("id"));
+            case "capacity" -> List.of(KeysetQuery.numeric("capacity"), KeysetQuery.numeric("id"));
+            default -> throw new IllegalArgumentException("Unknown sort: " + sort);
+        };
+
+        KeysetQuery query = new KeysetQuery(ROOM_COLUMNS, "rooms");
+        if (minCapacity != null) {
+            query.where("capacity >= ?", minCapacity);
+        }
+        try {
+            return query.fetch(order, cursor, limit, RoomDAO::mapRoom);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching room page", e);
+        }
+    }
+
+    private static Room mapRoom(ResultSet rs, int rowNum) throws SQLException {
+        Room room = new Room(
+            rs.getString("room_name"),
+            rs.getInt("capacity")
+        );
+        room.setId(rs.getInt("id"));
+        room.setDepartment(rs.getString("department"));
+        return room;
+    }
+
     public boolean addRoom(String name, int capacity) {
         String sql = "INSERT INTO rooms (room_name, capacity) VALUES (?, ?)";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, name);
-            stmt.setInt(2, capacity);
+                    stmt.setString(1, name);
+                    stmt.setInt(2, capacity);
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             if (e.getMessage().contains("UNIQUE")) {
                 return false; // Room name already exists
@@ -70,7 +109,11 @@ public class RoomDAO {
     }
 
     public Room findById(int id) {
-        String sql = "SELECT * FROM rooms WHERE id = ?";
+        return cache.get(id, this::loadById);
+    }
+
+    private Room loadById(int id) {
+        String sql = "SELECT " + ROOM_COLUMNS + " FROM rooms WHERE id = ?";
         
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -78,12 +121,7 @@ public class RoomDAO {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Room room = new Room(
-                        rs.getString("room_name"),
-                        rs.getInt("capacity")
-                    );
-                    room.setId(rs.getInt("id"));
-                    return room;
+                    return mapRoom(rs, 0);
                 }
             }
         } catch (SQLException e) {
@@ -93,7 +131,7 @@ public class RoomDAO {
     }
 
     public Room findByName(String name) {
-        String sql = "SELECT * FROM rooms WHERE room_name = ?";
+        String sql = "SELECT " + ROOM_COLUMNS + " FROM rooms WHERE room_name = ?";
         
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -101,12 +139,7 @@ public class RoomDAO {
             stmt.setString(1, name);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    Room room = new Room(
-                        rs.getString("room_name"),
-                        rs.getInt("capacity")
-                    );
-                    room.setId(rs.getInt("id"));
-                    return room;
+                    return mapRoom(rs, 0);
                 }
             }
         } catch (SQLException e) {
@@ -118,16 +151,44 @@ public class RoomDAO {
     public boolean updateRoom(int id, String name, int capacity) {
         String sql = "UPDATE rooms SET room_name = ?, capacity = ? WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, name);
-            stmt.setInt(2, capacity);
-            stmt.setInt(3, id);
+                    stmt.setString(1, name);
+                    stmt.setInt(2, capacity);
+                    stmt.setInt(3, id);
             
-            return stmt.executeUpdate() > 0;
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error updating room", e);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Put the room in a department's pool, or back in the shared pool with null
+     */
+    public boolean updateDepartment(int id, String department) {
+        String sql = "UPDATE rooms SET department = ? WHERE id = ?";
+        
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                    stmt.setString(1, department);
+                    stmt.setInt(2, id);
+            
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating room department", e);
+        } finally {
+            cache.invalidate(id);
         }
     }
 
@@ -138,16 +199,25 @@ public class RoomDAO {
     public boolean deleteRoom(int id) {
         String sql = "DELETE FROM rooms WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting room", e);
+        } finally {
+            cache.invalidate(id);
         }
     }
 
+    public Map<String, Object> getCacheStats() {
+        return cache.getStats();
+    }
+
     public long getRoomCount() {
         String sql = "SELECT COUNT(*) FROM rooms";
         try (Connection conn = Database.connect();
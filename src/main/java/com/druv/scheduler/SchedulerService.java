@@ -12,6 +12,8 @@ public class SchedulerService {
     private final CourseDAO courseDAO;
     private final RoomDAO roomDAO;
     private final TimetableDAO timetableDAO;
+    private final TimetableIndex timetableIndex;
+    private final EnrollmentDAO enrollmentDAO;
     private final Map<String, SessionInfo> activeSessions = new HashMap<>();
 
     private static class SessionInfo {
@@ -28,11 +30,14 @@ public class SchedulerService {
         }
     }
 
-    public SchedulerService(UserDAO userDAO, CourseDAO courseDAO, RoomDAO roomDAO, TimetableDAO timetableDAO) {
+    public SchedulerService(UserDAO userDAO, CourseDAO courseDAO, RoomDAO roomDAO, TimetableDAO timetableDAO,
+                            TimetableIndex timetableIndex, EnrollmentDAO enrollmentDAO) {
         this.userDAO = userDAO;
         this.courseDAO = courseDAO;
         this.roomDAO = roomDAO;
         this.timetableDAO = timetableDAO;
+        this.timetableIndex = timetableIndex;
+        this.enrollmentDAO = enrollmentDAO;
     }
 
     // Authentication methods
@@ -97,6 +102,13 @@ public class SchedulerService {
         return List.of();
     }
 
+    public Page<Course> getCoursePage(String token, String facultyUsername, String sort, String cursor, int limit) {
+        if (validateToken(token) != null) {
+            return courseDAO.findPage(facultyUsername, sort, cursor, limit);
+        }
+        return new Page<>(List.of(), null);
+    }
+
     public Course getCourseById(String token, int id) {
         if (validateToken(token) != null) {
             return courseDAO.findById(id);
@@ -125,13 +137,36 @@ public class SchedulerService {
         return courseDAO.deleteCourse(id);
     }
     
+    /**
+     * Enroll the caller in a course or drop them from it. The row in
+     * enrollments is what the scheduler reads; the course's enrolled flag is
+     * still set for the courses page.
+     */
     public boolean toggleCourseEnrollment(String token, int id, boolean enrolled) {
-        if (validateToken(token) == null) {
+        User user = validateToken(token);
+        if (user == null || courseDAO.findById(id) == null) {
             return false;
         }
+        if (enrolled) {
+            enrollmentDAO.enroll(user.getId(), id);
+        } else {
+            enrollmentDAO.unenroll(user.getId(), id);
+        }
         return courseDAO.toggleEnrollment(id, enrolled);
     }
 
+    public List<Integer> getEnrolledCourseIds(String token) {
+        User user = validateToken(token);
+        return user == null ? List.of() : enrollmentDAO.findCourseIds(user.getId());
+    }
+
+    public boolean setCourseDepartment(String token, int id, String department) {
+        if (!isAuthorized(token, "ADMIN")) {
+            return false;
+        }
+        return courseDAO.updateDepartment(id, department);
+    }
+
     // Room methods
     public List<Room> getAllRooms(String token) {
         if (validateToken(token) != null) {
@@ -140,6 +175,13 @@ public class SchedulerService {
         return List.of();
     }
 
+    public Page<Room> getRoomPage(String token, Integer minCapacity, String sort, String cursor, int limit) {
+        if (validateToken(token) != null) {
+            return roomDAO.findPage(minCapacity, sort, cursor, limit);
+        }
+        return new Page<>(List.of(), null);
+    }
+
     public boolean addRoom(String token, String name, int capacity) {
         if (!isAuthorized(token, "ADMIN")) {
             return false;
@@ -147,6 +189,13 @@ public class SchedulerService {
         return roomDAO.addRoom(name, capacity);
     }
 
+    public boolean setRoomDepartment(String token, int id, String department) {
+        if (!isAuthorized(token, "ADMIN")) {
+            return false;
+        }
+        return roomDAO.updateDepartment(id, department);
+    }
+
     // Timetable methods
     public List<TimetableEntry> getAllBookings(String token) {
         if (validateToken(token) != null) {
@@ -155,6 +204,14 @@ public class SchedulerService {
         return List.of();
     }
 
+    public Page<TimetableEntry> getBookingPage(String token, TimetableFilter filter, String sort,
+                                               String cursor, int limit) {
+        if (validateToken(token) != null) {
+            return timetableDAO.findPage(filter, sort, cursor, limit);
+        }
+        return new Page<>(List.of(), null);
+    }
+
     public boolean addBooking(String token, int courseId, int roomId, 
                             String day, String startTime, String endTime) {
         User user = validateToken(token);
@@ -162,7 +219,12 @@ public class SchedulerService {
             return false;
         }
         
-        if (timetableDAO.hasTimeConflict(roomId, day, startTime, endTime)) {
+        if (!TimeCodec.isValidRange(TimeCodec.dayIndex(day), TimeCodec.toMinutes(startTime),
+                TimeCodec.toMinutes(endTime))) {
+            throw new IllegalArgumentException("Invalid day or time range: " + day + " " + startTime + "-" + endTime);
+        }
+        
+        if (timetableIndex.hasRoomConflict(roomId, day, startTime, endTime)) {
             return false;
         }
         
@@ -0,0 +1,246 @@
+package com.druv.scheduler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versioned schema migrations. Each migration runs once, in its own
+ * transaction, and is recorded in the schema_version table. New schema
+ * changes are added to the end of MIGRATIONS with the next version number;
+ * applied migrations must never be edited.
+ */
+public final class SchemaMigrations {
+
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn, Statement stmt) throws SQLException;
+    }
+
+    record Migration(int version, String description, Step step) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Base tables", (conn, stmt) -> {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS users (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    username TEXT UNIQUE NOT NULL,
+                    password TEXT NOT NULL,
+                    role TEXT NOT NULL CHECK(role IN ('ADMIN', 'FACULTY', 'STUDENT'))
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS rooms (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    room_name TEXT UNIQUE NOT NULL,
+                    capacity INTEGER NOT NULL CHECK(capacity > 0)
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS courses (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    course_code TEXT UNIQUE NOT NULL,
+                    course_name TEXT NOT NULL,
+                    faculty_username TEXT NOT NULL,
+                    max_students INTEGER NOT NULL CHECK(max_students > 0),
+                    enrolled INTEGER DEFAULT 0,
+                    FOREIGN KEY(faculty_username) REFERENCES users(username)
+                )""");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS timetable (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    course_id INTEGER,
+                    room_id INTEGER,
+                    day_of_week TEXT NOT NULL,
+                    start_time TEXT NOT NULL,
+                    end_time TEXT NOT NULL,
+                    instructor_id INTEGER,
+                    course_name TEXT,
+                    faculty TEXT,
+                    room_name TEXT,
+                    slot_code TEXT,
+                    type TEXT,
+                    FOREIGN KEY(course_id) REFERENCES courses(id),
+                    FOREIGN KEY(room_id) REFERENCES rooms(id)
+                )""");
+        }),
+
+        // Databases created by older builds may predate these columns
+        new Migration(2, "Backfill columns missing from older databases", (conn, stmt) -> {
+            addColumnIfMissing(conn, "courses", "enrolled", "INTEGER DEFAULT 0");
+            addColumnIfMissing(conn, "timetable", "instructor_id", "INTEGER");
+            addColumnIfMissing(conn, "timetable", "course_name", "TEXT");
+            addColumnIfMissing(conn, "timetable", "faculty", "TEXT");
+            addColumnIfMissing(conn, "timetable", "room_name", "TEXT");
+            addColumnIfMissing(conn, "timetable", "slot_code", "TEXT");
+            addColumnIfMissing(conn, "timetable", "type", "TEXT");
+        }),
+
+        // Conflict checks and per-room/per-instructor lookups filter on these
+        new Migration(3, "Timetable lookup indexes", (conn, stmt) -> {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_room_day_start "
+                + "ON timetable(room_id, day_of_week, start_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_instructor_day_start "
+                + "ON timetable(instructor_id, day_of_week, start_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_course "
+                + "ON timetable(course_id)");
+        }),
+
+        // Canonical integer day/time keys so overlap checks are index range probes
+        new Migration(4, "Integer day and minute columns on timetable", (conn, stmt) -> {
+            addColumnIfMissing(conn, "timetable", "day_index", "INTEGER");
+            addColumnIfMissing(conn, "timetable", "start_min", "INTEGER");
+            addColumnIfMissing(conn, "timetable", "end_min", "INTEGER");
+            backfillTimeKeys(conn);
+
+            // The text-keyed indexes from migration 3 are superseded
+            stmt.execute("DROP INDEX IF EXISTS idx_timetable_room_day_start");
+            stmt.execute("DROP INDEX IF EXISTS idx_timetable_instructor_day_start");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_room_day_min "
+                + "ON timetable(room_id, day_index, start_min, end_min)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_instructor_day_min "
+                + "ON timetable(instructor_id, day_index, start_min, end_min)");
+        }),
+
+        // Keyset pagination of timetable listings in day/time order
+        new Migration(5, "Timetable day/time ordering index", (conn, stmt) -> {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_day_start_id "
+                + "ON timetable(IFNULL(day_index, 0), IFNULL(start_min, 0), id)");
+        }),
+
+        // Room pools: a course with a department is scheduled into that department's rooms
+        new Migration(6, "Department columns on courses and rooms", (conn, stmt) -> {
+            addColumnIfMissing(conn, "courses", "department", "TEXT");
+            addColumnIfMissing(conn, "rooms", "department", "TEXT");
+        }),
+
+        // Which students take which course; the primary key also serves lookups by student
+        new Migration(7, "Student enrollments", (conn, stmt) -> {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS enrollments (
+                    student_id INTEGER NOT NULL,
+                    course_id INTEGER NOT NULL,
+                    enrolled_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (student_id, course_id),
+                    FOREIGN KEY(student_id) REFERENCES users(id),
+                    FOREIGN KEY(course_id) REFERENCES courses(id)
+                )""");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollments_course ON enrollments(course_id)");
+        }),
+
+        // Pinned entries stay put when the auto-scheduler re-plans the rest
+        new Migration(8, "Pinned flag on timetable entries", (conn, stmt) -> {
+            addColumnIfMissing(conn, "timetable", "pinned", "INTEGER NOT NULL DEFAULT 0");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_timetable_pinned ON timetable(id) WHERE pinned = 1");
+        })
+    );
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Apply every migration newer than the recorded schema version.
+     * @return the schema version after migrating
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+        }
+
+        int current = currentVersion(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement();
+                     PreparedStatement record = conn.prepareStatement(
+                         "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    migration.step().apply(conn, stmt);
+                    record.setInt(1, migration.version());
+                    record.setString(2, migration.description());
+                    record.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration " + migration.version() + " ("
+                        + migration.description() + ") failed: " + e.getMessage(), e);
+                }
+                current = migration.version();
+                System.out.println("Applied schema migration " + current + ": " + migration.description());
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backfillTimeKeys(Connection conn) throws SQLException {
+        String select = "SELECT id, day_of_week, start_time, end_time FROM timetable";
+        String update = "UPDATE timetable SET day_index = ?, start_min = ?, end_min = ? WHERE id = ?";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(select);
+             PreparedStatement ps = conn.prepareStatement(update)) {
+            while (rs.next()) {
+                int[] keys = {
+                    TimeCodec.dayIndex(rs.getString("day_of_week")),
+                    TimeCodec.toMinutes(rs.getString("start_time")),
+                    TimeCodec.toMinutes(rs.getString("end_time"))
+                };
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] != TimeCodec.UNKNOWN) {
+                        ps.setInt(i + 1, keys[i]);
+                    } else {
+                        ps.setNull(i + 1, java.sql.Types.INTEGER);
+                    }
+                }
+                ps.setInt(4, rs.getInt("id"));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        if (!hasColumn(conn, table, column)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            }
+        }
+    }
+}
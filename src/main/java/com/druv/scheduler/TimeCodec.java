@@ -0,0 +1,92 @@
+package com.druv.scheduler;
+
+/**
+ * Canonical integer encoding for timetable days and times.
+ *
+ * Days are stored as 1-7 (Monday = 1). Seed data uses day orders ("1".."5")
+ * while the UI and scheduler use weekday names; both map to the same index.
+ * Times are minutes since midnight, so overlap checks are plain int compares.
+ */
+public final class TimeCodec {
+
+    public static final int UNKNOWN = -1;
+
+    private static final String[] DAY_NAMES = {
+        "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"
+    };
+
+    private TimeCodec() {
+    }
+
+    /**
+     * @return 1-7 for a day order or weekday name (full or 3-letter), UNKNOWN otherwise
+     */
+    public static int dayIndex(String day) {
+        if (day == null) {
+            return UNKNOWN;
+        }
+        String value = day.trim();
+        if (value.length() == 1 && value.charAt(0) >= '1' && value.charAt(0) <= '7') {
+            return value.charAt(0) - '0';
+        }
+        if (value.length() >= 3) {
+            for (int i = 0; i < DAY_NAMES.length; i++) {
+                String name = DAY_NAMES[i];
+                if (value.length() <= name.length() && name.regionMatches(true, 0, value, 0, value.length())) {
+                    return i + 1;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    public static String dayName(int dayIndex) {
+        return dayIndex >= 1 && dayIndex <= DAY_NAMES.length ? DAY_NAMES[dayIndex - 1] : null;
+    }
+
+    /**
+     * Parse "H:MM" or "HH:MM" into minutes since midnight without allocating.
+     * @return minutes, or UNKNOWN if the value is not a valid time
+     */
+    public static int toMinutes(String time) {
+        if (time == null) {
+            return UNKNOWN;
+        }
+        int length = time.length();
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || length - colon != 3) {
+            return UNKNOWN;
+        }
+        int hours = 0;
+        for (int i = 0; i < colon; i++) {
+            int digit = time.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return UNKNOWN;
+            }
+            hours = hours * 10 + digit;
+        }
+        int tens = time.charAt(colon + 1) - '0';
+        int ones = time.charAt(colon + 2) - '0';
+        if (tens < 0 || tens > 5 || ones < 0 || ones > 9 || hours > 24) {
+            return UNKNOWN;
+        }
+        int minutes = hours * 60 + tens * 10 + ones;
+        return minutes <= 24 * 60 ? minutes : UNKNOWN;
+    }
+
+    public static String formatMinutes(int minutes) {
+        return "%02d:%02d".formatted(minutes / 60, minutes % 60);
+    }
+
+    /**
+     * @return true if the day is known and [startMin, endMin) is a non-empty range of known times
+     */
+    public static boolean isValidRange(int dayIndex, int startMin, int endMin) {
+        return dayIndex != UNKNOWN && startMin != UNKNOWN && endMin != UNKNOWN && endMin > startMin;
+    }
+
+    // Half-open intervals: a class ending at 10:00 does not clash with one starting at 10:00
+    public static boolean overlaps(int start1, int end1, int start2, int end2) {
+        return start1 < end2 && start2 < end1;
+    }
+}
@@ -0,0 +1,225 @@
+package com.druv.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.druv.scheduler.engine.TimeSlot;
+
+/**
+ * The teaching week: the days classes run on and the periods of each day,
+ * parsed once into dense int slot ids (dayPosition * periodCount + period)
+ * with start and end minutes. The scheduler, the reports and the timetable
+ * page (through /api/grid) all read the same instance, so none of them
+ * re-splits "HH:MM-HH:MM" strings or keeps its own day list.
+ *
+ * Configured with schedule.grid.days (comma-separated day names or day
+ * orders 1-7, default Monday to Friday) and schedule.grid.periods
+ * (comma-separated HH:MM-HH:MM in start order, default the twelve periods of
+ * the institution's day-order timetable).
+ */
+public final class TimeGrid {
+
+    public static final String DEFAULT_DAYS = "Monday,Tuesday,Wednesday,Thursday,Friday";
+    public static final String DEFAULT_PERIODS = "08:00-08:50,08:50-09:40,09:45-10:35,10:40-11:30,"
+        + "11:35-12:25,12:30-13:20,13:25-14:15,14:20-15:10,15:10-16:00,16:00-16:50,16:50-17:30,17:30-18:10";
+
+    private final int[] days;
+    // Day index (1-7) to position in days, or -1
+    private final int[] dayPositions = new int[8];
+    private final int[] starts;
+    private final int[] ends;
+    private final List<TimeSlot> slots;
+
+    private TimeGrid(int[] days, int[] starts, int[] ends) {
+        this.days = days;
+        this.starts = starts;
+        this.ends = ends;
+        Arrays.fill(dayPositions, -1);
+        for (int d = 0; d < days.length; d++) {
+            dayPositions[days[d]] = d;
+        }
+        List<TimeSlot> all = new ArrayList<>(days.length * starts.length);
+        for (int day : days) {
+            for (int p = 0; p < starts.length; p++) {
+                all.add(new TimeSlot(day, starts[p], ends[p]));
+            }
+        }
+        this.slots = Collections.unmodifiableList(all);
+    }
+
+    public static TimeGrid fromConfig() {
+        return parse(System.getProperty("schedule.grid.days", DEFAULT_DAYS),
+            System.getProperty("schedule.grid.periods", DEFAULT_PERIODS));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a day or period does not parse, a day
+     *         repeats, or periods are out of order or overlap
+     */
+    public static TimeGrid parse(String dayList, String periodList) {
+        List<Integer> days = new ArrayList<>();
+        for (String value : dayList.split(",")) {
+            int day = TimeCodec.dayIndex(value);
+            if (day == TimeCodec.UNKNOWN) {
+                throw new IllegalArgumentException("Unknown day in time grid: " + value.trim());
+            }
+            if (days.contains(day)) {
+                throw new IllegalArgumentException("Day listed twice in time grid: " + value.trim());
+            }
+            days.add(day);
+        }
+
+        String[] periods = periodList.split(",");
+        int[] starts = new int[periods.length];
+        int[] ends = new int[periods.length];
+        for (int p = 0; p < periods.length; p++) {
+            // Accept the en dash the timetable page uses as well as a hyphen
+            String[] times = periods[p].trim().split("\\s*[-\u2013]\\s*");
+            int start = times.length == 2 ? TimeCodec.toMinutes(times[0]) : TimeCodec.UNKNOWN;
+            int end = times.length == 2 ? TimeCodec.toMinutes(times[1]) : TimeCodec.UNKNOWN;
+            if (start == TimeCodec.UNKNOWN || end == TimeCodec.UNKNOWN || end <= start) {
+                throw new IllegalArgumentException("Invalid period in time grid: " + periods[p].trim());
+            }
+            if (p > 0 && start < ends[p - 1]) {
+                throw new IllegalArgumentException("Periods must be in order without overlapping: "
+                    + periods[p].trim());
+            }
+            starts[p] = start;
+            ends[p] = end;
+        }
+        if (days.isEmpty() || periods.length == 0) {
+            throw new IllegalArgumentException("Time grid needs at least one day and one period");
+        }
+        return new TimeGrid(days.stream().mapToInt(Integer::intValue).toArray(), starts, ends);
+    }
+
+    public int dayCount() {
+        return days.length;
+    }
+
+    public int periodCount() {
+        return starts.length;
+    }
+
+    public int slotCount() {
+        return days.length * starts.length;
+    }
+
+    /**
+     * @return the TimeCodec day index (1-7) of the day at position
+     */
+    public int dayIndex(int position) {
+        return days[position];
+    }
+
+    /**
+     * @return position of the day in the grid, or -1 if classes do not run that day
+     */
+    public int dayPosition(int dayIndex) {
+        return dayIndex >= 1 && dayIndex <= 7 ? dayPositions[dayIndex] : -1;
+    }
+
+    public int periodStart(int period) {
+        return starts[period];
+    }
+
+    public int periodEnd(int period) {
+        return ends[period];
+    }
+
+    /**
+     * @return the period whose [start, end) contains minute, or -1 if it falls between or outside periods
+     */
+    public int periodAt(int minute) {
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        // Last period starting at or before minute
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= minute) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && minute < ends[found] ? found : -1;
+    }
+
+    /**
+     * @return the slot id holding minute on the day, or -1 if it is off the grid
+     */
+    public int slotAt(int dayIndex, int minute) {
+        int position = dayPosition(dayIndex);
+        int period = position < 0 ? -1 : periodAt(minute);
+        return period < 0 ? -1 : slotId(position, period);
+    }
+
+    public int slotId(int dayPosition, int period) {
+        return dayPosition * starts.length + period;
+    }
+
+    /**
+     * Every slot of the week in slot-id order, i.e. day by day and period by period.
+     */
+    public List<TimeSlot> slots() {
+        return slots;
+    }
+
+    public TimeSlot slot(int slotId) {
+        return slots.get(slotId);
+    }
+
+    public List<String> dayNames() {
+        List<String> names = new ArrayList<>(days.length);
+        for (int day : days) {
+            names.add(TimeCodec.dayName(day));
+        }
+        return names;
+    }
+
+    /**
+     * Period start times as HH:MM, in period order.
+     */
+    public List<String> periodStartTimes() {
+        List<String> times = new ArrayList<>(starts.length);
+        for (int start : starts) {
+            times.add(TimeCodec.formatMinutes(start));
+        }
+        return times;
+    }
+
+    /**
+     * The grid as served by /api/grid.
+     */
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> dayList = new ArrayList<>(days.length);
+        for (int d = 0; d < days.length; d++) {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("position", d);
+            day.put("dayIndex", days[d]);
+            day.put("name", TimeCodec.dayName(days[d]));
+            dayList.add(day);
+        }
+        List<Map<String, Object>> periodList = new ArrayList<>(starts.length);
+        for (int p = 0; p < starts.length; p++) {
+            Map<String, Object> period = new LinkedHashMap<>();
+            period.put("period", p);
+            period.put("startTime", TimeCodec.formatMinutes(starts[p]));
+            period.put("endTime", TimeCodec.formatMinutes(ends[p]));
+            period.put("startMinute", starts[p]);
+            period.put("endMinute", ends[p]);
+            periodList.add(period);
+        }
+        Map<String, Object> grid = new LinkedHashMap<>();
+        grid.put("days", dayList);
+        grid.put("periods", periodList);
+        grid.put("slotCount", slotCount());
+        return grid;
+    }
+}
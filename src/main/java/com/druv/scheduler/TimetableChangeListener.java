@@ -0,0 +1,15 @@
+package com.druv.scheduler;
+
+import java.util.List;
+
+/**
+ * Notified by TimetableDAO after timetable writes commit, in commit order,
+ * on the database writer thread. Implementations must be quick and must not
+ * issue writes of their own.
+ */
+public interface TimetableChangeListener {
+
+    void slotsInserted(List<TimetableSlot> slots);
+
+    void slotsDeleted(List<Integer> ids);
+}
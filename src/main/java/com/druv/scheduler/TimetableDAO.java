@@ -6,43 +6,45 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TimetableDAO {
-    // Table creation is handled by Database.java
-    // No need to duplicate schema here
+    // Table creation and indexes are handled by SchemaMigrations
+
+    // In-memory views (conflict index) that follow every committed write
+    private final List<TimetableChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Column lists for each read model; keep in sync with the matching mapper below
+    private static final String ENTRY_COLUMNS = "id, course_id, room_id, day_of_week, start_time, end_time, "
+        + "instructor_id, course_name, faculty, room_name, slot_code, type, pinned";
+    private static final String BOOKING_COLUMNS = "id, course_id, room_id, day_of_week, start_time, end_time, instructor_id";
+    private static final String SLOT_COLUMNS = "id, course_id, room_id, instructor_id, day_index, start_min, end_min";
+
+    // Insert of every column, shared by single and bulk saves
+    private static final String FULL_INSERT_SQL = """
+        INSERT INTO timetable (
+            course_id, room_id, day_of_week, start_time, end_time,
+            instructor_id, course_name, faculty, room_name, slot_code, type,
+            day_index, start_min, end_min
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
 
     public List<TimetableEntry> findAll() {
         List<TimetableEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM timetable";
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM timetable";
 
         try (Connection conn = Database.connect();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                TimetableEntry entry = new TimetableEntry(
-                    rs.getInt("course_id"),
-                    rs.getInt("room_id"),
-                    rs.getString("day_of_week"),
-                    rs.getString("start_time"),
-                    rs.getString("end_time")
-                );
-                
-                // Set denormalized fields for frontend display
-                entry.setCourseName(rs.getString("course_name"));
-                entry.setFaculty(rs.getString("faculty"));
-                entry.setRoomName(rs.getString("room_name"));
-                entry.setSlotCode(rs.getString("slot_code"));
-                entry.setType(rs.getString("type"));
-                
-                // Set instructor_id if present
-                int instructorId = rs.getInt("instructor_id");
-                if (!rs.wasNull()) {
-                    entry.setInstructorId(instructorId);
-                }
-                
-                entries.add(entry);
+                entries.add(mapEntry(rs, entries.size()));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error fetching timetable entries", e);
@@ -50,19 +52,127 @@ public class TimetableDAO {
         return entries;
     }
 
+    /**
+     * One keyset page of entries matching the filter.
+     * @param sort "id" (insertion order, the default) or "time" (day, then start time)
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public Page<TimetableEntry> findPage(TimetableFilter filter, String sort, String cursor, int limit) {
+        List<KeysetQuery.SortColumn> order = switch (sort == null ? "id" : sort) {
+            case "id" -> List.of(KeysetQuery.numeric("id"));
+            // Matches idx_timetable_day_start_id; unparsed times sort first
+            case "time" -> List.of(KeysetQuery.numeric("IFNULL(day_index, 0)"),
+                                   KeysetQuery.numeric("IFNULL(start_min, 0)"),
+                                   KeysetQuery.numeric("id"));
+            default -> throw new IllegalArgumentException("Unknown sort: " + sort);
+        };
+
+        KeysetQuery query = new KeysetQuery(ENTRY_COLUMNS, "timetable");
+        (filter != null ? filter : TimetableFilter.NONE).applyTo(query);
+        try {
+            return query.fetch(order, cursor, limit, TimetableDAO::mapEntry);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching timetable page", e);
+        }
+    }
+
+    /**
+     * Ids and integer time keys of every entry, for building conflict indexes
+     */
+    public List<TimetableSlot> findAllSlots() {
+        List<TimetableSlot> slots = new ArrayList<>();
+        String sql = "SELECT " + SLOT_COLUMNS + " FROM timetable";
+
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                slots.add(mapSlot(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching timetable slots", e);
+        }
+        return slots;
+    }
+
+    // Full row, including the denormalized display fields
+    private static TimetableEntry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        TimetableEntry entry = mapBooking(rs);
+        
+        // Set denormalized fields for frontend display
+        entry.setCourseName(rs.getString("course_name"));
+        entry.setFaculty(rs.getString("faculty"));
+        entry.setRoomName(rs.getString("room_name"));
+        entry.setSlotCode(rs.getString("slot_code"));
+        entry.setType(rs.getString("type"));
+        entry.setPinned(rs.getInt("pinned") != 0);
+        return entry;
+    }
+
+    // Booking columns only: ids, day and times as stored
+    private static TimetableEntry mapBooking(ResultSet rs) throws SQLException {
+        TimetableEntry entry = new TimetableEntry(
+            rs.getInt("course_id"),
+            rs.getInt("room_id"),
+            rs.getString("day_of_week"),
+            rs.getString("start_time"),
+            rs.getString("end_time")
+        );
+        entry.setId(rs.getInt("id"));
+        
+        // Set instructor_id if present
+        int instructorId = rs.getInt("instructor_id");
+        if (!rs.wasNull()) {
+            entry.setInstructorId(instructorId);
+        }
+        return entry;
+    }
+
+    private static TimetableSlot mapSlot(ResultSet rs) throws SQLException {
+        int instructorId = rs.getInt("instructor_id");
+        Integer instructor = rs.wasNull() ? null : instructorId;
+        return new TimetableSlot(
+            rs.getInt("id"),
+            rs.getInt("course_id"),
+            rs.getInt("room_id"),
+            instructor,
+            intOrUnknown(rs, "day_index"),
+            intOrUnknown(rs, "start_min"),
+            intOrUnknown(rs, "end_min")
+        );
+    }
+
+    private static int intOrUnknown(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? TimeCodec.UNKNOWN : value;
+    }
+
     public boolean addBooking(int courseId, int roomId, String day, String startTime, String endTime) {
-        String sql = "INSERT INTO timetable (course_id, room_id, day_of_week, start_time, end_time) VALUES (?, ?, ?, ?, ?)";
+        String sql = """
+            INSERT INTO timetable (course_id, room_id, day_of_week, start_time, end_time,
+                                   day_index, start_min, end_min)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, courseId);
-            stmt.setInt(2, roomId);
-            stmt.setString(3, day);
-            stmt.setString(4, startTime);
-            stmt.setString(5, endTime);
+                    stmt.setInt(1, courseId);
+                    stmt.setInt(2, roomId);
+                    stmt.setString(3, day);
+                    stmt.setString(4, startTime);
+                    stmt.setString(5, endTime);
+                    bindTimeKeys(stmt, 6, day, startTime, endTime);
             
-            return stmt.executeUpdate() > 0;
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    publishInserted(List.of(slotOf(lastInsertId(conn), courseId, roomId, null,
+                        day, startTime, endTime)));
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             if (e.getMessage().contains("UNIQUE")) {
                 return false; // Time slot conflict
@@ -71,24 +181,25 @@ public class TimetableDAO {
         }
     }
 
+    /**
+     * @throws IllegalArgumentException if the day or times do not parse, or end is not after start
+     */
     public boolean hasTimeConflict(int roomId, String day, String startTime, String endTime) {
+        requireValidSlot(day, startTime, endTime);
+        // Half-open overlap on the integer columns: one index range probe, no string compares
         String sql = """
-            SELECT COUNT(*) FROM timetable 
-            WHERE room_id = ? 
-            AND day_of_week = ? 
-            AND ((start_time < ? AND end_time > ?) 
-                 OR 
-                 (start_time < ? AND end_time > ?))""";
+            SELECT EXISTS (
+                SELECT 1 FROM timetable
+                WHERE room_id = ? AND day_index = ? AND start_min < ? AND end_min > ?
+            )""";
                  
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, roomId);
-            stmt.setString(2, day);
-            stmt.setString(3, endTime);
-            stmt.setString(4, startTime);
-            stmt.setString(5, startTime);
-            stmt.setString(6, endTime);
+            stmt.setInt(2, TimeCodec.dayIndex(day));
+            stmt.setInt(3, TimeCodec.toMinutes(endTime));
+            stmt.setInt(4, TimeCodec.toMinutes(startTime));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 return rs.next() && rs.getInt(1) > 0;
@@ -98,27 +209,83 @@ public class TimetableDAO {
         }
     }
 
+    /**
+     * Entries in a room that overlap [startMin, endMin) on the given day, earliest first
+     */
+    public List<TimetableSlot> findRoomOverlaps(int roomId, int dayIndex, int startMin, int endMin) {
+        String sql = "SELECT " + SLOT_COLUMNS + """
+             FROM timetable
+            WHERE room_id = ? AND day_index = ? AND start_min < ? AND end_min > ?
+            ORDER BY start_min""";
+        return findOverlaps(sql, roomId, dayIndex, startMin, endMin);
+    }
+
+    /**
+     * Entries taught by an instructor that overlap [startMin, endMin) on the given day, earliest first
+     */
+    public List<TimetableSlot> findInstructorOverlaps(int instructorId, int dayIndex, int startMin, int endMin) {
+        String sql = "SELECT " + SLOT_COLUMNS + """
+             FROM timetable
+            WHERE instructor_id = ? AND day_index = ? AND start_min < ? AND end_min > ?
+            ORDER BY start_min""";
+        return findOverlaps(sql, instructorId, dayIndex, startMin, endMin);
+    }
+
+    private List<TimetableSlot> findOverlaps(String sql, int ownerId, int dayIndex, int startMin, int endMin) {
+        List<TimetableSlot> slots = new ArrayList<>();
+
+        try (Connection conn = Database.connect();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, ownerId);
+            stmt.setInt(2, dayIndex);
+            stmt.setInt(3, endMin);
+            stmt.setInt(4, startMin);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    slots.add(mapSlot(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error fetching overlapping timetable entries", e);
+        }
+        return slots;
+    }
+
     /**
      * Add timetable entry with enhanced functionality
      */
     public boolean addTimetableEntry(TimetableEntry entry) {
-        String sql = "INSERT INTO timetable (course_id, room_id, day_of_week, start_time, end_time, instructor_id) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = """
+            INSERT INTO timetable (course_id, room_id, day_of_week, start_time, end_time, instructor_id,
+                                   day_index, start_min, end_min)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, entry.getCourseId());
-            stmt.setInt(2, entry.getRoomId());
-            stmt.setString(3, entry.getDayOfWeek());
-            stmt.setString(4, entry.getStartTime());
-            stmt.setString(5, entry.getEndTime());
-            if (entry.getInstructorId() != null) {
-                stmt.setInt(6, entry.getInstructorId());
-            } else {
-                stmt.setNull(6, java.sql.Types.INTEGER);
-            }
+                    stmt.setInt(1, entry.getCourseId());
+                    stmt.setInt(2, entry.getRoomId());
+                    stmt.setString(3, entry.getDayOfWeek());
+                    stmt.setString(4, entry.getStartTime());
+                    stmt.setString(5, entry.getEndTime());
+                    if (entry.getInstructorId() != null) {
+                        stmt.setInt(6, entry.getInstructorId());
+                    } else {
+                        stmt.setNull(6, java.sql.Types.INTEGER);
+                    }
+                    bindTimeKeys(stmt, 7, entry.getDayOfWeek(), entry.getStartTime(), entry.getEndTime());
             
-            return stmt.executeUpdate() > 0;
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    entry.setId(lastInsertId(conn));
+                    publishInserted(List.of(slotOf(entry)));
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error adding timetable entry", e);
         }
@@ -130,149 +297,162 @@ public class TimetableDAO {
     public boolean deleteEntry(int id) {
         String sql = "DELETE FROM timetable WHERE id = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+                    stmt.setInt(1, id);
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    publishDeleted(List.of(id));
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting timetable entry", e);
         }
     }
 
     /**
-     * Delete timetable entry by day, start time, and end time
+     * Pin or unpin an entry. Pinned entries stay fixed when the auto-scheduler re-plans.
+     * @return false if no entry has this id
      */
-    public boolean deleteBySlot(String dayOfWeek, String startTime, String endTime) {
-        String sql = "DELETE FROM timetable WHERE day_of_week = ? AND start_time = ? AND end_time = ?";
-        
+    public boolean setPinned(int id, boolean pinned) {
+        String sql = "UPDATE timetable SET pinned = ? WHERE id = ?";
+
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, pinned ? 1 : 0);
+                    stmt.setInt(2, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error pinning timetable entry", e);
+        }
+    }
+
+    /**
+     * Ids of the pinned entries, read through the partial pinned index.
+     */
+    public Set<Integer> findPinnedIds() {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT id FROM timetable WHERE pinned = 1";
+
         try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, dayOfWeek);
-            stmt.setString(2, startTime);
-            stmt.setString(3, endTime);
-            return stmt.executeUpdate() > 0;
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Error deleting timetable entry by slot", e);
+            throw new RuntimeException("Error fetching pinned timetable entries", e);
         }
+        return ids;
     }
 
     /**
-     * Get all timetable entries for a specific room and day
+     * Delete timetable entry by day, start time, and end time
      */
-    public List<TimetableEntry> getByRoomAndDay(int roomId, String day) {
-        List<TimetableEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM timetable WHERE room_id = ? AND day_of_week = ?";
+    public boolean deleteBySlot(String dayOfWeek, String startTime, String endTime) {
+        requireValidSlot(dayOfWeek, startTime, endTime);
+        String where = " FROM timetable WHERE day_index = ? AND start_min = ? AND end_min = ?";
         
-        try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, roomId);
-            stmt.setString(2, day);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    TimetableEntry entry = new TimetableEntry(
-                        rs.getInt("course_id"),
-                        rs.getInt("room_id"),
-                        rs.getString("day_of_week"),
-                        rs.getString("start_time"),
-                        rs.getString("end_time")
-                    );
-                    entry.setId(rs.getInt("id"));
-                    // Handle instructor_id (might be null in older schema)
-                    try {
-                        int instructorId = rs.getInt("instructor_id");
-                        if (!rs.wasNull()) {
-                            entry.setInstructorId(instructorId);
+        try {
+            return Database.write(conn -> {
+                // Same transaction on the single writer, so the ids read are exactly the rows deleted
+                List<Integer> ids = new ArrayList<>();
+                try (PreparedStatement select = conn.prepareStatement("SELECT id" + where)) {
+                    bindSlotKeys(select, dayOfWeek, startTime, endTime);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
                         }
-                    } catch (SQLException e) {
-                        // instructor_id column doesn't exist - ignore
                     }
-                    entries.add(entry);
                 }
-            }
+                if (ids.isEmpty()) {
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE" + where)) {
+                    bindSlotKeys(stmt, dayOfWeek, startTime, endTime);
+                    stmt.executeUpdate();
+                }
+                publishDeleted(ids);
+                return true;
+            });
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching timetable entries by room and day", e);
+            throw new RuntimeException("Error deleting timetable entry by slot", e);
         }
-        
-        return entries;
+    }
+
+    /**
+     * Get all timetable entries for a specific room and day
+     */
+    public List<TimetableEntry> getByRoomAndDay(int roomId, String day) {
+        String sql = "SELECT " + BOOKING_COLUMNS
+            + " FROM timetable WHERE room_id = ? AND day_index = ? ORDER BY start_min";
+        return findBookings(sql, "Error fetching timetable entries by room and day", roomId, TimeCodec.dayIndex(day));
     }
 
     /**
      * Get all timetable entries for a specific instructor and day
      */
     public List<TimetableEntry> getByInstructorAndDay(int instructorId, String day) {
+        String sql = "SELECT " + BOOKING_COLUMNS
+            + " FROM timetable WHERE instructor_id = ? AND day_index = ? ORDER BY start_min";
+        return findBookings(sql, "Error fetching timetable entries by instructor and day",
+            instructorId, TimeCodec.dayIndex(day));
+    }
+
+    /**
+     * Get all timetable entries for a specific room
+     */
+    public List<TimetableEntry> getByRoom(int roomId) {
+        String sql = "SELECT " + BOOKING_COLUMNS + " FROM timetable WHERE room_id = ?";
+        return findBookings(sql, "Error fetching timetable entries by room", roomId);
+    }
+
+    private List<TimetableEntry> findBookings(String sql, String errorMessage, int... params) {
         List<TimetableEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM timetable WHERE instructor_id = ? AND day_of_week = ?";
         
         try (Connection conn = Database.connect();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, instructorId);
-            stmt.setString(2, day);
-            
+            for (int i = 0; i < params.length; i++) {
+                stmt.setInt(i + 1, params[i]);
+            }
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    TimetableEntry entry = new TimetableEntry(
-                        rs.getInt("course_id"),
-                        rs.getInt("room_id"),
-                        rs.getString("day_of_week"),
-                        rs.getString("start_time"),
-                        rs.getString("end_time")
-                    );
-                    entry.setId(rs.getInt("id"));
-                    entry.setInstructorId(rs.getInt("instructor_id"));
-                    entries.add(entry);
+                    entries.add(mapBooking(rs));
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching timetable entries by instructor and day", e);
+            throw new RuntimeException(errorMessage, e);
         }
         
         return entries;
     }
 
     /**
-     * Get all timetable entries for a specific room
+     * Number of entries booked in each room, keyed by room id
      */
-    public List<TimetableEntry> getByRoom(int roomId) {
-        List<TimetableEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM timetable WHERE room_id = ?";
-        
+    public Map<Integer, Integer> countByRoom() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        String sql = "SELECT room_id, COUNT(*) FROM timetable WHERE room_id IS NOT NULL GROUP BY room_id";
         try (Connection conn = Database.connect();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, roomId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    TimetableEntry entry = new TimetableEntry(
-                        rs.getInt("course_id"),
-                        rs.getInt("room_id"),
-                        rs.getString("day_of_week"),
-                        rs.getString("start_time"),
-                        rs.getString("end_time")
-                    );
-                    entry.setId(rs.getInt("id"));
-                    // Handle instructor_id (might be null)
-                    try {
-                        int instructorIdValue = rs.getInt("instructor_id");
-                        if (!rs.wasNull()) {
-                            entry.setInstructorId(instructorIdValue);
-                        }
-                    } catch (SQLException e) {
-                        // instructor_id column doesn't exist - ignore
-                    }
-                    entries.add(entry);
-                }
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                counts.put(rs.getInt(1), rs.getInt(2));
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error fetching timetable entries by room", e);
+            throw new RuntimeException("Error counting timetable entries by room", e);
         }
-        
-        return entries;
+        return counts;
     }
 
     public long getUpcomingClassesCount() {
@@ -289,6 +469,21 @@ public class TimetableDAO {
         }
     }
     
+    /**
+     * Cheap check for an empty table; stops at the first row instead of loading them all
+     */
+    public boolean hasEntries() {
+        String sql = "SELECT EXISTS (SELECT 1 FROM timetable)";
+        try (Connection conn = Database.connect();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() && rs.getInt(1) > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking for timetable entries", e);
+        }
+    }
+    
     /**
      * Save or update a timetable entry
      * If an entry exists for the same room, day, and time, it will be updated
@@ -297,52 +492,285 @@ public class TimetableDAO {
     public boolean saveOrUpdateEntry(TimetableEntry entry) {
         // For seed data with denormalized fields, we don't check for existing entries
         // We just insert with all the provided data
-        String insertSql = """
-            INSERT INTO timetable (
-                course_id, room_id, day_of_week, start_time, end_time, 
-                instructor_id, course_name, faculty, room_name, slot_code, type
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement insertStmt = conn.prepareStatement(FULL_INSERT_SQL)) {
+                    bindFullEntry(insertStmt, entry);
+                    if (insertStmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                    entry.setId(lastInsertId(conn));
+                    publishInserted(List.of(slotOf(entry)));
+                    return true;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving/updating timetable entry: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Insert many entries in one transaction using JDBC batching.
+     * Rows are flushed every db.timetable.batchSize entries (default 500) so
+     * the driver never buffers the whole collection; either all rows commit or none do.
+     * @return number of rows inserted
+     */
+    public int saveAll(Collection<TimetableEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        int chunkSize = Math.max(1, Integer.getInteger("db.timetable.batchSize", 500));
+
+        try {
+            return Database.write(conn -> {
+                int inserted = 0;
+                List<TimetableSlot> slots = new ArrayList<>(entries.size());
+                List<TimetableEntry> pending = new ArrayList<>(Math.min(chunkSize, entries.size()));
+                try (PreparedStatement insertStmt = conn.prepareStatement(FULL_INSERT_SQL)) {
+                    for (TimetableEntry entry : entries) {
+                        bindFullEntry(insertStmt, entry);
+                        insertStmt.addBatch();
+                        pending.add(entry);
+                        if (pending.size() == chunkSize) {
+                            inserted += flushBatch(conn, insertStmt, pending, slots);
+                        }
+                    }
+                    if (!pending.isEmpty()) {
+                        inserted += flushBatch(conn, insertStmt, pending, slots);
+                    }
+                }
+                publishInserted(slots);
+                return inserted;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error bulk saving timetable entries: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Move existing entries to new rooms, instructors and times in one
+     * transaction. Each entry needs its id, course, instructor, room (id and
+     * name), day and times; nothing else about the row changes.
+     * @return number of rows updated
+     */
+    public int moveAll(Collection<TimetableEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        String sql = """
+            UPDATE timetable SET room_id = ?, room_name = ?, day_of_week = ?, start_time = ?, end_time = ?,
+                day_index = ?, start_min = ?, end_min = ?, instructor_id = ?
+            WHERE id = ?
             """;
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
-            
-            // Set nullable foreign key fields (use 0 to indicate NULL)
-            if (entry.getCourseId() > 0) {
-                insertStmt.setInt(1, entry.getCourseId());
-            } else {
-                insertStmt.setNull(1, java.sql.Types.INTEGER);
-            }
-            
-            if (entry.getRoomId() > 0) {
-                insertStmt.setInt(2, entry.getRoomId());
-            } else {
-                insertStmt.setNull(2, java.sql.Types.INTEGER);
-            }
-            
-            // Set required fields
-            insertStmt.setString(3, entry.getDayOfWeek());
-            insertStmt.setString(4, entry.getStartTime());
-            insertStmt.setString(5, entry.getEndTime());
-            
-            // Set instructor_id (nullable)
-            if (entry.getInstructorId() != null) {
-                insertStmt.setInt(6, entry.getInstructorId());
+
+        try {
+            return Database.write(conn -> {
+                List<Integer> ids = new ArrayList<>(entries.size());
+                List<TimetableSlot> slots = new ArrayList<>(entries.size());
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (TimetableEntry entry : entries) {
+                        stmt.setInt(1, entry.getRoomId());
+                        stmt.setString(2, entry.getRoomName());
+                        stmt.setString(3, entry.getDayOfWeek());
+                        stmt.setString(4, entry.getStartTime());
+                        stmt.setString(5, entry.getEndTime());
+                        bindTimeKeys(stmt, 6, entry.getDayOfWeek(), entry.getStartTime(), entry.getEndTime());
+                        if (entry.getInstructorId() != null) {
+                            stmt.setInt(9, entry.getInstructorId());
+                        } else {
+                            stmt.setNull(9, java.sql.Types.INTEGER);
+                        }
+                        stmt.setInt(10, entry.getId());
+                        stmt.addBatch();
+                        ids.add(entry.getId());
+                        slots.add(slotOf(entry));
+                    }
+                    int updated = countUpdates(stmt.executeBatch());
+                    // Listeners see a move as the old rows leaving and the new ones arriving
+                    publishDeleted(ids);
+                    publishInserted(slots);
+                    return updated;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error moving timetable entries: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete entries by id in one transaction.
+     * @return number of rows deleted
+     */
+    public int deleteAll(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM timetable WHERE id = ?")) {
+                    for (Integer id : ids) {
+                        stmt.setInt(1, id);
+                        stmt.addBatch();
+                    }
+                    int deleted = countUpdates(stmt.executeBatch());
+                    publishDeleted(List.copyOf(ids));
+                    return deleted;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting timetable entries: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete, move and insert entries in one transaction, so readers never see
+     * a half-applied change. New entries get their ids set.
+     */
+    public void replaceEntries(Collection<Integer> deletedIds, Collection<TimetableEntry> moved,
+                               Collection<TimetableEntry> inserted) {
+        try {
+            Database.write(conn -> {
+                // Nested writes run inline in this transaction
+                deleteAll(deletedIds);
+                moveAll(moved);
+                saveAll(inserted);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error replacing timetable entries: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Execute the queued batch and assign ids to its entries. The writer is the
+     * only connection inserting, so AUTOINCREMENT hands a batch consecutive ids
+     * ending at last_insert_rowid().
+     */
+    private static int flushBatch(Connection conn, PreparedStatement insertStmt, List<TimetableEntry> pending,
+                                  List<TimetableSlot> slots) throws SQLException {
+        int inserted = countUpdates(insertStmt.executeBatch());
+        int firstId = lastInsertId(conn) - pending.size() + 1;
+        for (int i = 0; i < pending.size(); i++) {
+            TimetableEntry entry = pending.get(i);
+            entry.setId(firstId + i);
+            slots.add(slotOf(entry));
+        }
+        pending.clear();
+        return inserted;
+    }
+
+    private static int countUpdates(int[] results) {
+        int count = 0;
+        for (int result : results) {
+            // SUCCESS_NO_INFO still means the row went in
+            count += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(result, 0);
+        }
+        return count;
+    }
+
+    private static void bindFullEntry(PreparedStatement insertStmt, TimetableEntry entry) throws SQLException {
+        // Set nullable foreign key fields (use 0 to indicate NULL)
+        if (entry.getCourseId() > 0) {
+            insertStmt.setInt(1, entry.getCourseId());
+        } else {
+            insertStmt.setNull(1, java.sql.Types.INTEGER);
+        }
+
+        if (entry.getRoomId() > 0) {
+            insertStmt.setInt(2, entry.getRoomId());
+        } else {
+            insertStmt.setNull(2, java.sql.Types.INTEGER);
+        }
+
+        // Set required fields
+        insertStmt.setString(3, entry.getDayOfWeek());
+        insertStmt.setString(4, entry.getStartTime());
+        insertStmt.setString(5, entry.getEndTime());
+
+        // Set instructor_id (nullable)
+        if (entry.getInstructorId() != null) {
+            insertStmt.setInt(6, entry.getInstructorId());
+        } else {
+            insertStmt.setNull(6, java.sql.Types.INTEGER);
+        }
+
+        // Set denormalized fields (for seed data)
+        insertStmt.setString(7, entry.getCourseName());
+        insertStmt.setString(8, entry.getFaculty());
+        insertStmt.setString(9, entry.getRoomName());
+        insertStmt.setString(10, entry.getSlotCode());
+        insertStmt.setString(11, entry.getType());
+        bindTimeKeys(insertStmt, 12, entry.getDayOfWeek(), entry.getStartTime(), entry.getEndTime());
+    }
+
+    /**
+     * Bind day_index, start_min and end_min from their text forms.
+     * Values that cannot be parsed are stored as NULL so they never match a range probe.
+     */
+    private static void bindTimeKeys(PreparedStatement stmt, int firstIndex, String day,
+                                     String startTime, String endTime) throws SQLException {
+        int[] keys = {TimeCodec.dayIndex(day), TimeCodec.toMinutes(startTime), TimeCodec.toMinutes(endTime)};
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != TimeCodec.UNKNOWN) {
+                stmt.setInt(firstIndex + i, keys[i]);
             } else {
-                insertStmt.setNull(6, java.sql.Types.INTEGER);
+                stmt.setNull(firstIndex + i, java.sql.Types.INTEGER);
             }
-            
-            // Set denormalized fields (for seed data)
-            insertStmt.setString(7, entry.getCourseName());
-            insertStmt.setString(8, entry.getFaculty());
-            insertStmt.setString(9, entry.getRoomName());
-            insertStmt.setString(10, entry.getSlotCode());
-            insertStmt.setString(11, entry.getType());
-            
-            return insertStmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving/updating timetable entry: " + e.getMessage(), e);
         }
     }
+
+    private static void requireValidSlot(String day, String startTime, String endTime) {
+        if (!TimeCodec.isValidRange(TimeCodec.dayIndex(day), TimeCodec.toMinutes(startTime),
+                TimeCodec.toMinutes(endTime))) {
+            throw new IllegalArgumentException("Invalid day or time range: " + day + " " + startTime + "-" + endTime);
+        }
+    }
+
+    private static void bindSlotKeys(PreparedStatement stmt, String day, String startTime, String endTime)
+            throws SQLException {
+        stmt.setInt(1, TimeCodec.dayIndex(day));
+        stmt.setInt(2, TimeCodec.toMinutes(startTime));
+        stmt.setInt(3, TimeCodec.toMinutes(endTime));
+    }
+
+    private static int lastInsertId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ==================== CHANGE NOTIFICATION ====================
+
+    public void addChangeListener(TimetableChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(TimetableChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Called inside a write; listeners hear about it once the write commits
+    private void publishInserted(List<TimetableSlot> slots) {
+        if (!listeners.isEmpty() && !slots.isEmpty()) {
+            Database.afterCommit(() -> listeners.forEach(listener -> listener.slotsInserted(slots)));
+        }
+    }
+
+    private void publishDeleted(List<Integer> ids) {
+        if (!listeners.isEmpty() && !ids.isEmpty()) {
+            Database.afterCommit(() -> listeners.forEach(listener -> listener.slotsDeleted(ids)));
+        }
+    }
+
+    private static TimetableSlot slotOf(TimetableEntry entry) {
+        return slotOf(entry.getId(), entry.getCourseId(), entry.getRoomId(), entry.getInstructorId(),
+            entry.getDayOfWeek(), entry.getStartTime(), entry.getEndTime());
+    }
+
+    private static TimetableSlot slotOf(int id, int courseId, int roomId, Integer instructorId,
+                                        String day, String startTime, String endTime) {
+        return new TimetableSlot(id, courseId, roomId, instructorId,
+            TimeCodec.dayIndex(day), TimeCodec.toMinutes(startTime), TimeCodec.toMinutes(endTime));
+    }
 }
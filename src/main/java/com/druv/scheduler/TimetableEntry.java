@@ -15,6 +15,7 @@ public class TimetableEntry {
     private String roomName;
     private String slotCode;
     private String type; // "lecture", "lab", "project"
+    private boolean pinned; // Kept in place when the auto-scheduler re-plans
 
     // Default constructor for flexibility
     public TimetableEntry() {
@@ -51,6 +52,7 @@ public class TimetableEntry {
     public String getRoomName() { return roomName; }
     public String getSlotCode() { return slotCode; }
     public String getType() { return type; }
+    public boolean isPinned() { return pinned; }
 
     // Alias for getDayOfWeek for compatibility
     public String getDay() { return dayOfWeek; }
@@ -72,6 +74,7 @@ public class TimetableEntry {
     public void setRoomName(String roomName) { this.roomName = roomName; }
     public void setSlotCode(String slotCode) { this.slotCode = slotCode; }
     public void setType(String type) { this.type = type; }
+    public void setPinned(boolean pinned) { this.pinned = pinned; }
 
     @Override
     public String toString() {
@@ -88,6 +91,7 @@ public class TimetableEntry {
                 ", roomName='" + roomName + '\'' +
                 ", slotCode='" + slotCode + '\'' +
                 ", type='" + type + '\'' +
+                ", pinned=" + pinned +
                 '}';
     }
 }
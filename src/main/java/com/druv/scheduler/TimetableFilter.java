@@ -0,0 +1,55 @@
+package com.druv.scheduler;
+
+/**
+ * Server-side filters for timetable listings. Null fields are not filtered on.
+ *
+ * room and instructor accept either a numeric id (room_id / instructor_id) or
+ * the denormalized name stored by seed imports (room_name / faculty).
+ */
+public record TimetableFilter(String day, String room, String instructor, String type, String slotCode) {
+
+    public static final TimetableFilter NONE = new TimetableFilter(null, null, null, null, null);
+
+    void applyTo(KeysetQuery query) {
+        if (day != null && !day.isBlank()) {
+            int dayIndex = TimeCodec.dayIndex(day);
+            if (dayIndex == TimeCodec.UNKNOWN) {
+                throw new IllegalArgumentException("Unknown day: " + day);
+            }
+            query.where("day_index = ?", dayIndex);
+        }
+        if (room != null && !room.isBlank()) {
+            if (isId(room)) {
+                query.where("room_id = ?", Integer.parseInt(room.trim()));
+            } else {
+                query.where("room_name = ?", room.trim());
+            }
+        }
+        if (instructor != null && !instructor.isBlank()) {
+            if (isId(instructor)) {
+                query.where("instructor_id = ?", Integer.parseInt(instructor.trim()));
+            } else {
+                query.where("faculty = ?", instructor.trim());
+            }
+        }
+        if (type != null && !type.isBlank()) {
+            query.where("type = ? COLLATE NOCASE", type.trim());
+        }
+        if (slotCode != null && !slotCode.isBlank()) {
+            query.where("slot_code = ?", slotCode.trim());
+        }
+    }
+
+    private static boolean isId(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (!Character.isDigit(trimmed.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
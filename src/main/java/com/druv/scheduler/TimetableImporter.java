@@ -0,0 +1,139 @@
+package com.druv.scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming importer for timetable exports shaped like timetable_seed.json:
+ * {"entries": [{...}, {...}]}.
+ *
+ * Entries are read one token at a time and handed to TimetableDAO.saveAll in
+ * batches of db.timetable.importBatch (default 1000), so memory stays flat no
+ * matter how large the file is. Each batch commits on its own; a malformed
+ * document stops the import after the batches already written.
+ */
+@Component
+public class TimetableImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableImporter.class);
+
+    // Parsers are cheap, the factory is thread-safe and meant to be shared
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final TimetableDAO timetableDAO;
+
+    @Autowired
+    public TimetableImporter(TimetableDAO timetableDAO) {
+        this.timetableDAO = timetableDAO;
+    }
+
+    /**
+     * Import every element of the top-level "entries" array.
+     * @return number of rows inserted
+     */
+    public int importFrom(InputStream inputStream) throws IOException {
+        int batchSize = Math.max(1, Integer.getInteger("db.timetable.importBatch", 1000));
+        List<TimetableEntry> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        int imported = 0;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object with an \"entries\" array");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"entries".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "\"entries\" must be an array");
+                }
+
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY;
+                        element = parser.nextToken()) {
+                    if (element != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Every element of \"entries\" must be an object");
+                    }
+                    batch.add(readEntry(parser));
+                    if (batch.size() >= batchSize) {
+                        imported += timetableDAO.saveAll(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            imported += timetableDAO.saveAll(batch);
+        }
+        logger.info("Imported {} timetable entries", imported);
+        return imported;
+    }
+
+    /**
+     * Read one entry object; the parser is positioned on its START_OBJECT.
+     * Unknown fields, including nested objects, are skipped.
+     */
+    private static TimetableEntry readEntry(JsonParser parser) throws IOException {
+        TimetableEntry entry = new TimetableEntry();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                // Seed files use day orders, exports from the UI use weekday names
+                case "dayOrder", "day", "dayOfWeek" -> entry.setDayOfWeek(readText(parser, field));
+                case "startTime" -> entry.setStartTime(readText(parser, field));
+                case "endTime" -> entry.setEndTime(readText(parser, field));
+                case "courseName" -> entry.setCourseName(readText(parser, field));
+                case "faculty" -> entry.setFaculty(readText(parser, field));
+                case "roomName" -> entry.setRoomName(readText(parser, field));
+                case "slotCode" -> entry.setSlotCode(readText(parser, field));
+                case "type" -> entry.setType(readText(parser, field));
+                case "courseId" -> entry.setCourseId(readId(parser, field));
+                case "roomId" -> entry.setRoomId(readId(parser, field));
+                case "instructorId" -> entry.setInstructorId(readId(parser, field));
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (entry.getDayOfWeek() == null || entry.getStartTime() == null || entry.getEndTime() == null) {
+            throw new JsonParseException(parser, "Timetable entry is missing a day, startTime or endTime");
+        }
+        return entry;
+    }
+
+    // Objects or arrays here would leave their nested tokens to be read as entry fields
+    private static String readText(JsonParser parser, String field) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            throw new JsonParseException(parser, "\"" + field + "\" must be a string or number");
+        }
+        return parser.getValueAsString();
+    }
+
+    private static int readId(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new JsonParseException(parser, "\"" + field + "\" must be an integer");
+        }
+        return parser.getIntValue();
+    }
+}
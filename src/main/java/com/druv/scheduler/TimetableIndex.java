@@ -0,0 +1,197 @@
+package com.druv.scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory conflict index over the whole timetable: one IntervalIndex by room
+ * and one by instructor, each paired with an OccupancyMatrix that answers
+ * "is this slot free" with a few word ANDs. Loaded once at startup and then
+ * kept in step with the database by TimetableDAO change events, which arrive
+ * after each write commits. Reads are lock-free; loads and events are
+ * serialized on this object. snapshot() forks the entries and both interval
+ * indexes in O(1) for what-if simulations.
+ */
+public class TimetableIndex implements TimetableChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimetableIndex.class);
+
+    private static final int DAY_END = 24 * 60;
+
+    private final TimetableDAO timetableDAO;
+    private final IntervalIndex byRoom = new IntervalIndex(TimetableSlot::roomId);
+    private final IntervalIndex byInstructor = new IntervalIndex(TimetableSlot::instructorId);
+    private final OccupancyMatrix roomOccupancy = OccupancyMatrix.fromConfig();
+    private final OccupancyMatrix instructorOccupancy = OccupancyMatrix.fromConfig();
+    private volatile ChunkedArray<TimetableSlot> byId = ChunkedArray.empty();
+
+    public TimetableIndex(TimetableDAO timetableDAO) {
+        this.timetableDAO = timetableDAO;
+    }
+
+    /**
+     * Rebuild from the database. Register as a listener before calling this:
+     * events that race the load are applied afterwards and are idempotent.
+     */
+    public synchronized void load() {
+        List<TimetableSlot> slots = timetableDAO.findAllSlots();
+        ChunkedArray.Editor<TimetableSlot> ids = ChunkedArray.<TimetableSlot>empty().edit();
+        for (TimetableSlot slot : slots) {
+            ids.set(slot.id(), slot);
+        }
+        byId = ids.build();
+        byRoom.load(slots);
+        byInstructor.load(slots);
+        roomOccupancy.clear();
+        instructorOccupancy.clear();
+        for (TimetableSlot slot : slots) {
+            occupy(slot);
+        }
+        logger.info("Timetable index loaded with {} entries", slots.size());
+    }
+
+    @Override
+    public synchronized void slotsInserted(List<TimetableSlot> slots) {
+        ChunkedArray.Editor<TimetableSlot> ids = byId.edit();
+        List<TimetableSlot> replaced = new ArrayList<>();
+        for (TimetableSlot slot : slots) {
+            TimetableSlot previous = ids.get(slot.id());
+            if (previous != null) {
+                // Already picked up by a concurrent load()
+                replaced.add(previous);
+            }
+            ids.set(slot.id(), slot);
+        }
+        byId = ids.build();
+        byRoom.update(replaced, slots);
+        byInstructor.update(replaced, slots);
+        replaced.forEach(this::vacate);
+        slots.forEach(this::occupy);
+    }
+
+    @Override
+    public synchronized void slotsDeleted(List<Integer> ids) {
+        ChunkedArray.Editor<TimetableSlot> editor = byId.edit();
+        List<TimetableSlot> removed = new ArrayList<>();
+        for (Integer id : ids) {
+            TimetableSlot slot = editor.get(id);
+            if (slot != null) {
+                removed.add(slot);
+                editor.set(id, null);
+            }
+        }
+        byId = editor.build();
+        byRoom.update(removed, List.of());
+        byInstructor.update(removed, List.of());
+        removed.forEach(this::vacate);
+    }
+
+    /**
+     * An O(1) copy-on-write fork of the current timetable. Changes made to it
+     * never reach this index or the database.
+     */
+    public synchronized TimetableSnapshot snapshot() {
+        return new TimetableSnapshot(byId, byRoom.fork(), byInstructor.fork());
+    }
+
+    private void occupy(TimetableSlot slot) {
+        if (slot.roomId() > 0) {
+            roomOccupancy.occupy(slot.roomId(), slot.dayIndex(), slot.startMin(), slot.endMin());
+        }
+        if (slot.instructorId() != null && slot.instructorId() > 0) {
+            instructorOccupancy.occupy(slot.instructorId(), slot.dayIndex(), slot.startMin(), slot.endMin());
+        }
+    }
+
+    private void vacate(TimetableSlot slot) {
+        // Other slots may share cells with the removed one, so rebuild the row from what is left
+        if (slot.roomId() > 0) {
+            roomOccupancy.rebuild(slot.roomId(), slot.dayIndex(),
+                byRoom.overlaps(slot.roomId(), slot.dayIndex(), 0, DAY_END));
+        }
+        if (slot.instructorId() != null && slot.instructorId() > 0) {
+            instructorOccupancy.rebuild(slot.instructorId(), slot.dayIndex(),
+                byInstructor.overlaps(slot.instructorId(), slot.dayIndex(), 0, DAY_END));
+        }
+    }
+
+    /**
+     * True if the room has nothing overlapping [startMin, endMin) on the day.
+     * The bitset settles most calls; only a busy cell is confirmed exactly.
+     */
+    public boolean isRoomFree(int roomId, int dayIndex, int startMin, int endMin) {
+        return roomOccupancy.isFree(roomId, dayIndex, startMin, endMin)
+            || firstRoomConflict(roomId, dayIndex, startMin, endMin) == null;
+    }
+
+    public boolean isInstructorFree(int instructorId, int dayIndex, int startMin, int endMin) {
+        return instructorOccupancy.isFree(instructorId, dayIndex, startMin, endMin)
+            || firstInstructorConflict(instructorId, dayIndex, startMin, endMin) == null;
+    }
+
+    /**
+     * @return the earliest entry in the room overlapping [startMin, endMin) on the day, or null
+     */
+    public TimetableSlot firstRoomConflict(int roomId, int dayIndex, int startMin, int endMin) {
+        return byRoom.firstOverlap(roomId, dayIndex, startMin, endMin);
+    }
+
+    /**
+     * @return the earliest entry taught by the instructor overlapping [startMin, endMin) on the day, or null
+     */
+    public TimetableSlot firstInstructorConflict(int instructorId, int dayIndex, int startMin, int endMin) {
+        return byInstructor.firstOverlap(instructorId, dayIndex, startMin, endMin);
+    }
+
+    /**
+     * @return every entry in the room overlapping [startMin, endMin) on the day, earliest first
+     */
+    public List<TimetableSlot> roomConflicts(int roomId, int dayIndex, int startMin, int endMin) {
+        return byRoom.overlaps(roomId, dayIndex, startMin, endMin);
+    }
+
+    public List<TimetableSlot> instructorConflicts(int instructorId, int dayIndex, int startMin, int endMin) {
+        return byInstructor.overlaps(instructorId, dayIndex, startMin, endMin);
+    }
+
+    /**
+     * Run reader while no change event can be applied, so every lookup it makes
+     * sees the same committed timetable. Keep it short: writes wait for it.
+     */
+    public synchronized <T> T readConsistent(Supplier<T> reader) {
+        return reader.get();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the day or times do not parse, or end is not after start
+     */
+    public boolean hasRoomConflict(int roomId, String day, String startTime, String endTime) {
+        int dayIndex = TimeCodec.dayIndex(day);
+        int startMin = TimeCodec.toMinutes(startTime);
+        int endMin = TimeCodec.toMinutes(endTime);
+        if (!TimeCodec.isValidRange(dayIndex, startMin, endMin)) {
+            throw new IllegalArgumentException("Invalid day or time range: " + day + " " + startTime + "-" + endTime);
+        }
+        return !isRoomFree(roomId, dayIndex, startMin, endMin);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", byId.size());
+        stats.put("granularityMinutes", roomOccupancy.getGranularityMinutes());
+        stats.put("roomDayRows", roomOccupancy.rowCount());
+        stats.put("instructorDayRows", instructorOccupancy.rowCount());
+        stats.put("occupancyBytes", roomOccupancy.memoryBytes() + instructorOccupancy.memoryBytes());
+        return stats;
+    }
+}
@@ -39,6 +39,10 @@ public class TimetableService {
         return timetableDAO.findAll();
     }
     
+    public Page<TimetableEntry> getEntryPage(TimetableFilter filter, String sort, String cursor, int limit) {
+        return timetableDAO.findPage(filter, sort, cursor, limit);
+    }
+    
     public int getUniqueCourseCount() {
         List<TimetableEntry> entries = timetableDAO.findAll();
         return (int) entries.stream()
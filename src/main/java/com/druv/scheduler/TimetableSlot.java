@@ -0,0 +1,23 @@
+package com.druv.scheduler;
+
+/**
+ * Conflict-checking view of a timetable row: ids and integer day/minute keys only.
+ * Decoding one of these allocates no Strings, unlike a full TimetableEntry.
+ * instructorId is null when the row has no instructor; day and minutes are
+ * TimeCodec.UNKNOWN when the stored text could not be parsed.
+ */
+public record TimetableSlot(int id, int courseId, int roomId, Integer instructorId,
+                            int dayIndex, int startMin, int endMin) {
+
+    public String startTime() {
+        return TimeCodec.formatMinutes(startMin);
+    }
+
+    public String endTime() {
+        return TimeCodec.formatMinutes(endMin);
+    }
+
+    public boolean overlaps(int otherStart, int otherEnd) {
+        return TimeCodec.overlaps(startMin, endMin, otherStart, otherEnd);
+    }
+}
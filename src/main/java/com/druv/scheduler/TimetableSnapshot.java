@@ -0,0 +1,109 @@
+package com.druv.scheduler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Private, writable copy of the timetable taken by TimetableIndex.snapshot().
+ * It starts out sharing every bucket and chunk with the index it came from and
+ * copies only what it changes, so forking is O(1) however large the timetable
+ * is. Nothing done here is written to the database or seen by anyone else.
+ *
+ * Entries added here that do not exist in the database get negative ids from
+ * nextProposedId() and are kept apart from the stored ones. Not thread-safe.
+ */
+public final class TimetableSnapshot {
+
+    private ChunkedArray<TimetableSlot> byId;
+    private final Map<Integer, TimetableSlot> proposed = new HashMap<>();
+    private final IntervalIndex byRoom;
+    private final IntervalIndex byInstructor;
+    private int nextProposedId = -1;
+
+    TimetableSnapshot(ChunkedArray<TimetableSlot> byId, IntervalIndex byRoom, IntervalIndex byInstructor) {
+        this.byId = byId;
+        this.byRoom = byRoom;
+        this.byInstructor = byInstructor;
+    }
+
+    /**
+     * An independent copy of this snapshot, also O(1).
+     */
+    public TimetableSnapshot fork() {
+        TimetableSnapshot copy = new TimetableSnapshot(byId, byRoom.fork(), byInstructor.fork());
+        copy.proposed.putAll(proposed);
+        copy.nextProposedId = nextProposedId;
+        return copy;
+    }
+
+    /**
+     * @return a fresh negative id for an entry that only exists in this snapshot
+     */
+    public int nextProposedId() {
+        return nextProposedId--;
+    }
+
+    public TimetableSlot get(int id) {
+        return id < 0 ? proposed.get(id) : byId.get(id);
+    }
+
+    /**
+     * Add slot, replacing any entry with the same id.
+     */
+    public void put(TimetableSlot slot) {
+        TimetableSlot previous = get(slot.id());
+        if (slot.id() < 0) {
+            proposed.put(slot.id(), slot);
+        } else {
+            byId = byId.with(slot.id(), slot);
+        }
+        List<TimetableSlot> removed = previous != null ? List.of(previous) : List.of();
+        byRoom.update(removed, List.of(slot));
+        byInstructor.update(removed, List.of(slot));
+    }
+
+    /**
+     * @return the removed entry, or null if there was none
+     */
+    public TimetableSlot remove(int id) {
+        TimetableSlot previous = get(id);
+        if (previous == null) {
+            return null;
+        }
+        if (id < 0) {
+            proposed.remove(id);
+        } else {
+            byId = byId.with(id, null);
+        }
+        byRoom.remove(previous);
+        byInstructor.remove(previous);
+        return previous;
+    }
+
+    public int size() {
+        return byId.size() + proposed.size();
+    }
+
+    public List<TimetableSlot> roomConflicts(int roomId, int dayIndex, int startMin, int endMin) {
+        return byRoom.overlaps(roomId, dayIndex, startMin, endMin);
+    }
+
+    public List<TimetableSlot> instructorConflicts(int instructorId, int dayIndex, int startMin, int endMin) {
+        return byInstructor.overlaps(instructorId, dayIndex, startMin, endMin);
+    }
+
+    /**
+     * @return how many entries the room holds on the day
+     */
+    public int roomLoad(int roomId, int dayIndex) {
+        return byRoom.count(roomId, dayIndex);
+    }
+
+    /**
+     * @return how many entries the instructor teaches on the day
+     */
+    public int instructorLoad(int instructorId, int dayIndex) {
+        return byInstructor.count(instructorId, dayIndex);
+    }
+}
@@ -11,4 +11,9 @@ public interface UserDAO {
     boolean deleteUser(int id);
     boolean updateUser(User user);
     long getUserCount();
+
+    // Projections that never load the password hash
+    Optional<String> findUsernameById(int id);
+    List<NamedRef> findUserNamesByRole(String role);
+    long countUsersByRole(String role);
 }
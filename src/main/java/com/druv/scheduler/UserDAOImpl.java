@@ -1,21 +1,30 @@
 package com.druv.scheduler;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
-import java.util.List;
-import java.util.Optional;
 import org.springframework.stereotype.Repository;
 
+// Reads go through JdbcTemplate; writes go through Database.write() like the other DAOs
+
 @Repository
 public class UserDAOImpl implements UserDAO {
     private static final Logger logger = LoggerFactory.getLogger(UserDAOImpl.class);
+    private static final String USER_COLUMNS = "id, username, password, role";
     private final JdbcTemplate jdbcTemplate;
 
+    // Id lookups from reports and scheduling; invalidated by deleteUser/updateUser
+    private final EntityCache<Integer, User> userCache = new EntityCache<>("users", 1024, 300);
+    private final EntityCache<Integer, String> usernameCache = new EntityCache<>("usernames", 4096, 300);
+    private final EntityCache<String, Integer> userIdCache = new EntityCache<>("userIds", 4096, 300);
+
     @Autowired
     public UserDAOImpl(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
@@ -25,7 +34,14 @@ public class UserDAOImpl implements UserDAO {
     public User addUser(String username, String hashedPassword, String role) {
         String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
         try {
-            jdbcTemplate.update(sql, username, hashedPassword, role);
+            Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, username);
+                    stmt.setString(2, hashedPassword);
+                    stmt.setString(3, role);
+                    return stmt.executeUpdate();
+                }
+            });
             return getUserByUsername(username).orElse(null);
         } catch (Exception e) {
             logger.error("Error adding user: {}", e.getMessage());
@@ -35,7 +51,7 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public Optional<User> getUserByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE username = ?";
         try {
             return jdbcTemplate.queryForObject(sql, 
                 (rs, rowNum) -> Optional.of(new User(
@@ -52,7 +68,11 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public Optional<User> getUserById(int id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        return Optional.ofNullable(userCache.get(id, key -> loadUserById(key).orElse(null)));
+    }
+
+    private Optional<User> loadUserById(int id) {
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE id = ?";
         try {
             return jdbcTemplate.queryForObject(sql,
                 (rs, rowNum) -> Optional.of(new User(
@@ -69,7 +89,7 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public List<User> getAllUsers() {
-        String sql = "SELECT * FROM users";
+        String sql = "SELECT " + USER_COLUMNS + " FROM users";
         return jdbcTemplate.query(sql,
             (rs, rowNum) -> new User(
                 rs.getInt("id"),
@@ -82,17 +102,38 @@ public class UserDAOImpl implements UserDAO {
     @Override
     public boolean deleteUser(int id) {
         String sql = "DELETE FROM users WHERE id = ?";
-        return jdbcTemplate.update(sql, id) > 0;
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, id);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting user", e);
+        } finally {
+            invalidate(id);
+        }
     }
 
     @Override
     public boolean updateUser(User user) {
         String sql = "UPDATE users SET username = ?, password = ?, role = ? WHERE id = ?";
-        return jdbcTemplate.update(sql, 
-            user.getUsername(), 
-            user.getPassword(), 
-            user.getRole(), 
-            user.getId()) > 0;
+        try {
+            return Database.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, user.getUsername());
+                    stmt.setString(2, user.getPassword());
+                    stmt.setString(3, user.getRole());
+                    stmt.setInt(4, user.getId());
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating user", e);
+        } finally {
+            invalidate(user.getId());
+        }
     }
 
     @Override
@@ -101,4 +142,48 @@ public class UserDAOImpl implements UserDAO {
         Long count = jdbcTemplate.queryForObject(sql, Long.class);
         return count != null ? count : 0L;
     }
+
+    @Override
+    public Optional<String> findUsernameById(int id) {
+        String sql = "SELECT username FROM users WHERE id = ?";
+        return Optional.ofNullable(usernameCache.get(id, key -> {
+            List<String> names = jdbcTemplate.queryForList(sql, String.class, key);
+            return names.isEmpty() ? null : names.get(0);
+        }));
+    }
+
+    /**
+     * Id for a username, cached; used by conflict checks that only need the instructor id
+     */
+    public Optional<Integer> findIdByUsername(String username) {
+        String sql = "SELECT id FROM users WHERE username = ?";
+        return Optional.ofNullable(userIdCache.get(username, key -> {
+            List<Integer> ids = jdbcTemplate.queryForList(sql, Integer.class, key);
+            return ids.isEmpty() ? null : ids.get(0);
+        }));
+    }
+
+    private void invalidate(int id) {
+        userCache.invalidate(id);
+        usernameCache.invalidate(id);
+        // Keyed by name, and the old name is not known here
+        userIdCache.invalidateAll();
+    }
+
+    public List<Map<String, Object>> getCacheStats() {
+        return List.of(userCache.getStats(), usernameCache.getStats(), userIdCache.getStats());
+    }
+
+    @Override
+    public List<NamedRef> findUserNamesByRole(String role) {
+        String sql = "SELECT id, username FROM users WHERE role = ? COLLATE NOCASE";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new NamedRef(rs.getInt(1), rs.getString(2)), role);
+    }
+
+    @Override
+    public long countUsersByRole(String role) {
+        String sql = "SELECT COUNT(*) FROM users WHERE role = ? COLLATE NOCASE";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, role);
+        return count != null ? count : 0L;
+    }
 }
@@ -1,9 +1,13 @@
 package com.druv.scheduler;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,8 +19,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.druv.scheduler.engine.SchedulerEngine;
+import com.druv.scheduler.engine.SolverMonitor;
+import com.druv.scheduler.service.ScheduleJob;
+import com.druv.scheduler.service.ScheduleJobService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 @Controller
@@ -29,10 +42,21 @@ public class WebServer {
     private final AuthService authService;
     private final Security security;
     private final com.druv.scheduler.service.ReportService reportService;
+    private final TimetableImporter timetableImporter;
+    private final TimetableIndex timetableIndex;
+    private final com.druv.scheduler.service.ConflictCheckService conflictCheckService;
+    private final SchedulerEngine schedulerEngine;
+    private final ScheduleJobService scheduleJobService;
+    private final com.druv.scheduler.service.WhatIfService whatIfService;
+    private final TimeGrid timeGrid;
 
     @Autowired
     public WebServer(CourseDAO courseDAO, RoomDAO roomDAO, UserDAOImpl userDAO, TimetableDAO timetableDAO, 
-                     AuthService authService, Security security, com.druv.scheduler.service.ReportService reportService) {
+                     AuthService authService, Security security, com.druv.scheduler.service.ReportService reportService,
+                     TimetableImporter timetableImporter, TimetableIndex timetableIndex,
+                     com.druv.scheduler.service.ConflictCheckService conflictCheckService,
+                     SchedulerEngine schedulerEngine, ScheduleJobService scheduleJobService,
+                     com.druv.scheduler.service.WhatIfService whatIfService, TimeGrid timeGrid) {
         this.courseDAO = courseDAO;
         this.roomDAO = roomDAO;
         this.userDAO = userDAO;
@@ -40,6 +64,13 @@ public class WebServer {
         this.authService = authService;
         this.security = security;
         this.reportService = reportService;
+        this.timetableImporter = timetableImporter;
+        this.timetableIndex = timetableIndex;
+        this.conflictCheckService = conflictCheckService;
+        this.schedulerEngine = schedulerEngine;
+        this.scheduleJobService = scheduleJobService;
+        this.whatIfService = whatIfService;
+        this.timeGrid = timeGrid;
     }
 
     // ==================== AUTHENTICATION API ====================
@@ -250,6 +281,23 @@ public class WebServer {
         }
     }
 
+    @GetMapping("/api/debug/db-pool")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> debugDbPool() {
+        return ResponseEntity.ok(Database.getPoolStats());
+    }
+
+    @GetMapping("/api/debug/cache")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> debugCache() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("courses", courseDAO.getCacheStats());
+        stats.put("rooms", roomDAO.getCacheStats());
+        stats.put("users", userDAO.getCacheStats());
+        stats.put("timetableIndex", timetableIndex.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
     @PostMapping("/api/debug/login-test")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> debugLogin(@RequestBody Map<String, String> credentials) {
@@ -386,18 +434,20 @@ public class WebServer {
     @DeleteMapping("/api/rooms/{id}")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> deleteRoom(@PathVariable int id) {
+        boolean success;
         try {
-            boolean success = roomDAO.deleteRoom(id);
-            if (success) {
-                return ResponseEntity.ok(Map.of("success", true, "message", "Room deleted successfully"));
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("success", false, "message", "Room not found"));
-            }
+            success = roomDAO.deleteRoom(id);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("success", false, "message", "Error deleting room"));
         }
+        if (!success) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "Room not found"));
+        }
+        // Its classes move elsewhere; the rest of the timetable stays put
+        return ResponseEntity.ok(Map.of("success", true, "message", "Room deleted successfully",
+            "repair", schedulerEngine.tryRepair("room deletion", () -> schedulerEngine.repairRoom(id))));
     }
 
     // ==================== USERS API ====================
@@ -462,18 +512,19 @@ public class WebServer {
     @DeleteMapping("/api/users/{id}")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable int id) {
+        boolean success;
         try {
-            boolean success = userDAO.deleteUser(id);
-            if (success) {
-                return ResponseEntity.ok(Map.of("success", true, "message", "User deleted successfully"));
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("success", false, "message", "User not found"));
-            }
+            success = userDAO.deleteUser(id);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("success", false, "message", "Error deleting user"));
         }
+        if (!success) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "User not found"));
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "User deleted successfully",
+            "repair", schedulerEngine.tryRepair("user deletion", () -> schedulerEngine.repairInstructor(id))));
     }
 
     // ==================== TIMETABLE/BOOKINGS API ====================
@@ -566,6 +617,27 @@ public class WebServer {
         }
     }
 
+    /**
+     * Pin an entry so auto-generate with replan=true keeps it where it is, or
+     * unpin it with pinned=false.
+     */
+    @PutMapping("/api/timetable/{id}/pin")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> pinTimetableEntry(
+            @PathVariable int id,
+            @RequestParam(defaultValue = "true") boolean pinned) {
+        try {
+            if (!timetableDAO.setPinned(id, pinned)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "message", "Booking not found"));
+            }
+            return ResponseEntity.ok(Map.of("success", true, "id", id, "pinned", pinned));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "message", "Error pinning booking"));
+        }
+    }
+
     @PostMapping("/api/timetable/delete-by-slot")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> deleteTimetableBySlot(@RequestBody Map<String, String> payload) {
@@ -581,12 +653,38 @@ public class WebServer {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("success", false, "message", "Entry not found"));
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("success", false, "message", "Error deleting entry: " + e.getMessage()));
         }
     }
 
+    /**
+     * Bulk import of a timetable export ({"entries": [...]}) streamed straight
+     * from the request body, so large files never sit in memory.
+     */
+    @PostMapping("/api/timetable/import")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> importTimetable(HttpServletRequest request, HttpSession session) {
+        if (!isAuthorized(session, "admin")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("success", false, "message", "Admin access required"));
+        }
+        try (InputStream body = request.getInputStream()) {
+            int imported = timetableImporter.importFrom(body);
+            return ResponseEntity.ok(Map.of("success", true, "imported", imported,
+                "message", "Imported %d timetable entries".formatted(imported)));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("success", false, "message", "Invalid timetable JSON: " + e.getOriginalMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "message", "Error importing timetable: " + e.getMessage()));
+        }
+    }
+
     // ==================== ADVANCED SCHEDULING & CONFLICT DETECTION ====================
     
     @PostMapping("/api/timetable/check-conflict")
@@ -619,6 +717,98 @@ public class WebServer {
         }
     }
 
+    /**
+     * Check a list of candidate placements ({"placements": [{courseId, roomId, day,
+     * startTime, endTime}, ...]}) against one snapshot of the timetable and against
+     * each other. Results come back in request order.
+     */
+    @PostMapping("/api/timetable/check-conflicts")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> checkConflicts(@RequestBody Map<String, Object> payload) {
+        try {
+            if (!(payload.get("placements") instanceof List<?> placements)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "Expected a \"placements\" array"));
+            }
+
+            List<Map<String, Object>> candidates = new ArrayList<>(placements.size());
+            for (Object placement : placements) {
+                if (!(placement instanceof Map<?, ?> map)) {
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "error", "Each placement must be an object"));
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> candidate = (Map<String, Object>) map;
+                candidates.add(candidate);
+            }
+
+            List<Map<String, Object>> results = conflictCheckService.checkPlacements(candidates);
+            long conflicting = results.stream().filter(result -> (Boolean) result.get("hasConflict")).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("results", results);
+            response.put("conflictCount", conflicting);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Error checking conflicts: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The configured time grid (schedule.grid.days / schedule.grid.periods):
+     * days, periods with their minutes, and slots per week. The timetable page
+     * builds its rows and columns from this.
+     */
+    @GetMapping("/api/grid")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getTimeGrid() {
+        return ResponseEntity.ok(timeGrid.toMap());
+    }
+
+    /**
+     * Preview a change set ({"changes": [{action: move|add|delete, ...}, ...]})
+     * against a copy-on-write snapshot of the timetable. Nothing is saved; the
+     * response lists conflicts gained and resolved and the utilization and
+     * instructor load of everything the changes touch, before and after.
+     */
+    @PostMapping("/api/timetable/simulate")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> simulateChanges(@RequestBody Map<String, Object> payload) {
+        try {
+            if (!(payload.get("changes") instanceof List<?> changes)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "Expected a \"changes\" array"));
+            }
+
+            List<Map<String, Object>> changeSet = new ArrayList<>(changes.size());
+            for (Object change : changes) {
+                if (!(change instanceof Map<?, ?> map)) {
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "error", "Each change must be an object"));
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> typed = (Map<String, Object>) map;
+                changeSet.add(typed);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("success", true);
+            response.putAll(whatIfService.simulate(changeSet));
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Error simulating changes: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/api/rooms/{roomId}/availability")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> checkRoomAvailability(
@@ -634,17 +824,21 @@ public class WebServer {
                     .body(Map.of("available", false, "error", "Missing parameters"));
             }
 
-            List<TimetableEntry> conflicts = timetableDAO.getByRoomAndDay(roomId, day);
-            boolean available = true;
-            String conflictDetails = "";
+            int dayIndex = TimeCodec.dayIndex(day);
+            int startMin = TimeCodec.toMinutes(startTime);
+            int endMin = TimeCodec.toMinutes(endTime);
+            if (dayIndex == TimeCodec.UNKNOWN || startMin == TimeCodec.UNKNOWN
+                    || endMin == TimeCodec.UNKNOWN || endMin <= startMin) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("available", false, "error", "Invalid day or time range"));
+            }
 
-            for (TimetableEntry entry : conflicts) {
-                if (isTimeOverlap(startTime, endTime, entry.getStartTime(), entry.getEndTime())) {
-                    available = false;
-                    conflictDetails = "Room occupied from %s to %s".formatted(
-                        entry.getStartTime(), entry.getEndTime());
-                    break;
-                }
+            boolean available = timetableIndex.isRoomFree(roomId, dayIndex, startMin, endMin);
+            String conflictDetails = "";
+            if (!available) {
+                TimetableSlot slot = timetableIndex.firstRoomConflict(roomId, dayIndex, startMin, endMin);
+                conflictDetails = "Room occupied from %s to %s".formatted(
+                    slot.startTime(), slot.endTime());
             }
 
             Map<String, Object> response = new HashMap<>();
@@ -663,87 +857,162 @@ public class WebServer {
         }
     }
 
+    /**
+     * Fill the timetable with the constraint solver. Existing entries are kept;
+     * sessionsPerCourse (default schedule.sessionsPerCourse) is the number of
+     * weekly meetings each course should end up with. With replan=true only
+     * pinned entries are kept and every other session is placed again.
+     */
     @PostMapping("/api/timetable/auto-generate")
     @ResponseBody
-    public ResponseEntity<Map<String, Object>> autoGenerateSchedule() {
+    public ResponseEntity<Map<String, Object>> autoGenerateSchedule(
+            @RequestParam(required = false) Integer sessionsPerCourse,
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestParam(defaultValue = "false") boolean replan) {
         try {
-            // Clear existing timetable first
-            // timetableDAO.clearAll(); // Implement this if needed
-            
-            List<Course> courses = courseDAO.findAll();
-            List<Room> rooms = roomDAO.findAll();
-            String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
-            String[] timeSlots = {
-                "08:00-09:00", "09:00-10:00", "10:00-11:00", "11:00-12:00",
-                "13:00-14:00", "14:00-15:00", "15:00-16:00", "16:00-17:00"
-            };
-            
-            int scheduledCount = 0;
-            int failedCount = 0;
-            StringBuilder details = new StringBuilder();
-            
-            for (Course course : courses) {
-                boolean courseScheduled = false;
-                
-                dayLoop: for (String day : days) {
-                    for (String slot : timeSlots) {
-                        String[] times = slot.split("-");
-                        String startTime = times[0];
-                        String endTime = times[1];
-                        
-                        for (Room room : rooms) {
-                            ConflictResult conflict = checkTimeConflict(room.getId(), course.getId(), day, startTime, endTime);
-                            
-                            if (!conflict.hasConflict) {
-                                TimetableEntry entry = new TimetableEntry();
-                                entry.setCourseId(course.getId());
-                                entry.setRoomId(room.getId());
-                                entry.setDay(day);
-                                entry.setStartTime(startTime);
-                                entry.setEndTime(endTime);
-                                
-                                // Set instructor ID
-                                String instructorUsername = course.getFacultyUsername();
-                                if (instructorUsername != null) {
-                                    Optional<User> instructorOpt = userDAO.getUserByUsername(instructorUsername);
-                                    if (instructorOpt.isPresent()) {
-                                        entry.setInstructorId(instructorOpt.get().getId());
-                                    }
-                                }
-                                
-                                timetableDAO.addTimetableEntry(entry);
-                                scheduledCount++;
-                                courseScheduled = true;
-                                
-                                details.append("Scheduled %s in %s on %s %s\n".formatted(
-                                    course.getCourseName(), room.getName(), day, slot));
-                                
-                                break dayLoop;
-                            }
-                        }
-                    }
-                }
-                
-                if (!courseScheduled) {
-                    failedCount++;
-                    details.append("Failed to schedule %s - no available slots\n".formatted(
-                        course.getCourseName()));
-                }
+            int sessions = sessionsPerCourse != null
+                ? Math.max(1, sessionsPerCourse)
+                : SchedulerEngine.defaultSessionsPerCourse();
+            if (async) {
+                return submitScheduleJob(sessions, 0, replan);
             }
+            return ResponseEntity.ok(schedulerEngine.generate(sessions, 0, replan, new SolverMonitor()));
             
-            Map<String, Object> response = new HashMap<>();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Schedule generation failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Plan one exam per course so that no student sits two at once, with
+     * rooms filled up to capacity. Returns the plan; the timetable is untouched.
+     */
+    @PostMapping("/api/exams/generate")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> generateExamSchedule() {
+        try {
+            return ResponseEntity.ok(schedulerEngine.generateExams());
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("success", false, "error", "Exam scheduling failed: " + e.getMessage()));
+        }
+    }
+
+    // ==================== SCHEDULE JOBS ====================
+
+    /**
+     * Queue a generation and return at once with its job id (202). Poll
+     * /api/timetable/jobs/{id} or stream /api/timetable/jobs/{id}/events;
+     * optimizeMs > 0 polishes the result with the optimizer before saving and
+     * replan=true re-places everything but pinned entries.
+     */
+    @PostMapping("/api/timetable/jobs")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> submitScheduleJob(
+            @RequestParam(required = false) Integer sessionsPerCourse,
+            @RequestParam(required = false) Long optimizeMs,
+            @RequestParam(defaultValue = "false") boolean replan) {
+        int sessions = sessionsPerCourse != null
+            ? Math.max(1, sessionsPerCourse)
+            : SchedulerEngine.defaultSessionsPerCourse();
+        return submitScheduleJob(sessions, optimizeMs != null ? Math.max(0, optimizeMs) : 0, replan);
+    }
+
+    private ResponseEntity<Map<String, Object>> submitScheduleJob(int sessionsPerCourse, long optimizeMillis,
+                                                                  boolean replan) {
+        try {
+            ScheduleJob job = scheduleJobService.submitGeneration(sessionsPerCourse, optimizeMillis, replan);
+            Map<String, Object> response = new HashMap<>(job.toMap(false));
             response.put("success", true);
-            response.put("message", "Generated schedule: %d courses scheduled, %d failed".formatted(
-                scheduledCount, failedCount));
-            response.put("scheduledCount", scheduledCount);
-            response.put("failedCount", failedCount);
-            response.put("details", details.toString());
-            
-            return ResponseEntity.ok(response);
+            response.put("statusUrl", "/api/timetable/jobs/" + job.getId());
+            response.put("eventsUrl", "/api/timetable/jobs/" + job.getId() + "/events");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("success", false, "error", "Too many schedule jobs queued, try again later"));
+        }
+    }
+
+    @GetMapping("/api/timetable/jobs")
+    @ResponseBody
+    public ResponseEntity<List<Map<String, Object>>> listScheduleJobs() {
+        return ResponseEntity.ok(scheduleJobService.list());
+    }
+
+    /**
+     * Status and progress; includes the report once the job has succeeded.
+     */
+    @GetMapping("/api/timetable/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getScheduleJob(@PathVariable String id) {
+        return scheduleJobService.find(id)
+            .map(job -> ResponseEntity.ok(job.toMap(true)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "error", "Job not found")));
+    }
+
+    /**
+     * The generation report (scheduled/failed counts, details, stats) of a finished job.
+     */
+    @GetMapping("/api/timetable/jobs/{id}/report")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getScheduleJobReport(@PathVariable String id) {
+        Optional<ScheduleJob> job = scheduleJobService.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "error", "Job not found"));
+        }
+        Map<String, Object> report = job.get().getReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("success", false, "error", "Job has no report", "status", job.get().getStatus().name()));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping(value = "/api/timetable/jobs/{id}/events", produces = "text/event-stream")
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamScheduleJob(@PathVariable String id) {
+        return scheduleJobService.find(id)
+            .map(job -> ResponseEntity.ok(scheduleJobService.stream(job)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Cancel a queued or running job. A job that has started saving finishes anyway.
+     */
+    @DeleteMapping("/api/timetable/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> cancelScheduleJob(@PathVariable String id) {
+        Optional<ScheduleJob> job = scheduleJobService.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "error", "Job not found"));
+        }
+        if (!scheduleJobService.cancel(job.get())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("success", false, "error", "Job already finished", "status", job.get().getStatus().name()));
+        }
+        return ResponseEntity.ok(job.get().toMap(false));
+    }
+
+    /**
+     * Improve the existing timetable's room fit, instructor gaps and day spread
+     * for budgetMs milliseconds (default schedule.optimizer.budgetMillis),
+     * moving entries only where no hard constraint breaks.
+     */
+    @PostMapping("/api/timetable/optimize")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> optimizeSchedule(@RequestParam(required = false) Long budgetMs) {
+        try {
+            long budget = budgetMs != null ? budgetMs : SchedulerEngine.defaultOptimizeMillis();
+            return ResponseEntity.ok(schedulerEngine.optimize(budget));
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("success", false, "error", "Schedule generation failed: " + e.getMessage()));
+                .body(Map.of("success", false, "error", "Schedule optimization failed: " + e.getMessage()));
         }
     }
 
@@ -751,32 +1020,38 @@ public class WebServer {
     
     private ConflictResult checkTimeConflict(int roomId, int courseId, String day, String startTime, String endTime) {
         try {
+            int dayIndex = TimeCodec.dayIndex(day);
+            int startMin = TimeCodec.toMinutes(startTime);
+            int endMin = TimeCodec.toMinutes(endTime);
+            if (dayIndex == TimeCodec.UNKNOWN || startMin == TimeCodec.UNKNOWN
+                    || endMin == TimeCodec.UNKNOWN || endMin <= startMin) {
+                // Assume conflict on bad input for safety
+                return new ConflictResult(true, "Error", "Invalid day or time range");
+            }
+
             // Step 1: Check room overlap
-            List<TimetableEntry> roomEntries = timetableDAO.getByRoomAndDay(roomId, day);
-            for (TimetableEntry entry : roomEntries) {
-                if (isTimeOverlap(startTime, endTime, entry.getStartTime(), entry.getEndTime())) {
-                    String courseName = getCourseNameById(entry.getCourseId());
-                    return new ConflictResult(true, "Room conflict",
-                        "Room is already occupied by %s from %s to %s".formatted(
-                            courseName, entry.getStartTime(), entry.getEndTime()));
-                }
+            TimetableSlot slot = timetableIndex.firstRoomConflict(roomId, dayIndex, startMin, endMin);
+            if (slot != null) {
+                String courseName = getCourseNameById(slot.courseId());
+                return new ConflictResult(true, "Room conflict",
+                    "Room is already occupied by %s from %s to %s".formatted(
+                        courseName, slot.startTime(), slot.endTime()));
             }
 
             // Step 2: Check instructor overlap
             String instructorUsername = getInstructorUsernameForCourse(courseId);
             if (instructorUsername != null) {
-                Optional<User> instructorOpt = userDAO.getUserByUsername(instructorUsername);
+                Optional<Integer> instructorOpt = userDAO.findIdByUsername(instructorUsername);
                 if (instructorOpt.isPresent()) {
-                    int instructorId = instructorOpt.get().getId();
-                    List<TimetableEntry> instructorEntries = timetableDAO.getByInstructorAndDay(instructorId, day);
+                    int instructorId = instructorOpt.get();
+                    TimetableSlot taught =
+                        timetableIndex.firstInstructorConflict(instructorId, dayIndex, startMin, endMin);
                     
-                    for (TimetableEntry entry : instructorEntries) {
-                        if (isTimeOverlap(startTime, endTime, entry.getStartTime(), entry.getEndTime())) {
-                            String conflictCourseName = getCourseNameById(entry.getCourseId());
-                            return new ConflictResult(true, "Instructor conflict",
-                                "Instructor is already teaching %s from %s to %s".formatted(
-                                    conflictCourseName, entry.getStartTime(), entry.getEndTime()));
-                        }
+                    if (taught != null) {
+                        String conflictCourseName = getCourseNameById(taught.courseId());
+                        return new ConflictResult(true, "Instructor conflict",
+                            "Instructor is already teaching %s from %s to %s".formatted(
+                                conflictCourseName, taught.startTime(), taught.endTime()));
                     }
                 }
             }
@@ -788,32 +1063,10 @@ public class WebServer {
         }
     }
 
-    private boolean isTimeOverlap(String start1, String end1, String start2, String end2) {
-        try {
-            int start1Minutes = timeToMinutes(start1);
-            int end1Minutes = timeToMinutes(end1);
-            int start2Minutes = timeToMinutes(start2);
-            int end2Minutes = timeToMinutes(end2);
-            
-            return !(end1Minutes <= start2Minutes || start1Minutes >= end2Minutes);
-        } catch (Exception e) {
-            return true; // Assume conflict on error for safety
-        }
-    }
-
-    private int timeToMinutes(String time) {
-        String[] parts = time.split(":");
-        return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
-    }
-
     private String getInstructorUsernameForCourse(int courseId) {
         try {
-            List<Course> courses = courseDAO.findAll();
-            return courses.stream()
-                .filter(c -> c.getId() == courseId)
-                .map(Course::getFacultyUsername)
-                .findFirst()
-                .orElse(null);
+            Course course = courseDAO.findById(courseId);
+            return course != null ? course.getFacultyUsername() : null;
         } catch (Exception e) {
             return null;
         }
@@ -821,12 +1074,8 @@ public class WebServer {
 
     private String getCourseNameById(int courseId) {
         try {
-            List<Course> courses = courseDAO.findAll();
-            return courses.stream()
-                .filter(c -> c.getId() == courseId)
-                .map(Course::getCourseName)
-                .findFirst()
-                .orElse("Unknown Course");
+            Course course = courseDAO.findById(courseId);
+            return course != null ? course.getCourseName() : "Unknown Course";
         } catch (Exception e) {
             return "Unknown Course";
         }
@@ -0,0 +1,105 @@
+package com.druv.scheduler.engine;
+
+import java.util.Arrays;
+
+/**
+ * Courses that share at least one student, as an undirected graph in
+ * compressed sparse row form: the neighbours of the course at position p are
+ * neighbors[offsets[p]] .. neighbors[offsets[p + 1] - 1], sorted by position,
+ * and weights holds the number of shared students for each of them.
+ *
+ * Positions are dense indexes into courseIds, which is sorted, so a course id
+ * is resolved with a binary search and no boxing.
+ */
+public final class CourseConflictGraph {
+
+    public static final CourseConflictGraph EMPTY =
+        new CourseConflictGraph(new int[0], new int[0], new int[] {0}, new int[0], new int[0]);
+
+    private final int[] courseIds;
+    private final int[] students;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] weights;
+
+    /**
+     * @param courseIds sorted course ids
+     * @param students students enrolled in each course
+     * @param offsets courseIds.length + 1 row starts into neighbors
+     */
+    public CourseConflictGraph(int[] courseIds, int[] students, int[] offsets, int[] neighbors, int[] weights) {
+        this.courseIds = courseIds;
+        this.students = students;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+    }
+
+    public int size() {
+        return courseIds.length;
+    }
+
+    public int edgeCount() {
+        return neighbors.length / 2;
+    }
+
+    /**
+     * @return the course's position, or -1 if no student takes it
+     */
+    public int position(int courseId) {
+        int position = Arrays.binarySearch(courseIds, courseId);
+        return position >= 0 ? position : -1;
+    }
+
+    public int courseId(int position) {
+        return courseIds[position];
+    }
+
+    public int students(int position) {
+        return students[position];
+    }
+
+    public int degree(int position) {
+        return offsets[position + 1] - offsets[position];
+    }
+
+    public int neighborStart(int position) {
+        return offsets[position];
+    }
+
+    public int neighborEnd(int position) {
+        return offsets[position + 1];
+    }
+
+    /**
+     * @param i index between neighborStart and neighborEnd of some position
+     */
+    public int neighborAt(int i) {
+        return neighbors[i];
+    }
+
+    public int weightAt(int i) {
+        return weights[i];
+    }
+
+    public boolean conflicts(int courseA, int courseB) {
+        int a = position(courseA);
+        int b = position(courseB);
+        return a >= 0 && b >= 0 && Arrays.binarySearch(neighbors, offsets[a], offsets[a + 1], b) >= 0;
+    }
+
+    /**
+     * @return ids of the courses sharing a student with courseId in ascending order, empty if none
+     */
+    public int[] conflictingCourses(int courseId) {
+        int position = position(courseId);
+        if (position < 0) {
+            return new int[0];
+        }
+        int[] ids = new int[degree(position)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = courseIds[neighbors[offsets[position] + i]];
+        }
+        return ids;
+    }
+}
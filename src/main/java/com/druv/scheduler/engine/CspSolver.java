@@ -0,0 +1,539 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * Backtracking constraint solver for placing sessions into (period, room) pairs.
+ *
+ * Hard constraints: a room hosts one session at a time, must seat the
+ * session and must be in the session's room pool; an instructor teaches one session at a time; a course meets at
+ * most once a day; courses that share students (the problem's conflict graph) never meet in overlapping periods.
+ *
+ * The search picks the session with the fewest remaining options first (MRV,
+ * ties broken by how many sessions share its instructor or its students), tries periods with
+ * the most free rooms first, and gives each period the smallest room that fits.
+ * Every assignment is forward-checked: room and instructor domains of the other
+ * sessions are pruned, and an assignment that empties a domain is undone.
+ * Domains are kept as per-(session, period) counters so pruning and undo are
+ * O(1) per touched cell, recorded on a trail.
+ *
+ * If the search needs more than schedule.solver.maxBacktracks backtracks the
+ * instance is over-constrained; the solver then stops backtracking, keeps
+ * going greedily and reports the sessions it could not place.
+ *
+ * Every PROGRESS_INTERVAL nodes the solver reports its placed and failed
+ * counts to its SolverMonitor and stops with a CancellationException if the
+ * monitor was cancelled.
+ */
+public final class CspSolver {
+
+    private static final int UNASSIGNED = 0;
+    private static final int ASSIGNED = 1;
+    private static final int DROPPED = 2;
+
+    // Trail record types
+    private static final int ROOM_BUSY = 0;
+    private static final int BLOCK = 1;
+
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    private final SchedulingProblem problem;
+    private final int maxBacktracks;
+    private final SolverMonitor monitor;
+
+    private final int sessionCount;
+    private final int slotCount;
+    private final List<TimeSlot> slots;
+    private final List<RoomOption> rooms;    // sorted by pool, then capacity, smallest first
+    private final int[] capacity;
+    private final int[] need;
+    private final int[] firstFittingRoom;    // index into rooms of the smallest pool room that seats the session
+    private final int[] poolEnd;             // index just past the session's pool in rooms
+    private final int[][] overlapping;       // per period: periods overlapping it, itself included
+    private final int[][] sameDay;           // per period: periods on the same day
+    private final int[][] instructorPeers;   // per session: other sessions with the same instructor
+    private final int[][] coursePeers;       // per session: other sessions of the same course
+    private final int[][] studentPeers;      // per session: sessions of courses sharing students with it
+    private final int[] conflictDegree;      // per session: instructor and student peers
+
+    // Search state
+    private final BitSet[] roomBusy;         // per period: rooms taken by something overlapping it
+    private final int[][] freeRooms;         // [session][period] fitting rooms still free
+    private final int[][] blocked;           // [session][period] > 0 if the period is ruled out
+    private final int[] domainSize;          // sum of freeRooms over unblocked periods
+    private final int[] state;
+    private final int[] slotOf;
+    private final int[] roomOf;
+    private int[] trail = new int[1024];
+    private int trailSize;
+    private boolean greedy;
+    private long backtracks;
+    private long nodes;
+    private int reportedPlaced;
+    private int reportedFailed;
+
+    public CspSolver(SchedulingProblem problem) {
+        this(problem, new SolverMonitor());
+    }
+
+    public CspSolver(SchedulingProblem problem, SolverMonitor monitor) {
+        this(problem, Integer.getInteger("schedule.solver.maxBacktracks", 20000), monitor);
+    }
+
+    public CspSolver(SchedulingProblem problem, int maxBacktracks) {
+        this(problem, maxBacktracks, new SolverMonitor());
+    }
+
+    public CspSolver(SchedulingProblem problem, int maxBacktracks, SolverMonitor monitor) {
+        this.problem = problem;
+        this.maxBacktracks = maxBacktracks;
+        this.monitor = monitor;
+
+        List<Session> sessions = problem.getSessions();
+        this.sessionCount = sessions.size();
+        this.slots = problem.getSlots();
+        this.slotCount = slots.size();
+        this.rooms = new ArrayList<>(problem.getRooms());
+        rooms.sort(Comparator.comparing(RoomOption::pool, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingInt(RoomOption::capacity)
+            .thenComparingInt(RoomOption::roomId));
+        this.capacity = rooms.stream().mapToInt(RoomOption::capacity).toArray();
+
+        Map<String, int[]> poolRanges = new HashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            int index = r;
+            poolRanges.compute(rooms.get(r).pool(), (pool, range) ->
+                range == null ? new int[] {index, index + 1} : new int[] {range[0], index + 1});
+        }
+
+        this.need = new int[sessionCount];
+        this.firstFittingRoom = new int[sessionCount];
+        this.poolEnd = new int[sessionCount];
+        for (int v = 0; v < sessionCount; v++) {
+            need[v] = sessions.get(v).size();
+            // A pool with no rooms gives an empty range, so the session is reported unscheduled
+            int[] range = poolRanges.getOrDefault(sessions.get(v).pool(), new int[] {0, 0});
+            firstFittingRoom[v] = firstRoomWithCapacity(need[v], range[0], range[1]);
+            poolEnd[v] = range[1];
+        }
+
+        this.overlapping = new int[slotCount][];
+        this.sameDay = new int[slotCount][];
+        for (int t = 0; t < slotCount; t++) {
+            List<Integer> overlaps = new ArrayList<>();
+            List<Integer> day = new ArrayList<>();
+            for (int other = 0; other < slotCount; other++) {
+                if (slots.get(t).overlaps(slots.get(other))) {
+                    overlaps.add(other);
+                }
+                if (slots.get(t).dayIndex() == slots.get(other).dayIndex()) {
+                    day.add(other);
+                }
+            }
+            overlapping[t] = overlaps.stream().mapToInt(Integer::intValue).toArray();
+            sameDay[t] = day.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.instructorPeers = peers(sessions, true);
+        this.coursePeers = peers(sessions, false);
+        this.studentPeers = studentPeers(sessions, problem.getConflicts());
+        this.conflictDegree = new int[sessionCount];
+        for (int v = 0; v < sessionCount; v++) {
+            conflictDegree[v] = instructorPeers[v].length + studentPeers[v].length;
+        }
+
+        this.roomBusy = new BitSet[slotCount];
+        this.freeRooms = new int[sessionCount][slotCount];
+        this.blocked = new int[sessionCount][slotCount];
+        this.domainSize = new int[sessionCount];
+        this.state = new int[sessionCount];
+        this.slotOf = new int[sessionCount];
+        this.roomOf = new int[sessionCount];
+        Arrays.fill(slotOf, -1);
+        Arrays.fill(roomOf, -1);
+    }
+
+    public Solution solve() {
+        long startedAt = System.nanoTime();
+        initializeDomains();
+
+        // Sessions with nothing left before the search starts cannot be helped by backtracking
+        for (int v = 0; v < sessionCount; v++) {
+            if (domainSize[v] == 0) {
+                state[v] = DROPPED;
+            }
+        }
+        search();
+        reportProgress();
+        return buildSolution(System.nanoTime() - startedAt);
+    }
+
+    // ==================== INITIAL DOMAINS ====================
+
+    private void initializeDomains() {
+        Map<Integer, Integer> roomIndex = new HashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            roomIndex.put(rooms.get(r).roomId(), r);
+        }
+        for (int t = 0; t < slotCount; t++) {
+            roomBusy[t] = new BitSet(rooms.size());
+        }
+
+        List<Session> sessions = problem.getSessions();
+        Map<Integer, List<Integer>> byInstructor = new HashMap<>();
+        Map<Integer, List<Integer>> byCourse = new HashMap<>();
+        for (int v = 0; v < sessionCount; v++) {
+            Session session = sessions.get(v);
+            if (session.instructorId() != null) {
+                byInstructor.computeIfAbsent(session.instructorId(), k -> new ArrayList<>()).add(v);
+            }
+            byCourse.computeIfAbsent(session.courseId(), k -> new ArrayList<>()).add(v);
+        }
+
+        CourseConflictGraph conflicts = problem.getConflicts();
+        for (TimetableSlot entry : problem.getFixed()) {
+            Integer r = roomIndex.get(entry.roomId());
+            int[] sharingStudents = conflicts.conflictingCourses(entry.courseId());
+            for (int t = 0; t < slotCount; t++) {
+                TimeSlot slot = slots.get(t);
+                if (slot.overlaps(entry.dayIndex(), entry.startMin(), entry.endMin())) {
+                    if (r != null) {
+                        roomBusy[t].set(r);
+                    }
+                    if (entry.instructorId() != null) {
+                        for (int v : byInstructor.getOrDefault(entry.instructorId(), List.of())) {
+                            blocked[v][t]++;
+                        }
+                    }
+                    for (int courseId : sharingStudents) {
+                        for (int v : byCourse.getOrDefault(courseId, List.of())) {
+                            blocked[v][t]++;
+                        }
+                    }
+                }
+                if (slot.dayIndex() == entry.dayIndex()) {
+                    for (int v : byCourse.getOrDefault(entry.courseId(), List.of())) {
+                        blocked[v][t]++;
+                    }
+                }
+            }
+        }
+
+        for (int v = 0; v < sessionCount; v++) {
+            int fitting = poolEnd[v] - firstFittingRoom[v];
+            for (int t = 0; t < slotCount; t++) {
+                int busyFitting = roomBusy[t].get(firstFittingRoom[v], poolEnd[v]).cardinality();
+                freeRooms[v][t] = fitting - busyFitting;
+                if (blocked[v][t] == 0) {
+                    domainSize[v] += freeRooms[v][t];
+                }
+            }
+        }
+    }
+
+    // ==================== SEARCH ====================
+
+    private static final class Frame {
+        final int session;
+        final int[] values;    // period * roomCount + room
+        int next;
+        int trailMark;
+
+        Frame(int session, int[] values) {
+            this.session = session;
+            this.values = values;
+        }
+    }
+
+    private void search() {
+        List<Frame> stack = new ArrayList<>();
+
+        while (true) {
+            int v = selectSession();
+            if (v < 0) {
+                return;
+            }
+            if (domainSize[v] == 0) {
+                // Only reachable once the search has gone greedy and something wiped this session out
+                state[v] = DROPPED;
+                continue;
+            }
+            stack.add(new Frame(v, orderValues(v)));
+
+            while (!tryNextValue(stack.getLast())) {
+                Frame exhausted = stack.removeLast();
+                backtracks++;
+                if (backtracks >= maxBacktracks || stack.isEmpty()) {
+                    // Over-constrained: accept the best value even if it empties another domain
+                    greedy = true;
+                    exhausted.next = 0;
+                    stack.add(exhausted);
+                    continue;
+                }
+                Frame previous = stack.getLast();
+                undo(previous.trailMark);
+                state[previous.session] = UNASSIGNED;
+            }
+        }
+    }
+
+    /**
+     * Assign the frame's next value that does not wipe out another session.
+     * @return false once the frame has no values left
+     */
+    private boolean tryNextValue(Frame frame) {
+        while (frame.next < frame.values.length) {
+            int value = frame.values[frame.next++];
+            if (++nodes % PROGRESS_INTERVAL == 0) {
+                reportProgress();
+                monitor.checkCancelled();
+            }
+            frame.trailMark = trailSize;
+            boolean wipedOut = assign(frame.session, value / rooms.size(), value % rooms.size());
+            if (!wipedOut || greedy) {
+                return true;
+            }
+            undo(frame.trailMark);
+            state[frame.session] = UNASSIGNED;
+        }
+        return false;
+    }
+
+    // Fewest options first; ties go to the session with the most instructor and student peers
+    private int selectSession() {
+        int best = -1;
+        for (int v = 0; v < sessionCount; v++) {
+            if (state[v] != UNASSIGNED) {
+                continue;
+            }
+            if (best < 0 || domainSize[v] < domainSize[best]
+                    || (domainSize[v] == domainSize[best] && conflictDegree[v] > conflictDegree[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Candidate (period, room) pairs for a session: every open period, most free
+     * rooms first so the choice leaves the most room for others, each with the
+     * smallest free room that seats the session.
+     */
+    private int[] orderValues(int v) {
+        List<Integer> periods = new ArrayList<>();
+        for (int t = 0; t < slotCount; t++) {
+            if (blocked[v][t] == 0 && freeRooms[v][t] > 0) {
+                periods.add(t);
+            }
+        }
+        periods.sort(Comparator.comparingInt((Integer t) -> -freeRooms[v][t]).thenComparingInt(t -> t));
+
+        int[] values = new int[periods.size()];
+        for (int i = 0; i < values.length; i++) {
+            int t = periods.get(i);
+            int r = roomBusy[t].nextClearBit(firstFittingRoom[v]);
+            values[i] = t * rooms.size() + r;
+        }
+        return values;
+    }
+
+    /**
+     * Place session v in period t and room r, then prune the other domains.
+     * @return true if some unplaced session was left with no options
+     */
+    private boolean assign(int v, int t, int r) {
+        state[v] = ASSIGNED;
+        slotOf[v] = t;
+        roomOf[v] = r;
+        boolean wipedOut = false;
+
+        for (int other : overlapping[t]) {
+            wipedOut |= occupyRoom(other, r);
+        }
+        for (int u : instructorPeers[v]) {
+            for (int other : overlapping[t]) {
+                wipedOut |= block(u, other);
+            }
+        }
+        for (int u : studentPeers[v]) {
+            for (int other : overlapping[t]) {
+                wipedOut |= block(u, other);
+            }
+        }
+        for (int u : coursePeers[v]) {
+            for (int other : sameDay[t]) {
+                wipedOut |= block(u, other);
+            }
+        }
+        return wipedOut;
+    }
+
+    private boolean occupyRoom(int t, int r) {
+        if (roomBusy[t].get(r)) {
+            return false;
+        }
+        roomBusy[t].set(r);
+        push(ROOM_BUSY, t, r);
+
+        boolean wipedOut = false;
+        for (int u = 0; u < sessionCount; u++) {
+            if (fits(u, r)) {
+                freeRooms[u][t]--;
+                if (blocked[u][t] == 0) {
+                    domainSize[u]--;
+                    wipedOut |= state[u] == UNASSIGNED && domainSize[u] == 0;
+                }
+            }
+        }
+        return wipedOut;
+    }
+
+    private boolean block(int u, int t) {
+        push(BLOCK, u, t);
+        if (blocked[u][t]++ == 0) {
+            domainSize[u] -= freeRooms[u][t];
+            return state[u] == UNASSIGNED && domainSize[u] == 0;
+        }
+        return false;
+    }
+
+    private void push(int type, int a, int b) {
+        if (trailSize + 3 > trail.length) {
+            trail = Arrays.copyOf(trail, trail.length * 2);
+        }
+        trail[trailSize++] = type;
+        trail[trailSize++] = a;
+        trail[trailSize++] = b;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int b = trail[--trailSize];
+            int a = trail[--trailSize];
+            int type = trail[--trailSize];
+            if (type == ROOM_BUSY) {
+                roomBusy[a].clear(b);
+                for (int u = 0; u < sessionCount; u++) {
+                    if (fits(u, b)) {
+                        freeRooms[u][a]++;
+                        if (blocked[u][a] == 0) {
+                            domainSize[u]++;
+                        }
+                    }
+                }
+            } else if (--blocked[a][b] == 0) {
+                domainSize[a] += freeRooms[a][b];
+            }
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    // Counters are shared by every solver on the monitor, so report differences
+    private void reportProgress() {
+        int placed = 0;
+        int failed = 0;
+        for (int v = 0; v < sessionCount; v++) {
+            if (state[v] == ASSIGNED) {
+                placed++;
+            } else if (state[v] == DROPPED) {
+                failed++;
+            }
+        }
+        monitor.addPlaced(placed - reportedPlaced);
+        monitor.addFailed(failed - reportedFailed);
+        reportedPlaced = placed;
+        reportedFailed = failed;
+    }
+
+    private boolean fits(int v, int r) {
+        return r >= firstFittingRoom[v] && r < poolEnd[v];
+    }
+
+    private int firstRoomWithCapacity(int seats, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacity[mid] < seats) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[][] peers(List<Session> sessions, boolean byInstructor) {
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            Integer key = byInstructor ? sessions.get(v).instructorId() : Integer.valueOf(sessions.get(v).courseId());
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(v);
+            }
+        }
+        int[][] peers = new int[sessions.size()][];
+        for (int v = 0; v < sessions.size(); v++) {
+            Integer key = byInstructor ? sessions.get(v).instructorId() : Integer.valueOf(sessions.get(v).courseId());
+            List<Integer> group = key == null ? List.of() : groups.get(key);
+            int self = v;
+            peers[v] = group.stream().mapToInt(Integer::intValue).filter(u -> u != self).toArray();
+        }
+        return peers;
+    }
+
+    private static int[][] studentPeers(List<Session> sessions, CourseConflictGraph conflicts) {
+        Map<Integer, List<Integer>> byCourse = new HashMap<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            byCourse.computeIfAbsent(sessions.get(v).courseId(), k -> new ArrayList<>()).add(v);
+        }
+        Map<Integer, int[]> peersOfCourse = new HashMap<>();
+        int[][] peers = new int[sessions.size()][];
+        for (int v = 0; v < sessions.size(); v++) {
+            peers[v] = peersOfCourse.computeIfAbsent(sessions.get(v).courseId(), courseId -> {
+                List<Integer> group = new ArrayList<>();
+                for (int other : conflicts.conflictingCourses(courseId)) {
+                    group.addAll(byCourse.getOrDefault(other, List.of()));
+                }
+                return group.stream().mapToInt(Integer::intValue).toArray();
+            });
+        }
+        return peers;
+    }
+
+    private Solution buildSolution(long elapsedNanos) {
+        List<Session> sessions = problem.getSessions();
+        List<Solution.Assignment> assignments = new ArrayList<>();
+        List<Session> unscheduled = new ArrayList<>();
+        for (int v = 0; v < sessionCount; v++) {
+            if (state[v] == ASSIGNED) {
+                assignments.add(new Solution.Assignment(sessions.get(v), slots.get(slotOf[v]), rooms.get(roomOf[v])));
+            } else {
+                unscheduled.add(sessions.get(v));
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessionCount);
+        stats.put("periods", slotCount);
+        stats.put("rooms", rooms.size());
+        stats.put("assigned", assignments.size());
+        stats.put("unscheduled", unscheduled.size());
+        stats.put("nodes", nodes);
+        stats.put("backtracks", backtracks);
+        stats.put("greedyFallback", greedy);
+        stats.put("millis", elapsedNanos / 1_000_000);
+        return new Solution(assignments, unscheduled, stats);
+    }
+}
@@ -0,0 +1,211 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * Splits a problem into the connected components of its constraint graph and
+ * solves them in parallel.
+ *
+ * Two sessions interact only if they share a course, an instructor or a room
+ * pool, or their courses share students, so sessions are unioned along those
+ * four edges; every resulting
+ * component owns its pools' rooms outright and can be solved with no
+ * knowledge of the others. Components are handed to a ForkJoinPool largest
+ * first, each solved by CspSolver and then given its rooms by RoomMatcher,
+ * and their solutions concatenated. All component solvers report to the
+ * same SolverMonitor; cancelling it stops every one of them.
+ */
+public final class DecomposingSolver {
+
+    private final ForkJoinPool pool;
+    private final SolverMonitor monitor;
+
+    public DecomposingSolver(ForkJoinPool pool) {
+        this(pool, new SolverMonitor());
+    }
+
+    public DecomposingSolver(ForkJoinPool pool, SolverMonitor monitor) {
+        this.pool = pool;
+        this.monitor = monitor;
+    }
+
+    public Solution solve(SchedulingProblem problem) {
+        long startedAt = System.nanoTime();
+        List<SchedulingProblem> components = decompose(problem);
+
+        List<Solution> solutions = new ArrayList<>(components.size());
+        if (components.size() == 1) {
+            solutions.add(solveComponent(components.getFirst()));
+        } else {
+            List<ForkJoinTask<Solution>> tasks = new ArrayList<>(components.size());
+            for (SchedulingProblem component : components) {
+                tasks.add(pool.submit(() -> solveComponent(component)));
+            }
+            try {
+                for (ForkJoinTask<Solution> task : tasks) {
+                    solutions.add(task.join());
+                }
+            } catch (RuntimeException e) {
+                // Do not leave the other components running for nobody
+                monitor.cancel();
+                throw e;
+            }
+        }
+        return merge(components, solutions, System.nanoTime() - startedAt);
+    }
+
+    private Solution solveComponent(SchedulingProblem component) {
+        return new RoomMatcher(component, monitor).improve(new CspSolver(component, monitor).solve());
+    }
+
+    /**
+     * @return independent subproblems, largest first; a problem without sessions yields none
+     */
+    public static List<SchedulingProblem> decompose(SchedulingProblem problem) {
+        List<Session> sessions = problem.getSessions();
+        int[] parent = new int[sessions.size()];
+        for (int v = 0; v < parent.length; v++) {
+            parent[v] = v;
+        }
+
+        Map<Integer, Integer> firstOfCourse = new HashMap<>();
+        Map<Integer, Integer> firstOfInstructor = new HashMap<>();
+        Map<String, Integer> firstOfPool = new HashMap<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            Session session = sessions.get(v);
+            union(parent, v, firstOfCourse.merge(session.courseId(), v, (first, next) -> first));
+            if (session.instructorId() != null) {
+                union(parent, v, firstOfInstructor.merge(session.instructorId(), v, (first, next) -> first));
+            }
+            // HashMap takes a null key, which is the shared pool
+            union(parent, v, firstOfPool.merge(session.pool(), v, (first, next) -> first));
+        }
+        CourseConflictGraph conflicts = problem.getConflicts();
+        for (Map.Entry<Integer, Integer> course : firstOfCourse.entrySet()) {
+            for (int other : conflicts.conflictingCourses(course.getKey())) {
+                Integer first = firstOfCourse.get(other);
+                if (first != null) {
+                    union(parent, course.getValue(), first);
+                }
+            }
+        }
+
+        Map<Integer, List<Session>> groups = new LinkedHashMap<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            groups.computeIfAbsent(find(parent, v), k -> new ArrayList<>()).add(sessions.get(v));
+        }
+
+        List<SchedulingProblem> components = new ArrayList<>(groups.size());
+        for (List<Session> group : groups.values()) {
+            components.add(component(problem, group));
+        }
+        components.sort(Comparator.comparingInt((SchedulingProblem p) -> p.getSessions().size()).reversed());
+        return components;
+    }
+
+    private static SchedulingProblem component(SchedulingProblem problem, List<Session> group) {
+        Set<String> pools = new HashSet<>();
+        Set<Integer> courses = new HashSet<>();
+        Set<Integer> instructors = new HashSet<>();
+        for (Session session : group) {
+            pools.add(session.pool());
+            courses.add(session.courseId());
+            if (session.instructorId() != null) {
+                instructors.add(session.instructorId());
+            }
+        }
+
+        List<RoomOption> rooms = new ArrayList<>();
+        Set<Integer> roomIds = new HashSet<>();
+        for (RoomOption room : problem.getRooms()) {
+            if (pools.contains(room.pool())) {
+                rooms.add(room);
+                roomIds.add(room.roomId());
+            }
+        }
+
+        Set<Integer> sharingStudents = new HashSet<>();
+        for (int courseId : courses) {
+            for (int other : problem.getConflicts().conflictingCourses(courseId)) {
+                sharingStudents.add(other);
+            }
+        }
+
+        // Only the fixed entries that can constrain this component
+        List<TimetableSlot> fixed = new ArrayList<>();
+        for (TimetableSlot entry : problem.getFixed()) {
+            if (roomIds.contains(entry.roomId()) || courses.contains(entry.courseId())
+                    || sharingStudents.contains(entry.courseId())
+                    || (entry.instructorId() != null && instructors.contains(entry.instructorId()))) {
+                fixed.add(entry);
+            }
+        }
+        return new SchedulingProblem(problem.getSlots(), rooms, group, fixed, problem.getConflicts());
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private Solution merge(List<SchedulingProblem> components, List<Solution> solutions, long elapsedNanos) {
+        List<Solution.Assignment> assignments = new ArrayList<>();
+        List<Session> unscheduled = new ArrayList<>();
+        long nodes = 0;
+        long backtracks = 0;
+        boolean greedy = false;
+        long inserted = 0;
+        long wasteBefore = 0;
+        long wasteAfter = 0;
+        for (Solution solution : solutions) {
+            assignments.addAll(solution.assignments());
+            unscheduled.addAll(solution.unscheduled());
+            nodes += (Long) solution.stats().get("nodes");
+            backtracks += (Long) solution.stats().get("backtracks");
+            greedy |= (Boolean) solution.stats().get("greedyFallback");
+            inserted += ((Number) solution.stats().get("matchingInserted")).longValue();
+            wasteBefore += (Long) solution.stats().get("seatWasteBefore");
+            wasteAfter += (Long) solution.stats().get("seatWasteAfter");
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", assignments.size() + unscheduled.size());
+        stats.put("components", components.size());
+        stats.put("largestComponent", components.isEmpty() ? 0 : components.getFirst().getSessions().size());
+        stats.put("parallelism", pool.getParallelism());
+        stats.put("assigned", assignments.size());
+        stats.put("unscheduled", unscheduled.size());
+        stats.put("nodes", nodes);
+        stats.put("backtracks", backtracks);
+        stats.put("greedyFallback", greedy);
+        stats.put("matchingInserted", inserted);
+        stats.put("seatWasteBefore", wasteBefore);
+        stats.put("seatWasteAfter", wasteAfter);
+        stats.put("millis", elapsedNanos / 1_000_000);
+        return new Solution(assignments, unscheduled, stats);
+    }
+}
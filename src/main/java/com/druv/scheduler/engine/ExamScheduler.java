@@ -0,0 +1,324 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+
+/**
+ * Gives every course one exam period so that no student sits two exams at
+ * once, then seats each period's exams in the rooms.
+ *
+ * Periods are colours of the course conflict graph, assigned by DSatur: the
+ * next exam is always the uncoloured one with the most distinct periods
+ * already taken by its neighbours (then the most neighbours, then the most
+ * students), kept in an indexed binary heap over int arrays, and it takes
+ * the earliest period none of its neighbours uses whose remaining seats
+ * still hold it. Neighbour periods are one bit row per exam, so colouring
+ * costs O((V + E) log V) with no boxing. Exams no period can take are
+ * reported unscheduled.
+ *
+ * Seating fills rooms up to capacity and may put several exams in one room:
+ * per period, exams are taken largest first into the room that leaves the
+ * fewest seats empty, and an exam no single room holds is split across the
+ * rooms with the most seats left. Room pools do not apply to exams. Periods
+ * must not overlap each other, as TimeGrid periods never do.
+ */
+public final class ExamScheduler {
+
+    public record Exam(int courseId, String label, int students) {}
+
+    public record Seating(RoomOption room, int students) {}
+
+    public record Sitting(Exam exam, TimeSlot slot, List<Seating> seats) {}
+
+    public record Result(List<Sitting> sittings, List<Exam> unscheduled, Map<String, Object> stats) {}
+
+    private final List<TimeSlot> periods;
+    private final List<RoomOption> rooms;
+    private final List<Exam> exams;
+    private final CourseConflictGraph conflicts;
+
+    public ExamScheduler(List<TimeSlot> periods, List<RoomOption> rooms, List<Exam> exams,
+                         CourseConflictGraph conflicts) {
+        this.periods = periods;
+        this.rooms = rooms;
+        this.exams = exams;
+        this.conflicts = conflicts;
+    }
+
+    public Result solve() {
+        long startedAt = System.nanoTime();
+        int[] periodOf = color();
+        long coloredAt = System.nanoTime();
+
+        List<List<Integer>> examsIn = new ArrayList<>(periods.size());
+        for (int c = 0; c < periods.size(); c++) {
+            examsIn.add(new ArrayList<>());
+        }
+        List<Exam> unscheduled = new ArrayList<>();
+        for (int v = 0; v < exams.size(); v++) {
+            if (periodOf[v] >= 0) {
+                examsIn.get(periodOf[v]).add(v);
+            } else {
+                unscheduled.add(exams.get(v));
+            }
+        }
+
+        List<Sitting> sittings = new ArrayList<>(exams.size() - unscheduled.size());
+        int periodsUsed = 0;
+        int split = 0;
+        for (int c = 0; c < periods.size(); c++) {
+            if (!examsIn.get(c).isEmpty()) {
+                periodsUsed++;
+                split += seat(periods.get(c), examsIn.get(c), sittings);
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("exams", exams.size());
+        stats.put("scheduled", sittings.size());
+        stats.put("unscheduled", unscheduled.size());
+        stats.put("conflictEdges", conflicts.edgeCount());
+        stats.put("periodsUsed", periodsUsed);
+        stats.put("splitExams", split);
+        stats.put("colorMillis", (coloredAt - startedAt) / 1_000_000);
+        stats.put("seatMillis", (System.nanoTime() - coloredAt) / 1_000_000);
+        return new Result(sittings, unscheduled, stats);
+    }
+
+    // ==================== DSATUR ====================
+
+    /**
+     * @return the period index of each exam, -1 where none is left
+     */
+    int[] color() {
+        int n = exams.size();
+        int words = Math.max(1, (periods.size() + 63) >>> 6);
+
+        // Graph positions back to exam indexes; courses without an exam are ignored
+        int[] examAt = new int[conflicts.size()];
+        Arrays.fill(examAt, -1);
+        int[] position = new int[n];
+        int[] degree = new int[n];
+        int[] students = new int[n];
+        for (int v = 0; v < n; v++) {
+            position[v] = conflicts.position(exams.get(v).courseId());
+            students[v] = exams.get(v).students();
+            if (position[v] >= 0) {
+                examAt[position[v]] = v;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (position[v] >= 0) {
+                for (int i = conflicts.neighborStart(position[v]); i < conflicts.neighborEnd(position[v]); i++) {
+                    if (examAt[conflicts.neighborAt(i)] >= 0) {
+                        degree[v]++;
+                    }
+                }
+            }
+        }
+
+        long totalSeats = 0;
+        for (RoomOption room : rooms) {
+            totalSeats += room.capacity();
+        }
+        long[] seatsLeft = new long[periods.size()];
+        Arrays.fill(seatsLeft, totalSeats);
+
+        long[] neighborPeriods = new long[n * words];
+        int[] saturation = new int[n];
+        int[] periodOf = new int[n];
+        Arrays.fill(periodOf, -1);
+        boolean[] done = new boolean[n];
+
+        VertexHeap heap = new VertexHeap(n, saturation, degree, students);
+        while (!heap.isEmpty()) {
+            int v = heap.poll();
+            done[v] = true;
+            int c = firstFreePeriod(neighborPeriods, v * words, seatsLeft, students[v]);
+            if (c < 0) {
+                continue;
+            }
+            periodOf[v] = c;
+            seatsLeft[c] -= students[v];
+            if (position[v] < 0) {
+                continue;
+            }
+            for (int i = conflicts.neighborStart(position[v]); i < conflicts.neighborEnd(position[v]); i++) {
+                int u = examAt[conflicts.neighborAt(i)];
+                if (u < 0 || done[u]) {
+                    continue;
+                }
+                int word = u * words + (c >>> 6);
+                long bit = 1L << c;
+                if ((neighborPeriods[word] & bit) == 0) {
+                    neighborPeriods[word] |= bit;
+                    saturation[u]++;
+                    heap.increased(u);
+                }
+            }
+        }
+        return periodOf;
+    }
+
+    private int firstFreePeriod(long[] neighborPeriods, int row, long[] seatsLeft, int need) {
+        for (int c = 0; c < seatsLeft.length; c++) {
+            if ((neighborPeriods[row + (c >>> 6)] & (1L << c)) == 0 && seatsLeft[c] >= need) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Max-heap of exam indexes ordered by saturation, then degree, then
+     * students, then lowest index. Keys only grow, so increased() sifts up.
+     */
+    static final class VertexHeap {
+        private final int[] heap;
+        private final int[] slot;  // heap index of each vertex, -1 once polled
+        private final int[] saturation;
+        private final int[] degree;
+        private final int[] students;
+        private int size;
+
+        VertexHeap(int n, int[] saturation, int[] degree, int[] students) {
+            this.heap = new int[n];
+            this.slot = new int[n];
+            this.saturation = saturation;
+            this.degree = degree;
+            this.students = students;
+            for (int v = 0; v < n; v++) {
+                heap[v] = v;
+                slot[v] = v;
+            }
+            this.size = n;
+            for (int i = n / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int poll() {
+            int top = heap[0];
+            slot[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                slot[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        void increased(int v) {
+            if (slot[v] >= 0) {
+                siftUp(slot[v]);
+            }
+        }
+
+        private boolean above(int a, int b) {
+            if (saturation[a] != saturation[b]) {
+                return saturation[a] > saturation[b];
+            }
+            if (degree[a] != degree[b]) {
+                return degree[a] > degree[b];
+            }
+            if (students[a] != students[b]) {
+                return students[a] > students[b];
+            }
+            return a < b;
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(v, heap[parent])) {
+                    break;
+                }
+                move(heap[parent], i);
+                i = parent;
+            }
+            move(v, i);
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!above(heap[child], v)) {
+                    break;
+                }
+                move(heap[child], i);
+                i = child;
+            }
+            move(v, i);
+        }
+
+        private void move(int v, int i) {
+            heap[i] = v;
+            slot[v] = i;
+        }
+    }
+
+    // ==================== SEATING ====================
+
+    /**
+     * Seat one period's exams; the colouring left enough seats for all of them.
+     * @return how many exams had to be split across rooms
+     */
+    private int seat(TimeSlot period, List<Integer> examIndexes, List<Sitting> sittings) {
+        int[] left = new int[rooms.size()];
+        for (int r = 0; r < left.length; r++) {
+            left[r] = rooms.get(r).capacity();
+        }
+        examIndexes.sort((a, b) -> Integer.compare(exams.get(b).students(), exams.get(a).students()));
+
+        int split = 0;
+        for (int v : examIndexes) {
+            Exam exam = exams.get(v);
+            int need = exam.students();
+            List<Seating> seats = new ArrayList<>(1);
+            int best = -1;
+            for (int r = 0; r < left.length; r++) {
+                if (left[r] >= need && (best < 0 || left[r] < left[best])) {
+                    best = r;
+                }
+            }
+            if (need > 0 && best >= 0) {
+                left[best] -= need;
+                seats.add(new Seating(rooms.get(best), need));
+            } else if (need > 0) {
+                split++;
+                while (need > 0) {
+                    int roomiest = 0;
+                    for (int r = 1; r < left.length; r++) {
+                        if (left[r] > left[roomiest]) {
+                            roomiest = r;
+                        }
+                    }
+                    int taken = Math.min(need, left[roomiest]);
+                    left[roomiest] -= taken;
+                    need -= taken;
+                    seats.add(new Seating(rooms.get(roomiest), taken));
+                }
+            }
+            sittings.add(new Sitting(exam, period, seats));
+        }
+        return split;
+    }
+}
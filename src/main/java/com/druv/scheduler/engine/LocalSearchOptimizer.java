@@ -0,0 +1,662 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * Simulated annealing over a feasible schedule, improving soft objectives
+ * within a wall-clock budget. Hard constraints are those of CspSolver and are
+ * never broken by a move; fixed entries never move.
+ *
+ * Soft objectives, weighted by schedule.optimizer.capacityWeight (1),
+ * gapWeight (10) and spreadWeight (5):
+ *   capacityWaste  - empty seats, room capacity minus course size
+ *   instructorGaps - free periods between an instructor's first and last class of a day
+ *   adjacentDays   - pairs of consecutive days on which the same course meets
+ *
+ * Moves relocate one session to another (period, room) or swap the placements
+ * of two sessions. Occupancy is kept as counters per (period, room),
+ * (instructor, period), (course, day) and, for courses in the conflict graph,
+ * (course, period), so a move is applied, scored and, if
+ * rejected, undone by touching only the instructors, days and courses it
+ * involves; the whole schedule is never re-scored during the search.
+ *
+ * The best schedule seen is published every few thousand moves and can be
+ * read from another thread with best() while the search runs. The search
+ * ends early on stop() or when its SolverMonitor is cancelled, returning the
+ * best schedule so far.
+ */
+public final class LocalSearchOptimizer {
+
+    public static final long CAPACITY_WEIGHT = Long.getLong("schedule.optimizer.capacityWeight", 1);
+    public static final long GAP_WEIGHT = Long.getLong("schedule.optimizer.gapWeight", 10);
+    public static final long SPREAD_WEIGHT = Long.getLong("schedule.optimizer.spreadWeight", 5);
+
+    private static final long NO_MOVE = Long.MIN_VALUE;
+    private static final int CHECK_INTERVAL = 4096;
+    private static final int CALIBRATION_MOVES = 500;
+
+    private record Snapshot(int[] slotOf, int[] roomOf, long cost, long iterations) {}
+
+    private final SchedulingProblem problem;
+    private final Solution start;
+    private final SplittableRandom random;
+
+    private final List<TimeSlot> slots;
+    private final List<RoomOption> rooms;
+    private final Session[] sessions;
+    private final int sessionCount;
+    private final int slotCount;
+    private final int[] capacity;
+    private final int[] roomPool;
+    private final int[] size;
+    private final int[] sessionPool;
+    private final int[] instructorOf;        // dense instructor index, -1 if none
+    private final int[] courseOf;            // dense course index
+    private final int[] sharingCourseOf;     // dense index into courseUse and sharingStudents
+    private final int[][] sharingStudents;   // per conflict-graph course: courses sharing its students
+    private final int[][] fitRooms;          // per session: rooms of its pool that seat it
+    private final int[][] overlapping;       // per period: periods overlapping it, itself included
+    private final int[] dayOf;               // per period: dense day index
+    private final int[][] daySlots;          // per day: periods in start order
+    private final boolean[] nextDayAdjacent; // per day: the next dense day is the following calendar day
+
+    // Search state
+    private final int[][] roomUse;           // [period][room] sessions and fixed entries overlapping
+    private final int[][] instructorUse;     // [instructor][period]
+    private final int[][] courseDays;        // [course][day]
+    private final int[][] courseUse;         // [conflict-graph course][period]
+    private final int[] slotOf;
+    private final int[] roomOf;
+    private long cost;
+
+    // The move last applied, for undo
+    private int moveA = -1;
+    private int moveB = -1;
+    private int fromSlotA;
+    private int fromRoomA;
+    private int fromSlotB;
+    private int fromRoomB;
+
+    private volatile Snapshot best;
+    private volatile boolean stopped;
+    private volatile Map<String, Object> stats = Map.of();
+
+    public LocalSearchOptimizer(SchedulingProblem problem, Solution start) {
+        this(problem, start, System.nanoTime());
+    }
+
+    /**
+     * @param start a feasible schedule for problem's slots, rooms and fixed entries;
+     *              its assignments are the sessions that may move
+     */
+    public LocalSearchOptimizer(SchedulingProblem problem, Solution start, long seed) {
+        this.problem = problem;
+        this.start = start;
+        this.random = new SplittableRandom(seed);
+        this.slots = problem.getSlots();
+        this.rooms = problem.getRooms();
+        this.slotCount = slots.size();
+        this.sessionCount = start.assignments().size();
+        this.sessions = new Session[sessionCount];
+
+        Map<String, Integer> pools = new HashMap<>();
+        this.capacity = new int[rooms.size()];
+        this.roomPool = new int[rooms.size()];
+        Map<Integer, Integer> roomIndex = new HashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            capacity[r] = rooms.get(r).capacity();
+            roomPool[r] = pools.computeIfAbsent(rooms.get(r).pool(), k -> pools.size());
+            roomIndex.put(rooms.get(r).roomId(), r);
+        }
+        Map<TimeSlot, Integer> slotIndex = new HashMap<>();
+        for (int t = 0; t < slotCount; t++) {
+            slotIndex.putIfAbsent(slots.get(t), t);
+        }
+
+        // Days in calendar order, periods of each day in start order
+        List<Integer> dayIndexes = new ArrayList<>(new TreeSet<>(slots.stream().map(TimeSlot::dayIndex).toList()));
+        this.dayOf = new int[slotCount];
+        this.daySlots = new int[dayIndexes.size()][];
+        this.nextDayAdjacent = new boolean[dayIndexes.size()];
+        for (int d = 0; d < dayIndexes.size(); d++) {
+            int day = dayIndexes.get(d);
+            daySlots[d] = periodsOfDay(slots, day);
+            for (int t : daySlots[d]) {
+                dayOf[t] = d;
+            }
+            nextDayAdjacent[d] = d + 1 < dayIndexes.size() && dayIndexes.get(d + 1) == day + 1;
+        }
+        this.overlapping = new int[slotCount][];
+        for (int t = 0; t < slotCount; t++) {
+            List<Integer> overlaps = new ArrayList<>();
+            for (int other = 0; other < slotCount; other++) {
+                if (slots.get(t).overlaps(slots.get(other))) {
+                    overlaps.add(other);
+                }
+            }
+            overlapping[t] = overlaps.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.size = new int[sessionCount];
+        this.sessionPool = new int[sessionCount];
+        this.instructorOf = new int[sessionCount];
+        this.courseOf = new int[sessionCount];
+        this.fitRooms = new int[sessionCount][];
+        this.slotOf = new int[sessionCount];
+        this.roomOf = new int[sessionCount];
+        Map<Integer, Integer> instructors = new HashMap<>();
+        Map<Integer, Integer> courses = new HashMap<>();
+        for (int v = 0; v < sessionCount; v++) {
+            Solution.Assignment assignment = start.assignments().get(v);
+            Session session = assignment.session();
+            sessions[v] = session;
+            size[v] = session.size();
+            sessionPool[v] = pools.computeIfAbsent(session.pool(), k -> pools.size());
+            instructorOf[v] = session.instructorId() == null
+                ? -1 : instructors.computeIfAbsent(session.instructorId(), k -> instructors.size());
+            courseOf[v] = courses.computeIfAbsent(session.courseId(), k -> courses.size());
+            Integer t = slotIndex.get(assignment.slot());
+            Integer r = roomIndex.get(assignment.room().roomId());
+            if (t == null || r == null) {
+                throw new IllegalArgumentException("Assignment outside the problem's periods or rooms: " + assignment);
+            }
+            slotOf[v] = t;
+            roomOf[v] = r;
+            List<Integer> fitting = new ArrayList<>();
+            for (int room = 0; room < rooms.size(); room++) {
+                if (fits(v, room)) {
+                    fitting.add(room);
+                }
+            }
+            fitRooms[v] = fitting.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Sessions' courses and the fixed entries' courses, with the pairs that share students
+        CourseConflictGraph conflicts = problem.getConflicts();
+        Map<Integer, Integer> sharingCourses = new HashMap<>();
+        this.sharingCourseOf = new int[sessionCount];
+        for (int v = 0; v < sessionCount; v++) {
+            sharingCourseOf[v] = sharingCourses.computeIfAbsent(sessions[v].courseId(), k -> sharingCourses.size());
+        }
+        for (TimetableSlot entry : problem.getFixed()) {
+            if (conflicts.position(entry.courseId()) >= 0) {
+                sharingCourses.computeIfAbsent(entry.courseId(), k -> sharingCourses.size());
+            }
+        }
+        this.sharingStudents = new int[sharingCourses.size()][];
+        for (Map.Entry<Integer, Integer> course : sharingCourses.entrySet()) {
+            List<Integer> sharing = new ArrayList<>();
+            for (int other : conflicts.conflictingCourses(course.getKey())) {
+                Integer index = sharingCourses.get(other);
+                if (index != null) {
+                    sharing.add(index);
+                }
+            }
+            sharingStudents[course.getValue()] = sharing.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.courseUse = new int[sharingCourses.size()][slotCount];
+
+        this.roomUse = new int[slotCount][rooms.size()];
+        this.instructorUse = new int[instructors.size()][slotCount];
+        this.courseDays = new int[courses.size()][dayIndexes.size()];
+        for (TimetableSlot entry : problem.getFixed()) {
+            Integer r = roomIndex.get(entry.roomId());
+            Integer i = entry.instructorId() == null ? null : instructors.get(entry.instructorId());
+            Integer c = courses.get(entry.courseId());
+            Integer sc = sharingCourses.get(entry.courseId());
+            for (int t = 0; t < slotCount; t++) {
+                if (slots.get(t).overlaps(entry.dayIndex(), entry.startMin(), entry.endMin())) {
+                    if (r != null) {
+                        roomUse[t][r]++;
+                    }
+                    if (i != null) {
+                        instructorUse[i][t]++;
+                    }
+                    if (sc != null) {
+                        courseUse[sc][t]++;
+                    }
+                }
+            }
+            int d = dayIndexes.indexOf(entry.dayIndex());
+            if (c != null && d >= 0) {
+                courseDays[c][d]++;
+            }
+        }
+        for (int v = 0; v < sessionCount; v++) {
+            place(v, slotOf[v], roomOf[v]);
+        }
+        this.cost = fullCost();
+        this.best = new Snapshot(slotOf.clone(), roomOf.clone(), cost, 0);
+    }
+
+    /**
+     * Anneal until the budget runs out or stop() is called.
+     * @return the best schedule found, never worse than the start
+     */
+    public Solution optimize(long budgetMillis) {
+        return optimize(budgetMillis, new SolverMonitor());
+    }
+
+    public Solution optimize(long budgetMillis, SolverMonitor monitor) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + budgetMillis * 1_000_000;
+        long initialCost = cost;
+        long bestCost = cost;
+        int[] bestSlotOf = slotOf.clone();
+        int[] bestRoomOf = roomOf.clone();
+        boolean bestChanged = false;
+        long iterations = 0;
+        long accepted = 0;
+
+        double startTemperature = calibrate();
+        double endTemperature = Math.max(1e-3, startTemperature / 1000);
+        double temperature = startTemperature;
+
+        while (sessionCount > 0 && slotCount > 0) {
+            if (iterations % CHECK_INTERVAL == 0) {
+                long now = System.nanoTime();
+                if (now >= deadline || stopped || monitor.isCancelled()) {
+                    break;
+                }
+                monitor.setObjective(bestCost);
+                double progress = (double) (now - startedAt) / (deadline - startedAt);
+                temperature = startTemperature * Math.pow(endTemperature / startTemperature, progress);
+                if (bestChanged) {
+                    best = new Snapshot(bestSlotOf.clone(), bestRoomOf.clone(), bestCost, iterations);
+                    bestChanged = false;
+                }
+                stats = progressStats(initialCost, bestCost, iterations, accepted, temperature, now - startedAt);
+            }
+            iterations++;
+
+            long delta = random.nextBoolean() ? tryRelocate() : trySwap();
+            if (delta == NO_MOVE) {
+                continue;
+            }
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                cost += delta;
+                accepted++;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    System.arraycopy(slotOf, 0, bestSlotOf, 0, sessionCount);
+                    System.arraycopy(roomOf, 0, bestRoomOf, 0, sessionCount);
+                    bestChanged = true;
+                }
+            } else {
+                undoMove();
+            }
+        }
+
+        best = new Snapshot(bestSlotOf, bestRoomOf, bestCost, iterations);
+        monitor.setObjective(bestCost);
+        Solution result = best();
+        Map<String, Object> finalStats = progressStats(initialCost, bestCost, iterations, accepted,
+            temperature, System.nanoTime() - startedAt);
+        finalStats.putAll(score(problem, result));
+        stats = finalStats;
+        return new Solution(result.assignments(), result.unscheduled(), finalStats);
+    }
+
+    /**
+     * The best schedule published so far; safe to call while optimize() runs.
+     */
+    public Solution best() {
+        Snapshot snapshot = best;
+        List<Solution.Assignment> assignments = new ArrayList<>(sessionCount);
+        for (int v = 0; v < sessionCount; v++) {
+            assignments.add(new Solution.Assignment(sessions[v], slots.get(snapshot.slotOf()[v]),
+                rooms.get(snapshot.roomOf()[v])));
+        }
+        return new Solution(assignments, start.unscheduled(), stats);
+    }
+
+    public long bestCost() {
+        return best.cost();
+    }
+
+    /**
+     * Progress counters as of the last check: iterations, costs, temperature.
+     */
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    // ==================== MOVES ====================
+
+    /**
+     * Move one session to a random period and fitting room.
+     * @return the change in cost with the move applied, or NO_MOVE if it was not legal
+     */
+    private long tryRelocate() {
+        int v = random.nextInt(sessionCount);
+        if (fitRooms[v].length == 0) {
+            return NO_MOVE;
+        }
+        int t0 = slotOf[v];
+        int r0 = roomOf[v];
+        int t1 = random.nextInt(slotCount);
+        int r1 = fitRooms[v][random.nextInt(fitRooms[v].length)];
+        if (t1 == t0 && r1 == r0) {
+            return NO_MOVE;
+        }
+
+        long before = localCost(v, v, dayOf[t0], dayOf[t1]);
+        remove(v);
+        if (!canPlace(v, t1, r1)) {
+            place(v, t0, r0);
+            return NO_MOVE;
+        }
+        place(v, t1, r1);
+        remember(v, t0, r0, -1, 0, 0);
+        return localCost(v, v, dayOf[t0], dayOf[t1]) - before
+            + CAPACITY_WEIGHT * (waste(v, r1) - waste(v, r0));
+    }
+
+    /**
+     * Exchange the periods and rooms of two sessions.
+     */
+    private long trySwap() {
+        int a = random.nextInt(sessionCount);
+        int b = random.nextInt(sessionCount);
+        int ta = slotOf[a];
+        int ra = roomOf[a];
+        int tb = slotOf[b];
+        int rb = roomOf[b];
+        if (a == b || ta == tb || !fits(a, rb) || !fits(b, ra)) {
+            return NO_MOVE;
+        }
+
+        long before = localCost(a, b, dayOf[ta], dayOf[tb]);
+        remove(a);
+        remove(b);
+        if (!canPlace(a, tb, rb)) {
+            place(a, ta, ra);
+            place(b, tb, rb);
+            return NO_MOVE;
+        }
+        place(a, tb, rb);
+        if (!canPlace(b, ta, ra)) {
+            remove(a);
+            place(a, ta, ra);
+            place(b, tb, rb);
+            return NO_MOVE;
+        }
+        place(b, ta, ra);
+        remember(a, ta, ra, b, tb, rb);
+        return localCost(a, b, dayOf[ta], dayOf[tb]) - before
+            + CAPACITY_WEIGHT * (waste(a, rb) + waste(b, ra) - waste(a, ra) - waste(b, rb));
+    }
+
+    private void remember(int a, int slotA, int roomA, int b, int slotB, int roomB) {
+        moveA = a;
+        fromSlotA = slotA;
+        fromRoomA = roomA;
+        moveB = b;
+        fromSlotB = slotB;
+        fromRoomB = roomB;
+    }
+
+    private void undoMove() {
+        remove(moveA);
+        if (moveB >= 0) {
+            remove(moveB);
+            place(moveB, fromSlotB, fromRoomB);
+        }
+        place(moveA, fromSlotA, fromRoomA);
+    }
+
+    /**
+     * Starting temperature: the mean cost increase of a sample of uphill moves,
+     * so roughly a third of them are accepted at first.
+     */
+    private double calibrate() {
+        long uphill = 0;
+        int count = 0;
+        for (int i = 0; i < CALIBRATION_MOVES && sessionCount > 0 && slotCount > 0; i++) {
+            long delta = random.nextBoolean() ? tryRelocate() : trySwap();
+            if (delta != NO_MOVE) {
+                undoMove();
+                if (delta > 0) {
+                    uphill += delta;
+                    count++;
+                }
+            }
+        }
+        return count == 0 ? 1.0 : Math.max(1.0, (double) uphill / count);
+    }
+
+    // ==================== STATE ====================
+
+    private boolean fits(int v, int r) {
+        return capacity[r] >= size[v] && roomPool[r] == sessionPool[v];
+    }
+
+    private boolean canPlace(int v, int t, int r) {
+        if (roomUse[t][r] != 0
+                || (instructorOf[v] >= 0 && instructorUse[instructorOf[v]][t] != 0)
+                || courseDays[courseOf[v]][dayOf[t]] != 0) {
+            return false;
+        }
+        for (int other : sharingStudents[sharingCourseOf[v]]) {
+            if (courseUse[other][t] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void place(int v, int t, int r) {
+        slotOf[v] = t;
+        roomOf[v] = r;
+        int i = instructorOf[v];
+        int c = sharingCourseOf[v];
+        for (int other : overlapping[t]) {
+            roomUse[other][r]++;
+            if (i >= 0) {
+                instructorUse[i][other]++;
+            }
+            courseUse[c][other]++;
+        }
+        courseDays[courseOf[v]][dayOf[t]]++;
+    }
+
+    private void remove(int v) {
+        int t = slotOf[v];
+        int r = roomOf[v];
+        int i = instructorOf[v];
+        int c = sharingCourseOf[v];
+        for (int other : overlapping[t]) {
+            roomUse[other][r]--;
+            if (i >= 0) {
+                instructorUse[i][other]--;
+            }
+            courseUse[c][other]--;
+        }
+        courseDays[courseOf[v]][dayOf[t]]--;
+    }
+
+    // ==================== COST ====================
+
+    private int waste(int v, int r) {
+        return Math.max(0, capacity[r] - size[v]);
+    }
+
+    /**
+     * Gap and spread cost of everything a move between days d1 and d2 can
+     * change for sessions a and b (which may be the same session).
+     */
+    private long localCost(int a, int b, int d1, int d2) {
+        long gaps = instructorDayCost(instructorOf[a], d1, d2);
+        if (instructorOf[b] != instructorOf[a]) {
+            gaps += instructorDayCost(instructorOf[b], d1, d2);
+        }
+        long spread = spreadCost(courseOf[a]);
+        if (courseOf[b] != courseOf[a]) {
+            spread += spreadCost(courseOf[b]);
+        }
+        return GAP_WEIGHT * gaps + SPREAD_WEIGHT * spread;
+    }
+
+    private long instructorDayCost(int i, int d1, int d2) {
+        if (i < 0) {
+            return 0;
+        }
+        return d1 == d2 ? gaps(i, d1) : gaps(i, d1) + gaps(i, d2);
+    }
+
+    // Free periods between the instructor's first and last busy period of the day
+    private int gaps(int i, int d) {
+        int first = -1;
+        int last = -1;
+        int busy = 0;
+        int[] periods = daySlots[d];
+        for (int p = 0; p < periods.length; p++) {
+            if (instructorUse[i][periods[p]] > 0) {
+                if (first < 0) {
+                    first = p;
+                }
+                last = p;
+                busy++;
+            }
+        }
+        return first < 0 ? 0 : last - first + 1 - busy;
+    }
+
+    private int spreadCost(int c) {
+        int adjacent = 0;
+        for (int d = 0; d + 1 < courseDays[c].length; d++) {
+            if (nextDayAdjacent[d] && courseDays[c][d] > 0 && courseDays[c][d + 1] > 0) {
+                adjacent++;
+            }
+        }
+        return adjacent;
+    }
+
+    private long fullCost() {
+        long waste = 0;
+        for (int v = 0; v < sessionCount; v++) {
+            waste += waste(v, roomOf[v]);
+        }
+        long gaps = 0;
+        for (int i = 0; i < instructorUse.length; i++) {
+            for (int d = 0; d < daySlots.length; d++) {
+                gaps += gaps(i, d);
+            }
+        }
+        long spread = 0;
+        for (int c = 0; c < courseDays.length; c++) {
+            spread += spreadCost(c);
+        }
+        return CAPACITY_WEIGHT * waste + GAP_WEIGHT * gaps + SPREAD_WEIGHT * spread;
+    }
+
+    private Map<String, Object> progressStats(long initialCost, long bestCost, long iterations, long accepted,
+                                              double temperature, long elapsedNanos) {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("sessions", sessionCount);
+        progress.put("initialCost", initialCost);
+        progress.put("bestCost", bestCost);
+        progress.put("iterations", iterations);
+        progress.put("accepted", accepted);
+        progress.put("temperature", Math.round(temperature * 1000) / 1000.0);
+        progress.put("millis", elapsedNanos / 1_000_000);
+        progress.put("movesPerSecond", elapsedNanos == 0 ? 0 : iterations * 1_000_000_000L / elapsedNanos);
+        return progress;
+    }
+
+    private static int[] periodsOfDay(List<TimeSlot> slots, int day) {
+        List<Integer> periods = new ArrayList<>();
+        for (int t = 0; t < slots.size(); t++) {
+            if (slots.get(t).dayIndex() == day) {
+                periods.add(t);
+            }
+        }
+        periods.sort(Comparator.comparingInt((Integer t) -> slots.get(t).startMin())
+            .thenComparingInt(t -> slots.get(t).endMin()));
+        return periods.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Score a schedule from scratch with the optimizer's objectives and weights.
+     * Independent of the incremental bookkeeping, so it doubles as its check.
+     */
+    public static Map<String, Long> score(SchedulingProblem problem, Solution solution) {
+        List<TimeSlot> slots = problem.getSlots();
+        Set<Integer> days = new TreeSet<>(slots.stream().map(TimeSlot::dayIndex).toList());
+
+        long waste = 0;
+        Map<Integer, List<TimeSlot>> taughtBy = new HashMap<>();
+        Map<Integer, Set<Integer>> courseDays = new HashMap<>();
+        for (Solution.Assignment assignment : solution.assignments()) {
+            waste += Math.max(0, assignment.room().capacity() - assignment.session().size());
+            if (assignment.session().instructorId() != null) {
+                taughtBy.computeIfAbsent(assignment.session().instructorId(), k -> new ArrayList<>())
+                    .add(assignment.slot());
+            }
+            courseDays.computeIfAbsent(assignment.session().courseId(), k -> new HashSet<>())
+                .add(assignment.slot().dayIndex());
+        }
+        for (TimetableSlot entry : problem.getFixed()) {
+            if (entry.instructorId() != null && taughtBy.containsKey(entry.instructorId())) {
+                taughtBy.get(entry.instructorId()).add(new TimeSlot(entry.dayIndex(), entry.startMin(), entry.endMin()));
+            }
+            if (courseDays.containsKey(entry.courseId()) && days.contains(entry.dayIndex())) {
+                courseDays.get(entry.courseId()).add(entry.dayIndex());
+            }
+        }
+
+        long gaps = 0;
+        for (List<TimeSlot> taught : taughtBy.values()) {
+            for (int day : days) {
+                int[] periods = periodsOfDay(slots, day);
+                int first = -1;
+                int last = -1;
+                int busy = 0;
+                for (int p = 0; p < periods.length; p++) {
+                    TimeSlot period = slots.get(periods[p]);
+                    if (taught.stream().anyMatch(period::overlaps)) {
+                        if (first < 0) {
+                            first = p;
+                        }
+                        last = p;
+                        busy++;
+                    }
+                }
+                gaps += first < 0 ? 0 : last - first + 1 - busy;
+            }
+        }
+
+        long adjacent = 0;
+        for (Set<Integer> met : courseDays.values()) {
+            for (int day : met) {
+                if (met.contains(day + 1) && days.contains(day + 1)) {
+                    adjacent++;
+                }
+            }
+        }
+
+        Map<String, Long> score = new LinkedHashMap<>();
+        score.put("capacityWaste", waste);
+        score.put("instructorGaps", gaps);
+        score.put("adjacentDays", adjacent);
+        score.put("cost", CAPACITY_WEIGHT * waste + GAP_WEIGHT * gaps + SPREAD_WEIGHT * adjacent);
+        return score;
+    }
+}
@@ -0,0 +1,469 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * Second pass over a solver's result that treats each period as a bipartite
+ * matching between the sessions meeting in it and the rooms free in it.
+ *
+ * First, every unscheduled session (largest first) is offered to each period
+ * where its instructor and course are free and no course sharing its students meets. It is accepted if an augmenting
+ * path exists, i.e. the period's sessions can be shuffled between rooms so
+ * that all of them plus the new one fit. This recovers sessions the solver
+ * dropped only because it had committed the wrong rooms.
+ *
+ * Then the rooms of each period are reassigned as a minimum-cost assignment
+ * (Hungarian algorithm, O(n^2 m) over primitive arrays) with cost
+ * capacity - size, so small courses stop holding large rooms. Periods and
+ * instructors never change, so every hard constraint the input met still holds.
+ */
+public final class RoomMatcher {
+
+    // Cost of a pairing that is not allowed; large enough that one outweighs any real total
+    private static final long FORBIDDEN = 1L << 40;
+
+    private final SolverMonitor monitor;
+
+    private final List<Session> sessions;
+    private final List<TimeSlot> slots;
+    private final List<RoomOption> rooms;
+    private final int[] capacity;
+    private final int[] roomPool;
+    private final int[] need;
+    private final int[] sessionPool;
+    private final int[][] overlapping;        // per period: other periods overlapping it
+    private final BitSet[] fixedRooms;        // per period: rooms taken by fixed entries
+    private final BitSet[] fixedInstructors;  // per period: instructor ids busy with fixed entries
+    private final BitSet[] fixedCourseDays;   // per day index: course ids with a fixed entry that day
+    private final BitSet[] fixedCourses;      // per period: course ids with a fixed entry overlapping it
+    private final CourseConflictGraph conflicts;
+
+    // Current placement
+    private final int[] slotOf;
+    private final int[] roomOf;
+    private final List<List<Integer>> sessionsIn;  // per period: sessions placed in it
+
+    public RoomMatcher(SchedulingProblem problem) {
+        this(problem, new SolverMonitor());
+    }
+
+    public RoomMatcher(SchedulingProblem problem, SolverMonitor monitor) {
+        this.monitor = monitor;
+        this.sessions = problem.getSessions();
+        this.slots = problem.getSlots();
+        this.rooms = problem.getRooms();
+        this.conflicts = problem.getConflicts();
+
+        Map<String, Integer> poolIds = new HashMap<>();
+        this.capacity = new int[rooms.size()];
+        this.roomPool = new int[rooms.size()];
+        for (int r = 0; r < rooms.size(); r++) {
+            capacity[r] = rooms.get(r).capacity();
+            roomPool[r] = poolIds.computeIfAbsent(rooms.get(r).pool(), k -> poolIds.size());
+        }
+        this.need = new int[sessions.size()];
+        this.sessionPool = new int[sessions.size()];
+        for (int v = 0; v < sessions.size(); v++) {
+            need[v] = sessions.get(v).size();
+            // A pool without rooms gets an id no room has
+            sessionPool[v] = poolIds.getOrDefault(sessions.get(v).pool(), -1);
+        }
+
+        this.overlapping = new int[slots.size()][];
+        for (int t = 0; t < slots.size(); t++) {
+            List<Integer> others = new ArrayList<>();
+            for (int u = 0; u < slots.size(); u++) {
+                if (u != t && slots.get(t).overlaps(slots.get(u))) {
+                    others.add(u);
+                }
+            }
+            overlapping[t] = others.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Map<Integer, Integer> roomIndex = new HashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            roomIndex.put(rooms.get(r).roomId(), r);
+        }
+        this.fixedRooms = new BitSet[slots.size()];
+        this.fixedInstructors = new BitSet[slots.size()];
+        this.fixedCourses = new BitSet[slots.size()];
+        this.fixedCourseDays = new BitSet[8];
+        for (int d = 0; d < fixedCourseDays.length; d++) {
+            fixedCourseDays[d] = new BitSet();
+        }
+        for (int t = 0; t < slots.size(); t++) {
+            fixedRooms[t] = new BitSet(rooms.size());
+            fixedInstructors[t] = new BitSet();
+            fixedCourses[t] = new BitSet();
+        }
+        for (TimetableSlot entry : problem.getFixed()) {
+            if (entry.dayIndex() >= 1 && entry.dayIndex() <= 7 && entry.courseId() > 0) {
+                fixedCourseDays[entry.dayIndex()].set(entry.courseId());
+            }
+            Integer r = roomIndex.get(entry.roomId());
+            for (int t = 0; t < slots.size(); t++) {
+                if (slots.get(t).overlaps(entry.dayIndex(), entry.startMin(), entry.endMin())) {
+                    if (r != null) {
+                        fixedRooms[t].set(r);
+                    }
+                    if (entry.instructorId() != null && entry.instructorId() > 0) {
+                        fixedInstructors[t].set(entry.instructorId());
+                    }
+                    if (entry.courseId() > 0) {
+                        fixedCourses[t].set(entry.courseId());
+                    }
+                }
+            }
+        }
+
+        this.slotOf = new int[sessions.size()];
+        this.roomOf = new int[sessions.size()];
+        this.sessionsIn = new ArrayList<>(slots.size());
+        for (int t = 0; t < slots.size(); t++) {
+            sessionsIn.add(new ArrayList<>());
+        }
+    }
+
+    public Solution improve(Solution solution) {
+        long startedAt = System.nanoTime();
+        Map<Session, Integer> sessionIndex = new HashMap<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            sessionIndex.put(sessions.get(v), v);
+        }
+        Map<TimeSlot, Integer> slotIndex = new HashMap<>();
+        for (int t = 0; t < slots.size(); t++) {
+            slotIndex.putIfAbsent(slots.get(t), t);
+        }
+        Map<Integer, Integer> roomIndex = new HashMap<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            roomIndex.put(rooms.get(r).roomId(), r);
+        }
+
+        Arrays.fill(slotOf, -1);
+        Arrays.fill(roomOf, -1);
+        sessionsIn.forEach(List::clear);
+        for (Solution.Assignment assignment : solution.assignments()) {
+            int v = sessionIndex.get(assignment.session());
+            slotOf[v] = slotIndex.get(assignment.slot());
+            roomOf[v] = roomIndex.get(assignment.room().roomId());
+            sessionsIn.get(slotOf[v]).add(v);
+        }
+        long wasteBefore = waste();
+
+        List<Integer> unscheduled = new ArrayList<>();
+        for (Session session : solution.unscheduled()) {
+            unscheduled.add(sessionIndex.get(session));
+        }
+        unscheduled.sort(Comparator.comparingInt((Integer v) -> -need[v]));
+        int inserted = 0;
+        for (int v : unscheduled) {
+            monitor.checkCancelled();
+            if (insert(v)) {
+                inserted++;
+            }
+        }
+        monitor.addPlaced(inserted);
+        monitor.addFailed(-inserted);
+
+        int moved = 0;
+        for (int t = 0; t < slots.size(); t++) {
+            if (!sessionsIn.get(t).isEmpty()) {
+                moved += rematch(t);
+            }
+        }
+
+        List<Solution.Assignment> assignments = new ArrayList<>();
+        List<Session> stillUnscheduled = new ArrayList<>();
+        for (int v = 0; v < sessions.size(); v++) {
+            if (slotOf[v] >= 0) {
+                assignments.add(new Solution.Assignment(sessions.get(v), slots.get(slotOf[v]), rooms.get(roomOf[v])));
+            } else {
+                stillUnscheduled.add(sessions.get(v));
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>(solution.stats());
+        stats.put("assigned", assignments.size());
+        stats.put("unscheduled", stillUnscheduled.size());
+        stats.put("matchingInserted", inserted);
+        stats.put("matchingMovedRooms", moved);
+        stats.put("seatWasteBefore", wasteBefore);
+        stats.put("seatWasteAfter", waste());
+        stats.put("matchingMillis", (System.nanoTime() - startedAt) / 1_000_000);
+        return new Solution(assignments, stillUnscheduled, stats);
+    }
+
+    // ==================== INSERTION ====================
+
+    private boolean insert(int v) {
+        Session session = sessions.get(v);
+        for (int t = 0; t < slots.size(); t++) {
+            if (!instructorFree(session.instructorId(), t) || !courseFreeOnDay(v, slots.get(t).dayIndex())
+                    || !studentsFree(session.courseId(), t)) {
+                continue;
+            }
+            BitSet available = availableRooms(t);
+            // Room -> session currently holding it in this period
+            Map<Integer, Integer> holder = new HashMap<>();
+            for (int u : sessionsIn.get(t)) {
+                holder.put(roomOf[u], u);
+            }
+            int[] newRoom = new int[sessions.size()];
+            Arrays.fill(newRoom, -1);
+            if (augment(v, available, holder, new BitSet(rooms.size()), newRoom)) {
+                for (int u = 0; u < newRoom.length; u++) {
+                    if (newRoom[u] >= 0) {
+                        roomOf[u] = newRoom[u];
+                    }
+                }
+                slotOf[v] = t;
+                sessionsIn.get(t).add(v);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Kuhn's augmenting path: find v a room, evicting holders that can move elsewhere
+    private boolean augment(int v, BitSet available, Map<Integer, Integer> holder, BitSet visited, int[] newRoom) {
+        for (int r = available.nextSetBit(0); r >= 0; r = available.nextSetBit(r + 1)) {
+            if (!fits(v, r) || visited.get(r)) {
+                continue;
+            }
+            visited.set(r);
+            Integer current = holder.get(r);
+            if (current == null || augment(current, available, holder, visited, newRoom)) {
+                holder.put(r, v);
+                newRoom[v] = r;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean instructorFree(Integer instructorId, int t) {
+        if (instructorId == null) {
+            return true;
+        }
+        if (instructorId > 0 && fixedInstructors[t].get(instructorId)) {
+            return false;
+        }
+        if (busyInstructor(sessionsIn.get(t), instructorId)) {
+            return false;
+        }
+        for (int u : overlapping[t]) {
+            if (busyInstructor(sessionsIn.get(u), instructorId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean busyInstructor(List<Integer> placed, int instructorId) {
+        for (int u : placed) {
+            if (sessions.get(u).instructorId() != null && sessions.get(u).instructorId() == instructorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // No course sharing students with courseId meets in a period overlapping t
+    private boolean studentsFree(int courseId, int t) {
+        int[] sharing = conflicts.conflictingCourses(courseId);
+        if (sharing.length == 0) {
+            return true;
+        }
+        for (int other : sharing) {
+            if (other > 0 && fixedCourses[t].get(other)) {
+                return false;
+            }
+        }
+        if (meetsAny(sessionsIn.get(t), sharing)) {
+            return false;
+        }
+        for (int u : overlapping[t]) {
+            if (meetsAny(sessionsIn.get(u), sharing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // sortedCourseIds is ascending, as conflictingCourses returns it
+    private boolean meetsAny(List<Integer> placed, int[] sortedCourseIds) {
+        for (int u : placed) {
+            if (Arrays.binarySearch(sortedCourseIds, sessions.get(u).courseId()) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean courseFreeOnDay(int v, int dayIndex) {
+        int courseId = sessions.get(v).courseId();
+        if (courseId > 0 && fixedCourseDays[dayIndex].get(courseId)) {
+            return false;
+        }
+        for (int t = 0; t < slots.size(); t++) {
+            if (slots.get(t).dayIndex() == dayIndex) {
+                for (int u : sessionsIn.get(t)) {
+                    if (sessions.get(u).courseId() == courseId) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Rooms period t may use: not fixed, not held by a session in an overlapping period
+    private BitSet availableRooms(int t) {
+        BitSet available = new BitSet(rooms.size());
+        available.set(0, rooms.size());
+        available.andNot(fixedRooms[t]);
+        for (int u : overlapping[t]) {
+            for (int w : sessionsIn.get(u)) {
+                available.clear(roomOf[w]);
+            }
+        }
+        return available;
+    }
+
+    private boolean fits(int v, int r) {
+        return sessionPool[v] == roomPool[r] && capacity[r] >= need[v];
+    }
+
+    // ==================== MINIMUM-WASTE ASSIGNMENT ====================
+
+    /**
+     * Reassign the rooms of period t; returns how many sessions changed room.
+     */
+    private int rematch(int t) {
+        List<Integer> placed = sessionsIn.get(t);
+        BitSet available = availableRooms(t);
+        int[] candidates = available.stream().toArray();
+        // Waste scaled past the number of sessions, plus one for leaving the current
+        // room: ties keep rooms where they are, but no waste is ever traded for that
+        long scale = placed.size() + 1;
+        long[][] cost = new long[placed.size()][candidates.length];
+        for (int i = 0; i < placed.size(); i++) {
+            int v = placed.get(i);
+            for (int j = 0; j < candidates.length; j++) {
+                int r = candidates[j];
+                cost[i][j] = fits(v, r) ? (capacity[r] - need[v]) * scale + (r == roomOf[v] ? 0 : 1) : FORBIDDEN;
+            }
+        }
+        int[] column = assign(cost);
+        if (column == null) {
+            // Cannot happen for a valid input, whose current rooms are one feasible answer
+            return 0;
+        }
+        int moved = 0;
+        for (int i = 0; i < placed.size(); i++) {
+            int r = candidates[column[i]];
+            if (roomOf[placed.get(i)] != r) {
+                roomOf[placed.get(i)] = r;
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Minimum-cost assignment of every row to a distinct column (rows <= columns),
+     * by the Hungarian algorithm with potentials.
+     * @return the column of each row, or null if any row must take a FORBIDDEN cell
+     */
+    static int[] assign(long[][] cost) {
+        int n = cost.length;
+        if (n == 0) {
+            return new int[0];
+        }
+        int m = cost[0].length;
+        if (m < n) {
+            return null;
+        }
+        // 1-based, column 0 is a virtual start; rowOf[j] = row matched to column j
+        long[] u = new long[n + 1];
+        long[] v = new long[m + 1];
+        int[] rowOf = new int[m + 1];
+        int[] way = new int[m + 1];
+        long[] minv = new long[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            rowOf[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = rowOf[j0];
+                long delta = Long.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        long reduced = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                        if (reduced < minv[j]) {
+                            minv[j] = reduced;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOf[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (rowOf[j0] != 0);
+            // Flip the augmenting path back to the start
+            do {
+                int j1 = way[j0];
+                rowOf[j0] = rowOf[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] column = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (rowOf[j] != 0) {
+                column[rowOf[j] - 1] = j - 1;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (cost[i][column[i]] >= FORBIDDEN) {
+                return null;
+            }
+        }
+        return column;
+    }
+
+    private long waste() {
+        long total = 0;
+        for (int v = 0; v < sessions.size(); v++) {
+            if (slotOf[v] >= 0) {
+                total += capacity[roomOf[v]] - need[v];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,644 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.druv.scheduler.Course;
+import com.druv.scheduler.CourseDAO;
+import com.druv.scheduler.EnrollmentDAO;
+import com.druv.scheduler.EnrollmentIndex;
+import com.druv.scheduler.Room;
+import com.druv.scheduler.RoomDAO;
+import com.druv.scheduler.TimeCodec;
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableDAO;
+import com.druv.scheduler.TimetableEntry;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.UserDAOImpl;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Builds a scheduling problem from the database, solves it in memory and
+ * writes the placements back in a single transaction.
+ *
+ * Courses and rooms with a department form that department's room pool;
+ * everything else shares the default pool. Independent pools are solved in
+ * parallel on a ForkJoinPool sized by schedule.solver.parallelism (default:
+ * available processors).
+ *
+ * Courses that share enrolled students are never placed in overlapping
+ * periods; the conflict graph is rebuilt from the enrollments table on
+ * every run.
+ *
+ * Entries already in the timetable stay where they are and count towards
+ * their course's sessions, so running the generator twice does not double-book.
+ * A replan run keeps only pinned entries and searches the rest again.
+ *
+ * generate(), optimize() and repair() read the timetable and write it back,
+ * so they run one at a time whichever thread calls them; tryRepair() defers
+ * rather than keep a request thread waiting behind a long run.
+ * optimize() then improves a feasible timetable in place with LocalSearchOptimizer,
+ * and repair() re-places only the entries a room, course or user change broke.
+ * generateExams() is a separate mode that plans one exam per course.
+ */
+@Service
+public class SchedulerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerEngine.class);
+
+    @Autowired
+    private CourseDAO courseDAO;
+
+    @Autowired
+    private RoomDAO roomDAO;
+
+    @Autowired
+    private TimetableDAO timetableDAO;
+
+    @Autowired
+    private UserDAOImpl userDAO;
+
+    @Autowired
+    private TimeGrid timeGrid;
+
+    @Autowired
+    private EnrollmentDAO enrollmentDAO;
+
+    private final ForkJoinPool solverPool = new ForkJoinPool(
+        Math.max(1, Integer.getInteger("schedule.solver.parallelism", Runtime.getRuntime().availableProcessors())));
+
+    // Repairs that found a generation holding the timetable wait for it here, off the request thread
+    private final ExecutorService deferredRepairs = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timetable-repair");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final long REPAIR_WAIT_MILLIS = Math.max(0, Long.getLong("schedule.repair.waitMillis", 200));
+
+    @PreDestroy
+    public void shutdown() {
+        solverPool.shutdownNow();
+        deferredRepairs.shutdown();
+    }
+
+    // Held from reading the timetable until the result is written back, so two
+    // runs (sync endpoints, jobs, repair hooks) never plan on the same snapshot
+    private final ReentrantLock timetableLock = new ReentrantLock();
+
+    private <T> T exclusively(Supplier<T> run) {
+        timetableLock.lock();
+        try {
+            return run.get();
+        } finally {
+            timetableLock.unlock();
+        }
+    }
+
+    public static final long MAX_OPTIMIZE_MILLIS = 60_000;
+
+    public static int defaultSessionsPerCourse() {
+        return Math.max(1, Integer.getInteger("schedule.sessionsPerCourse", 1));
+    }
+
+    public static long defaultOptimizeMillis() {
+        return Long.getLong("schedule.optimizer.budgetMillis", 2000);
+    }
+
+    /**
+     * Load courses, rooms and the current timetable into a problem on the configured time grid.
+     */
+    public SchedulingProblem buildProblem(int sessionsPerCourse) {
+        return buildProblem(sessionsPerCourse, false, new ArrayList<>());
+    }
+
+    /**
+     * As buildProblem(int), but with replan only pinned entries are fixed
+     * occupancy: every other entry of a known course is left out, its id is
+     * added to released, and its course's sessions are searched again. The
+     * search then grows with the unpinned part of the timetable, not all of it.
+     */
+    SchedulingProblem buildProblem(int sessionsPerCourse, boolean replan, List<Integer> released) {
+        List<Course> courses = courseDAO.findAll();
+        List<TimetableSlot> fixed = timetableDAO.findAllSlots();
+        if (replan) {
+            Set<Integer> courseIds = new HashSet<>();
+            for (Course course : courses) {
+                courseIds.add(course.getId());
+            }
+            Set<Integer> pinned = timetableDAO.findPinnedIds();
+            List<TimetableSlot> kept = new ArrayList<>();
+            for (TimetableSlot slot : fixed) {
+                if (pinned.contains(slot.id()) || !courseIds.contains(slot.courseId())) {
+                    kept.add(slot);
+                } else {
+                    released.add(slot.id());
+                }
+            }
+            fixed = kept;
+        }
+        Map<Integer, Integer> existingSessions = new HashMap<>();
+        for (TimetableSlot slot : fixed) {
+            existingSessions.merge(slot.courseId(), 1, Integer::sum);
+        }
+
+        List<RoomOption> rooms = loadRooms();
+        Set<String> departmentsWithRooms = departmentsWithRooms(rooms);
+        List<Session> sessions = new ArrayList<>();
+        for (Course course : courses) {
+            int missing = sessionsPerCourse - existingSessions.getOrDefault(course.getId(), 0);
+            for (int i = 0; i < missing; i++) {
+                sessions.add(new Session(course.getId(), i, instructorOf(course),
+                    Math.max(0, course.getMaxStudents()), course.getCourseName(),
+                    poolOf(course, departmentsWithRooms)));
+            }
+        }
+        return new SchedulingProblem(timeGrid.slots(), rooms, sessions, fixed, conflictGraph());
+    }
+
+    private CourseConflictGraph conflictGraph() {
+        long startedAt = System.nanoTime();
+        CourseConflictGraph graph = enrollmentDAO.loadIndex().conflictGraph();
+        logger.debug("Course conflict graph: {} courses, {} edges in {} ms", graph.size(), graph.edgeCount(),
+            (System.nanoTime() - startedAt) / 1_000_000);
+        return graph;
+    }
+
+    private List<RoomOption> loadRooms() {
+        List<RoomOption> rooms = new ArrayList<>();
+        for (Room room : roomDAO.findAll()) {
+            rooms.add(new RoomOption(room.getId(), room.getName(), room.getCapacity(), room.getDepartment()));
+        }
+        return rooms;
+    }
+
+    private static Set<String> departmentsWithRooms(List<RoomOption> rooms) {
+        Set<String> departments = new HashSet<>();
+        for (RoomOption room : rooms) {
+            if (room.pool() != null) {
+                departments.add(room.pool());
+            }
+        }
+        return departments;
+    }
+
+    // A department without rooms of its own borrows from the shared pool
+    private static String poolOf(Course course, Set<String> departmentsWithRooms) {
+        return departmentsWithRooms.contains(course.getDepartment()) ? course.getDepartment() : null;
+    }
+
+    private Integer instructorOf(Course course) {
+        return course.getFacultyUsername() == null
+            ? null
+            : userDAO.findIdByUsername(course.getFacultyUsername()).orElse(null);
+    }
+
+    /**
+     * Solve and save. The response keeps the keys the old greedy endpoint returned.
+     */
+    public Map<String, Object> generate(int sessionsPerCourse) {
+        return generate(sessionsPerCourse, 0, new SolverMonitor());
+    }
+
+    public Map<String, Object> generate(int sessionsPerCourse, long optimizeMillis, SolverMonitor monitor) {
+        return generate(sessionsPerCourse, optimizeMillis, false, monitor);
+    }
+
+    /**
+     * Solve, optionally polish the new sessions with the optimizer for up to
+     * optimizeMillis, and save. Progress goes to the monitor; cancelling it
+     * before the save starts throws CancellationException and writes nothing.
+     *
+     * With replan, unpinned entries are solved again around the pinned ones;
+     * their old rows are deleted in the same transaction that saves the new
+     * placements.
+     */
+    public Map<String, Object> generate(int sessionsPerCourse, long optimizeMillis, boolean replan,
+                                        SolverMonitor monitor) {
+        return exclusively(() -> generateLocked(sessionsPerCourse, optimizeMillis, replan, monitor));
+    }
+
+    private Map<String, Object> generateLocked(int sessionsPerCourse, long optimizeMillis, boolean replan,
+                                               SolverMonitor monitor) {
+        monitor.setPhase("loading");
+        List<Integer> released = new ArrayList<>();
+        SchedulingProblem problem = buildProblem(sessionsPerCourse, replan, released);
+        monitor.setSessions(problem.getSessions().size());
+
+        monitor.setPhase("solving");
+        Solution solution = new DecomposingSolver(solverPool, monitor).solve(problem);
+        monitor.checkCancelled();
+
+        Map<String, Object> optimizerStats = null;
+        if (optimizeMillis > 0 && !solution.assignments().isEmpty()) {
+            monitor.setPhase("optimizing");
+            Solution optimized = new LocalSearchOptimizer(problem, solution)
+                .optimize(Math.min(optimizeMillis, MAX_OPTIMIZE_MILLIS), monitor);
+            monitor.checkCancelled();
+            solution = new Solution(optimized.assignments(), solution.unscheduled(), solution.stats());
+            optimizerStats = optimized.stats();
+        }
+
+        monitor.setPhase("saving");
+        int saved;
+        if (replan) {
+            List<TimetableEntry> entries = entriesOf(solution);
+            timetableDAO.replaceEntries(released, List.of(), entries);
+            saved = entries.size();
+        } else {
+            saved = save(solution);
+        }
+        logger.info("Auto-scheduler placed {} of {} sessions: {}", saved,
+            problem.getSessions().size(), solution.stats());
+
+        StringBuilder details = new StringBuilder();
+        for (Solution.Assignment assignment : solution.assignments()) {
+            details.append("Scheduled %s in %s on %s %s-%s\n".formatted(
+                assignment.session().label(), assignment.room().name(), assignment.slot().day(),
+                assignment.slot().startTime(), assignment.slot().endTime()));
+        }
+        for (Session session : solution.unscheduled()) {
+            details.append("Failed to schedule %s - no available slots\n".formatted(session.label()));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Generated schedule: %d sessions scheduled, %d failed".formatted(
+            saved, solution.unscheduled().size()));
+        response.put("scheduledCount", saved);
+        response.put("failedCount", solution.unscheduled().size());
+        response.put("details", details.toString());
+        response.put("stats", solution.stats());
+        response.put("courseConflicts", problem.getConflicts().edgeCount());
+        if (replan) {
+            response.put("fixedCount", problem.getFixed().size());
+            response.put("releasedCount", released.size());
+        }
+        if (optimizerStats != null) {
+            response.put("optimizer", optimizerStats);
+        }
+        monitor.setPhase("done");
+        return response;
+    }
+
+    /**
+     * Improve the current timetable's soft objectives for up to budgetMillis
+     * (capped at MAX_OPTIMIZE_MILLIS) and write back the entries that moved.
+     *
+     * Entries on a grid period, in a known room and for a known course
+     * may move unless pinned; anything else (manual bookings at odd times)
+     * stays fixed.
+     */
+    public Map<String, Object> optimize(long budgetMillis) {
+        return exclusively(() -> optimizeLocked(budgetMillis));
+    }
+
+    private Map<String, Object> optimizeLocked(long budgetMillis) {
+        List<RoomOption> rooms = loadRooms();
+        Set<String> departmentsWithRooms = departmentsWithRooms(rooms);
+        Map<Integer, RoomOption> roomsById = new HashMap<>();
+        for (RoomOption room : rooms) {
+            roomsById.put(room.roomId(), room);
+        }
+        Map<Integer, Course> coursesById = new HashMap<>();
+        for (Course course : courseDAO.findAll()) {
+            coursesById.put(course.getId(), course);
+        }
+        List<TimeSlot> week = timeGrid.slots();
+        Set<TimeSlot> periods = new HashSet<>(week);
+
+        List<TimetableSlot> fixed = new ArrayList<>();
+        List<Solution.Assignment> current = new ArrayList<>();
+        Map<Session, TimetableSlot> entryOf = new HashMap<>();
+        Map<Integer, Integer> sessionIndex = new HashMap<>();
+        Set<Integer> pinned = timetableDAO.findPinnedIds();
+        for (TimetableSlot entry : timetableDAO.findAllSlots()) {
+            Course course = coursesById.get(entry.courseId());
+            RoomOption room = roomsById.get(entry.roomId());
+            TimeSlot period = new TimeSlot(entry.dayIndex(), entry.startMin(), entry.endMin());
+            if (course == null || room == null || !periods.contains(period) || pinned.contains(entry.id())) {
+                fixed.add(entry);
+                continue;
+            }
+            Session session = new Session(course.getId(), sessionIndex.merge(course.getId(), 1, Integer::sum) - 1,
+                entry.instructorId(), Math.max(0, course.getMaxStudents()), course.getCourseName(),
+                poolOf(course, departmentsWithRooms));
+            current.add(new Solution.Assignment(session, period, room));
+            entryOf.put(session, entry);
+        }
+
+        SchedulingProblem problem = new SchedulingProblem(week, rooms, List.of(), fixed, conflictGraph());
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(problem, new Solution(current, List.of(), Map.of()));
+        Solution optimized = optimizer.optimize(Math.max(1, Math.min(budgetMillis, MAX_OPTIMIZE_MILLIS)));
+
+        List<TimetableEntry> moved = new ArrayList<>();
+        for (Solution.Assignment assignment : optimized.assignments()) {
+            TimetableSlot entry = entryOf.get(assignment.session());
+            TimeSlot slot = assignment.slot();
+            if (entry.roomId() != assignment.room().roomId() || entry.dayIndex() != slot.dayIndex()
+                    || entry.startMin() != slot.startMin() || entry.endMin() != slot.endMin()) {
+                moved.add(entryFor(assignment, entry.id()));
+            }
+        }
+        int updated = timetableDAO.moveAll(moved);
+        logger.info("Optimizer moved {} of {} entries: {}", updated, current.size(), optimized.stats());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Optimized timetable: %d of %d sessions moved".formatted(updated, current.size()));
+        response.put("movedCount", updated);
+        response.put("stats", optimized.stats());
+        return response;
+    }
+
+    // ==================== EXAMS ====================
+
+    /**
+     * Plan one exam per course on the time grid's periods with ExamScheduler.
+     * A course sits as many students as are enrolled in it, or its maximum
+     * when nobody has enrolled yet. The plan is returned, not saved: exams
+     * do not share the teaching timetable.
+     */
+    public Map<String, Object> generateExams() {
+        EnrollmentIndex enrollments = enrollmentDAO.loadIndex();
+        CourseConflictGraph graph = enrollments.conflictGraph();
+        List<ExamScheduler.Exam> exams = new ArrayList<>();
+        for (Course course : courseDAO.findAll()) {
+            int enrolled = enrollments.studentsIn(course.getId());
+            exams.add(new ExamScheduler.Exam(course.getId(), course.getCourseName(),
+                enrolled > 0 ? enrolled : Math.max(0, course.getMaxStudents())));
+        }
+        ExamScheduler.Result result = new ExamScheduler(timeGrid.slots(), loadRooms(), exams, graph).solve();
+        logger.info("Exam scheduler placed {} of {} exams: {}", result.sittings().size(), exams.size(),
+            result.stats());
+
+        List<Map<String, Object>> sittings = new ArrayList<>(result.sittings().size());
+        for (ExamScheduler.Sitting sitting : result.sittings()) {
+            List<Map<String, Object>> seats = new ArrayList<>(sitting.seats().size());
+            for (ExamScheduler.Seating seating : sitting.seats()) {
+                seats.add(Map.of("roomId", seating.room().roomId(), "roomName", seating.room().name(),
+                    "students", seating.students()));
+            }
+            Map<String, Object> exam = new LinkedHashMap<>();
+            exam.put("courseId", sitting.exam().courseId());
+            exam.put("courseName", sitting.exam().label());
+            exam.put("students", sitting.exam().students());
+            exam.put("day", sitting.slot().day());
+            exam.put("startTime", sitting.slot().startTime());
+            exam.put("endTime", sitting.slot().endTime());
+            exam.put("rooms", seats);
+            sittings.add(exam);
+        }
+        List<Map<String, Object>> failed = new ArrayList<>(result.unscheduled().size());
+        for (ExamScheduler.Exam exam : result.unscheduled()) {
+            failed.add(Map.of("courseId", exam.courseId(), "courseName", exam.label(), "students", exam.students()));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Planned exams: %d scheduled in %s periods, %d failed".formatted(
+            result.sittings().size(), result.stats().get("periodsUsed"), result.unscheduled().size()));
+        response.put("scheduledCount", result.sittings().size());
+        response.put("failedCount", result.unscheduled().size());
+        response.put("exams", sittings);
+        response.put("failed", failed);
+        response.put("stats", result.stats());
+        return response;
+    }
+
+    // ==================== REPAIR ====================
+
+    /**
+     * Re-place the entries in a room, e.g. after it was deleted or moved to another pool.
+     */
+    public Map<String, Object> repairRoom(int roomId) {
+        return repair(slot -> slot.roomId() == roomId);
+    }
+
+    /**
+     * Re-place a course's entries after its instructor, size or department changed,
+     * or drop them if the course is gone.
+     */
+    public Map<String, Object> repairCourse(int courseId) {
+        return repair(slot -> slot.courseId() == courseId);
+    }
+
+    /**
+     * Re-place the entries taught by a user, e.g. after the account was removed.
+     */
+    public Map<String, Object> repairInstructor(int instructorId) {
+        return repair(slot -> slot.instructorId() != null && slot.instructorId() == instructorId);
+    }
+
+    /**
+     * Run a repair for a change that has already committed. A failure is
+     * logged and returned as {"error": message} instead of thrown, so the
+     * caller still reports the change itself as done.
+     *
+     * Request threads call this, so it waits at most schedule.repair.waitMillis
+     * (default 200) for a running generation or optimization. If that one is
+     * still busy, the repair is queued to run after it and {"deferred": true}
+     * is returned.
+     */
+    public Map<String, Object> tryRepair(String change, Supplier<Map<String, Object>> repair) {
+        boolean locked;
+        try {
+            locked = timetableLock.tryLock(REPAIR_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        if (!locked) {
+            logger.info("Timetable is busy, repair after {} deferred", change);
+            deferredRepairs.execute(() -> runRepair(change, repair));
+            return Map.of("deferred", true);
+        }
+        try {
+            return runRepair(change, repair);
+        } finally {
+            timetableLock.unlock();
+        }
+    }
+
+    private Map<String, Object> runRepair(String change, Supplier<Map<String, Object>> repair) {
+        try {
+            return repair.get();
+        } catch (RuntimeException e) {
+            logger.error("Timetable repair after {} failed", change, e);
+            return Map.of("error", "Timetable repair failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Repair the affected entries with the rest of the timetable held in place.
+     *
+     * Each affected entry is re-checked against current course and room data
+     * first: if its room still exists, seats the course and is in the course's
+     * pool, and neither the room nor the (possibly new) instructor is taken at
+     * that time, it stays where it is. Only the rest are unassigned and solved
+     * again around the fixed entries, so a single change touches a handful of
+     * rows. Entries of deleted courses are dropped; sessions that no longer fit
+     * anywhere are dropped and reported as failed. An entry that had to move
+     * loses its pin, since the solver chose its new place.
+     */
+    public Map<String, Object> repair(Predicate<TimetableSlot> affected) {
+        return exclusively(() -> repairLocked(affected));
+    }
+
+    private Map<String, Object> repairLocked(Predicate<TimetableSlot> affected) {
+        long startedAt = System.nanoTime();
+        List<RoomOption> rooms = loadRooms();
+        Set<String> departmentsWithRooms = departmentsWithRooms(rooms);
+        Map<Integer, RoomOption> roomsById = new HashMap<>();
+        for (RoomOption room : rooms) {
+            roomsById.put(room.roomId(), room);
+        }
+
+        List<TimetableSlot> fixed = new ArrayList<>();
+        List<TimetableSlot> broken = new ArrayList<>();
+        for (TimetableSlot slot : timetableDAO.findAllSlots()) {
+            (affected.test(slot) ? broken : fixed).add(slot);
+        }
+
+        List<Integer> deletedIds = new ArrayList<>();
+        List<TimetableEntry> updated = new ArrayList<>();
+        List<Session> sessions = new ArrayList<>();
+        Map<Integer, Integer> sessionIndex = new HashMap<>();
+        int kept = 0;
+        int dropped = 0;
+        for (TimetableSlot slot : broken) {
+            Course course = courseDAO.findById(slot.courseId());
+            if (course == null) {
+                deletedIds.add(slot.id());
+                dropped++;
+                continue;
+            }
+            Integer instructorId = instructorOf(course);
+            String pool = poolOf(course, departmentsWithRooms);
+            RoomOption room = roomsById.get(slot.roomId());
+            TimetableSlot current = new TimetableSlot(slot.id(), slot.courseId(), slot.roomId(), instructorId,
+                slot.dayIndex(), slot.startMin(), slot.endMin());
+
+            if (room != null && room.capacity() >= course.getMaxStudents()
+                    && Objects.equals(room.pool(), pool) && isFree(current, fixed)) {
+                fixed.add(current);
+                kept++;
+                if (!Objects.equals(instructorId, slot.instructorId())) {
+                    updated.add(entryFor(current, course, room));
+                }
+            } else {
+                deletedIds.add(slot.id());
+                sessions.add(new Session(course.getId(), sessionIndex.merge(course.getId(), 1, Integer::sum) - 1,
+                    instructorId, Math.max(0, course.getMaxStudents()), course.getCourseName(), pool));
+            }
+        }
+
+        Solution solution = new DecomposingSolver(solverPool).solve(
+            new SchedulingProblem(timeGrid.slots(), rooms, sessions, fixed, conflictGraph()));
+        List<TimetableEntry> inserted = new ArrayList<>();
+        for (Solution.Assignment assignment : solution.assignments()) {
+            inserted.add(entryFor(assignment, 0));
+        }
+        timetableDAO.replaceEntries(deletedIds, updated, inserted);
+
+        StringBuilder details = new StringBuilder();
+        for (Solution.Assignment assignment : solution.assignments()) {
+            details.append("Moved %s to %s on %s %s-%s\n".formatted(
+                assignment.session().label(), assignment.room().name(), assignment.slot().day(),
+                assignment.slot().startTime(), assignment.slot().endTime()));
+        }
+        for (Session session : solution.unscheduled()) {
+            details.append("Failed to re-place %s - no available slots\n".formatted(session.label()));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("affected", broken.size());
+        result.put("kept", kept);
+        result.put("rescheduled", solution.assignments().size());
+        result.put("failed", solution.unscheduled().size());
+        result.put("dropped", dropped);
+        result.put("details", details.toString());
+        result.put("millis", (System.nanoTime() - startedAt) / 1_000_000);
+        if (!broken.isEmpty()) {
+            logger.info("Repaired timetable: {}", result);
+        }
+        return result;
+    }
+
+    // Neither the room nor the instructor is taken by an overlapping fixed entry
+    private static boolean isFree(TimetableSlot slot, List<TimetableSlot> fixed) {
+        for (TimetableSlot other : fixed) {
+            if (other.dayIndex() == slot.dayIndex() && other.overlaps(slot.startMin(), slot.endMin())
+                    && (other.roomId() == slot.roomId()
+                        || (slot.instructorId() != null && slot.instructorId().equals(other.instructorId())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TimetableEntry entryFor(TimetableSlot slot, Course course, RoomOption room) {
+        TimetableEntry entry = new TimetableEntry();
+        entry.setId(slot.id());
+        entry.setCourseId(slot.courseId());
+        entry.setRoomId(slot.roomId());
+        entry.setInstructorId(slot.instructorId());
+        entry.setDay(TimeCodec.dayName(slot.dayIndex()));
+        entry.setStartTime(slot.startTime());
+        entry.setEndTime(slot.endTime());
+        entry.setCourseName(course.getCourseName());
+        entry.setRoomName(room.name());
+        return entry;
+    }
+
+    /**
+     * Write every placement in one transaction.
+     * @return number of rows inserted
+     */
+    public int save(Solution solution) {
+        return timetableDAO.saveAll(entriesOf(solution));
+    }
+
+    private static List<TimetableEntry> entriesOf(Solution solution) {
+        List<TimetableEntry> entries = new ArrayList<>(solution.assignments().size());
+        for (Solution.Assignment assignment : solution.assignments()) {
+            entries.add(entryFor(assignment, 0));
+        }
+        return entries;
+    }
+
+    private static TimetableEntry entryFor(Solution.Assignment assignment, int id) {
+        TimetableEntry entry = new TimetableEntry();
+        entry.setId(id);
+        entry.setCourseId(assignment.session().courseId());
+        entry.setRoomId(assignment.room().roomId());
+        entry.setInstructorId(assignment.session().instructorId());
+        entry.setDay(assignment.slot().day());
+        entry.setStartTime(assignment.slot().startTime());
+        entry.setEndTime(assignment.slot().endTime());
+        entry.setCourseName(assignment.session().label());
+        entry.setRoomName(assignment.room().name());
+        return entry;
+    }
+}
@@ -0,0 +1,70 @@
+package com.druv.scheduler.engine;
+
+import java.util.List;
+
+import com.druv.scheduler.TimetableSlot;
+
+/**
+ * Input to the solver, fully in memory: the periods that may be used, the
+ * rooms, the sessions to place and the entries already in the timetable.
+ * Rooms are grouped into pools (a department's rooms, or the shared pool).
+ *
+ * Fixed entries are never moved; they only take rooms and instructors out of
+ * the periods they overlap, and a course's fixed entries count towards the
+ * one-session-per-day rule for its remaining sessions.
+ *
+ * Courses adjacent in the conflict graph share students and must not meet
+ * in overlapping periods, whether as sessions or as fixed entries.
+ */
+public final class SchedulingProblem {
+
+    /**
+     * One meeting of a course that needs a period and a room. size is the
+     * number of seats the room must have; instructorId is null if unknown.
+     * The session may only use rooms of the same pool (null is the shared pool).
+     */
+    public record Session(int courseId, int sessionIndex, Integer instructorId, int size, String label,
+                          String pool) {}
+
+    public record RoomOption(int roomId, String name, int capacity, String pool) {}
+
+    private final List<TimeSlot> slots;
+    private final List<RoomOption> rooms;
+    private final List<Session> sessions;
+    private final List<TimetableSlot> fixed;
+    private final CourseConflictGraph conflicts;
+
+    public SchedulingProblem(List<TimeSlot> slots, List<RoomOption> rooms, List<Session> sessions,
+                             List<TimetableSlot> fixed) {
+        this(slots, rooms, sessions, fixed, CourseConflictGraph.EMPTY);
+    }
+
+    public SchedulingProblem(List<TimeSlot> slots, List<RoomOption> rooms, List<Session> sessions,
+                             List<TimetableSlot> fixed, CourseConflictGraph conflicts) {
+        this.slots = List.copyOf(slots);
+        this.rooms = List.copyOf(rooms);
+        this.sessions = List.copyOf(sessions);
+        this.fixed = List.copyOf(fixed);
+        this.conflicts = conflicts;
+    }
+
+    public List<TimeSlot> getSlots() {
+        return slots;
+    }
+
+    public List<RoomOption> getRooms() {
+        return rooms;
+    }
+
+    public List<Session> getSessions() {
+        return sessions;
+    }
+
+    public List<TimetableSlot> getFixed() {
+        return fixed;
+    }
+
+    public CourseConflictGraph getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.druv.scheduler.engine;
+
+import java.util.List;
+import java.util.Map;
+
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * Result of a solver run: the sessions placed, the ones that could not be,
+ * and counters describing the search.
+ */
+public record Solution(List<Assignment> assignments, List<Session> unscheduled, Map<String, Object> stats) {
+
+    public record Assignment(Session session, TimeSlot slot, RoomOption room) {}
+}
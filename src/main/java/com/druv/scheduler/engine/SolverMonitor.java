@@ -0,0 +1,68 @@
+package com.druv.scheduler.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and cancellation shared between a caller and the solvers working
+ * for it, possibly on several threads. Solvers add to the counters every so
+ * often rather than on every step, and poll isCancelled() at the same points.
+ */
+public final class SolverMonitor {
+
+    private final AtomicInteger placed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile String phase = "queued";
+    private volatile int sessions;
+    private volatile Long objective;
+    private volatile boolean cancelled;
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public void setSessions(int sessions) {
+        this.sessions = sessions;
+    }
+
+    public void addPlaced(int delta) {
+        placed.addAndGet(delta);
+    }
+
+    public void addFailed(int delta) {
+        failed.addAndGet(delta);
+    }
+
+    /**
+     * Current value of whatever the running phase minimizes, e.g. the optimizer's cost.
+     */
+    public void setObjective(long objective) {
+        this.objective = objective;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Cancelled during " + phase);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("phase", phase);
+        progress.put("sessions", sessions);
+        progress.put("placed", placed.get());
+        progress.put("failed", failed.get());
+        progress.put("objective", objective);
+        return progress;
+    }
+}
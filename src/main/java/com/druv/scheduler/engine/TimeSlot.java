@@ -0,0 +1,29 @@
+package com.druv.scheduler.engine;
+
+import com.druv.scheduler.TimeCodec;
+
+/**
+ * A bookable period of the week, in TimeCodec's day index and minutes.
+ */
+public record TimeSlot(int dayIndex, int startMin, int endMin) {
+
+    public boolean overlaps(TimeSlot other) {
+        return dayIndex == other.dayIndex && TimeCodec.overlaps(startMin, endMin, other.startMin, other.endMin);
+    }
+
+    public boolean overlaps(int otherDay, int otherStart, int otherEnd) {
+        return dayIndex == otherDay && TimeCodec.overlaps(startMin, endMin, otherStart, otherEnd);
+    }
+
+    public String day() {
+        return TimeCodec.dayName(dayIndex);
+    }
+
+    public String startTime() {
+        return TimeCodec.formatMinutes(startMin);
+    }
+
+    public String endTime() {
+        return TimeCodec.formatMinutes(endMin);
+    }
+}
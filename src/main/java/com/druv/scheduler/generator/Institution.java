@@ -0,0 +1,341 @@
+package com.druv.scheduler.generator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.druv.scheduler.Database;
+import com.druv.scheduler.EnrollmentIndex;
+import com.druv.scheduler.TimeCodec;
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+/**
+ * A synthetic institution made by InstitutionGenerator: rooms, faculty,
+ * courses, students with their enrollments and the bookings already in its
+ * timetable. Ids are dense and 1-based within the institution; bookings use
+ * faculty ids as instructor ids. Enrollments are kept as parallel int arrays
+ * of student and course ids.
+ *
+ * The same institution can be handed to the solver as a SchedulingProblem
+ * (toProblem) or written to the configured SQLite database (loadIntoDatabase),
+ * so DAO, report and solver timings are all taken on identical data.
+ */
+public final class Institution {
+
+    public record RoomSpec(int id, String name, int capacity, String department) {}
+
+    /**
+     * load is the number of weekly sessions of the faculty member's courses.
+     */
+    public record FacultySpec(int id, String username, String department, int load) {}
+
+    public record CourseSpec(int id, String code, String name, int facultyId, int maxStudents,
+                             String department, int sessionsPerWeek) {}
+
+    // bcrypt of "password", the same hash the default accounts use
+    private static final String PASSWORD_HASH = "$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi";
+
+    private final long seed;
+    private final TimeGrid grid;
+    private final List<RoomSpec> rooms;
+    private final List<FacultySpec> faculty;
+    private final List<CourseSpec> courses;
+    private final List<TimetableSlot> bookings;
+    private final int studentCount;
+    private final int[] enrollmentStudents;
+    private final int[] enrollmentCourses;
+    private final int enrollmentCount;
+
+    Institution(long seed, TimeGrid grid, List<RoomSpec> rooms, List<FacultySpec> faculty,
+                List<CourseSpec> courses, List<TimetableSlot> bookings, int studentCount,
+                int[] enrollmentStudents, int[] enrollmentCourses, int enrollmentCount) {
+        this.seed = seed;
+        this.grid = grid;
+        this.rooms = List.copyOf(rooms);
+        this.faculty = List.copyOf(faculty);
+        this.courses = List.copyOf(courses);
+        this.bookings = List.copyOf(bookings);
+        this.studentCount = studentCount;
+        this.enrollmentStudents = enrollmentStudents;
+        this.enrollmentCourses = enrollmentCourses;
+        this.enrollmentCount = enrollmentCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public TimeGrid getGrid() {
+        return grid;
+    }
+
+    public List<RoomSpec> getRooms() {
+        return rooms;
+    }
+
+    public List<FacultySpec> getFaculty() {
+        return faculty;
+    }
+
+    public List<CourseSpec> getCourses() {
+        return courses;
+    }
+
+    public List<TimetableSlot> getBookings() {
+        return bookings;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public EnrollmentIndex enrollmentIndex() {
+        return EnrollmentIndex.of(enrollmentStudents, enrollmentCourses, enrollmentCount);
+    }
+
+    public String studentUsername(int id) {
+        return String.format(Locale.ROOT, "s%d.student%06d", seed, id);
+    }
+
+    public RoomSpec room(int id) {
+        return rooms.get(id - 1);
+    }
+
+    public FacultySpec facultyMember(int id) {
+        return faculty.get(id - 1);
+    }
+
+    public CourseSpec course(int id) {
+        return courses.get(id - 1);
+    }
+
+    /**
+     * Sessions a course still needs beyond its bookings, summed over all courses.
+     */
+    public int pendingSessions() {
+        int[] booked = bookedPerCourse();
+        int pending = 0;
+        for (CourseSpec course : courses) {
+            pending += course.sessionsPerWeek() - booked[course.id()];
+        }
+        return pending;
+    }
+
+    /**
+     * The in-memory model: bookings are fixed and every course's missing
+     * sessions are to be placed, pooled by department the way SchedulerEngine
+     * pools them (every generated department owns rooms), with the conflict
+     * graph of the generated enrollments.
+     */
+    public SchedulingProblem toProblem() {
+        List<RoomOption> options = new ArrayList<>(rooms.size());
+        for (RoomSpec room : rooms) {
+            options.add(new RoomOption(room.id(), room.name(), room.capacity(), room.department()));
+        }
+        int[] booked = bookedPerCourse();
+        List<Session> sessions = new ArrayList<>();
+        for (CourseSpec course : courses) {
+            for (int i = booked[course.id()]; i < course.sessionsPerWeek(); i++) {
+                sessions.add(new Session(course.id(), i, course.facultyId(), course.maxStudents(),
+                    course.name(), course.department()));
+            }
+        }
+        return new SchedulingProblem(grid.slots(), options, sessions, bookings, enrollmentIndex().conflictGraph());
+    }
+
+    private int[] bookedPerCourse() {
+        int[] booked = new int[courses.size() + 1];
+        for (TimetableSlot booking : bookings) {
+            booked[booking.courseId()]++;
+        }
+        return booked;
+    }
+
+    /**
+     * Insert the whole institution into the configured database in one write.
+     * Rows go in through batched statements rather than the DAOs, so nothing
+     * is published to TimetableChangeListeners: load before the application's
+     * TimetableIndex is built, normally into a fresh database. Names carry the
+     * seed, so loading the same seed twice fails on the UNIQUE columns.
+     * @return row counts and the time the load took
+     */
+    public Map<String, Object> loadIntoDatabase() {
+        int batchSize = Math.max(1, Integer.getInteger("db.timetable.batchSize", 500));
+        long startedAt = System.nanoTime();
+        try {
+            Database.write(conn -> {
+                int[] roomIds = insertRooms(conn, batchSize);
+                int[] facultyIds = insertFaculty(conn, batchSize);
+                int[] courseIds = insertCourses(conn, batchSize);
+                insertBookings(conn, batchSize, roomIds, facultyIds, courseIds);
+                int[] studentIds = insertStudents(conn, batchSize);
+                insertEnrollments(conn, batchSize, studentIds, courseIds);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading generated institution: " + e.getMessage(), e);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("seed", seed);
+        result.put("rooms", rooms.size());
+        result.put("faculty", faculty.size());
+        result.put("courses", courses.size());
+        result.put("bookings", bookings.size());
+        result.put("students", studentCount);
+        result.put("enrollments", enrollmentCount);
+        result.put("millis", (System.nanoTime() - startedAt) / 1_000_000);
+        return result;
+    }
+
+    private int[] insertRooms(Connection conn, int batchSize) throws SQLException {
+        String sql = "INSERT INTO rooms (room_name, capacity, department) VALUES (?, ?, ?)";
+        int[] ids = new int[rooms.size() + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (RoomSpec room : rooms) {
+                stmt.setString(1, room.name());
+                stmt.setInt(2, room.capacity());
+                stmt.setString(3, room.department());
+                stmt.addBatch();
+                flushIfFull(conn, stmt, room.id(), batchSize, rooms.size(), ids);
+            }
+        }
+        return ids;
+    }
+
+    private int[] insertFaculty(Connection conn, int batchSize) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, 'FACULTY')";
+        int[] ids = new int[faculty.size() + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (FacultySpec member : faculty) {
+                stmt.setString(1, member.username());
+                stmt.setString(2, PASSWORD_HASH);
+                stmt.addBatch();
+                flushIfFull(conn, stmt, member.id(), batchSize, faculty.size(), ids);
+            }
+        }
+        return ids;
+    }
+
+    private int[] insertStudents(Connection conn, int batchSize) throws SQLException {
+        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, 'STUDENT')";
+        int[] ids = new int[studentCount + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= studentCount; id++) {
+                stmt.setString(1, studentUsername(id));
+                stmt.setString(2, PASSWORD_HASH);
+                stmt.addBatch();
+                flushIfFull(conn, stmt, id, batchSize, studentCount, ids);
+            }
+        }
+        return ids;
+    }
+
+    private void insertEnrollments(Connection conn, int batchSize, int[] studentIds, int[] courseIds)
+            throws SQLException {
+        String sql = "INSERT INTO enrollments (student_id, course_id) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < enrollmentCount; i++) {
+                stmt.setInt(1, studentIds[enrollmentStudents[i]]);
+                stmt.setInt(2, courseIds[enrollmentCourses[i]]);
+                stmt.addBatch();
+                if ((i + 1) % batchSize == 0 || i + 1 == enrollmentCount) {
+                    stmt.executeBatch();
+                }
+            }
+        }
+    }
+
+    private int[] insertCourses(Connection conn, int batchSize) throws SQLException {
+        String sql = """
+            INSERT INTO courses (course_code, course_name, faculty_username, max_students, department)
+            VALUES (?, ?, ?, ?, ?)""";
+        int[] ids = new int[courses.size() + 1];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (CourseSpec course : courses) {
+                stmt.setString(1, course.code());
+                stmt.setString(2, course.name());
+                stmt.setString(3, facultyMember(course.facultyId()).username());
+                stmt.setInt(4, course.maxStudents());
+                stmt.setString(5, course.department());
+                stmt.addBatch();
+                flushIfFull(conn, stmt, course.id(), batchSize, courses.size(), ids);
+            }
+        }
+        return ids;
+    }
+
+    private void insertBookings(Connection conn, int batchSize, int[] roomIds, int[] facultyIds,
+                                int[] courseIds) throws SQLException {
+        String sql = """
+            INSERT INTO timetable (course_id, room_id, day_of_week, start_time, end_time, instructor_id,
+                                   course_name, faculty, room_name, day_index, start_min, end_min)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (TimetableSlot booking : bookings) {
+                CourseSpec course = course(booking.courseId());
+                stmt.setInt(1, courseIds[booking.courseId()]);
+                stmt.setInt(2, roomIds[booking.roomId()]);
+                stmt.setString(3, TimeCodec.dayName(booking.dayIndex()));
+                stmt.setString(4, booking.startTime());
+                stmt.setString(5, booking.endTime());
+                stmt.setInt(6, facultyIds[booking.instructorId()]);
+                stmt.setString(7, course.name());
+                stmt.setString(8, facultyMember(booking.instructorId()).username());
+                stmt.setString(9, room(booking.roomId()).name());
+                stmt.setInt(10, booking.dayIndex());
+                stmt.setInt(11, booking.startMin());
+                stmt.setInt(12, booking.endMin());
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Run the batch once it holds batchSize rows or the last row, then record
+     * the database ids of its rows. Rows of one batch get consecutive rowids,
+     * so the first is last_insert_rowid() minus the batch length plus one.
+     */
+    private static void flushIfFull(Connection conn, PreparedStatement stmt, int id, int batchSize, int total,
+                                    int[] ids) throws SQLException {
+        int inBatch = (id - 1) % batchSize + 1;
+        if (inBatch < batchSize && id < total) {
+            return;
+        }
+        stmt.executeBatch();
+        int firstId = lastInsertId(conn) - inBatch + 1;
+        for (int i = 0; i < inBatch; i++) {
+            ids[id - inBatch + 1 + i] = firstId + i;
+        }
+    }
+
+    private static int lastInsertId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.druv.scheduler.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.generator.Institution.CourseSpec;
+import com.druv.scheduler.generator.Institution.FacultySpec;
+import com.druv.scheduler.generator.Institution.RoomSpec;
+
+/**
+ * Builds synthetic institutions from a seed. The same seed, size and grid
+ * always give the same institution, so performance numbers taken on it can
+ * be repeated and compared across changes.
+ *
+ * Sizes are given as the number of timetable bookings wanted (100 to 100k in
+ * the benchmark). Rooms are added until about ROOM_OCCUPANCY of their slots
+ * would be booked, with a mix of seminar rooms, classrooms, lecture halls and
+ * auditoriums; courses follow a log-normal size around 35 students and meet
+ * one to four times a week; faculty take courses until they reach a load of
+ * four to ten sessions. Bookings are placed on grid periods without room or
+ * instructor clashes and at most once a day per course, in the smallest free
+ * room of the course's department that fits. About one session in seven is
+ * left unbooked for the scheduler to place. Students fill about
+ * ENROLLMENT_FILL of the seats: each follows a cohort, i.e. takes the core
+ * courses of one block of CORE_BLOCK courses of a department, plus one or
+ * two electives, so the conflict graph is clustered the way real programs are.
+ */
+public final class InstitutionGenerator {
+
+    private static final double ROOM_OCCUPANCY = 0.6;
+    private static final double BOOKED_SHARE = 0.85;
+    private static final int ROOMS_PER_DEPARTMENT = 25;
+    private static final double SHARED_ROOM_SHARE = 0.25;
+    private static final double SHARED_COURSE_SHARE = 0.1;
+    private static final double ENROLLMENT_FILL = 0.8;
+    private static final int CORE_BLOCK = 4;
+
+    private static final String[] DEPARTMENTS = {
+        "CSE", "ECE", "EEE", "MECH", "CIVIL", "CHEM", "BIO", "MATH", "PHYS", "MGMT", "ARCH", "HUM"
+    };
+    private static final String[] SUBJECTS = {
+        "Algorithms", "Circuits", "Thermodynamics", "Linear Algebra", "Databases", "Signals",
+        "Structures", "Organic Chemistry", "Genetics", "Statistics", "Mechanics", "Economics",
+        "Networks", "Materials", "Optics", "Accounting", "Design Studio", "Ethics"
+    };
+    private static final String[] LEVELS = {"I", "II", "III", "Advanced", "Applied", "Lab"};
+
+    private final long seed;
+    private final TimeGrid grid;
+
+    public InstitutionGenerator(long seed, TimeGrid grid) {
+        this.seed = seed;
+        this.grid = grid;
+    }
+
+    /**
+     * @param entries number of bookings wanted; fewer are returned only if the
+     *        generated rooms and faculty cannot hold them all
+     * @throws IllegalArgumentException if entries is negative
+     */
+    public Institution generate(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("Number of entries cannot be negative: " + entries);
+        }
+        Random random = new Random(seed);
+        String prefix = "S" + seed;
+
+        int roomCount = (int) Math.ceil(entries / (grid.slotCount() * ROOM_OCCUPANCY));
+        int departmentCount = Math.max(1, roomCount / ROOMS_PER_DEPARTMENT);
+        roomCount = Math.max(roomCount, departmentCount + 1);
+        String[] departments = departmentNames(departmentCount);
+
+        // Each department gets one room and the shared pool one before the rest are drawn
+        List<RoomSpec> rooms = new ArrayList<>(roomCount);
+        Map<String, RoomPool> pools = new HashMap<>();
+        for (int r = 0; r < roomCount; r++) {
+            String department = r < departmentCount ? departments[r]
+                : r == departmentCount || random.nextDouble() < SHARED_ROOM_SHARE ? null
+                : departments[random.nextInt(departmentCount)];
+            String name = String.format(Locale.ROOT, "%s-%s-%04d", prefix,
+                department == null ? "LH" : department, r + 1);
+            RoomSpec room = new RoomSpec(r + 1, name, roomCapacity(random), department);
+            rooms.add(room);
+            pools.computeIfAbsent(department, d -> new RoomPool()).add(room);
+        }
+        for (RoomPool pool : pools.values()) {
+            pool.seal(grid.slotCount());
+        }
+
+        // Courses until their sessions cover the bookings plus the unbooked share
+        int sessionTarget = (int) Math.ceil(entries / BOOKED_SHARE);
+        List<CourseSpec> courses = new ArrayList<>();
+        List<FacultySpec> faculty = new ArrayList<>();
+        List<int[]> loads = new ArrayList<>();
+        Map<String, Integer> currentFaculty = new HashMap<>();
+        int sessions = 0;
+        while (sessions < sessionTarget) {
+            String department = random.nextDouble() < SHARED_COURSE_SHARE ? null
+                : departments[random.nextInt(departmentCount)];
+            int sessionsPerWeek = Math.min(grid.dayCount(), sessionsPerWeek(random));
+            int maxStudents = Math.min(pools.get(department).maxCapacity(), courseSize(random));
+
+            Integer facultyId = currentFaculty.get(department);
+            if (facultyId == null || loads.get(facultyId - 1)[0] < sessionsPerWeek) {
+                facultyId = faculty.size() + 1;
+                String username = String.format(Locale.ROOT, "%s.%s.f%04d", prefix.toLowerCase(Locale.ROOT),
+                    department == null ? "gen" : department.toLowerCase(Locale.ROOT), facultyId);
+                faculty.add(new FacultySpec(facultyId, username, department, 0));
+                // Remaining and assigned sessions
+                loads.add(new int[] {Math.min(grid.slotCount(), 4 + random.nextInt(7)), 0});
+                currentFaculty.put(department, facultyId);
+            }
+            int[] load = loads.get(facultyId - 1);
+            load[0] -= sessionsPerWeek;
+            load[1] += sessionsPerWeek;
+
+            int id = courses.size() + 1;
+            String code = String.format(Locale.ROOT, "%s-%s%05d", prefix, department == null ? "GEN" : department, id);
+            String name = SUBJECTS[random.nextInt(SUBJECTS.length)] + " " + LEVELS[random.nextInt(LEVELS.length)];
+            courses.add(new CourseSpec(id, code, name, facultyId, maxStudents, department, sessionsPerWeek));
+            sessions += sessionsPerWeek;
+        }
+        for (int f = 0; f < faculty.size(); f++) {
+            FacultySpec member = faculty.get(f);
+            faculty.set(f, new FacultySpec(member.id(), member.username(), member.department(), loads.get(f)[1]));
+        }
+
+        List<TimetableSlot> bookings = book(random, entries, pools, faculty.size(), courses);
+        Enrollments enrollments = enroll(random, departments, courses);
+        return new Institution(seed, grid, rooms, faculty, courses, bookings, enrollments.studentCount,
+            enrollments.students, enrollments.courses, enrollments.count);
+    }
+
+    private record Enrollments(int studentCount, int[] students, int[] courses, int count) {}
+
+    private static Enrollments enroll(Random random, String[] departments, List<CourseSpec> courses) {
+        Map<String, List<CourseSpec>> byDepartment = new HashMap<>();
+        long seats = 0;
+        for (CourseSpec course : courses) {
+            byDepartment.computeIfAbsent(course.department(), d -> new ArrayList<>()).add(course);
+            seats += course.maxStudents();
+        }
+        // Four to six courses per student on average
+        int studentCount = (int) (seats * ENROLLMENT_FILL / 5);
+        int[] enrolled = new int[courses.size() + 1];
+        int[] students = new int[studentCount * (CORE_BLOCK + 2)];
+        int[] courseIds = new int[students.length];
+        int count = 0;
+        int[] taken = new int[CORE_BLOCK + 2];
+        for (int student = 1; student <= studentCount; student++) {
+            List<CourseSpec> home = byDepartment.getOrDefault(departments[random.nextInt(departments.length)],
+                courses);
+            int block = random.nextInt((home.size() + CORE_BLOCK - 1) / CORE_BLOCK) * CORE_BLOCK;
+            int takenCount = 0;
+            for (int i = block; i < Math.min(block + CORE_BLOCK, home.size()); i++) {
+                CourseSpec course = home.get(i);
+                if (enrolled[course.id()] < course.maxStudents()) {
+                    enrolled[course.id()]++;
+                    taken[takenCount++] = course.id();
+                }
+            }
+            int electives = 1 + random.nextInt(2);
+            for (int attempt = 0; attempt < electives * 4 && electives > 0; attempt++) {
+                List<CourseSpec> from = random.nextBoolean() ? home : courses;
+                CourseSpec course = from.get(random.nextInt(from.size()));
+                if (enrolled[course.id()] < course.maxStudents() && !contains(taken, takenCount, course.id())) {
+                    enrolled[course.id()]++;
+                    taken[takenCount++] = course.id();
+                    electives--;
+                }
+            }
+            for (int i = 0; i < takenCount; i++) {
+                students[count] = student;
+                courseIds[count++] = taken[i];
+            }
+        }
+        return new Enrollments(studentCount, students, courseIds, count);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<TimetableSlot> book(Random random, int entries, Map<String, RoomPool> pools, int facultyCount,
+                                     List<CourseSpec> courses) {
+        BitSet[] instructorBusy = new BitSet[facultyCount + 1];
+        for (int f = 1; f <= facultyCount; f++) {
+            instructorBusy[f] = new BitSet(grid.slotCount());
+        }
+        int[] daysUsed = new int[courses.size() + 1];
+        int[] booked = new int[courses.size() + 1];
+        List<TimetableSlot> bookings = new ArrayList<>(entries);
+
+        // Spread the unbooked share over courses, then top up from the skipped
+        // sessions if some could not be placed
+        for (int pass = 0; pass < 2; pass++) {
+            for (CourseSpec course : courses) {
+                int sessions = pass == 0 ? course.sessionsPerWeek() : course.sessionsPerWeek() - booked[course.id()];
+                for (int s = 0; s < sessions && bookings.size() < entries; s++) {
+                    if (pass == 0 && random.nextDouble() >= BOOKED_SHARE) {
+                        continue;
+                    }
+                    TimetableSlot booking = place(random, course, pools.get(course.department()),
+                        instructorBusy[course.facultyId()], daysUsed, bookings.size() + 1);
+                    if (booking != null) {
+                        bookings.add(booking);
+                        booked[course.id()]++;
+                    }
+                }
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Try every slot once, from a random one onwards, for a day the course
+     * does not meet on, a free instructor and a free room that fits.
+     * @return the booking, already marked as taken, or null
+     */
+    private TimetableSlot place(Random random, CourseSpec course, RoomPool pool, BitSet instructorBusy,
+                                int[] daysUsed, int id) {
+        int slotCount = grid.slotCount();
+        int first = random.nextInt(slotCount);
+        for (int attempt = 0; attempt < slotCount; attempt++) {
+            int slot = (first + attempt) % slotCount;
+            int dayPosition = slot / grid.periodCount();
+            if ((daysUsed[course.id()] & (1 << dayPosition)) != 0 || instructorBusy.get(slot)) {
+                continue;
+            }
+            int roomId = pool.takeSmallestFree(slot, course.maxStudents());
+            if (roomId < 0) {
+                continue;
+            }
+            instructorBusy.set(slot);
+            daysUsed[course.id()] |= 1 << dayPosition;
+            int period = slot % grid.periodCount();
+            return new TimetableSlot(id, course.id(), roomId, course.facultyId(),
+                grid.dayIndex(dayPosition), grid.periodStart(period), grid.periodEnd(period));
+        }
+        return null;
+    }
+
+    private static String[] departmentNames(int count) {
+        String[] names = new String[count];
+        for (int d = 0; d < count; d++) {
+            String base = DEPARTMENTS[d % DEPARTMENTS.length];
+            names[d] = d < DEPARTMENTS.length ? base : base + (d / DEPARTMENTS.length + 1);
+        }
+        return names;
+    }
+
+    // Seminar rooms, classrooms, lecture halls and the odd auditorium
+    private static int roomCapacity(Random random) {
+        double kind = random.nextDouble();
+        if (kind < 0.2) {
+            return 15 + random.nextInt(16);
+        } else if (kind < 0.7) {
+            return 30 + random.nextInt(31);
+        } else if (kind < 0.95) {
+            return 60 + random.nextInt(61);
+        }
+        return 150 + random.nextInt(151);
+    }
+
+    private static int courseSize(Random random) {
+        return (int) Math.max(5, Math.round(Math.exp(Math.log(35) + 0.45 * random.nextGaussian())));
+    }
+
+    private static int sessionsPerWeek(Random random) {
+        double draw = random.nextDouble();
+        return draw < 0.1 ? 1 : draw < 0.4 ? 2 : draw < 0.8 ? 3 : 4;
+    }
+
+    /**
+     * The rooms of one department (or the shared pool) sorted by capacity,
+     * with the rooms taken in each slot as a bit per pool position.
+     */
+    private static final class RoomPool {
+        private final List<RoomSpec> rooms = new ArrayList<>();
+        private int[] capacities;
+        private BitSet[] taken;
+
+        void add(RoomSpec room) {
+            rooms.add(room);
+        }
+
+        void seal(int slotCount) {
+            rooms.sort((a, b) -> a.capacity() != b.capacity()
+                ? Integer.compare(a.capacity(), b.capacity()) : Integer.compare(a.id(), b.id()));
+            capacities = rooms.stream().mapToInt(RoomSpec::capacity).toArray();
+            taken = new BitSet[slotCount];
+        }
+
+        int maxCapacity() {
+            return capacities[capacities.length - 1];
+        }
+
+        /**
+         * @return id of the smallest free room seating size in the slot, now taken, or -1
+         */
+        int takeSmallestFree(int slot, int size) {
+            int first = Arrays.binarySearch(capacities, size);
+            if (first < 0) {
+                first = -first - 1;
+            } else {
+                // binarySearch may land on any of several equal capacities
+                while (first > 0 && capacities[first - 1] == size) {
+                    first--;
+                }
+            }
+            if (taken[slot] == null) {
+                taken[slot] = new BitSet(capacities.length);
+            }
+            int position = taken[slot].nextClearBit(first);
+            if (position >= capacities.length) {
+                return -1;
+            }
+            taken[slot].set(position);
+            return rooms.get(position).id();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.druv.scheduler.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.druv.scheduler.Database;
+import com.druv.scheduler.DatabaseConfig;
+import com.druv.scheduler.EnrollmentDAO;
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableDAO;
+import com.druv.scheduler.TimetableFilter;
+import com.druv.scheduler.TimetableIndex;
+import com.druv.scheduler.engine.CourseConflictGraph;
+import com.druv.scheduler.engine.DecomposingSolver;
+import com.druv.scheduler.engine.ExamScheduler;
+import com.druv.scheduler.engine.SchedulingProblem;
+import com.druv.scheduler.engine.Solution;
+import com.druv.scheduler.service.ReportService;
+
+/**
+ * Times the DAOs, the in-memory indexes, the dashboard report, the solver and
+ * the exam scheduler on generated institutions of increasing size, each in a
+ * fresh SQLite file under target/benchmark. Run with
+ *
+ *   mvn compile exec:java@benchmark
+ *
+ * Sizes (bookings per institution) come from the arguments or
+ * benchmark.sizes (default 100,1000,10000,100000) and the seed from
+ * benchmark.seed (default 42); the grid is the configured schedule.grid.*.
+ */
+public final class SchedulerBenchmark {
+
+    private SchedulerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        String sizeList = args.length > 0 ? String.join(",", args)
+            : System.getProperty("benchmark.sizes", "100,1000,10000,100000");
+        long seed = Long.getLong("benchmark.seed", 42L);
+        TimeGrid grid = TimeGrid.fromConfig();
+        File directory = new File("target", "benchmark");
+        directory.mkdirs();
+
+        List<String> rows = new ArrayList<>();
+        rows.add(String.format("%8s %6s %7s %8s %8s %8s | %8s %8s %8s %8s %8s %8s %8s %8s | %8s %8s | %8s %12s",
+            "bookings", "rooms", "faculty", "courses", "students", "conflict", "generate", "dbLoad", "index",
+            "allSlots", "allRows", "page", "summary", "graph", "solve", "placed", "exams", "examPlaced"));
+        for (String value : sizeList.split(",")) {
+            int size = Integer.parseInt(value.trim());
+            rows.add(run(new InstitutionGenerator(seed, grid), grid, size, new File(directory, "benchmark-" + size + ".db")));
+        }
+        System.out.println();
+        System.out.println("Seed " + seed + ", " + grid.slotCount() + " slots per week, times in ms");
+        rows.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static String run(InstitutionGenerator generator, TimeGrid grid, int size, File databaseFile) {
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            new File(databaseFile.getPath() + suffix).delete();
+        }
+        Database.setTestMode(databaseFile.getPath());
+        Database.initialize();
+
+        long[] generate = new long[1];
+        Institution institution = timed(generate, () -> generator.generate(size));
+        long dbLoad = ((Number) institution.loadIntoDatabase().get("millis")).longValue();
+
+        String row;
+        try (AnnotationConfigApplicationContext context =
+                 new AnnotationConfigApplicationContext(DatabaseConfig.class, ReportService.class)) {
+            TimetableDAO timetableDAO = context.getBean(TimetableDAO.class);
+            ReportService reportService = context.getBean(ReportService.class);
+
+            long[] index = new long[1];
+            timed(index, () -> {
+                new TimetableIndex(timetableDAO).load();
+                return null;
+            });
+            long[] allSlots = new long[1];
+            timed(allSlots, timetableDAO::findAllSlots);
+            long[] allRows = new long[1];
+            timed(allRows, timetableDAO::findAll);
+            long[] page = new long[1];
+            timed(page, () -> timetableDAO.findPage(TimetableFilter.NONE, "time", null, 50));
+            long[] summary = new long[1];
+            timed(summary, reportService::generateSummary);
+            // Enrollments read back from SQLite and turned into the course conflict graph
+            long[] graph = new long[1];
+            CourseConflictGraph conflicts = timed(graph,
+                () -> context.getBean(EnrollmentDAO.class).loadIndex().conflictGraph());
+
+            SchedulingProblem problem = institution.toProblem();
+            long[] solve = new long[1];
+            Solution solution = timed(solve, () -> new DecomposingSolver(ForkJoinPool.commonPool()).solve(problem));
+
+            // One exam per course, sized by its enrollments
+            List<ExamScheduler.Exam> exams = new ArrayList<>();
+            for (Institution.CourseSpec course : institution.getCourses()) {
+                int position = conflicts.position(course.id());
+                exams.add(new ExamScheduler.Exam(course.id(), course.name(),
+                    position >= 0 ? conflicts.students(position) : 0));
+            }
+            long[] examTime = new long[1];
+            ExamScheduler.Result examPlan = timed(examTime,
+                () -> new ExamScheduler(grid.slots(), problem.getRooms(), exams, conflicts).solve());
+
+            row = String.format("%8d %6d %7d %8d %8d %8d | %8d %8d %8d %8d %8d %8d %8d %8d | %8d %8s | %8d %12s",
+                institution.getBookings().size(), institution.getRooms().size(), institution.getFaculty().size(),
+                institution.getCourses().size(), institution.getStudentCount(), conflicts.edgeCount(),
+                generate[0], dbLoad, index[0], allSlots[0], allRows[0], page[0], summary[0], graph[0], solve[0],
+                solution.assignments().size() + "/" + problem.getSessions().size(),
+                examTime[0], examPlan.sittings().size() + "/" + exams.size() + "@" + examPlan.stats().get("periodsUsed"));
+        } finally {
+            Database.closeAll();
+        }
+        return row;
+    }
+
+    private static <T> T timed(long[] millis, Supplier<T> work) {
+        long startedAt = System.nanoTime();
+        T result = work.get();
+        millis[0] = (System.nanoTime() - startedAt) / 1_000_000;
+        return result;
+    }
+}
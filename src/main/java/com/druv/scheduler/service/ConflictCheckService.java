@@ -0,0 +1,190 @@
+package com.druv.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.druv.scheduler.CourseDAO;
+import com.druv.scheduler.TimeCodec;
+import com.druv.scheduler.TimetableIndex;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.UserDAOImpl;
+
+/**
+ * Checks many candidate placements in one pass: each against the committed
+ * timetable and all of them against each other.
+ */
+@Service
+public class ConflictCheckService {
+
+    public static final int MAX_PLACEMENTS = Integer.getInteger("api.conflicts.maxBatch", 1000);
+
+    @Autowired
+    private TimetableIndex timetableIndex;
+
+    @Autowired
+    private CourseDAO courseDAO;
+
+    @Autowired
+    private UserDAOImpl userDAO;
+
+    /**
+     * One candidate, decoded. instructorId is null when the course has no known instructor.
+     */
+    private record Placement(int index, Integer courseId, Integer roomId, Integer instructorId,
+                             int dayIndex, int startMin, int endMin, String error) {
+
+        boolean valid() {
+            return error == null;
+        }
+    }
+
+    /**
+     * @param candidates maps with courseId, roomId, day, startTime and endTime
+     * @return one result per candidate, in request order
+     */
+    public List<Map<String, Object>> checkPlacements(List<Map<String, Object>> candidates) {
+        if (candidates.size() > MAX_PLACEMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_PLACEMENTS + " placements per request");
+        }
+
+        // Course and instructor lookups can hit the database, so finish them before taking the snapshot
+        Map<Integer, Optional<Integer>> instructorByCourse = new HashMap<>();
+        List<Placement> placements = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            placements.add(decode(i, candidates.get(i), instructorByCourse));
+        }
+
+        // Every placement is compared with the same committed timetable
+        List<List<TimetableSlot>> roomHits = new ArrayList<>(placements.size());
+        List<List<TimetableSlot>> instructorHits = new ArrayList<>(placements.size());
+        timetableIndex.readConsistent(() -> {
+            for (Placement placement : placements) {
+                roomHits.add(placement.valid()
+                    ? timetableIndex.roomConflicts(placement.roomId(), placement.dayIndex(),
+                        placement.startMin(), placement.endMin())
+                    : List.of());
+                instructorHits.add(placement.valid() && placement.instructorId() != null
+                    ? timetableIndex.instructorConflicts(placement.instructorId(), placement.dayIndex(),
+                        placement.startMin(), placement.endMin())
+                    : List.of());
+            }
+            return null;
+        });
+
+        Map<Integer, String> courseNames = new HashMap<>();
+        List<List<Map<String, Object>>> conflicts = new ArrayList<>(placements.size());
+        for (Placement placement : placements) {
+            List<Map<String, Object>> found = new ArrayList<>();
+            for (TimetableSlot slot : roomHits.get(placement.index())) {
+                found.add(committedConflict("Room conflict", "Room is already occupied by %s from %s to %s",
+                    slot, courseNames.computeIfAbsent(slot.courseId(), course -> CourseLookup.nameOf(courseDAO, course))));
+            }
+            for (TimetableSlot slot : instructorHits.get(placement.index())) {
+                found.add(committedConflict("Instructor conflict", "Instructor is already teaching %s from %s to %s",
+                    slot, courseNames.computeIfAbsent(slot.courseId(), course -> CourseLookup.nameOf(courseDAO, course))));
+            }
+            conflicts.add(found);
+        }
+        addCandidateConflicts(placements, Placement::roomId, "Room conflict",
+            "Room is also requested by placement %d from %s to %s", conflicts);
+        addCandidateConflicts(placements, Placement::instructorId, "Instructor conflict",
+            "Instructor is also teaching placement %d from %s to %s", conflicts);
+
+        List<Map<String, Object>> results = new ArrayList<>(placements.size());
+        for (Placement placement : placements) {
+            List<Map<String, Object>> found = conflicts.get(placement.index());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", placement.index());
+            if (!placement.valid()) {
+                result.put("hasConflict", true);
+                result.put("conflicts", List.of(Map.of("type", "Error", "message", placement.error())));
+            } else {
+                result.put("hasConflict", !found.isEmpty());
+                result.put("conflicts", found);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Placement decode(int index, Map<String, Object> candidate,
+                             Map<Integer, Optional<Integer>> instructorByCourse) {
+        Integer courseId = candidate.get("courseId") instanceof Number n ? n.intValue() : null;
+        Integer roomId = candidate.get("roomId") instanceof Number n ? n.intValue() : null;
+        Object day = candidate.get("day");
+        Object startTime = candidate.get("startTime");
+        Object endTime = candidate.get("endTime");
+        if (courseId == null || roomId == null || day == null || startTime == null || endTime == null) {
+            return new Placement(index, courseId, roomId, null, 0, 0, 0, "Missing required parameters");
+        }
+
+        int dayIndex = TimeCodec.dayIndex(day.toString());
+        int startMin = TimeCodec.toMinutes(startTime.toString().trim());
+        int endMin = TimeCodec.toMinutes(endTime.toString().trim());
+        if (dayIndex == TimeCodec.UNKNOWN || startMin == TimeCodec.UNKNOWN
+                || endMin == TimeCodec.UNKNOWN || endMin <= startMin) {
+            return new Placement(index, courseId, roomId, null, 0, 0, 0, "Invalid day or time range");
+        }
+
+        Integer instructorId = instructorByCourse
+            .computeIfAbsent(courseId, course -> CourseLookup.instructorOf(courseDAO, userDAO, course)).orElse(null);
+        return new Placement(index, courseId, roomId, instructorId, dayIndex, startMin, endMin, null);
+    }
+
+    private static Map<String, Object> committedConflict(String type, String message,
+                                                         TimetableSlot slot, String courseName) {
+        Map<String, Object> conflict = new LinkedHashMap<>();
+        conflict.put("type", type);
+        conflict.put("message", message.formatted(courseName, slot.startTime(), slot.endTime()));
+        conflict.put("entryId", slot.id());
+        return conflict;
+    }
+
+    /**
+     * Sweep the candidates that share an owner and day in start order; each pair
+     * that overlaps is reported on both sides.
+     */
+    private static void addCandidateConflicts(List<Placement> placements,
+                                              Function<Placement, Integer> owner,
+                                              String type, String message,
+                                              List<List<Map<String, Object>>> conflicts) {
+        Map<Long, List<Placement>> groups = new HashMap<>();
+        for (Placement placement : placements) {
+            Integer ownerId = placement.valid() ? owner.apply(placement) : null;
+            if (ownerId != null) {
+                groups.computeIfAbsent(((long) ownerId << 3) | placement.dayIndex(), k -> new ArrayList<>())
+                    .add(placement);
+            }
+        }
+
+        for (List<Placement> group : groups.values()) {
+            group.sort(Comparator.comparingInt(Placement::startMin));
+            for (int i = 0; i < group.size(); i++) {
+                Placement first = group.get(i);
+                for (int j = i + 1; j < group.size() && group.get(j).startMin() < first.endMin(); j++) {
+                    Placement second = group.get(j);
+                    conflicts.get(first.index()).add(candidateConflict(type, message, second));
+                    conflicts.get(second.index()).add(candidateConflict(type, message, first));
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> candidateConflict(String type, String message, Placement other) {
+        Map<String, Object> conflict = new LinkedHashMap<>();
+        conflict.put("type", type);
+        conflict.put("message", message.formatted(other.index(),
+            TimeCodec.formatMinutes(other.startMin()), TimeCodec.formatMinutes(other.endMin())));
+        conflict.put("placementIndex", other.index());
+        return conflict;
+    }
+}
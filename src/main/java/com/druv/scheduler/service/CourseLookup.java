@@ -0,0 +1,30 @@
+package com.druv.scheduler.service;
+
+import java.util.Optional;
+
+import com.druv.scheduler.Course;
+import com.druv.scheduler.CourseDAO;
+import com.druv.scheduler.UserDAOImpl;
+
+/**
+ * Course lookups shared by the services that check placements against the timetable.
+ */
+final class CourseLookup {
+
+    private CourseLookup() {
+    }
+
+    /**
+     * @return the user id of the course's faculty member, empty if the course or user is unknown
+     */
+    static Optional<Integer> instructorOf(CourseDAO courseDAO, UserDAOImpl userDAO, int courseId) {
+        return Optional.ofNullable(courseDAO.findById(courseId))
+            .map(Course::getFacultyUsername)
+            .flatMap(userDAO::findIdByUsername);
+    }
+
+    static String nameOf(CourseDAO courseDAO, int courseId) {
+        Course course = courseDAO.findById(courseId);
+        return course != null ? course.getCourseName() : "Unknown Course";
+    }
+}
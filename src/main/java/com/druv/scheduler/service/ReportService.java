@@ -1,7 +1,6 @@
 package com.druv.scheduler.service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -13,8 +12,10 @@ import org.springframework.stereotype.Service;
 
 import com.druv.scheduler.Course;
 import com.druv.scheduler.CourseDAO;
-import com.druv.scheduler.Room;
+import com.druv.scheduler.NamedRef;
 import com.druv.scheduler.RoomDAO;
+import com.druv.scheduler.TimeCodec;
+import com.druv.scheduler.TimeGrid;
 import com.druv.scheduler.TimetableDAO;
 import com.druv.scheduler.TimetableEntry;
 import com.druv.scheduler.UserDAO;
@@ -37,6 +38,9 @@ public class ReportService {
     @Autowired
     private UserDAO userDAO;
 
+    @Autowired
+    private TimeGrid timeGrid;
+
     /**
      * Generate comprehensive dashboard summary with metrics and analytics
      */
@@ -44,11 +48,9 @@ public class ReportService {
         Map<String, Object> summary = new HashMap<>();
         
         // Basic counts
-        summary.put("totalCourses", courseDAO.findAll().size());
-        summary.put("totalRooms", roomDAO.findAll().size());
-        summary.put("totalInstructors", userDAO.getAllUsers().stream()
-            .filter(user -> "FACULTY".equals(user.getRole()))
-            .count());
+        summary.put("totalCourses", courseDAO.getCourseCount());
+        summary.put("totalRooms", roomDAO.getRoomCount());
+        summary.put("totalInstructors", userDAO.countUsersByRole("FACULTY"));
         
         List<TimetableEntry> allEntries = timetableDAO.findAll();
         summary.put("totalScheduledSlots", allEntries.size());
@@ -67,22 +69,20 @@ public class ReportService {
      * Get count of classes per day of week
      */
     public Map<String, Integer> getDailyClassCounts(List<TimetableEntry> entries) {
-        Map<String, Integer> dailyCounts = new LinkedHashMap<>();
-        
-        // Initialize with all days
-        String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
-        for (String day : days) {
-            dailyCounts.put(day, 0);
-        }
-        
-        // Count entries by day
+        // Count by grid day position; day names and day orders both resolve to the same index
+        int[] counts = new int[timeGrid.dayCount()];
         for (TimetableEntry entry : entries) {
-            String day = entry.getDayOfWeek();
-            if (dailyCounts.containsKey(day)) {
-                dailyCounts.put(day, dailyCounts.get(day) + 1);
+            int position = timeGrid.dayPosition(TimeCodec.dayIndex(entry.getDayOfWeek()));
+            if (position >= 0) {
+                counts[position]++;
             }
         }
         
+        Map<String, Integer> dailyCounts = new LinkedHashMap<>();
+        List<String> days = timeGrid.dayNames();
+        for (int d = 0; d < counts.length; d++) {
+            dailyCounts.put(days.get(d), counts[d]);
+        }
         return dailyCounts;
     }
 
@@ -92,12 +92,12 @@ public class ReportService {
     public List<Map<String, Object>> getRoomUtilizationStats() {
         List<Map<String, Object>> roomStats = new ArrayList<>();
         
+        // One grouped count instead of loading every room's entries
+        Map<Integer, Integer> bookedByRoom = timetableDAO.countByRoom();
         roomDAO.findAll().forEach(room -> {
-            List<TimetableEntry> roomEntries = timetableDAO.getByRoom(room.getId());
-            
-            // Calculate utilization (assuming 5 days Ã— 8 hours = 40 possible slots per week)
-            int totalPossibleSlots = 40;
-            int bookedSlots = roomEntries.size();
+            // Utilization against every slot of the week's time grid
+            int totalPossibleSlots = timeGrid.slotCount();
+            int bookedSlots = bookedByRoom.getOrDefault(room.getId(), 0);
             double utilizationPercent = (bookedSlots * 100.0) / totalPossibleSlots;
             
             Map<String, Object> stat = new HashMap<>();
@@ -125,14 +125,13 @@ public class ReportService {
      */
     public List<Map<String, Object>> getInstructorWorkloadStats(List<TimetableEntry> entries) {
         Map<String, List<TimetableEntry>> instructorEntries = new HashMap<>();
+        Map<Integer, String> instructorNames = new HashMap<>();
         
         // Group entries by instructor
         for (TimetableEntry entry : entries) {
             if (entry.getInstructorId() != null) {
                 // Find instructor username
-                String instructorName = userDAO.getUserById(entry.getInstructorId())
-                    .map(user -> user.getUsername())
-                    .orElse("Unknown");
+                String instructorName = instructorName(instructorNames, entry.getInstructorId(), "Unknown");
                     
                 instructorEntries.computeIfAbsent(instructorName, k -> new ArrayList<>()).add(entry);
             }
@@ -169,13 +168,24 @@ public class ReportService {
      * Analyze time slot popularity
      */
     public Map<String, Integer> getTimeSlotPopularity(List<TimetableEntry> entries) {
+        // Tally by grid period; only entries that start off the grid are keyed by their own start time
+        int[] periodCounts = new int[timeGrid.periodCount()];
         Map<String, Integer> timeSlotCounts = new TreeMap<>();
-        
         for (TimetableEntry entry : entries) {
-            String timeSlot = entry.getStartTime();
-            timeSlotCounts.put(timeSlot, timeSlotCounts.getOrDefault(timeSlot, 0) + 1);
+            int period = timeGrid.periodAt(TimeCodec.toMinutes(entry.getStartTime()));
+            if (period >= 0) {
+                periodCounts[period]++;
+            } else if (entry.getStartTime() != null) {
+                timeSlotCounts.merge(entry.getStartTime(), 1, Integer::sum);
+            }
         }
         
+        List<String> startTimes = timeGrid.periodStartTimes();
+        for (int p = 0; p < periodCounts.length; p++) {
+            if (periodCounts[p] > 0) {
+                timeSlotCounts.merge(startTimes.get(p), periodCounts[p], Integer::sum);
+            }
+        }
         return timeSlotCounts;
     }
 
@@ -214,7 +224,7 @@ public class ReportService {
         
         // Overall schedule density
         int totalSlots = entries.size();
-        int maxPossibleSlots = roomDAO.findAll().size() * 5 * 8; // rooms Ã— days Ã— hours
+        int maxPossibleSlots = (int) roomDAO.getRoomCount() * timeGrid.slotCount(); // rooms x grid slots
         double scheduleDensity = maxPossibleSlots > 0 ? (totalSlots * 100.0) / maxPossibleSlots : 0;
         overview.put("overallScheduleDensity", Math.round(scheduleDensity * 100.0) / 100.0);
         
@@ -228,34 +238,35 @@ public class ReportService {
         Map<String, Object> gridData = new HashMap<>();
         
         List<TimetableEntry> allEntries = timetableDAO.findAll();
+        Map<Integer, Course> courses = coursesById();
+        Map<Integer, String> roomNames = roomNamesById();
+        Map<Integer, String> instructorNames = new HashMap<>();
         
         // Group entries by day and time for easy frontend consumption
         Map<String, Map<String, List<Map<String, Object>>>> dayTimeGrid = new HashMap<>();
         
-        String[] days = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+        List<String> days = timeGrid.dayNames();
         for (String day : days) {
             dayTimeGrid.put(day, new HashMap<>());
         }
         
         for (TimetableEntry entry : allEntries) {
-            String day = entry.getDayOfWeek();
+            int position = timeGrid.dayPosition(TimeCodec.dayIndex(entry.getDayOfWeek()));
             String startTime = entry.getStartTime();
             
-            if (dayTimeGrid.containsKey(day)) {
+            if (position >= 0) {
+                String day = days.get(position);
                 Map<String, Object> entryData = new HashMap<>();
                 entryData.put("id", entry.getId());
-                Course course = courseDAO.findById(entry.getCourseId());
+                Course course = courses.get(entry.getCourseId());
                 entryData.put("courseCode", course != null ? course.getCourseCode() : "Unknown");
                 entryData.put("courseName", course != null ? course.getCourseName() : "Unknown Course");
                 
-                Room room = roomDAO.findById(entry.getRoomId());
-                entryData.put("roomName", room != null ? room.getName() : "Unknown Room");
+                entryData.put("roomName", roomNames.getOrDefault(entry.getRoomId(), "Unknown Room"));
                 entryData.put("startTime", entry.getStartTime());
                 entryData.put("endTime", entry.getEndTime());
                 entryData.put("instructorName", entry.getInstructorId() != null ?
-                    userDAO.getUserById(entry.getInstructorId())
-                        .map(user -> user.getUsername())
-                        .orElse("TBD") : "TBD");
+                    instructorName(instructorNames, entry.getInstructorId(), "TBD") : "TBD");
                 
                 dayTimeGrid.get(day)
                     .computeIfAbsent(startTime, k -> new ArrayList<>())
@@ -264,22 +275,12 @@ public class ReportService {
         }
         
         gridData.put("schedule", dayTimeGrid);
-        gridData.put("timeSlots", getAvailableTimeSlots());
-        gridData.put("days", Arrays.asList(days));
+        gridData.put("timeSlots", timeGrid.periodStartTimes());
+        gridData.put("days", days);
         
         return gridData;
     }
 
-    /**
-     * Get available time slots for the grid
-     */
-    private List<String> getAvailableTimeSlots() {
-        return Arrays.asList(
-            "08:00", "09:00", "10:00", "11:00", "12:00", 
-            "13:00", "14:00", "15:00", "16:00", "17:00"
-        );
-    }
-
     /**
      * Generate CSV export data
      */
@@ -287,6 +288,9 @@ public class ReportService {
         List<Map<String, Object>> csvData = new ArrayList<>();
         
         List<TimetableEntry> allEntries = timetableDAO.findAll();
+        Map<Integer, Course> courses = coursesById();
+        Map<Integer, String> roomNames = roomNamesById();
+        Map<Integer, String> instructorNames = new HashMap<>();
         
         for (TimetableEntry entry : allEntries) {
             Map<String, Object> row = new HashMap<>();
@@ -294,19 +298,40 @@ public class ReportService {
             row.put("Start Time", entry.getStartTime());
             row.put("End Time", entry.getEndTime());
             
-            Course course = courseDAO.findById(entry.getCourseId());
+            Course course = courses.get(entry.getCourseId());
             row.put("Course Code", course != null ? course.getCourseCode() : "Unknown");
             row.put("Course Name", course != null ? course.getCourseName() : "Unknown");
             
-            Room room = roomDAO.findById(entry.getRoomId());
-            row.put("Room", room != null ? room.getName() : "Unknown");
+            row.put("Room", roomNames.getOrDefault(entry.getRoomId(), "Unknown"));
             row.put("Instructor", entry.getInstructorId() != null ?
-                userDAO.getUserById(entry.getInstructorId())
-                    .map(user -> user.getUsername()).orElse("TBD") : "TBD");
+                instructorName(instructorNames, entry.getInstructorId(), "TBD") : "TBD");
             
             csvData.add(row);
         }
         
         return csvData;
     }
+
+    // Lookups for the report loops: one query per table instead of one per entry
+
+    private Map<Integer, Course> coursesById() {
+        Map<Integer, Course> courses = new HashMap<>();
+        for (Course course : courseDAO.findAll()) {
+            courses.put(course.getId(), course);
+        }
+        return courses;
+    }
+
+    private Map<Integer, String> roomNamesById() {
+        Map<Integer, String> names = new HashMap<>();
+        for (NamedRef room : roomDAO.findAllNames()) {
+            names.put(room.id(), room.name());
+        }
+        return names;
+    }
+
+    // Username only; the password hash is never read for a report
+    private String instructorName(Map<Integer, String> seen, int instructorId, String fallback) {
+        return seen.computeIfAbsent(instructorId, id -> userDAO.findUsernameById(id).orElse(fallback));
+    }
 }
@@ -0,0 +1,118 @@
+package com.druv.scheduler.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.druv.scheduler.engine.SolverMonitor;
+
+/**
+ * One background schedule generation: its parameters, where it is in its
+ * lifecycle, live progress from the solver and, once finished, the report
+ * the synchronous endpoint would have returned.
+ */
+public final class ScheduleJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Map<String, Object> parameters;
+    private final SolverMonitor monitor = new SolverMonitor();
+    private final Instant submittedAt = Instant.now();
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Status status = Status.QUEUED;
+    private Map<String, Object> report;
+    private String error;
+
+    ScheduleJob(Map<String, Object> parameters) {
+        this.parameters = Map.copyOf(parameters);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public SolverMonitor getMonitor() {
+        return monitor;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return the report of a successful job, null otherwise
+     */
+    public synchronized Map<String, Object> getReport() {
+        return report;
+    }
+
+    /**
+     * @return false if the job was cancelled while it waited in the queue
+     */
+    synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void finish(Status status, Map<String, Object> report, String error) {
+        this.status = status;
+        this.report = report;
+        this.error = error;
+        this.finishedAt = Instant.now();
+    }
+
+    /**
+     * Ask the job to stop. A queued job is cancelled at once; a running one
+     * stops at the solver's next progress check, unless it is already saving.
+     * @return false if the job had already finished
+     */
+    synchronized boolean cancel() {
+        if (status.isFinished()) {
+            return false;
+        }
+        monitor.cancel();
+        if (status == Status.QUEUED) {
+            finish(Status.CANCELLED, null, "Cancelled before it started");
+        }
+        return true;
+    }
+
+    public synchronized Map<String, Object> toMap(boolean includeReport) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", id);
+        map.put("status", status.name());
+        map.put("parameters", parameters);
+        map.put("submittedAt", submittedAt.toString());
+        map.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        map.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        map.put("progress", monitor.snapshot());
+        if (error != null) {
+            map.put("error", error);
+        }
+        if (includeReport && report != null) {
+            map.put("report", report);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,203 @@
+package com.druv.scheduler.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.druv.scheduler.engine.SchedulerEngine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs schedule generation off the request thread.
+ *
+ * Jobs run on schedule.jobs.workers threads (default 1; SchedulerEngine runs
+ * generations one at a time anyway, so each sees the entries the previous one
+ * saved) behind a queue of
+ * schedule.jobs.queueCapacity (default 16); submitting to a full queue throws
+ * RejectedExecutionException. The last schedule.jobs.retained finished jobs
+ * (default 50) are kept for polling.
+ */
+@Service
+public class ScheduleJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleJobService.class);
+
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    @Autowired
+    private SchedulerEngine schedulerEngine;
+
+    private final Map<String, ScheduleJob> jobs = new ConcurrentHashMap<>();
+    private final int retained;
+    private final long progressMillis;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService ticker =
+        Executors.newSingleThreadScheduledExecutor(daemonThreads("schedule-job-progress"));
+
+    public ScheduleJobService() {
+        this(null, Integer.getInteger("schedule.jobs.workers", 1),
+            Integer.getInteger("schedule.jobs.queueCapacity", 16),
+            Integer.getInteger("schedule.jobs.retained", 50),
+            Long.getLong("schedule.jobs.progressMillis", 500));
+    }
+
+    // Sizes passed in directly, for tests
+    ScheduleJobService(SchedulerEngine schedulerEngine, int workers, int queueCapacity, int retained,
+                       long progressMillis) {
+        this.schedulerEngine = schedulerEngine;
+        this.retained = Math.max(1, retained);
+        this.progressMillis = Math.max(50, progressMillis);
+        int threads = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemonThreads("schedule-job"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(ScheduleJob::cancel);
+        executor.shutdownNow();
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Queue a generation with the same meaning as the synchronous endpoint,
+     * followed by up to optimizeMillis of optimization when positive.
+     */
+    public ScheduleJob submitGeneration(int sessionsPerCourse, long optimizeMillis, boolean replan) {
+        evictFinished();
+        ScheduleJob job = new ScheduleJob(Map.of("sessionsPerCourse", sessionsPerCourse,
+            "optimizeMillis", optimizeMillis, "replan", replan));
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, sessionsPerCourse, optimizeMillis, replan));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ScheduleJob job, int sessionsPerCourse, long optimizeMillis, boolean replan) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            Map<String, Object> report = schedulerEngine.generate(sessionsPerCourse, optimizeMillis, replan,
+                job.getMonitor());
+            job.finish(ScheduleJob.Status.SUCCEEDED, report, null);
+        } catch (CancellationException e) {
+            job.finish(ScheduleJob.Status.CANCELLED, null, e.getMessage());
+        } catch (Throwable e) {
+            // Errors too (an OutOfMemoryError on a large run), or the job would stay RUNNING forever
+            logger.error("Schedule job {} failed", job.getId(), e);
+            job.finish(ScheduleJob.Status.FAILED, null, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+        logger.info("Schedule job {} finished: {}", job.getId(), job.getStatus());
+    }
+
+    public Optional<ScheduleJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Every retained job, newest first.
+     */
+    public List<Map<String, Object>> list() {
+        List<ScheduleJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(ScheduleJob::getSubmittedAt).reversed());
+        return all.stream().map(job -> job.toMap(false)).toList();
+    }
+
+    /**
+     * @return false if the job had already finished
+     */
+    public boolean cancel(ScheduleJob job) {
+        return job.cancel();
+    }
+
+    /**
+     * Server-sent events for one job: a "progress" event every
+     * schedule.jobs.progressMillis (default 500) while it runs, then a "done"
+     * event carrying the final status and report, after which the stream closes.
+     */
+    public SseEmitter stream(ScheduleJob job) {
+        return stream(job, new SseEmitter(STREAM_TIMEOUT_MILLIS));
+    }
+
+    SseEmitter stream(ScheduleJob job, SseEmitter emitter) {
+        AtomicReference<ScheduledFuture<?>> ticks = new AtomicReference<>();
+        Runnable stop = () -> {
+            ScheduledFuture<?> scheduled = ticks.get();
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        };
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(error -> stop.run());
+
+        ticks.set(ticker.scheduleAtFixedRate(() -> {
+            try {
+                if (job.getStatus().isFinished()) {
+                    emitter.send(SseEmitter.event().name("done").data(job.toMap(true), MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                    stop.run();
+                } else {
+                    emitter.send(SseEmitter.event().name("progress").data(job.toMap(false), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already closed
+                stop.run();
+            }
+        }, 0, progressMillis, TimeUnit.MILLISECONDS));
+        return emitter;
+    }
+
+    // Drop the oldest finished jobs beyond the retention limit
+    private void evictFinished() {
+        List<ScheduleJob> finished = new ArrayList<>();
+        for (ScheduleJob job : jobs.values()) {
+            if (job.getStatus().isFinished()) {
+                finished.add(job);
+            }
+        }
+        if (finished.size() < retained) {
+            return;
+        }
+        finished.sort(Comparator.comparing(ScheduleJob::getFinishedAt));
+        for (int i = 0; i <= finished.size() - retained; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,404 @@
+package com.druv.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.druv.scheduler.Course;
+import com.druv.scheduler.CourseDAO;
+import com.druv.scheduler.Room;
+import com.druv.scheduler.RoomDAO;
+import com.druv.scheduler.TimeCodec;
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableIndex;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.TimetableSnapshot;
+import com.druv.scheduler.UserDAOImpl;
+
+/**
+ * Previews a set of timetable changes without saving them. The changes are
+ * applied to a copy-on-write snapshot of the in-memory timetable, and the
+ * result is compared with the untouched snapshot: conflicts gained and lost,
+ * room utilization and instructor load for everything the changes touch.
+ *
+ * Only the touched entries, rooms and instructors are examined, so the cost
+ * depends on the size of the change set rather than of the timetable.
+ */
+@Service
+public class WhatIfService {
+
+    public static final int MAX_CHANGES = Integer.getInteger("api.simulate.maxChanges", 1000);
+
+    @Autowired
+    private TimetableIndex timetableIndex;
+
+    @Autowired
+    private CourseDAO courseDAO;
+
+    @Autowired
+    private RoomDAO roomDAO;
+
+    @Autowired
+    private UserDAOImpl userDAO;
+
+    @Autowired
+    private TimeGrid timeGrid;
+
+    /**
+     * One clashing pair of entries, smaller id first so each pair is counted once.
+     */
+    private record Conflict(String type, int first, int second) {
+
+        static Conflict of(String type, int a, int b) {
+            return new Conflict(type, Math.min(a, b), Math.max(a, b));
+        }
+    }
+
+    /**
+     * @param changes maps with an action of "move" (entryId plus any of roomId,
+     *                day, startTime, endTime; a new startTime alone keeps the
+     *                duration), "add" (courseId, roomId, day, startTime,
+     *                endTime) or "delete" (entryId), applied in order
+     * @return the diff between the current timetable and the proposed one
+     */
+    public Map<String, Object> simulate(List<Map<String, Object>> changes) {
+        if (changes.size() > MAX_CHANGES) {
+            throw new IllegalArgumentException("At most " + MAX_CHANGES + " changes per simulation");
+        }
+        long started = System.nanoTime();
+
+        TimetableSnapshot before = timetableIndex.snapshot();
+        TimetableSnapshot after = before.fork();
+        Set<Integer> touched = new LinkedHashSet<>();
+        Map<Integer, Optional<Integer>> instructorByCourse = new HashMap<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            String error = apply(changes.get(i), after, touched, instructorByCourse);
+            if (error != null) {
+                errors.add(Map.of("index", i, "error", error));
+            }
+        }
+
+        Set<Conflict> conflictsBefore = conflictsOf(before, touched);
+        Set<Conflict> conflictsAfter = conflictsOf(after, touched);
+        List<Map<String, Object>> newConflicts = new ArrayList<>();
+        for (Conflict conflict : conflictsAfter) {
+            if (!conflictsBefore.contains(conflict)) {
+                newConflicts.add(describe(conflict, after));
+            }
+        }
+        List<Map<String, Object>> resolvedConflicts = new ArrayList<>();
+        for (Conflict conflict : conflictsBefore) {
+            if (!conflictsAfter.contains(conflict)) {
+                resolvedConflicts.add(describe(conflict, before));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("applied", changes.size() - errors.size());
+        result.put("errors", errors);
+        result.put("entriesBefore", before.size());
+        result.put("entriesAfter", after.size());
+        result.put("changedEntries", changedEntries(before, after, touched));
+        result.put("newConflicts", newConflicts);
+        result.put("resolvedConflicts", resolvedConflicts);
+        result.put("capacityWarnings", capacityWarnings(after, touched));
+        result.put("roomUtilization", roomUtilization(before, after, touched));
+        result.put("instructorLoad", instructorLoad(before, after, touched));
+        result.put("dailyClassCountsChange", dailyCountsChange(before, after, touched));
+        result.put("millis", (System.nanoTime() - started) / 1_000_000.0);
+        return result;
+    }
+
+    // Apply one change to the snapshot; returns an error message instead of throwing
+    private String apply(Map<String, Object> change, TimetableSnapshot snapshot, Set<Integer> touched,
+                         Map<Integer, Optional<Integer>> instructorByCourse) {
+        String action = change.get("action") != null ? change.get("action").toString().trim().toLowerCase() : "";
+        switch (action) {
+            case "delete": {
+                Integer id = intOf(change.get("entryId"));
+                if (id == null) {
+                    return "Missing entryId";
+                }
+                if (snapshot.remove(id) == null) {
+                    return "Entry " + id + " not found";
+                }
+                touched.add(id);
+                return null;
+            }
+            case "move": {
+                Integer id = intOf(change.get("entryId"));
+                if (id == null) {
+                    return "Missing entryId";
+                }
+                TimetableSlot current = snapshot.get(id);
+                if (current == null) {
+                    return "Entry " + id + " not found";
+                }
+                Integer roomId = intOf(change.get("roomId"));
+                if (roomId != null && roomId != current.roomId() && roomDAO.findById(roomId) == null) {
+                    return "Room " + roomId + " not found";
+                }
+                int dayIndex = change.get("day") != null
+                    ? TimeCodec.dayIndex(change.get("day").toString()) : current.dayIndex();
+                int startMin = change.get("startTime") != null
+                    ? TimeCodec.toMinutes(change.get("startTime").toString().trim()) : current.startMin();
+                int endMin = change.get("endTime") != null
+                    ? TimeCodec.toMinutes(change.get("endTime").toString().trim())
+                    : startMin == TimeCodec.UNKNOWN ? TimeCodec.UNKNOWN
+                    : startMin + (current.endMin() - current.startMin());
+                if (!validRange(dayIndex, startMin, endMin)) {
+                    return "Invalid day or time range";
+                }
+                snapshot.put(new TimetableSlot(id, current.courseId(), roomId != null ? roomId : current.roomId(),
+                    current.instructorId(), dayIndex, startMin, endMin));
+                touched.add(id);
+                return null;
+            }
+            case "add": {
+                Integer courseId = intOf(change.get("courseId"));
+                Integer roomId = intOf(change.get("roomId"));
+                if (courseId == null || roomId == null || change.get("day") == null
+                        || change.get("startTime") == null || change.get("endTime") == null) {
+                    return "Missing required parameters";
+                }
+                if (courseDAO.findById(courseId) == null) {
+                    return "Course " + courseId + " not found";
+                }
+                if (roomDAO.findById(roomId) == null) {
+                    return "Room " + roomId + " not found";
+                }
+                int dayIndex = TimeCodec.dayIndex(change.get("day").toString());
+                int startMin = TimeCodec.toMinutes(change.get("startTime").toString().trim());
+                int endMin = TimeCodec.toMinutes(change.get("endTime").toString().trim());
+                if (!validRange(dayIndex, startMin, endMin)) {
+                    return "Invalid day or time range";
+                }
+                Integer instructorId = instructorByCourse
+                    .computeIfAbsent(courseId, course -> CourseLookup.instructorOf(courseDAO, userDAO, course))
+                    .orElse(null);
+                int id = snapshot.nextProposedId();
+                snapshot.put(new TimetableSlot(id, courseId, roomId, instructorId, dayIndex, startMin, endMin));
+                touched.add(id);
+                return null;
+            }
+            default:
+                return "Unknown action \"" + action + "\"; expected move, add or delete";
+        }
+    }
+
+    private static boolean validRange(int dayIndex, int startMin, int endMin) {
+        return dayIndex != TimeCodec.UNKNOWN && startMin != TimeCodec.UNKNOWN
+            && endMin != TimeCodec.UNKNOWN && endMin > startMin;
+    }
+
+    private static Integer intOf(Object value) {
+        return value instanceof Number n ? n.intValue() : null;
+    }
+
+    // Conflicts between untouched entries cannot change, so only the touched ones are checked
+    private static Set<Conflict> conflictsOf(TimetableSnapshot snapshot, Set<Integer> touched) {
+        Set<Conflict> conflicts = new LinkedHashSet<>();
+        for (int id : touched) {
+            TimetableSlot slot = snapshot.get(id);
+            if (slot == null) {
+                continue;
+            }
+            for (TimetableSlot other : snapshot.roomConflicts(slot.roomId(), slot.dayIndex(),
+                    slot.startMin(), slot.endMin())) {
+                if (other.id() != id) {
+                    conflicts.add(Conflict.of("Room conflict", id, other.id()));
+                }
+            }
+            if (slot.instructorId() != null) {
+                for (TimetableSlot other : snapshot.instructorConflicts(slot.instructorId(), slot.dayIndex(),
+                        slot.startMin(), slot.endMin())) {
+                    if (other.id() != id) {
+                        conflicts.add(Conflict.of("Instructor conflict", id, other.id()));
+                    }
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private Map<String, Object> describe(Conflict conflict, TimetableSnapshot snapshot) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("type", conflict.type());
+        map.put("entries", List.of(describe(snapshot.get(conflict.first())),
+            describe(snapshot.get(conflict.second()))));
+        return map;
+    }
+
+    private Map<String, Object> describe(TimetableSlot slot) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("entryId", slot.id());
+        map.put("proposed", slot.id() < 0);
+        map.put("courseId", slot.courseId());
+        map.put("courseName", CourseLookup.nameOf(courseDAO, slot.courseId()));
+        map.put("roomId", slot.roomId());
+        map.put("day", TimeCodec.dayName(slot.dayIndex()));
+        map.put("startTime", slot.startTime());
+        map.put("endTime", slot.endTime());
+        return map;
+    }
+
+    private List<Map<String, Object>> changedEntries(TimetableSnapshot before, TimetableSnapshot after,
+                                                     Set<Integer> touched) {
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (int id : touched) {
+            TimetableSlot was = before.get(id);
+            TimetableSlot now = after.get(id);
+            if (was == null && now == null) {
+                // Added and then deleted again within the same change set
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("entryId", id);
+            entry.put("change", was == null ? "added" : now == null ? "deleted" : "moved");
+            entry.put("before", was != null ? describe(was) : null);
+            entry.put("after", now != null ? describe(now) : null);
+            changed.add(entry);
+        }
+        return changed;
+    }
+
+    private List<Map<String, Object>> capacityWarnings(TimetableSnapshot after, Set<Integer> touched) {
+        List<Map<String, Object>> warnings = new ArrayList<>();
+        for (int id : touched) {
+            TimetableSlot slot = after.get(id);
+            if (slot == null) {
+                continue;
+            }
+            Course course = courseDAO.findById(slot.courseId());
+            Room room = roomDAO.findById(slot.roomId());
+            if (course != null && room != null && room.getCapacity() < course.getMaxStudents()) {
+                Map<String, Object> warning = new LinkedHashMap<>();
+                warning.put("entryId", id);
+                warning.put("message", "Room %s holds %d but %s allows %d students".formatted(
+                    room.getName(), room.getCapacity(), course.getCourseName(), course.getMaxStudents()));
+                warnings.add(warning);
+            }
+        }
+        return warnings;
+    }
+
+    private List<Map<String, Object>> roomUtilization(TimetableSnapshot before, TimetableSnapshot after,
+                                                      Set<Integer> touched) {
+        Set<Integer> roomIds = new TreeSet<>();
+        forEachSide(before, after, touched, slot -> {
+            if (slot.roomId() > 0) {
+                roomIds.add(slot.roomId());
+            }
+        });
+
+        List<Map<String, Object>> rooms = new ArrayList<>();
+        for (int roomId : roomIds) {
+            int bookedBefore = 0;
+            int bookedAfter = 0;
+            for (int day = 1; day <= 7; day++) {
+                bookedBefore += before.roomLoad(roomId, day);
+                bookedAfter += after.roomLoad(roomId, day);
+            }
+            Room room = roomDAO.findById(roomId);
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("roomId", roomId);
+            stat.put("roomName", room != null ? room.getName() : "Unknown Room");
+            stat.put("bookedSlotsBefore", bookedBefore);
+            stat.put("bookedSlotsAfter", bookedAfter);
+            stat.put("utilizationPercentBefore", percent(bookedBefore));
+            stat.put("utilizationPercentAfter", percent(bookedAfter));
+            rooms.add(stat);
+        }
+        return rooms;
+    }
+
+    // Against the grid's slots per week, as ReportService measures utilization
+    private double percent(int bookedSlots) {
+        return Math.round(bookedSlots * 100.0 / timeGrid.slotCount() * 100.0) / 100.0;
+    }
+
+    private List<Map<String, Object>> instructorLoad(TimetableSnapshot before, TimetableSnapshot after,
+                                                     Set<Integer> touched) {
+        Set<Integer> instructorIds = new TreeSet<>();
+        forEachSide(before, after, touched, slot -> {
+            if (slot.instructorId() != null) {
+                instructorIds.add(slot.instructorId());
+            }
+        });
+
+        List<Map<String, Object>> instructors = new ArrayList<>();
+        for (int instructorId : instructorIds) {
+            Map<String, Integer> byDayBefore = new LinkedHashMap<>();
+            Map<String, Integer> byDayAfter = new LinkedHashMap<>();
+            int totalBefore = 0;
+            int totalAfter = 0;
+            for (int day = 1; day <= 7; day++) {
+                int was = before.instructorLoad(instructorId, day);
+                int now = after.instructorLoad(instructorId, day);
+                if (was > 0 || now > 0) {
+                    byDayBefore.put(TimeCodec.dayName(day), was);
+                    byDayAfter.put(TimeCodec.dayName(day), now);
+                }
+                totalBefore += was;
+                totalAfter += now;
+            }
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("instructorId", instructorId);
+            stat.put("instructorName", userDAO.findUsernameById(instructorId).orElse("Unknown"));
+            stat.put("classesBefore", totalBefore);
+            stat.put("classesAfter", totalAfter);
+            stat.put("classesPerDayBefore", byDayBefore);
+            stat.put("classesPerDayAfter", byDayAfter);
+            instructors.add(stat);
+        }
+        return instructors;
+    }
+
+    private static Map<String, Integer> dailyCountsChange(TimetableSnapshot before, TimetableSnapshot after,
+                                                          Set<Integer> touched) {
+        Map<Integer, Integer> delta = new TreeMap<>();
+        for (int id : touched) {
+            TimetableSlot was = before.get(id);
+            TimetableSlot now = after.get(id);
+            if (was != null) {
+                delta.merge(was.dayIndex(), -1, Integer::sum);
+            }
+            if (now != null) {
+                delta.merge(now.dayIndex(), 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> byName = new LinkedHashMap<>();
+        delta.forEach((day, change) -> {
+            if (change != 0) {
+                byName.put(TimeCodec.dayName(day), change);
+            }
+        });
+        return byName;
+    }
+
+    private static void forEachSide(TimetableSnapshot before, TimetableSnapshot after, Set<Integer> touched,
+                                    Consumer<TimetableSlot> action) {
+        for (int id : touched) {
+            TimetableSlot was = before.get(id);
+            TimetableSlot now = after.get(id);
+            if (was != null) {
+                action.accept(was);
+            }
+            if (now != null) {
+                action.accept(now);
+            }
+        }
+    }
+}
@@ -88,12 +88,15 @@ public class MockFrontend extends JFrame {
                 return;
             }
             final String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-            try (Connection conn = Database.connect();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setString(1, username);
-                ps.setString(2, password);
-                ps.setString(3, role);
-                ps.executeUpdate();
+            try {
+                Database.write(conn -> {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setString(1, username);
+                        ps.setString(2, password);
+                        ps.setString(3, role);
+                        return ps.executeUpdate();
+                    }
+                });
                 usernameField.setText("");
                 passwordField.setText("");
                 reloadUsers();
@@ -125,11 +128,14 @@ public class MockFrontend extends JFrame {
                 return;
             }
             final String sql = "INSERT INTO rooms (room_name, capacity) VALUES (?, ?)";
-            try (Connection conn = Database.connect();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setString(1, name);
-                ps.setInt(2, capacity);
-                ps.executeUpdate();
+            try {
+                Database.write(conn -> {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setString(1, name);
+                        ps.setInt(2, capacity);
+                        return ps.executeUpdate();
+                    }
+                });
                 nameField.setText("");
                 reloadRooms();
             } catch (SQLException ex) {
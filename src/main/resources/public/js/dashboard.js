@@ -208,7 +208,8 @@ class DashboardManager {
         if (!ctx) return;
 
         const dailyData = this.analyticsData.dailyClassCounts || {};
-        const days = ['Monday', 'Tuesday', 'Wednesday', 'Thursday', 'Friday'];
+        // The report lists the time grid's days in order
+        const days = Object.keys(dailyData);
         
         this.charts.dailyClasses = new Chart(ctx, {
             type: 'line',
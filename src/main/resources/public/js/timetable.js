@@ -4,19 +4,16 @@ class TimetableManager {
         this.currentWeekOffset = 0;
         this.sessionInfo = null;
         this.timetableData = [];
-        // Use 24-hour format to match database
-        this.timeSlots = [
-            '08:00–08:50', '08:50–09:40', '09:45–10:35', '10:40–11:30',
-            '11:35–12:25', '12:30–13:20', '13:25–14:15', '14:20–15:10',
-            '15:10–16:00', '16:00–16:50', '16:50–17:30', '17:30–18:10'
-        ];
-        this.days = ['1', '2', '3', '4', '5']; // Day orders
+        // Days and periods come from the server's time grid (/api/grid)
+        this.days = [];
+        this.periods = [];
         this.init();
     }
 
     async init() {
         try {
-            // Load timetable data from API
+            // Load the time grid and timetable data from the API
+            await this.loadGrid();
             await this.loadTimetableData();
             
             // Setup event listeners
@@ -32,23 +29,111 @@ class TimetableManager {
     }
 
     // Data Loading
-    async loadTimetableData() {
+    async loadGrid() {
         try {
-            console.log('Fetching timetable data from /api/timetable...');
-            const response = await fetch('/api/timetable', {
-                method: 'GET',
-                credentials: 'include'
+            const response = await fetch('/api/grid', { credentials: 'include' });
+            if (!response.ok) {
+                console.warn('Failed to load time grid, status:', response.status);
+                return;
+            }
+            const grid = await response.json();
+            this.days = grid.days || [];
+            this.periods = grid.periods || [];
+            this.populateFormOptions();
+        } catch (error) {
+            console.error('Failed to load time grid:', error);
+        }
+    }
+
+    // Fill the add-entry form's day and time selects from the grid
+    populateFormOptions() {
+        const daySelect = document.getElementById('entryDay');
+        if (daySelect) {
+            daySelect.querySelectorAll('option:not([value=""])').forEach(option => option.remove());
+            this.days.forEach(day => {
+                daySelect.add(new Option(`Day Order-${day.dayIndex}`, String(day.dayIndex)));
+            });
+        }
+        const slotSelect = document.getElementById('entryTimeSlot');
+        if (slotSelect) {
+            slotSelect.querySelectorAll('option:not([value=""])').forEach(option => option.remove());
+            this.periods.forEach(period => {
+                const label = this.periodLabel(period);
+                slotSelect.add(new Option(label, label));
             });
+        }
+    }
+
+    periodLabel(period) {
+        return `${period.startTime}–${period.endTime}`;
+    }
+
+    // Day index (1-7) of an entry's day, stored either as a day order or a weekday name
+    dayIndexOf(value) {
+        const day = String(value || '').trim();
+        if (/^[1-7]$/.test(day)) {
+            return Number(day);
+        }
+        const names = ['monday', 'tuesday', 'wednesday', 'thursday', 'friday', 'saturday', 'sunday'];
+        const index = day.length >= 3 ? names.findIndex(name => name.startsWith(day.toLowerCase())) : -1;
+        return index >= 0 ? index + 1 : -1;
+    }
+
+    minutesOf(time) {
+        const match = /^(\d{1,2}):(\d{2})/.exec(String(time || '').trim());
+        return match ? Number(match[1]) * 60 + Number(match[2]) : -1;
+    }
 
-            if (response.ok) {
-                const data = await response.json();
-                this.timetableData = data || [];
-                console.log(`✅ Loaded ${this.timetableData.length} timetable entries`);
-                console.log('Sample entry:', this.timetableData[0]);
-            } else {
-                console.warn('Failed to load timetable data, status:', response.status);
-                this.timetableData = [];
+    // Period whose [start, end) holds the minute, or -1
+    periodAt(minute) {
+        return this.periods.findIndex(period => period.startMinute <= minute && minute < period.endMinute);
+    }
+
+    // Group entries by "dayIndex:period" once, instead of filtering every entry for every cell
+    indexEntries() {
+        const cells = new Map();
+        this.timetableData.forEach(entry => {
+            const period = this.periodAt(this.minutesOf(entry.startTime));
+            if (period < 0) {
+                return;
+            }
+            const key = `${this.dayIndexOf(entry.dayOfWeek)}:${period}`;
+            if (!cells.has(key)) {
+                cells.set(key, []);
             }
+            cells.get(key).push(entry);
+        });
+        return cells;
+    }
+
+    async loadTimetableData() {
+        try {
+            console.log('Fetching timetable data from /api/timetable...');
+            // The API is paginated; follow X-Next-Cursor until the week is loaded
+            const entries = [];
+            let cursor = null;
+            do {
+                const params = new URLSearchParams({ sort: 'time', limit: '1000' });
+                if (cursor) {
+                    params.set('cursor', cursor);
+                }
+                const response = await fetch(`/api/timetable?${params}`, {
+                    method: 'GET',
+                    credentials: 'include'
+                });
+
+                if (!response.ok) {
+                    console.warn('Failed to load timetable data, status:', response.status);
+                    break;
+                }
+                const page = await response.json();
+                entries.push(...(page || []));
+                cursor = response.headers.get('X-Next-Cursor');
+            } while (cursor);
+
+            this.timetableData = entries;
+            console.log(`✅ Loaded ${this.timetableData.length} timetable entries`);
+            console.log('Sample entry:', this.timetableData[0]);
         } catch (error) {
             console.error('Failed to load timetable data:', error);
             this.timetableData = [];
@@ -82,9 +167,12 @@ class TimetableManager {
 
         // Clear existing content
         tbody.innerHTML = '';
+        this.renderHeader();
+        const cells = this.indexEntries();
 
         // Create time slot rows
-        this.timeSlots.forEach(timeSlot => {
+        this.periods.forEach((period, periodIndex) => {
+            const timeSlot = this.periodLabel(period);
             const row = document.createElement('tr');
             
             // Time column
@@ -93,14 +181,13 @@ class TimetableManager {
             timeCell.textContent = timeSlot;
             row.appendChild(timeCell);
 
-            // Day columns (DAY ORDER-1 through DAY ORDER-5)
-            this.days.forEach(dayOrder => {
+            // One column per grid day
+            this.days.forEach(day => {
                 const dayCell = document.createElement('td');
-                dayCell.setAttribute('data-day', dayOrder);
+                dayCell.setAttribute('data-day', day.dayIndex);
                 dayCell.setAttribute('data-time', timeSlot);
 
-                // Find entries for this day and time
-                const entries = this.getEntriesForSlot(dayOrder, timeSlot);
+                const entries = cells.get(`${day.dayIndex}:${periodIndex}`) || [];
                 
                 if (entries.length > 0) {
                     // Display entries
@@ -125,23 +212,17 @@ class TimetableManager {
         this.updateWeekDisplay();
     }
 
-    // Get entries for specific day and time slot
-    getEntriesForSlot(dayOrder, timeSlot) {
-        if (!this.timetableData || this.timetableData.length === 0) {
-            return [];
+    renderHeader() {
+        const headerRow = document.querySelector('#weeklyTimetable thead tr');
+        if (!headerRow) {
+            return;
         }
-
-        // Parse the time slot (e.g., "08:00–08:50") - handle both – and -
-        const [startTime, endTime] = timeSlot.split(/[–-]/).map(t => t.trim());
-
-        // Find matching entries
-        const matches = this.timetableData.filter(entry => {
-            const matchesDay = entry.dayOfWeek === dayOrder;
-            const matchesTime = entry.startTime === startTime && entry.endTime === endTime;
-            return matchesDay && matchesTime;
+        headerRow.innerHTML = '<th style="width: 120px;">TIME</th>';
+        this.days.forEach(day => {
+            const th = document.createElement('th');
+            th.textContent = `DAY ORDER-${day.dayIndex}`;
+            headerRow.appendChild(th);
         });
-        
-        return matches;
     }
 
     // Create entry element for display in grid
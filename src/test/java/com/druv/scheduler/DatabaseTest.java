@@ -1,22 +1,31 @@
 package com.druv.scheduler;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.core.JsonParseException;
+
 public class DatabaseTest {
     
     private static final String TEST_DB = "test_smart_scheduler.db";
@@ -33,6 +42,7 @@ public class DatabaseTest {
     static void setup() {
         // Set test database name for Database class
         System.setProperty("db.name", TEST_DB);
+        Database.setTestMode(TEST_DB);
         
         try {
             // Initialize test database
@@ -64,9 +74,12 @@ public class DatabaseTest {
     @AfterAll
     static void cleanup() {
         try {
-            File testDb = new File(TEST_DB);
-            if (testDb.exists()) {
-                testDb.delete();
+            Database.closeAll();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                File testDb = new File(TEST_DB + suffix);
+                if (testDb.exists()) {
+                    testDb.delete();
+                }
             }
         } catch (Exception e) {
             System.err.println("Failed to cleanup test database: " + e.getMessage());
@@ -172,4 +185,312 @@ public class DatabaseTest {
             fail("Foreign key constraint test failed: " + e.getMessage());
         }
     }
+
+    @Test
+    void testWalJournalMode() {
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+            assertTrue(rs.next());
+            assertEquals("wal", rs.getString(1).toLowerCase(), "Pooled connections should use WAL");
+        } catch (SQLException e) {
+            fail("Journal mode check failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testMigrationsCreateTimetableIndexes() {
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+                assertTrue(rs.next());
+                assertEquals(SchemaMigrations.latestVersion(), rs.getInt(1),
+                    "All migrations should be recorded");
+            }
+
+            for (String index : new String[]{"idx_timetable_room_day_min",
+                    "idx_timetable_instructor_day_min", "idx_timetable_course"}) {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT name FROM sqlite_master WHERE type='index' AND name=?")) {
+                    pstmt.setString(1, index);
+                    assertTrue(pstmt.executeQuery().next(), "Index '" + index + "' should exist");
+                }
+            }
+
+            // Re-running is a no-op once every version is applied
+            assertEquals(SchemaMigrations.latestVersion(), SchemaMigrations.migrate(conn));
+        } catch (SQLException e) {
+            fail("Migration check failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testSaveAllInsertsInChunks() {
+        TimetableDAO timetableDAO = new TimetableDAO();
+        assertFalse(timetableDAO.hasEntries(), "Table should start empty");
+
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            TimetableEntry entry = new TimetableEntry();
+            entry.setDayOfWeek(String.valueOf(i % 5 + 1));
+            entry.setStartTime("%02d:00".formatted(8 + i % 8));
+            entry.setEndTime("%02d:50".formatted(8 + i % 8));
+            entry.setCourseName("Course " + i);
+            entries.add(entry);
+        }
+
+        // Chunk size that does not divide the entry count exercises the final partial flush
+        System.setProperty("db.timetable.batchSize", "10");
+        try {
+            assertEquals(25, timetableDAO.saveAll(entries));
+        } finally {
+            System.clearProperty("db.timetable.batchSize");
+        }
+        assertTrue(timetableDAO.hasEntries());
+        assertEquals(25, timetableDAO.getUpcomingClassesCount());
+    }
+
+    @Test
+    void testStreamingImportSkipsUnknownFields() throws Exception {
+        String json = """
+            {"source": {"exportedBy": "registrar"},
+             "entries": [
+               {"dayOrder": 1, "startTime": "08:00", "endTime": "08:50", "courseName": "A", "notes": [1, 2]},
+               {"day": "Tuesday", "startTime": "09:00", "endTime": "09:50", "courseName": "B"},
+               {"dayOrder": 3, "startTime": "10:00", "endTime": "10:50", "roomName": null}
+             ],
+             "version": 2}""";
+
+        System.setProperty("db.timetable.importBatch", "2");
+        try (InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+            assertEquals(3, new TimetableImporter(new TimetableDAO()).importFrom(in));
+        } finally {
+            System.clearProperty("db.timetable.importBatch");
+        }
+        assertEquals(3, new TimetableDAO().getUpcomingClassesCount());
+    }
+
+    @Test
+    void testImportRejectsNonObjectEntries() throws Exception {
+        String json = """
+            {"entries": [
+               {"dayOrder": 1, "startTime": "08:00", "endTime": "08:50"},
+               "not an entry",
+               {"dayOrder": 2, "startTime": "08:00", "endTime": "08:50"}
+             ]}""";
+
+        try (InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+            assertThrows(JsonParseException.class, () -> new TimetableImporter(new TimetableDAO()).importFrom(in));
+        }
+        assertFalse(new TimetableDAO().hasEntries(), "Nothing before the bad element was saved either");
+    }
+
+    @Test
+    void testImportRejectsMistypedFields() throws Exception {
+        String nestedId = """
+            {"entries": [
+               {"dayOrder": 1, "startTime": "08:00", "endTime": "08:50", "courseId": {"id": 3}}
+             ]}""";
+        String textId = """
+            {"entries": [
+               {"dayOrder": 1, "startTime": "08:00", "endTime": "08:50", "courseId": "abc"}
+             ]}""";
+        String nestedText = """
+            {"entries": [
+               {"dayOrder": 1, "startTime": ["08:00"], "endTime": "08:50"}
+             ]}""";
+
+        for (String json : List.of(nestedId, textId, nestedText)) {
+            try (InputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+                assertThrows(JsonParseException.class, () -> new TimetableImporter(new TimetableDAO()).importFrom(in),
+                    json);
+            }
+        }
+        assertFalse(new TimetableDAO().hasEntries());
+    }
+
+    @Test
+    void testKeysetPagesCoverEveryEntryOnce() {
+        TimetableDAO timetableDAO = new TimetableDAO();
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            TimetableEntry entry = new TimetableEntry();
+            entry.setDayOfWeek(String.valueOf(5 - i % 5));
+            entry.setStartTime("%02d:00".formatted(8 + i % 3));
+            entry.setEndTime("%02d:50".formatted(8 + i % 3));
+            entry.setType(i % 2 == 0 ? "THEORY" : "LAB");
+            entries.add(entry);
+        }
+        timetableDAO.saveAll(entries);
+
+        List<Integer> seenIds = new ArrayList<>();
+        String previousSlot = "";
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<TimetableEntry> page = timetableDAO.findPage(TimetableFilter.NONE, "time", cursor, 4);
+            for (TimetableEntry entry : page.items()) {
+                String slot = entry.getDayOfWeek() + " " + entry.getStartTime();
+                assertTrue(slot.compareTo(previousSlot) >= 0, "Entries should come back in day/time order");
+                previousSlot = slot;
+                seenIds.add(entry.getId());
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(6, pages);
+        assertEquals(23, seenIds.size());
+        assertEquals(23, seenIds.stream().distinct().count(), "No entry should appear twice");
+
+        // Callers that pass neither limit nor cursor get every row in one page
+        Page<TimetableEntry> all = timetableDAO.findPage(TimetableFilter.NONE, "time", null,
+            KeysetQuery.clampLimit(null, null));
+        assertEquals(23, all.items().size());
+        assertEquals(null, all.nextCursor());
+        assertEquals(KeysetQuery.DEFAULT_LIMIT, KeysetQuery.clampLimit(null, "next-page"));
+
+        TimetableFilter labsOnMonday = new TimetableFilter("Monday", null, null, "lab", null);
+        for (TimetableEntry entry : timetableDAO.findPage(labsOnMonday, "id", null, 50).items()) {
+            assertEquals("1", entry.getDayOfWeek());
+            assertEquals("LAB", entry.getType());
+        }
+    }
+
+    @Test
+    void testTimetableIndexFollowsCommittedWrites() {
+        TimetableDAO timetableDAO = new TimetableDAO();
+        RoomDAO roomDAO = new RoomDAO();
+        assertTrue(roomDAO.addRoom("Index Test Hall", 40));
+        int roomId = roomDAO.findAll().getFirst().getId();
+
+        TimetableIndex index = new TimetableIndex(timetableDAO);
+        timetableDAO.addChangeListener(index);
+        try {
+            index.load();
+            assertEquals(0, index.size());
+
+            List<TimetableEntry> entries = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                TimetableEntry entry = new TimetableEntry();
+                entry.setRoomId(roomId);
+                entry.setDayOfWeek("Tuesday");
+                entry.setStartTime("%02d:00".formatted(9 + i));
+                entry.setEndTime("%02d:50".formatted(9 + i));
+                entries.add(entry);
+            }
+            timetableDAO.saveAll(entries);
+
+            // Events carry the generated ids, so the index can later drop exactly these rows
+            TimetableSlot conflict = index.firstRoomConflict(roomId, 2, 10 * 60 + 30, 11 * 60 + 30);
+            assertEquals(entries.get(1).getId(), conflict.id());
+            assertTrue(timetableDAO.deleteEntry(conflict.id()));
+            assertEquals(entries.get(2).getId(), index.firstRoomConflict(roomId, 2, 10 * 60 + 30, 11 * 60 + 30).id());
+
+            assertTrue(timetableDAO.deleteBySlot("2", "11:00", "11:50"));
+            assertFalse(index.hasRoomConflict(roomId, "Tuesday", "10:30", "11:30"));
+            assertEquals(1, index.size());
+
+            assertThrows(IllegalArgumentException.class, () -> index.hasRoomConflict(roomId, "Funday", "09:00", "10:00"));
+            assertThrows(IllegalArgumentException.class, () -> index.hasRoomConflict(roomId, "Tuesday", "9am", "10:00"));
+            assertThrows(IllegalArgumentException.class, () -> index.hasRoomConflict(roomId, "Tuesday", "10:00", "09:00"));
+
+            // The DAO's own checks reject the same input rather than matching nothing
+            assertTrue(timetableDAO.hasTimeConflict(roomId, "Tuesday", "09:30", "10:30"));
+            assertThrows(IllegalArgumentException.class, () -> timetableDAO.hasTimeConflict(roomId, "Funday", "09:00", "10:00"));
+            assertThrows(IllegalArgumentException.class, () -> timetableDAO.hasTimeConflict(roomId, "Tuesday", "9am", "10:00"));
+            assertThrows(IllegalArgumentException.class, () -> timetableDAO.deleteBySlot("2", "09:00", "24:01"));
+            assertThrows(IllegalArgumentException.class, () -> timetableDAO.deleteBySlot("2", "09:50", "09:00"));
+            assertEquals(1, index.size());
+        } finally {
+            timetableDAO.removeChangeListener(index);
+        }
+    }
+
+    @Test
+    void testPinnedFlagSurvivesMoves() {
+        TimetableDAO timetableDAO = new TimetableDAO();
+        RoomDAO roomDAO = new RoomDAO();
+        assertTrue(roomDAO.addRoom("Pin Test Hall", 40));
+        int roomId = roomDAO.findAll().getFirst().getId();
+        List<TimetableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TimetableEntry entry = new TimetableEntry();
+            entry.setRoomId(roomId);
+            entry.setDayOfWeek("Tuesday");
+            entry.setStartTime("%02d:00".formatted(9 + i));
+            entry.setEndTime("%02d:50".formatted(9 + i));
+            entries.add(entry);
+        }
+        timetableDAO.saveAll(entries);
+        TimetableEntry pinned = entries.get(1);
+
+        assertTrue(timetableDAO.findPinnedIds().isEmpty(), "New entries are not pinned");
+        assertTrue(timetableDAO.setPinned(pinned.getId(), true));
+        assertFalse(timetableDAO.setPinned(-1, true), "Unknown id");
+
+        pinned.setDayOfWeek("Thursday");
+        timetableDAO.moveAll(List.of(pinned));
+        assertEquals(java.util.Set.of(pinned.getId()), timetableDAO.findPinnedIds());
+        for (TimetableEntry entry : timetableDAO.findAll()) {
+            assertEquals(entry.getId() == pinned.getId(), entry.isPinned());
+        }
+
+        assertTrue(timetableDAO.setPinned(pinned.getId(), false));
+        assertTrue(timetableDAO.findPinnedIds().isEmpty());
+    }
+
+    @Test
+    void testReplaceEntriesAppliesAllOrNothing() {
+        TimetableDAO timetableDAO = new TimetableDAO();
+        RoomDAO roomDAO = new RoomDAO();
+        assertTrue(roomDAO.addRoom("Repair Test Hall", 40));
+        int roomId = roomDAO.findAll().getFirst().getId();
+
+        TimetableIndex index = new TimetableIndex(timetableDAO);
+        timetableDAO.addChangeListener(index);
+        try {
+            index.load();
+            List<TimetableEntry> entries = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                TimetableEntry entry = new TimetableEntry();
+                entry.setRoomId(roomId);
+                entry.setDayOfWeek("Monday");
+                entry.setStartTime("%02d:00".formatted(9 + i));
+                entry.setEndTime("%02d:50".formatted(9 + i));
+                entries.add(entry);
+            }
+            timetableDAO.saveAll(entries);
+
+            TimetableEntry moved = entries.get(1);
+            moved.setDayOfWeek("Wednesday");
+            moved.setStartTime("14:00");
+            moved.setEndTime("14:50");
+            TimetableEntry invalid = new TimetableEntry();
+
+            // The insert violates NOT NULL, so the delete and move roll back with it
+            try {
+                timetableDAO.replaceEntries(List.of(entries.get(0).getId()), List.of(moved), List.of(invalid));
+                fail("Expected the invalid insert to fail");
+            } catch (RuntimeException expected) {
+                // fall through
+            }
+            assertEquals(2, timetableDAO.findAll().size());
+            assertTrue(index.hasRoomConflict(roomId, "Monday", "10:00", "10:30"));
+
+            TimetableEntry added = new TimetableEntry();
+            added.setRoomId(roomId);
+            added.setDayOfWeek("Friday");
+            added.setStartTime("08:00");
+            added.setEndTime("08:50");
+            timetableDAO.replaceEntries(List.of(entries.get(0).getId()), List.of(moved), List.of(added));
+
+            assertEquals(2, index.size());
+            assertFalse(index.hasRoomConflict(roomId, "Monday", "09:00", "11:00"));
+            assertEquals(moved.getId(), index.firstRoomConflict(roomId, 3, 14 * 60, 15 * 60).id());
+            assertEquals(added.getId(), index.firstRoomConflict(roomId, 5, 8 * 60, 9 * 60).id());
+        } finally {
+            timetableDAO.removeChangeListener(index);
+        }
+    }
 }
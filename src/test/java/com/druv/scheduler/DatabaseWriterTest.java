@@ -0,0 +1,150 @@
+package com.druv.scheduler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DatabaseWriterTest {
+    private static final String TEST_DB = "test-writer.db";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestFixture.useDatabase(TEST_DB);
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT UNIQUE NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Database.closeAll();
+        TestFixture.deleteDatabase(TEST_DB);
+    }
+
+    private static CompletableFuture<Integer> insert(String name) {
+        return Database.submitWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO items (name) VALUES (?)")) {
+                stmt.setString(1, name);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void testConcurrentWritesAllCommit() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(insert("item-" + i));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(1, future.get());
+        }
+
+        assertEquals(500, countItems());
+        long batches = (Long) Database.writer().getStats().get("batchesCommitted");
+        assertTrue(batches < 500, "Queued writes should be group-committed");
+    }
+
+    @Test
+    void testFailedWriteDoesNotRollBackItsBatch() throws Exception {
+        CompletableFuture<Integer> first = insert("duplicate");
+        CompletableFuture<Integer> second = insert("duplicate");
+        CompletableFuture<Integer> third = insert("unique");
+
+        assertEquals(1, first.get());
+        ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+        assertTrue(failure.getCause() instanceof SQLException);
+        assertEquals(1, third.get());
+        assertEquals(2, countItems());
+    }
+
+    @Test
+    void testWriteSubmittedFromAfterCommitIsQueued() throws Exception {
+        CompletableFuture<CompletableFuture<Integer>> followUp = new CompletableFuture<>();
+        CompletableFuture<IllegalStateException> blockingWrite = new CompletableFuture<>();
+        Database.submitWrite(conn -> {
+            Database.afterCommit(() -> {
+                followUp.complete(insert("follow-up"));
+                try {
+                    Database.write(c -> 0);
+                    blockingWrite.complete(null);
+                } catch (IllegalStateException e) {
+                    blockingWrite.complete(e);
+                } catch (SQLException e) {
+                    blockingWrite.completeExceptionally(e);
+                }
+            });
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO items (name) VALUES (?)")) {
+                stmt.setString(1, "first");
+                return stmt.executeUpdate();
+            }
+        }).get();
+
+        assertEquals(1, followUp.get().get());
+        assertNotNull(blockingWrite.get(), "Waiting for a write on the writer thread must fail fast");
+        assertEquals(2, countItems());
+    }
+
+    @Test
+    void testErrorsFailOnlyTheirOwnWrite() throws Exception {
+        CompletableFuture<Integer> before = insert("before");
+        CompletableFuture<Integer> broken = Database.submitWrite(conn -> {
+            throw new AssertionError("broken write");
+        });
+        CompletableFuture<Integer> callbackFails = Database.submitWrite(conn -> {
+            Database.afterCommit(() -> {
+                throw new AssertionError("broken callback");
+            });
+            return 0;
+        });
+
+        assertEquals(1, before.get());
+        ExecutionException failure = assertThrows(ExecutionException.class, broken::get);
+        assertTrue(failure.getCause() instanceof AssertionError);
+        assertEquals(0, callbackFails.get(), "A failing callback does not fail its committed write");
+        assertThrows(AssertionError.class, () -> Database.write(conn -> {
+            throw new AssertionError("rethrown as-is");
+        }));
+
+        // The writer thread survived and still commits
+        assertEquals(1, insert("after").get(5, TimeUnit.SECONDS));
+        assertEquals(2, countItems());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPoolStatsDoNotStartTheWriter() {
+        Database.closeAll();
+
+        Map<String, Object> writerStats = (Map<String, Object>) Database.getPoolStats().get("writer");
+        assertEquals(0L, writerStats.get("writesCommitted"));
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .noneMatch(thread -> thread.getName().equals("sqlite-writer") && thread.isAlive()));
+    }
+
+    private static int countItems() throws SQLException {
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
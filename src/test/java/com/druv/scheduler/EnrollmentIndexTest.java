@@ -0,0 +1,64 @@
+package com.druv.scheduler;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.engine.CourseConflictGraph;
+
+class EnrollmentIndexTest {
+
+    @Test
+    void testConflictGraphMatchesPairwiseCount() {
+        Random random = new Random(3);
+        int courseCount = 40;
+        Set<Long> pairs = new HashSet<>();
+        int[] students = new int[600];
+        int[] courses = new int[600];
+        int count = 0;
+        while (count < students.length) {
+            int student = 1000 + random.nextInt(150);
+            int course = 1 + random.nextInt(courseCount);
+            if (pairs.add((long) student << 32 | course)) {
+                students[count] = student;
+                courses[count++] = course;
+            }
+        }
+
+        EnrollmentIndex index = EnrollmentIndex.of(students, courses, count);
+        CourseConflictGraph graph = index.conflictGraph();
+
+        int edges = 0;
+        for (int a = 1; a <= courseCount; a++) {
+            for (int b = 1; b <= courseCount; b++) {
+                int shared = 0;
+                for (int s = 1000; s < 1150; s++) {
+                    if (index.isEnrolled(s, a) && index.isEnrolled(s, b)) {
+                        shared++;
+                    }
+                }
+                if (a != b && shared > 0) {
+                    edges++;
+                    int position = graph.position(a);
+                    int found = -1;
+                    for (int i = graph.neighborStart(position); i < graph.neighborEnd(position); i++) {
+                        if (graph.courseId(graph.neighborAt(i)) == b) {
+                            found = graph.weightAt(i);
+                        }
+                    }
+                    assertEquals(shared, found, "Students shared by " + a + " and " + b);
+                } else if (a != b) {
+                    assertFalse(graph.conflicts(a, b));
+                }
+            }
+        }
+        assertEquals(edges / 2, graph.edgeCount());
+        assertEquals(count, index.enrollmentCount());
+        int[] first = index.coursesOf(students[0]);
+        assertTrue(java.util.Arrays.binarySearch(first, courses[0]) >= 0);
+        assertEquals(0, index.studentsIn(999));
+    }
+}
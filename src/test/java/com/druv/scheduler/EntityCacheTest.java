@@ -0,0 +1,57 @@
+package com.druv.scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    @Test
+    void testHitsSkipTheLoader() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test-hits", 10, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("room-1", cache.get(1, id -> {
+            loads.incrementAndGet();
+            return "room-" + id;
+        }));
+        assertEquals("room-1", cache.get(1, id -> "reloaded"));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test-lru", 2, 300);
+        cache.get(1, id -> "one");
+        cache.get(2, id -> "two");
+        cache.get(1, id -> "one");    // 2 is now the eldest
+        cache.get(3, id -> "three");
+
+        assertEquals("one", cache.get(1, id -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, id -> "reloaded"));
+        assertEquals(2, cache.getStats().get("size"));
+    }
+
+    @Test
+    void testInvalidationDuringLoadIsNotCached() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test-race", 10, 300);
+
+        // A write lands while the old row is being read
+        assertEquals("stale", cache.get(1, id -> {
+            cache.invalidate(id);
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get(1, id -> "fresh"));
+    }
+
+    @Test
+    void testExpiredEntriesAreReloaded() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test-ttl", 10, 0);
+        cache.get(1, id -> "old");
+        assertEquals("new", cache.get(1, id -> "new"));
+        assertNull(cache.get(2, id -> null), "Missing rows are not cached");
+    }
+}
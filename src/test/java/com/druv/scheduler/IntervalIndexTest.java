@@ -0,0 +1,97 @@
+package com.druv.scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+
+    private static TimetableSlot slot(int id, int roomId, int day, int start, int end) {
+        return new TimetableSlot(id, 0, roomId, null, day, start, end);
+    }
+
+    @Test
+    void testTouchingSlotsDoNotOverlap() {
+        IntervalIndex index = new IntervalIndex(TimetableSlot::roomId);
+        index.add(slot(1, 7, 1, 9 * 60, 10 * 60));
+
+        assertNull(index.firstOverlap(7, 1, 10 * 60, 11 * 60));
+        assertNull(index.firstOverlap(7, 1, 8 * 60, 9 * 60));
+        assertNull(index.firstOverlap(7, 2, 9 * 60, 10 * 60), "Other days are separate buckets");
+        assertNull(index.firstOverlap(8, 1, 9 * 60, 10 * 60), "Other rooms are separate buckets");
+        assertEquals(1, index.firstOverlap(7, 1, 9 * 60 + 59, 11 * 60).id());
+    }
+
+    @Test
+    void testLongSlotIsFoundBehindShortOnes() {
+        // The running max end is what finds an early long slot past later short ones
+        IntervalIndex index = new IntervalIndex(TimetableSlot::roomId);
+        index.add(slot(1, 3, 2, 8 * 60, 17 * 60));
+        index.add(slot(2, 3, 2, 9 * 60, 10 * 60));
+        index.add(slot(3, 3, 2, 11 * 60, 12 * 60));
+
+        assertEquals(1, index.firstOverlap(3, 2, 15 * 60, 16 * 60).id());
+        index.remove(slot(1, 3, 2, 8 * 60, 17 * 60));
+        assertNull(index.firstOverlap(3, 2, 15 * 60, 16 * 60));
+        assertEquals(3, index.firstOverlap(3, 2, 11 * 60 + 30, 16 * 60).id());
+    }
+
+    @Test
+    void testMatchesBruteForceUnderRandomEdits() {
+        Random random = new Random(42);
+        IntervalIndex index = new IntervalIndex(TimetableSlot::roomId);
+        List<TimetableSlot> live = new ArrayList<>();
+
+        for (int id = 1; id <= 2000; id++) {
+            if (!live.isEmpty() && random.nextInt(4) == 0) {
+                index.remove(live.remove(random.nextInt(live.size())));
+            }
+            int start = 8 * 60 + random.nextInt(600);
+            TimetableSlot added = slot(id, 1 + random.nextInt(3), 1 + random.nextInt(2),
+                start, start + 10 + random.nextInt(180));
+            live.add(added);
+            index.add(added);
+
+            int room = 1 + random.nextInt(3);
+            int day = 1 + random.nextInt(2);
+            int queryStart = 8 * 60 + random.nextInt(600);
+            int queryEnd = queryStart + 1 + random.nextInt(120);
+            List<TimetableSlot> expected = live.stream()
+                .filter(s -> s.roomId() == room && s.dayIndex() == day && s.overlaps(queryStart, queryEnd))
+                .sorted(Comparator.comparingInt(TimetableSlot::startMin).thenComparingInt(TimetableSlot::id))
+                .toList();
+
+            assertEquals(expected, index.overlaps(room, day, queryStart, queryEnd));
+            assertEquals(expected.isEmpty() ? null : expected.getFirst(),
+                index.firstOverlap(room, day, queryStart, queryEnd));
+        }
+        assertEquals(live.size(), index.size());
+    }
+
+    @Test
+    void testForkIsIndependentOfItsSource() {
+        IntervalIndex index = new IntervalIndex(TimetableSlot::roomId);
+        // Enough rooms to span several chunks, so a fork shares most of them
+        for (int id = 1; id <= 3000; id++) {
+            index.add(slot(id, id, 1, 9 * 60, 10 * 60));
+        }
+        IntervalIndex fork = index.fork();
+
+        fork.remove(slot(5, 5, 1, 9 * 60, 10 * 60));
+        fork.add(slot(9001, 6, 1, 9 * 60 + 30, 11 * 60));
+        index.add(slot(9002, 7, 1, 9 * 60, 10 * 60));
+
+        assertEquals(5, index.firstOverlap(5, 1, 9 * 60, 10 * 60).id());
+        assertNull(fork.firstOverlap(5, 1, 9 * 60, 10 * 60));
+        assertEquals(2, fork.overlaps(6, 1, 9 * 60, 10 * 60).size());
+        assertEquals(1, index.overlaps(6, 1, 9 * 60, 10 * 60).size());
+        assertEquals(1, fork.count(7, 1));
+        assertEquals(2, index.count(7, 1));
+        assertEquals(3001, index.size());
+        assertEquals(3000, fork.size());
+    }
+}
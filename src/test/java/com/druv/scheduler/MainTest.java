@@ -1,11 +1,11 @@
 package com.druv.scheduler;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,13 +16,14 @@ public class MainTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        Files.deleteIfExists(Path.of(TEST_DB));
         System.setProperty("db.name", TEST_DB);
+        TestFixture.useDatabase(TEST_DB);
     }
 
     @AfterEach
     void tearDown() throws Exception {
-        Files.deleteIfExists(Path.of(TEST_DB));
+        Database.closeAll();
+        TestFixture.deleteDatabase(TEST_DB);
     }
 
     @Test
@@ -41,6 +42,21 @@ public class MainTest {
         });
     }
 
+    @Test
+    void testConnectionsReturnToPool() throws Exception {
+        Database.initialize();
+        for (int i = 0; i < 50; i++) {
+            try (Connection conn = Database.connect()) {
+                assertTrue(conn.isValid(1));
+            }
+        }
+
+        Map<String, Object> stats = Database.getPoolStats();
+        assertEquals(0, stats.get("activeConnections"));
+        assertTrue((Integer) stats.get("totalConnections") <= (Integer) stats.get("maxPoolSize"),
+            "Pool should never grow past its configured size");
+    }
+
     @Test
     void testBasicFunctionality() {
         // Simple test that doesn't require complex setup
@@ -0,0 +1,62 @@
+package com.druv.scheduler;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyMatrixTest {
+
+    @Test
+    void testAlignedSlotsAreExact() {
+        OccupancyMatrix matrix = new OccupancyMatrix(5);
+        matrix.occupy(4, 1, 9 * 60, 10 * 60);
+
+        assertFalse(matrix.isFree(4, 1, 9 * 60 + 30, 9 * 60 + 35));
+        assertTrue(matrix.isFree(4, 1, 10 * 60, 11 * 60), "Half-open: touching the end is free");
+        assertTrue(matrix.isFree(4, 1, 8 * 60, 9 * 60));
+        assertTrue(matrix.isFree(4, 2, 9 * 60, 10 * 60));
+        assertTrue(matrix.isFree(5, 1, 9 * 60, 10 * 60));
+    }
+
+    @Test
+    void testSlotsAcrossWordBoundaries() {
+        // 5-minute cells: cell 64 starts at 05:20, so this slot spans words 0 and 1
+        OccupancyMatrix matrix = new OccupancyMatrix(5);
+        matrix.occupy(1, 3, 5 * 60 + 15, 5 * 60 + 25);
+
+        assertFalse(matrix.isFree(1, 3, 5 * 60 + 15, 5 * 60 + 20));
+        assertFalse(matrix.isFree(1, 3, 5 * 60 + 20, 5 * 60 + 25));
+        assertTrue(matrix.isFree(1, 3, 5 * 60 + 25, 23 * 60));
+        assertTrue(matrix.isFree(1, 3, 0, 5 * 60 + 15));
+        assertFalse(matrix.isFree(1, 3, 0, 24 * 60));
+    }
+
+    @Test
+    void testRebuildKeepsCellsOfRemainingSlots() {
+        OccupancyMatrix matrix = new OccupancyMatrix(15);
+        TimetableSlot kept = new TimetableSlot(2, 0, 9, null, 4, 10 * 60, 11 * 60);
+        matrix.occupy(9, 4, 9 * 60, 10 * 60 + 30);
+        matrix.occupy(9, 4, kept.startMin(), kept.endMin());
+
+        matrix.rebuild(9, 4, List.of(kept));
+        assertTrue(matrix.isFree(9, 4, 9 * 60, 10 * 60));
+        assertFalse(matrix.isFree(9, 4, 10 * 60 + 15, 10 * 60 + 30));
+
+        matrix.rebuild(9, 4, List.of());
+        assertEquals(0, matrix.rowCount());
+    }
+
+    @Test
+    void testInvalidIntervalIsRejected() {
+        OccupancyMatrix matrix = new OccupancyMatrix(5);
+        matrix.occupy(1, 1, 9 * 60, 10 * 60);
+
+        assertThrows(IllegalArgumentException.class, () -> matrix.isFree(1, TimeCodec.UNKNOWN, 9 * 60, 10 * 60));
+        assertThrows(IllegalArgumentException.class, () -> matrix.isFree(1, 8, 9 * 60, 10 * 60));
+        assertThrows(IllegalArgumentException.class, () -> matrix.isFree(1, 1, TimeCodec.UNKNOWN, 10 * 60));
+        assertThrows(IllegalArgumentException.class, () -> matrix.isFree(1, 1, 10 * 60, 9 * 60));
+        assertThrows(IllegalArgumentException.class, () -> matrix.isFree(2, 1, 9 * 60, 9 * 60),
+            "An empty interval is invalid even for an owner with no row");
+    }
+}
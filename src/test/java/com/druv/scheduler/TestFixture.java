@@ -0,0 +1,103 @@
+package com.druv.scheduler;
+
+import java.io.File;
+import java.util.List;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A fresh test database file plus the Spring context over it, with helpers to
+ * add rooms, courses and bookings. Close it after each test to shut the context,
+ * release the pool and delete the file with its WAL and shared-memory files.
+ */
+public final class TestFixture implements AutoCloseable {
+
+    private final String databaseName;
+    private final AnnotationConfigApplicationContext context;
+
+    private TestFixture(String databaseName, Class<?>... components) {
+        this.databaseName = databaseName;
+        useDatabase(databaseName);
+        Database.initialize();
+        AnnotationConfigApplicationContext created = new AnnotationConfigApplicationContext();
+        created.register(DatabaseConfig.class, UserDAOImpl.class);
+        created.register(components);
+        created.refresh();
+        this.context = created;
+    }
+
+    /**
+     * Start on an empty, initialized database with the DAOs and the given components as beans.
+     */
+    public static TestFixture open(String databaseName, Class<?>... components) {
+        return new TestFixture(databaseName, components);
+    }
+
+    /**
+     * Point Database at an empty file, without initializing the schema.
+     */
+    public static void useDatabase(String databaseName) {
+        Database.setTestMode(databaseName);
+        deleteDatabase(databaseName);
+    }
+
+    public static void deleteDatabase(String databaseName) {
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            new File(databaseName + suffix).delete();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // DatabaseConfig also exposes a UserDAO bean, so the implementation is fetched by name
+    public UserDAOImpl users() {
+        return context.getBean("userDAOImpl", UserDAOImpl.class);
+    }
+
+    /**
+     * @return the ids of all rooms, ascending
+     */
+    public int[] addRooms(int... capacities) {
+        RoomDAO roomDAO = bean(RoomDAO.class);
+        for (int r = 0; r < capacities.length; r++) {
+            assertTrue(roomDAO.addRoom("Room " + r, capacities[r]));
+        }
+        return roomDAO.findAll().stream().mapToInt(Room::getId).sorted().toArray();
+    }
+
+    /**
+     * One course per size, course c taught by its own FACULTY user teacherC.
+     * @return the ids of all courses, ascending
+     */
+    public int[] addCourses(int... sizes) {
+        CourseDAO courseDAO = bean(CourseDAO.class);
+        for (int c = 0; c < sizes.length; c++) {
+            users().addUser("teacher" + c, "x", "FACULTY");
+            assertTrue(courseDAO.addCourse("C" + c, "Course " + c, "teacher" + c, sizes[c]));
+        }
+        return courseDAO.findAll().stream().mapToInt(Course::getId).sorted().toArray();
+    }
+
+    /**
+     * Save an entry for the course, taught by the course's instructor.
+     */
+    public TimetableEntry book(int courseId, int roomId, String day, String start, String end) {
+        Course course = bean(CourseDAO.class).findById(courseId);
+        TimetableEntry entry = new TimetableEntry(courseId, roomId, day, start, end,
+            users().findIdByUsername(course.getFacultyUsername()).orElseThrow());
+        entry.setCourseName(course.getCourseName());
+        bean(TimetableDAO.class).saveAll(List.of(entry));
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        Database.closeAll();
+        deleteDatabase(databaseName);
+    }
+}
@@ -0,0 +1,56 @@
+package com.druv.scheduler;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeCodecTest {
+
+    @Test
+    void testEveryMinuteOfTheDayRoundTrips() {
+        for (int minutes = 0; minutes <= 24 * 60; minutes++) {
+            String time = TimeCodec.formatMinutes(minutes);
+            assertEquals(minutes, TimeCodec.toMinutes(time), time);
+        }
+        assertEquals(9 * 60 + 5, TimeCodec.toMinutes("9:05"), "Single-digit hours are accepted");
+        assertEquals("09:05", TimeCodec.formatMinutes(TimeCodec.toMinutes("9:05")));
+    }
+
+    @Test
+    void testMalformedAndOutOfRangeTimesAreUnknown() {
+        String[] invalid = {
+            null, "", "9", "09", "09:", "09:5", ":30", "009:00", "09:000", "09-00", "09.00",
+            " 09:00", "09:00 ", "ab:cd", "-1:00", "09:-5", "09:60", "09:99", "25:00", "99:00", "24:01"
+        };
+        for (String time : invalid) {
+            assertEquals(TimeCodec.UNKNOWN, TimeCodec.toMinutes(time), String.valueOf(time));
+        }
+        assertEquals(24 * 60, TimeCodec.toMinutes("24:00"), "End of day is the last valid time");
+        assertEquals(0, TimeCodec.toMinutes("00:00"));
+    }
+
+    @Test
+    void testDayOrdersAndNamesShareAnIndex() {
+        for (int day = 1; day <= 7; day++) {
+            String name = TimeCodec.dayName(day);
+            assertEquals(day, TimeCodec.dayIndex(String.valueOf(day)));
+            assertEquals(day, TimeCodec.dayIndex(name));
+            assertEquals(day, TimeCodec.dayIndex(name.substring(0, 3).toLowerCase()));
+            assertEquals(day, TimeCodec.dayIndex(" " + name.toUpperCase() + " "));
+        }
+
+        String[] invalid = {null, "", "0", "8", "12", "Mo", "Mondays", "Funday", "Mon day"};
+        for (String day : invalid) {
+            assertEquals(TimeCodec.UNKNOWN, TimeCodec.dayIndex(day), String.valueOf(day));
+        }
+        assertNull(TimeCodec.dayName(0));
+        assertNull(TimeCodec.dayName(8));
+    }
+
+    @Test
+    void testOverlapsIsHalfOpen() {
+        assertTrue(TimeCodec.overlaps(540, 600, 570, 630));
+        assertTrue(TimeCodec.overlaps(540, 600, 550, 560), "Containment overlaps");
+        assertFalse(TimeCodec.overlaps(540, 600, 600, 660), "Touching at the end is not an overlap");
+        assertFalse(TimeCodec.overlaps(600, 660, 540, 600), "Touching at the start is not an overlap");
+    }
+}
@@ -0,0 +1,36 @@
+package com.druv.scheduler;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeGridTest {
+
+    @Test
+    void testDefaultGridResolvesDaysAndPeriods() {
+        TimeGrid grid = TimeGrid.parse(TimeGrid.DEFAULT_DAYS, TimeGrid.DEFAULT_PERIODS);
+
+        assertEquals(5, grid.dayCount());
+        assertEquals(12, grid.periodCount());
+        assertEquals(60, grid.slots().size());
+        assertEquals(0, grid.dayPosition(TimeCodec.dayIndex("1")), "Day orders and names are the same day");
+        assertEquals(-1, grid.dayPosition(TimeCodec.dayIndex("Saturday")));
+
+        assertEquals(1, grid.periodAt(TimeCodec.toMinutes("08:50")), "Touching periods: the later one owns the boundary");
+        assertEquals(-1, grid.periodAt(TimeCodec.toMinutes("09:42")), "Between periods");
+        assertEquals(-1, grid.periodAt(TimeCodec.toMinutes("18:10")));
+
+        int slot = grid.slotAt(3, TimeCodec.toMinutes("12:30"));
+        assertEquals(grid.slotId(2, 5), slot);
+        assertEquals(3, grid.slot(slot).dayIndex());
+        assertEquals(TimeCodec.toMinutes("13:20"), grid.slot(slot).endMin());
+    }
+
+    @Test
+    void testRejectsMalformedGrids() {
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.parse("Monday,Funday", "08:00-09:00"));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.parse("Monday,1", "08:00-09:00"));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.parse("Monday", "09:00-08:00"));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.parse("Monday", "08:00-09:00,08:30-09:30"));
+        assertEquals(2, TimeGrid.parse("Monday", "08:00–08:50, 09:00 - 09:50").periodCount());
+    }
+}
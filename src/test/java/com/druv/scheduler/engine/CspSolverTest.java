@@ -0,0 +1,163 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.EnrollmentIndex;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+class CspSolverTest {
+
+    static void assertHardConstraints(SchedulingProblem problem, Solution solution) {
+        CourseConflictGraph conflicts = problem.getConflicts();
+        List<Solution.Assignment> placed = solution.assignments();
+        for (int i = 0; i < placed.size(); i++) {
+            Solution.Assignment a = placed.get(i);
+            assertTrue(a.room().capacity() >= a.session().size(), "Room too small for " + a.session());
+            for (TimetableSlot fixed : problem.getFixed()) {
+                if (a.slot().overlaps(fixed.dayIndex(), fixed.startMin(), fixed.endMin())) {
+                    assertNotEquals(fixed.roomId(), a.room().roomId(), "Placed over a fixed entry's room");
+                    assertNotEquals(fixed.instructorId(), a.session().instructorId(), "Instructor double-booked");
+                    assertFalse(conflicts.conflicts(fixed.courseId(), a.session().courseId()),
+                        "Student double-booked against a fixed entry");
+                }
+            }
+            for (int j = i + 1; j < placed.size(); j++) {
+                Solution.Assignment b = placed.get(j);
+                if (a.slot().overlaps(b.slot())) {
+                    assertNotEquals(a.room().roomId(), b.room().roomId(), "Room double-booked");
+                    if (a.session().instructorId() != null) {
+                        assertNotEquals(a.session().instructorId(), b.session().instructorId(), "Instructor double-booked");
+                    }
+                    assertFalse(conflicts.conflicts(a.session().courseId(), b.session().courseId()),
+                        "Student double-booked");
+                }
+                if (a.session().courseId() == b.session().courseId()) {
+                    assertNotEquals(a.slot().dayIndex(), b.slot().dayIndex(), "Course meets twice in a day");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFeasibleTermIsFullyScheduled() {
+        Random random = new Random(7);
+        List<RoomOption> rooms = new ArrayList<>();
+        for (int r = 1; r <= 12; r++) {
+            rooms.add(new RoomOption(r, "Room " + r, 20 + 10 * (r % 5), null));
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (int course = 1; course <= 60; course++) {
+            int instructor = 1 + random.nextInt(15);
+            int size = 15 + random.nextInt(45);
+            for (int i = 0; i < 3; i++) {
+                sessions.add(new Session(course, i, instructor, size, "Course " + course, null));
+            }
+        }
+        List<TimetableSlot> fixed = List.of(new TimetableSlot(1, 999, 1, 3, 1, 9 * 60, 10 * 60));
+        SchedulingProblem problem = new SchedulingProblem(TestSlots.hourlyWeek(), rooms, sessions, fixed);
+
+        Solution solution = new CspSolver(problem).solve();
+
+        assertEquals(List.of(), solution.unscheduled());
+        assertEquals(180, solution.assignments().size());
+        assertHardConstraints(problem, solution);
+    }
+
+    @Test
+    void testCoursesSharingStudentsNeverOverlap() {
+        // One period a day; courses 1-5 all share student 100, and course 6
+        // (fixed on Monday) shares student 200 with course 1
+        List<TimeSlot> week = new ArrayList<>();
+        for (int day = 1; day <= 5; day++) {
+            week.add(new TimeSlot(day, 9 * 60, 10 * 60));
+        }
+        List<RoomOption> rooms = List.of(new RoomOption(1, "A", 50, null), new RoomOption(2, "B", 50, null));
+        List<Session> sessions = new ArrayList<>();
+        for (int course = 1; course <= 5; course++) {
+            sessions.add(new Session(course, 0, course, 30, "Course " + course, null));
+        }
+        int[] students = {100, 100, 100, 100, 100, 200, 200};
+        int[] courses = {1, 2, 3, 4, 5, 1, 6};
+        CourseConflictGraph conflicts = EnrollmentIndex.of(students, courses, students.length).conflictGraph();
+        List<TimetableSlot> fixed = List.of(new TimetableSlot(1, 6, 2, 6, 1, 9 * 60, 10 * 60));
+        SchedulingProblem problem = new SchedulingProblem(week, rooms, sessions, fixed, conflicts);
+
+        for (Solution solution : List.of(new CspSolver(problem).solve(),
+                new DecomposingSolver(java.util.concurrent.ForkJoinPool.commonPool()).solve(problem))) {
+            assertEquals(5, solution.assignments().size());
+            assertHardConstraints(problem, solution);
+            for (Solution.Assignment assignment : solution.assignments()) {
+                if (assignment.session().courseId() == 1) {
+                    assertNotEquals(1, assignment.slot().dayIndex(), "Course 1 shares a student with Monday's course 6");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMostConstrainedSessionIsPlacedFirst() {
+        // Only the big room seats course 1; a naive order gives it to course 2 first
+        List<RoomOption> rooms = List.of(new RoomOption(1, "Hall", 200, null), new RoomOption(2, "Lab", 20, null));
+        List<TimeSlot> oneSlot = List.of(new TimeSlot(1, 9 * 60, 10 * 60));
+        List<Session> sessions = List.of(
+            new Session(2, 0, null, 10, "Seminar", null),
+            new Session(1, 0, null, 150, "Lecture", null));
+
+        Solution solution = new CspSolver(new SchedulingProblem(oneSlot, rooms, sessions, List.of())).solve();
+
+        assertEquals(2, solution.assignments().size());
+        for (Solution.Assignment assignment : solution.assignments()) {
+            assertEquals(assignment.session().courseId() == 1 ? 1 : 2, assignment.room().roomId());
+        }
+    }
+
+    @Test
+    void testOverConstrainedInstanceReportsUnscheduledSessions() {
+        List<RoomOption> rooms = List.of(new RoomOption(1, "Only room", 30, null));
+        List<Session> sessions = new ArrayList<>();
+        for (int course = 1; course <= 50; course++) {
+            sessions.add(new Session(course, 0, course % 4, 25, "Course " + course, null));
+        }
+        sessions.add(new Session(99, 0, null, 500, "Too big", null));
+        SchedulingProblem problem = new SchedulingProblem(TestSlots.hourlyWeek(), rooms, sessions, List.of());
+
+        Solution solution = new CspSolver(problem, 100).solve();
+
+        // 40 periods, one room: at most 40 sessions fit, and the 500-seat course never does
+        assertEquals(40, solution.assignments().size());
+        assertEquals(11, solution.unscheduled().size());
+        assertTrue(solution.unscheduled().stream().anyMatch(s -> s.courseId() == 99));
+        assertHardConstraints(problem, solution);
+    }
+
+    @Test
+    void testMonitorCountsPlacementsAndCancelsTheSearch() {
+        List<RoomOption> rooms = new ArrayList<>();
+        for (int r = 1; r <= 30; r++) {
+            rooms.add(new RoomOption(r, "Room " + r, 40, null));
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (int course = 1; course <= 1100; course++) {
+            sessions.add(new Session(course, 0, course, 30, "Course " + course, null));
+        }
+        SchedulingProblem problem = new SchedulingProblem(TestSlots.hourlyWeek(), rooms, sessions, List.of());
+
+        SolverMonitor monitor = new SolverMonitor();
+        Solution solution = new CspSolver(problem, monitor).solve();
+        assertEquals(1100, solution.assignments().size());
+        assertEquals(1100, monitor.snapshot().get("placed"));
+        assertEquals(0, monitor.snapshot().get("failed"));
+
+        SolverMonitor cancelled = new SolverMonitor();
+        cancelled.cancel();
+        assertThrows(java.util.concurrent.CancellationException.class,
+            () -> new CspSolver(problem, cancelled).solve());
+    }
+}
@@ -0,0 +1,81 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+class DecomposingSolverTest {
+
+    private static List<RoomOption> rooms() {
+        return List.of(
+            new RoomOption(1, "CS-1", 40, "CS"), new RoomOption(2, "CS-2", 60, "CS"),
+            new RoomOption(3, "ME-1", 40, "ME"),
+            new RoomOption(4, "Hall", 120, null));
+    }
+
+    private static List<Session> sessions(String pool, int firstCourse, int instructor) {
+        List<Session> sessions = new ArrayList<>();
+        for (int course = firstCourse; course < firstCourse + 6; course++) {
+            for (int i = 0; i < 2; i++) {
+                sessions.add(new Session(course, i, instructor + course % 2, 30, "Course " + course, pool));
+            }
+        }
+        return sessions;
+    }
+
+    @Test
+    void testPoolsWithoutSharedInstructorsAreSeparateComponents() {
+        List<Session> sessions = new ArrayList<>(sessions("CS", 1, 10));
+        sessions.addAll(sessions("ME", 100, 20));
+        sessions.addAll(sessions(null, 200, 30));
+        SchedulingProblem problem = new SchedulingProblem(TestSlots.hourlyWeek(), rooms(), sessions, List.of());
+
+        List<SchedulingProblem> components = DecomposingSolver.decompose(problem);
+
+        assertEquals(3, components.size());
+        for (SchedulingProblem component : components) {
+            String pool = component.getSessions().getFirst().pool();
+            assertTrue(component.getSessions().stream().allMatch(s -> java.util.Objects.equals(s.pool(), pool)));
+            assertTrue(component.getRooms().stream().allMatch(r -> java.util.Objects.equals(r.pool(), pool)));
+        }
+    }
+
+    @Test
+    void testSharedInstructorJoinsComponents() {
+        List<Session> sessions = new ArrayList<>(sessions("CS", 1, 10));
+        sessions.addAll(sessions("ME", 100, 10));
+
+        List<SchedulingProblem> components = DecomposingSolver.decompose(
+            new SchedulingProblem(TestSlots.hourlyWeek(), rooms(), sessions, List.of()));
+
+        assertEquals(1, components.size());
+        assertEquals(3, components.getFirst().getRooms().size());
+    }
+
+    @Test
+    void testParallelSolveKeepsSessionsInTheirPools() {
+        List<Session> sessions = new ArrayList<>(sessions("CS", 1, 10));
+        sessions.addAll(sessions("ME", 100, 20));
+        sessions.addAll(sessions(null, 200, 30));
+        SchedulingProblem problem = new SchedulingProblem(TestSlots.hourlyWeek(), rooms(), sessions, List.of());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Solution solution = new DecomposingSolver(pool).solve(problem);
+
+            assertEquals(36, solution.assignments().size());
+            assertEquals(3, solution.stats().get("components"));
+            for (Solution.Assignment assignment : solution.assignments()) {
+                assertEquals(assignment.session().pool(), assignment.room().pool());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
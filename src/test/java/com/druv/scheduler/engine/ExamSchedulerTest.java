@@ -0,0 +1,94 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.EnrollmentIndex;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+
+class ExamSchedulerTest {
+
+    @Test
+    void testCyclesUseTheirChromaticNumber() {
+        // Student s takes courses s and s + 1 around a ring of courses
+        for (int ring : new int[] {6, 5}) {
+            int[] students = new int[ring * 2];
+            int[] courses = new int[ring * 2];
+            List<ExamScheduler.Exam> exams = new ArrayList<>();
+            for (int s = 0; s < ring; s++) {
+                students[2 * s] = s;
+                courses[2 * s] = s + 1;
+                students[2 * s + 1] = s;
+                courses[2 * s + 1] = (s + 1) % ring + 1;
+                exams.add(new ExamScheduler.Exam(s + 1, "Course " + (s + 1), 2));
+            }
+            CourseConflictGraph graph = EnrollmentIndex.of(students, courses, students.length).conflictGraph();
+            ExamScheduler.Result result = new ExamScheduler(TestSlots.hourlyWeek(),
+                List.of(new RoomOption(1, "Hall", 100, null)), exams, graph).solve();
+
+            assertEquals(ring, result.sittings().size());
+            assertEquals(ring % 2 == 0 ? 2 : 3, result.stats().get("periodsUsed"));
+            assertNoStudentClashesAndRoomsHold(result, graph);
+        }
+    }
+
+    @Test
+    void testEveryExamSeatedWithinRoomCapacity() {
+        Random random = new Random(11);
+        int courseCount = 400;
+        int[] students = new int[3000 * 4];
+        int[] courses = new int[students.length];
+        int count = 0;
+        for (int s = 0; s < 3000; s++) {
+            // A block of four courses from one of forty programmes
+            int programme = random.nextInt(40);
+            for (int k = 0; k < 4; k++) {
+                students[count] = s;
+                courses[count++] = programme * 10 + k + 1 + (s % 2) * 4;
+            }
+        }
+        EnrollmentIndex index = EnrollmentIndex.of(students, courses, count);
+        List<ExamScheduler.Exam> exams = new ArrayList<>();
+        for (int course = 1; course <= courseCount; course++) {
+            exams.add(new ExamScheduler.Exam(course, "Course " + course, index.studentsIn(course)));
+        }
+        List<RoomOption> rooms = new ArrayList<>();
+        for (int r = 1; r <= 12; r++) {
+            rooms.add(new RoomOption(r, "Room " + r, 20 + 10 * r, null));
+        }
+
+        CourseConflictGraph graph = index.conflictGraph();
+        ExamScheduler.Result result = new ExamScheduler(TestSlots.hourlyWeek(), rooms, exams, graph).solve();
+
+        assertTrue(result.unscheduled().isEmpty(), "Every exam placed: " + result.stats());
+        assertTrue((int) result.stats().get("splitExams") > 0, "Some exams need more than one room");
+        for (ExamScheduler.Sitting sitting : result.sittings()) {
+            int seated = sitting.seats().stream().mapToInt(ExamScheduler.Seating::students).sum();
+            assertEquals(sitting.exam().students(), seated, "All students of " + sitting.exam().label() + " seated");
+        }
+        assertNoStudentClashesAndRoomsHold(result, graph);
+    }
+
+    private static void assertNoStudentClashesAndRoomsHold(ExamScheduler.Result result, CourseConflictGraph graph) {
+        Map<TimeSlot, List<Integer>> coursesIn = new HashMap<>();
+        Map<String, Integer> seatsTaken = new HashMap<>();
+        for (ExamScheduler.Sitting sitting : result.sittings()) {
+            List<Integer> same = coursesIn.computeIfAbsent(sitting.slot(), k -> new ArrayList<>());
+            for (int other : same) {
+                assertFalse(graph.conflicts(other, sitting.exam().courseId()), "Student sits two exams at once");
+            }
+            same.add(sitting.exam().courseId());
+            for (ExamScheduler.Seating seating : sitting.seats()) {
+                int taken = seatsTaken.merge(sitting.slot() + "/" + seating.room().roomId(), seating.students(),
+                    Integer::sum);
+                assertTrue(taken <= seating.room().capacity(), "Room over capacity");
+            }
+        }
+    }
+}
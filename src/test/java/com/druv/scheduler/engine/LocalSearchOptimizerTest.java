@@ -0,0 +1,68 @@
+package com.druv.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+class LocalSearchOptimizerTest {
+
+    private static SchedulingProblem problem() {
+        Random random = new Random(11);
+        List<RoomOption> rooms = new ArrayList<>();
+        for (int r = 1; r <= 8; r++) {
+            rooms.add(new RoomOption(r, "Room " + r, 20 + 15 * (r % 4), null));
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (int course = 1; course <= 30; course++) {
+            int instructor = 1 + random.nextInt(8);
+            int size = 10 + random.nextInt(50);
+            for (int i = 0; i < 2; i++) {
+                sessions.add(new Session(course, i, instructor, size, "Course " + course, null));
+            }
+        }
+        List<TimetableSlot> fixed = List.of(new TimetableSlot(1, 999, 2, 3, 2, 10 * 60, 11 * 60));
+        return new SchedulingProblem(TestSlots.hourlyWeek(), rooms, sessions, fixed);
+    }
+
+    @Test
+    void testOptimizedScheduleIsFeasibleAndIncrementalCostMatchesFullScore() {
+        SchedulingProblem problem = problem();
+        Solution start = new CspSolver(problem).solve();
+        long initialCost = LocalSearchOptimizer.score(problem, start).get("cost");
+
+        Solution optimized = new LocalSearchOptimizer(problem, start, 42).optimize(300);
+
+        assertEquals(start.assignments().size(), optimized.assignments().size());
+        CspSolverTest.assertHardConstraints(problem, optimized);
+        Map<String, Long> score = LocalSearchOptimizer.score(problem, optimized);
+        assertEquals(initialCost, optimized.stats().get("initialCost"));
+        assertEquals(score.get("cost"), optimized.stats().get("bestCost"));
+        assertTrue(score.get("cost") < initialCost, "No improvement on " + score);
+    }
+
+    @Test
+    void testBestIsReadableWhileRunningAndStopEndsTheSearch() throws Exception {
+        SchedulingProblem problem = problem();
+        Solution start = new CspSolver(problem).solve();
+        LocalSearchOptimizer optimizer = new LocalSearchOptimizer(problem, start, 7);
+
+        Thread worker = new Thread(() -> optimizer.optimize(60_000));
+        worker.start();
+        Thread.sleep(200);
+        Solution snapshot = optimizer.best();
+        optimizer.stop();
+        worker.join(5_000);
+
+        assertFalse(worker.isAlive());
+        CspSolverTest.assertHardConstraints(problem, snapshot);
+        assertEquals(optimizer.bestCost(), LocalSearchOptimizer.score(problem, optimizer.best()).get("cost"));
+    }
+}
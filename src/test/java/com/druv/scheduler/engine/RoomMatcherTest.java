@@ -0,0 +1,75 @@
+package com.druv.scheduler.engine;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.engine.SchedulingProblem.RoomOption;
+import com.druv.scheduler.engine.SchedulingProblem.Session;
+
+class RoomMatcherTest {
+
+    @Test
+    void testAssignmentMatchesBruteForce() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(5);
+            int columns = rows + random.nextInt(3);
+            long[][] cost = new long[rows][columns];
+            for (long[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(100);
+                }
+            }
+            int[] column = RoomMatcher.assign(cost);
+            long total = 0;
+            for (int i = 0; i < rows; i++) {
+                total += cost[i][column[i]];
+            }
+            assertEquals(bruteForce(cost, 0, new boolean[columns]), total, "Round " + round);
+        }
+    }
+
+    private static long bruteForce(long[][] cost, int row, boolean[] taken) {
+        if (row == cost.length) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        for (int j = 0; j < taken.length; j++) {
+            if (!taken[j]) {
+                taken[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, taken));
+                taken[j] = false;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void testSmallCourseGivesUpTheLargeRoom() {
+        // One period, two rooms: the 20-seat course sits in the auditorium and the
+        // 90-seat course was dropped. Swapping rooms fits both with less waste.
+        TimeSlot period = new TimeSlot(1, 9 * 60, 10 * 60);
+        RoomOption small = new RoomOption(1, "Seminar", 30, null);
+        RoomOption auditorium = new RoomOption(2, "Auditorium", 100, null);
+        Session seminar = new Session(1, 0, 1, 20, "Seminar course", null);
+        Session lecture = new Session(2, 0, 2, 90, "Large lecture", null);
+        SchedulingProblem problem = new SchedulingProblem(List.of(period), List.of(small, auditorium),
+            List.of(seminar, lecture), List.of());
+        Solution greedy = new Solution(List.of(new Solution.Assignment(seminar, period, auditorium)),
+            List.of(lecture), Map.of());
+
+        Solution matched = new RoomMatcher(problem).improve(greedy);
+
+        assertTrue(matched.unscheduled().isEmpty());
+        CspSolverTest.assertHardConstraints(problem, matched);
+        for (Solution.Assignment assignment : matched.assignments()) {
+            assertEquals(assignment.session() == seminar ? small : auditorium, assignment.room());
+        }
+        assertEquals(1, matched.stats().get("matchingInserted"));
+        assertEquals(20L, matched.stats().get("seatWasteAfter"));
+    }
+}
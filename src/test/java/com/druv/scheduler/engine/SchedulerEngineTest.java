@@ -0,0 +1,221 @@
+package com.druv.scheduler.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.RoomDAO;
+import com.druv.scheduler.TestFixture;
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableDAO;
+import com.druv.scheduler.TimetableEntry;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.generator.InstitutionGenerator;
+
+public class SchedulerEngineTest {
+
+    private TestFixture fixture;
+    private SchedulerEngine engine;
+    private TimetableDAO timetableDAO;
+    private RoomDAO roomDAO;
+
+    @BeforeEach
+    void setUp() {
+        fixture = TestFixture.open("test-scheduler-engine.db", SchedulerEngine.class);
+        engine = fixture.bean(SchedulerEngine.class);
+        timetableDAO = fixture.bean(TimetableDAO.class);
+        roomDAO = fixture.bean(RoomDAO.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void testConcurrentGenerationsDoNotDoubleBook() throws Exception {
+        new InstitutionGenerator(5, TimeGrid.fromConfig()).generate(150).loadIntoDatabase();
+        int sessionsPerCourse = 3;
+        Map<Integer, Integer> booked = sessionsPerCourse();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Map<String, Object>>> runs = List.of(
+                pool.submit(() -> {
+                    start.await();
+                    return engine.generate(sessionsPerCourse);
+                }),
+                pool.submit(() -> {
+                    start.await();
+                    return engine.generate(sessionsPerCourse);
+                }));
+            start.countDown();
+            int saved = 0;
+            for (Future<Map<String, Object>> run : runs) {
+                saved += (int) run.get().get("scheduledCount");
+            }
+            assertTrue(saved > 0, "The first run places the pending sessions");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertNoDoubleBooking(timetableDAO.findAllSlots());
+        sessionsPerCourse().forEach((courseId, count) -> assertTrue(
+            count <= Math.max(sessionsPerCourse, booked.getOrDefault(courseId, 0)),
+            "The second run saw the first run's sessions"));
+    }
+
+    private Map<Integer, Integer> sessionsPerCourse() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (TimetableSlot slot : timetableDAO.findAllSlots()) {
+            counts.merge(slot.courseId(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Test
+    void testRepairMovesDisplacedEntriesAndReportsUnplaceableOnes() {
+        int[] rooms = fixture.addRooms(40, 40);
+        int[] courses = fixture.addCourses(30, 30);
+        TimetableEntry first = fixture.book(courses[0], rooms[0], "Monday", "08:00", "08:50");
+        TimetableEntry second = fixture.book(courses[1], rooms[1], "Monday", "08:00", "08:50");
+
+        // The first course no longer fits its room, and the only other room is taken at that time
+        roomDAO.updateRoom(rooms[0], "Room 0", 10);
+        Map<String, Object> repair = engine.repairRoom(rooms[0]);
+
+        assertEquals(1, repair.get("affected"));
+        assertEquals(0, repair.get("kept"));
+        assertEquals(1, repair.get("rescheduled"));
+        assertEquals(0, repair.get("failed"));
+        List<TimetableSlot> slots = timetableDAO.findAllSlots();
+        assertEquals(2, slots.size());
+        assertNoDoubleBooking(slots);
+        for (TimetableSlot slot : slots) {
+            if (slot.courseId() == courses[0]) {
+                assertEquals(rooms[1], slot.roomId(), "Moved to the room that still seats it");
+                assertNotEquals(first.getId(), slot.id());
+            } else {
+                assertEquals(second.getId(), slot.id(), "Unaffected entries stay put");
+            }
+        }
+
+        // Now nothing seats the course: its entry is dropped and reported
+        roomDAO.updateRoom(rooms[1], "Room 1", 10);
+        repair = engine.repairCourse(courses[0]);
+        assertEquals(1, repair.get("failed"));
+        assertTrue(repair.get("details").toString().contains("Failed to re-place"));
+        assertTrue(timetableDAO.findAllSlots().stream().noneMatch(slot -> slot.courseId() == courses[0]));
+    }
+
+    @Test
+    void testReplanKeepsPinnedEntriesAndReplacesTheRest() {
+        int[] rooms = fixture.addRooms(40, 40);
+        int[] courses = fixture.addCourses(30, 30);
+        TimetableEntry pinned = fixture.book(courses[0], rooms[1], "Wednesday", "14:00", "14:50");
+        assertTrue(timetableDAO.setPinned(pinned.getId(), true));
+        TimetableEntry unpinned = fixture.book(courses[1], rooms[0], "Monday", "08:00", "08:50");
+        // Left by a course that no longer exists; replan has nothing to re-place it as
+        TimetableEntry orphan = new TimetableEntry(courses[1] + 100, rooms[0], "Tuesday", "08:00", "08:50");
+        timetableDAO.saveAll(List.of(orphan));
+        Map<Integer, TimetableSlot> before = slotsById();
+
+        Map<String, Object> result = engine.generate(2, 0, true, new SolverMonitor());
+
+        assertEquals(2, result.get("fixedCount"));
+        assertEquals(1, result.get("releasedCount"));
+        assertEquals(3, result.get("scheduledCount"), "One more for course 0, two again for course 1");
+        Map<Integer, TimetableSlot> after = slotsById();
+        assertEquals(before.get(pinned.getId()), after.get(pinned.getId()), "Pinned entry keeps its room and slot");
+        assertEquals(before.get(orphan.getId()), after.get(orphan.getId()), "Unknown course's entry is left alone");
+        assertFalse(after.containsKey(unpinned.getId()), "Unpinned entry was released");
+        Map<Integer, Integer> sessions = sessionsPerCourse();
+        assertEquals(2, sessions.get(courses[0]));
+        assertEquals(2, sessions.get(courses[1]));
+        assertNoDoubleBooking(timetableDAO.findAllSlots());
+    }
+
+    private Map<Integer, TimetableSlot> slotsById() {
+        Map<Integer, TimetableSlot> slots = new HashMap<>();
+        for (TimetableSlot slot : timetableDAO.findAllSlots()) {
+            slots.put(slot.id(), slot);
+        }
+        return slots;
+    }
+
+    @Test
+    void testRepairIsDeferredWhileTheTimetableIsBusy() throws Exception {
+        int[] rooms = fixture.addRooms(40);
+        int[] courses = fixture.addCourses(30);
+        fixture.book(courses[0], rooms[0], "Monday", "08:00", "08:50");
+
+        // A repair whose predicate blocks holds the timetable like a long generation would
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Object>> holder = pool.submit(() -> engine.repair(slot -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }));
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+            CountDownLatch repaired = new CountDownLatch(1);
+            long startedAt = System.nanoTime();
+            Map<String, Object> result = engine.tryRepair("room update", () -> {
+                repaired.countDown();
+                return Map.of();
+            });
+            assertEquals(Map.of("deferred", true), result);
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2), "The caller did not wait it out");
+            assertEquals(1, repaired.getCount(), "Not run while the timetable is held");
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertTrue(repaired.await(5, TimeUnit.SECONDS), "Runs once the timetable is free");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedRepairIsReportedNotThrown() {
+        Map<String, Object> result = engine.tryRepair("room deletion", () -> {
+            throw new IllegalStateException("database is locked");
+        });
+        assertEquals("Timetable repair failed: database is locked", result.get("error"));
+    }
+
+    static void assertNoDoubleBooking(List<TimetableSlot> slots) {
+        for (int i = 0; i < slots.size(); i++) {
+            for (int j = i + 1; j < slots.size(); j++) {
+                TimetableSlot a = slots.get(i);
+                TimetableSlot b = slots.get(j);
+                if (a.dayIndex() != b.dayIndex() || !a.overlaps(b.startMin(), b.endMin())) {
+                    continue;
+                }
+                assertNotEquals(a.roomId(), b.roomId(), "Room double-booked: " + a + " / " + b);
+                if (a.instructorId() != null) {
+                    assertNotEquals(a.instructorId(), b.instructorId(), "Instructor double-booked: " + a + " / " + b);
+                }
+            }
+        }
+    }
+}
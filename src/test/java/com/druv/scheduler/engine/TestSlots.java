@@ -0,0 +1,25 @@
+package com.druv.scheduler.engine;
+
+import java.util.List;
+
+import com.druv.scheduler.TimeGrid;
+
+/**
+ * Fixed grids for solver tests, independent of the configured TimeGrid.
+ */
+final class TestSlots {
+
+    private static final TimeGrid HOURLY_WEEK = TimeGrid.parse(TimeGrid.DEFAULT_DAYS,
+        "08:00-09:00,09:00-10:00,10:00-11:00,11:00-12:00,13:00-14:00,14:00-15:00,15:00-16:00,16:00-17:00");
+
+    private TestSlots() {
+    }
+
+    /**
+     * Monday to Friday, eight one-hour periods with a lunch break: the grid the
+     * greedy auto-scheduler always used, which keeps problem sizes stable.
+     */
+    static List<TimeSlot> hourlyWeek() {
+        return HOURLY_WEEK.slots();
+    }
+}
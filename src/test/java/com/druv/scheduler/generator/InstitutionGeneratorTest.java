@@ -0,0 +1,54 @@
+package com.druv.scheduler.generator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.TimeGrid;
+import com.druv.scheduler.TimetableSlot;
+import com.druv.scheduler.engine.SchedulingProblem;
+
+class InstitutionGeneratorTest {
+
+    private static final TimeGrid GRID = TimeGrid.parse(TimeGrid.DEFAULT_DAYS, TimeGrid.DEFAULT_PERIODS);
+
+    @Test
+    void testSameSeedGivesSameInstitution() {
+        Institution first = new InstitutionGenerator(7, GRID).generate(2000);
+        Institution second = new InstitutionGenerator(7, GRID).generate(2000);
+        Institution other = new InstitutionGenerator(8, GRID).generate(2000);
+
+        assertEquals(first.getRooms(), second.getRooms());
+        assertEquals(first.getFaculty(), second.getFaculty());
+        assertEquals(first.getCourses(), second.getCourses());
+        assertEquals(first.getBookings(), second.getBookings());
+        assertNotEquals(first.getBookings(), other.getBookings());
+    }
+
+    @Test
+    void testBookingsRespectRoomsInstructorsAndCapacity() {
+        Institution institution = new InstitutionGenerator(42, GRID).generate(5000);
+
+        assertEquals(5000, institution.getBookings().size());
+        assertTrue(institution.pendingSessions() > 0, "Some sessions are left for the scheduler");
+        Set<String> taken = new HashSet<>();
+        for (TimetableSlot booking : institution.getBookings()) {
+            Institution.CourseSpec course = institution.course(booking.courseId());
+            Institution.RoomSpec room = institution.room(booking.roomId());
+            String slot = booking.dayIndex() + "@" + booking.startMin();
+            assertTrue(GRID.slotAt(booking.dayIndex(), booking.startMin()) >= 0, "On the grid");
+            assertTrue(taken.add("room " + room.id() + " " + slot), "Room double-booked");
+            assertTrue(taken.add("faculty " + booking.instructorId() + " " + slot), "Instructor double-booked");
+            assertTrue(taken.add("course " + course.id() + " " + booking.dayIndex()), "Course twice in a day");
+            assertEquals(course.facultyId(), booking.instructorId());
+            assertEquals(course.department(), room.department());
+            assertTrue(room.capacity() >= course.maxStudents());
+        }
+
+        SchedulingProblem problem = institution.toProblem();
+        assertEquals(institution.pendingSessions(), problem.getSessions().size());
+        assertEquals(institution.getBookings(), problem.getFixed());
+    }
+}
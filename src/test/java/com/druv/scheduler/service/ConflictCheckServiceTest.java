@@ -0,0 +1,114 @@
+package com.druv.scheduler.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.TestFixture;
+
+public class ConflictCheckServiceTest {
+
+    private TestFixture fixture;
+    private ConflictCheckService service;
+    private int[] rooms;
+    private int[] courses;
+    private int committedId;
+
+    @BeforeEach
+    void setUp() {
+        fixture = TestFixture.open("test-conflict-check.db", ConflictCheckService.class);
+        service = fixture.bean(ConflictCheckService.class);
+        rooms = fixture.addRooms(40, 40);
+        courses = fixture.addCourses(30, 30);
+
+        // Course 0 already holds room 0 on Monday 09:00-10:00
+        committedId = fixture.book(courses[0], rooms[0], "Monday", "09:00", "10:00").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    private static Map<String, Object> placement(int courseId, int roomId, String day, String start, String end) {
+        return Map.of("courseId", courseId, "roomId", roomId, "day", day, "startTime", start, "endTime", end);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> conflictsOf(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("conflicts");
+    }
+
+    @Test
+    void testRoomConflictWithCommittedEntry() {
+        List<Map<String, Object>> results = service.checkPlacements(List.of(
+            placement(courses[1], rooms[0], "Monday", "09:30", "10:30")));
+
+        assertEquals(true, results.get(0).get("hasConflict"));
+        List<Map<String, Object>> conflicts = conflictsOf(results.get(0));
+        assertEquals(1, conflicts.size(), "Another instructor, so only the room clashes");
+        assertEquals("Room conflict", conflicts.get(0).get("type"));
+        assertEquals(committedId, conflicts.get(0).get("entryId"));
+        assertTrue(conflicts.get(0).get("message").toString().contains("Course 0"));
+    }
+
+    @Test
+    void testInstructorConflictWithCommittedEntry() {
+        List<Map<String, Object>> results = service.checkPlacements(List.of(
+            placement(courses[0], rooms[1], "Mon", "08:30", "09:15")));
+
+        List<Map<String, Object>> conflicts = conflictsOf(results.get(0));
+        assertEquals(1, conflicts.size(), "Another room, so only the instructor clashes");
+        assertEquals("Instructor conflict", conflicts.get(0).get("type"));
+        assertEquals(committedId, conflicts.get(0).get("entryId"));
+    }
+
+    @Test
+    void testFreeSlotsHaveNoConflicts() {
+        List<Map<String, Object>> results = service.checkPlacements(List.of(
+            placement(courses[1], rooms[1], "Monday", "09:00", "10:00"),
+            placement(courses[0], rooms[0], "Tuesday", "09:00", "10:00"),
+            // Touching the committed entry at either end is not an overlap
+            placement(courses[0], rooms[0], "Monday", "10:00", "11:00"),
+            placement(courses[1], rooms[0], "Monday", "08:00", "09:00")));
+
+        for (Map<String, Object> result : results) {
+            assertEquals(false, result.get("hasConflict"), "Placement " + result.get("index"));
+            assertTrue(conflictsOf(result).isEmpty());
+        }
+    }
+
+    @Test
+    void testCandidatesAreCheckedAgainstEachOther() {
+        List<Map<String, Object>> results = service.checkPlacements(List.of(
+            placement(courses[1], rooms[1], "Wednesday", "09:00", "10:00"),
+            placement(courses[1], rooms[1], "Wednesday", "10:00", "11:00"),
+            placement(courses[0], rooms[1], "Wednesday", "10:59", "11:30")));
+
+        assertEquals(false, results.get(0).get("hasConflict"), "Ends exactly when placement 1 starts");
+        List<Map<String, Object>> second = conflictsOf(results.get(1));
+        List<Map<String, Object>> third = conflictsOf(results.get(2));
+        assertEquals(1, second.size());
+        assertEquals("Room conflict", second.get(0).get("type"));
+        assertEquals(2, second.get(0).get("placementIndex"));
+        assertEquals(1, third.size());
+        assertEquals(1, third.get(0).get("placementIndex"));
+    }
+
+    @Test
+    void testMalformedPlacementIsReportedAsError() {
+        List<Map<String, Object>> results = service.checkPlacements(List.of(
+            placement(courses[1], rooms[1], "Funday", "09:00", "10:00"),
+            placement(courses[1], rooms[1], "Monday", "10:00", "09:00"),
+            Map.of("courseId", courses[1], "roomId", rooms[1])));
+
+        assertEquals("Invalid day or time range", conflictsOf(results.get(0)).get(0).get("message"));
+        assertEquals("Invalid day or time range", conflictsOf(results.get(1)).get(0).get("message"));
+        assertEquals("Missing required parameters", conflictsOf(results.get(2)).get(0).get("message"));
+        results.forEach(result -> assertEquals(true, result.get("hasConflict")));
+    }
+}
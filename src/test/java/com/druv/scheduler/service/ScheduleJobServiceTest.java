@@ -0,0 +1,180 @@
+package com.druv.scheduler.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.druv.scheduler.engine.SchedulerEngine;
+import com.druv.scheduler.engine.SolverMonitor;
+
+public class ScheduleJobServiceTest {
+
+    private final StubEngine engine = new StubEngine();
+    private ScheduleJobService service;
+
+    @AfterEach
+    void tearDown() {
+        engine.release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+        engine.shutdown();
+    }
+
+    /**
+     * Stands in for the solver: each generation waits for release, then
+     * fails with failure if one is set.
+     */
+    private static final class StubEngine extends SchedulerEngine {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        volatile Error failure;
+
+        @Override
+        public Map<String, Object> generate(int sessionsPerCourse, long optimizeMillis, boolean replan,
+                                            SolverMonitor monitor) {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            monitor.checkCancelled();
+            return Map.of("scheduledCount", sessionsPerCourse);
+        }
+    }
+
+    // Records the events instead of writing them to a response
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            events.add(event.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static void awaitFinished(ScheduleJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.getStatus().isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "Job did not finish: " + job.getStatus());
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testQueuedJobIsCancelledWithoutRunning() throws Exception {
+        service = new ScheduleJobService(engine, 1, 4, 10, 50);
+        ScheduleJob running = service.submitGeneration(1, 0, false);
+        assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+        ScheduleJob queued = service.submitGeneration(2, 0, false);
+
+        assertTrue(service.cancel(queued));
+        assertEquals(ScheduleJob.Status.CANCELLED, queued.getStatus(), "A queued job is cancelled at once");
+        assertFalse(service.cancel(queued), "Already finished");
+
+        engine.release.countDown();
+        awaitFinished(running);
+        assertEquals(ScheduleJob.Status.SUCCEEDED, running.getStatus());
+        Thread.sleep(100);
+        assertEquals(1, engine.runs.get(), "The cancelled job never reached the engine");
+        assertNull(queued.getReport());
+    }
+
+    @Test
+    void testFullQueueIsRejected() throws Exception {
+        service = new ScheduleJobService(engine, 1, 1, 10, 50);
+        service.submitGeneration(1, 0, false);
+        assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+        service.submitGeneration(1, 0, false);
+
+        // WebServer answers this with 503
+        assertThrows(RejectedExecutionException.class, () -> service.submitGeneration(1, 0, false));
+        assertEquals(2, service.list().size(), "The rejected job is not kept");
+    }
+
+    @Test
+    void testOldestFinishedJobsAreEvicted() throws Exception {
+        service = new ScheduleJobService(engine, 1, 4, 2, 50);
+        engine.release.countDown();
+        ScheduleJob first = service.submitGeneration(1, 0, false);
+        awaitFinished(first);
+        ScheduleJob second = service.submitGeneration(1, 0, false);
+        awaitFinished(second);
+        ScheduleJob third = service.submitGeneration(1, 0, false);
+        awaitFinished(third);
+
+        assertTrue(service.find(first.getId()).isEmpty());
+        assertTrue(service.find(second.getId()).isPresent());
+        assertTrue(service.find(third.getId()).isPresent());
+        assertEquals(2, service.list().size());
+    }
+
+    @Test
+    void testErrorFailsTheJob() throws Exception {
+        service = new ScheduleJobService(engine, 1, 4, 10, 50);
+        engine.failure = new OutOfMemoryError("Java heap space");
+        engine.release.countDown();
+
+        ScheduleJob job = service.submitGeneration(1, 0, false);
+        awaitFinished(job);
+        assertEquals(ScheduleJob.Status.FAILED, job.getStatus());
+        assertEquals("Java heap space", job.toMap(false).get("error"));
+
+        // The worker survived and runs the next job
+        engine.failure = null;
+        ScheduleJob next = service.submitGeneration(1, 0, false);
+        awaitFinished(next);
+        assertEquals(ScheduleJob.Status.SUCCEEDED, next.getStatus());
+    }
+
+    @Test
+    void testStreamSendsProgressThenDone() throws Exception {
+        service = new ScheduleJobService(engine, 1, 4, 10, 50);
+        ScheduleJob job = service.submitGeneration(3, 0, false);
+        assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.stream(job, emitter);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.events.isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "No progress event");
+            Thread.sleep(10);
+        }
+        engine.release.countDown();
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS), "The stream closes after the job finishes");
+        List<String> events = emitter.events;
+        assertTrue(events.get(0).startsWith("event:progress"), events.get(0));
+        String done = events.get(events.size() - 1);
+        assertTrue(done.startsWith("event:done"), done);
+        assertTrue(done.contains("SUCCEEDED") && done.contains("scheduledCount=3"), done);
+        int sent = events.size();
+        Thread.sleep(200);
+        assertEquals(sent, emitter.events.size(), "Nothing is sent after done");
+    }
+}
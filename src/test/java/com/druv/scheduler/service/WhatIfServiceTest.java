@@ -0,0 +1,75 @@
+package com.druv.scheduler.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.druv.scheduler.TestFixture;
+import com.druv.scheduler.TimetableDAO;
+import com.druv.scheduler.TimetableIndex;
+import com.druv.scheduler.TimetableSlot;
+
+public class WhatIfServiceTest {
+
+    private TestFixture fixture;
+    private WhatIfService service;
+    private TimetableDAO timetableDAO;
+    private int[] rooms;
+    private int[] courses;
+
+    @BeforeEach
+    void setUp() {
+        fixture = TestFixture.open("test-what-if.db", WhatIfService.class);
+        service = fixture.bean(WhatIfService.class);
+        timetableDAO = fixture.bean(TimetableDAO.class);
+        rooms = fixture.addRooms(40, 40);
+        courses = fixture.addCourses(30, 30);
+        fixture.book(courses[0], rooms[0], "Monday", "09:00", "10:00");
+        fixture.book(courses[1], rooms[1], "Monday", "09:00", "10:00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSimulatedChangesAreReportedButNotPersisted() {
+        List<TimetableSlot> committed = timetableDAO.findAllSlots();
+        int movedId = committed.stream().filter(slot -> slot.courseId() == courses[1])
+            .findFirst().orElseThrow().id();
+
+        Map<String, Object> result = service.simulate(List.of(
+            Map.of("action", "move", "entryId", movedId, "roomId", rooms[0]),
+            Map.of("action", "add", "courseId", courses[1], "roomId", rooms[1],
+                "day", "Tuesday", "startTime", "11:00", "endTime", "12:00"),
+            Map.of("action", "move", "entryId", movedId, "day", "Funday")));
+
+        assertEquals(2, result.get("applied"));
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) result.get("errors");
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).get("index"));
+        assertEquals(2, result.get("entriesBefore"));
+        assertEquals(3, result.get("entriesAfter"));
+
+        List<Map<String, Object>> changed = (List<Map<String, Object>>) result.get("changedEntries");
+        assertEquals(List.of("moved", "added"), changed.stream().map(entry -> entry.get("change")).toList());
+        List<Map<String, Object>> newConflicts = (List<Map<String, Object>>) result.get("newConflicts");
+        assertEquals(1, newConflicts.size());
+        assertEquals("Room conflict", newConflicts.get(0).get("type"));
+        assertTrue(((List<?>) result.get("resolvedConflicts")).isEmpty());
+
+        // Neither the database nor the in-memory index saw any of it
+        assertEquals(committed, timetableDAO.findAllSlots());
+        TimetableIndex index = fixture.bean(TimetableIndex.class);
+        assertEquals(2, index.size());
+        assertTrue(index.isRoomFree(rooms[0], 1, 10 * 60, 11 * 60));
+        assertNull(index.firstRoomConflict(rooms[1], 2, 11 * 60, 12 * 60));
+        assertEquals(2, service.simulate(List.of()).get("entriesAfter"));
+    }
+}